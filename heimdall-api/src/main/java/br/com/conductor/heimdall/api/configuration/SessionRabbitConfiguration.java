@@ -0,0 +1,60 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-api
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.api.configuration;
+
+import br.com.conductor.heimdall.core.util.RabbitConstants;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Declares the exchange and the queue of this instance used to invalidate the sessions of the API.
+ */
+@ConditionalOnProperty(name = "heimdall.excludeRabbit", matchIfMissing = true)
+@Configuration
+public class SessionRabbitConfiguration {
+
+     @Value("${heimdall.queue.api-sessions}")
+     private String queueApiSessions;
+
+     @Bean
+     public FanoutExchange exchangeFanoutApiSessions() {
+
+          return new FanoutExchange(RabbitConstants.EXCHANGE_FANOUT_HEIMDALL_API_SESSIONS, false, true);
+     }
+
+     @Bean
+     public Queue queueApiSessions() {
+
+          return new Queue(queueApiSessions, false, false, true);
+     }
+
+     @Bean
+     public Binding bindingApiSessions() {
+
+          return BindingBuilder.bind(queueApiSessions()).to(exchangeFanoutApiSessions());
+     }
+
+}
@@ -34,4 +34,10 @@ public class JwtProperty {
     private int expirationTime;
 
     private String secret;
+
+    private int refreshThreshold = 120;
+
+    private int sessionTtl = 60;
+
+    private long sessionMaximumSize = 10000L;
 }
@@ -0,0 +1,56 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-api
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.api.listener;
+
+import br.com.conductor.heimdall.api.service.SessionService;
+import br.com.conductor.heimdall.core.util.RabbitConstants;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidates the sessions closed by other instances of the API.
+ */
+@ConditionalOnProperty(name = "heimdall.excludeRabbit", matchIfMissing = true)
+@Component
+public class SessionListener {
+
+     @Autowired
+     private RabbitTemplate rabbitTemplate;
+
+     @Autowired
+     private SessionService sessionService;
+
+     /**
+      * Invalidates a session.
+      *
+      * @param message	{@link Message} with the id of the token of the session
+      */
+     @RabbitListener(queues = RabbitConstants.LISTENER_HEIMDALL_API_SESSIONS)
+     public void invalidate(final Message message) {
+
+          String jti = (String) rabbitTemplate.getMessageConverter().fromMessage(message);
+          sessionService.invalidate(jti);
+     }
+
+}
@@ -22,6 +22,7 @@ package br.com.conductor.heimdall.api.service;
 import br.com.conductor.heimdall.api.entity.CredentialState;
 import br.com.conductor.heimdall.api.enums.CredentialStateEnum;
 import br.com.conductor.heimdall.api.repository.CredentialStateRepository;
+import br.com.conductor.heimdall.core.service.amqp.AMQPSessionService;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -38,6 +39,12 @@ public class CredentialStateService {
     @Autowired
     private CredentialStateRepository credentialStateRepository;
 
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private AMQPSessionService amqpSessionService;
+
     public CredentialState findOne(String jti) {
         return credentialStateRepository.findByJti(jti);
     }
@@ -70,6 +77,7 @@ public class CredentialStateService {
         if (isLogged(jti)) {
             final String user = payload.getString("sub");
             save(jti, user, CredentialStateEnum.LOGOUT);
+            invalidate(jti);
         }
     }
 
@@ -77,5 +85,11 @@ public class CredentialStateService {
         List<CredentialState> credentials = credentialStateRepository.findByUsernameAndStateEquals(username, CredentialStateEnum.LOGIN);
         credentials.forEach(credentialState -> credentialState.setState(CredentialStateEnum.REVOKE));
         credentialStateRepository.save(credentials);
+        credentials.forEach(credentialState -> invalidate(credentialState.getJti()));
+    }
+
+    private void invalidate(String jti) {
+        sessionService.invalidate(jti);
+        amqpSessionService.dispatchInvalidate(jti);
     }
 }
@@ -0,0 +1,148 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-api
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.api.service;
+
+import br.com.conductor.heimdall.api.entity.CredentialState;
+import br.com.conductor.heimdall.api.entity.Role;
+import br.com.conductor.heimdall.api.entity.User;
+import br.com.conductor.heimdall.api.enums.CredentialStateEnum;
+import br.com.conductor.heimdall.api.environment.JwtProperty;
+import br.com.conductor.heimdall.api.repository.CredentialStateRepository;
+import br.com.conductor.heimdall.api.repository.RoleRepository;
+import br.com.conductor.heimdall.api.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the principals logged in the API by the id (jti) of their token, so the authenticated requests do not
+ * look up the {@link CredentialState} and the {@link User} every time.
+ * <p>
+ * A session is kept for a short time to live and invalidated when its {@link CredentialState} leaves the LOGIN state.
+ */
+@Service
+public class SessionService {
+
+    @Autowired
+    private JwtProperty jwtProperty;
+
+    @Autowired
+    private CredentialStateRepository credentialStateRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private LoadingCache<String, Session> sessions;
+
+    @PostConstruct
+    public void init() {
+
+        sessions = Caffeine.newBuilder()
+                .maximumSize(jwtProperty.getSessionMaximumSize())
+                .expireAfterWrite(jwtProperty.getSessionTtl(), TimeUnit.SECONDS)
+                .build(this::load);
+    }
+
+    /**
+     * Gets the {@link Authentication} of a session.
+     *
+     * @param jti      The id of the token
+     * @param username The subject of the token
+     * @return The {@link Authentication}, null if the session is not logged
+     */
+    public Authentication getAuthentication(String jti, String username) {
+
+        if (jti == null) {
+            return null;
+        }
+
+        Session session = sessions.get(jti);
+        if (session == null || !session.username.equals(username)) {
+            return null;
+        }
+
+        return new UsernamePasswordAuthenticationToken(session.username, session.password, session.authorities);
+    }
+
+    /**
+     * Invalidates a session of this instance.
+     *
+     * @param jti The id of the token
+     */
+    public void invalidate(String jti) {
+
+        if (jti != null) {
+            sessions.invalidate(jti);
+        }
+    }
+
+    private Session load(String jti) {
+
+        CredentialState credentialState = credentialStateRepository.findByJtiAndStateEquals(jti, CredentialStateEnum.LOGIN);
+        if (credentialState == null) {
+            return null;
+        }
+
+        User user = userRepository.findByUserName(credentialState.getUsername());
+        if (user == null) {
+            return null;
+        }
+
+        Set<Role> roles = roleRepository.findRolesByUserId(user.getId());
+        return new Session(user.getUserName(), user.getPassword(), getAuthoritiesByRoles(roles));
+    }
+
+    private Collection<GrantedAuthority> getAuthoritiesByRoles(Set<Role> roles) {
+        Set<GrantedAuthority> authorities = new HashSet<>();
+
+        roles.forEach(role -> role.getPrivileges().forEach(privilege -> authorities.add(new SimpleGrantedAuthority(privilege.getName()))));
+
+        return authorities;
+    }
+
+    private static final class Session {
+
+        private final String username;
+
+        private final String password;
+
+        private final Collection<GrantedAuthority> authorities;
+
+        private Session(String username, String password, Collection<GrantedAuthority> authorities) {
+            this.username = username;
+            this.password = password;
+            this.authorities = authorities;
+        }
+    }
+}
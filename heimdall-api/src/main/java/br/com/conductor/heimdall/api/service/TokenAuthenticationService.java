@@ -21,8 +21,6 @@ package br.com.conductor.heimdall.api.service;
 
 import br.com.conductor.heimdall.api.dto.UserAuthenticateResponse;
 import br.com.conductor.heimdall.api.entity.Ldap;
-import br.com.conductor.heimdall.api.entity.Role;
-import br.com.conductor.heimdall.api.entity.User;
 import br.com.conductor.heimdall.api.enums.CredentialStateEnum;
 import br.com.conductor.heimdall.api.enums.TypeUser;
 import br.com.conductor.heimdall.api.environment.JwtProperty;
@@ -31,6 +29,7 @@ import br.com.conductor.heimdall.core.exception.ExceptionMessage;
 import br.com.conductor.heimdall.core.exception.HeimdallException;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import lombok.extern.slf4j.Slf4j;
@@ -42,8 +41,6 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.ldap.authentication.BindAuthenticator;
 import org.springframework.security.ldap.authentication.LdapAuthenticationProvider;
 import org.springframework.security.ldap.search.FilterBasedLdapUserSearch;
@@ -51,12 +48,14 @@ import org.springframework.security.ldap.search.LdapUserSearch;
 import org.springframework.security.ldap.userdetails.LdapAuthoritiesPopulator;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import org.springframework.security.core.AuthenticationException;
 
 /**
@@ -72,7 +71,7 @@ public class TokenAuthenticationService {
     private JwtProperty jwtProperty;
 
     @Autowired
-    private UserService userService;
+    private SessionService sessionService;
 
     @Autowired
     private PrivilegeService privilegeService;
@@ -96,6 +95,13 @@ public class TokenAuthenticationService {
 
     private static final String HEIMDALL_AUTHORIZATION_NAME = "Authorization";
 
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        parser = Jwts.parser().setSigningKey(jwtProperty.getSecret());
+    }
+
     public UserAuthenticateResponse login(AccountCredentials accountCredentials, HttpServletResponse response) {
         UsernamePasswordAuthenticationToken userFound = new UsernamePasswordAuthenticationToken(
                 accountCredentials.getUsername(),
@@ -163,17 +169,20 @@ public class TokenAuthenticationService {
         if (token != null && !token.isEmpty()) {
             token = token.replace(TOKEN_PREFIX, "");
             try {
-                Claims claims = Jwts.parser()
-                        .setSigningKey(jwtProperty.getSecret())
+                Claims claims = parser
                         .parseClaimsJws(token)
                         .getBody();
                 String user = claims.getSubject();
 
                 if (user != null) {
-                    if (credentialStateService.isLogged(claims.getId())) {
-                        User userFound = userService.findByUsername(user);
-                        addAuthentication(response, user, claims.getId());
-                        return new UsernamePasswordAuthenticationToken(userFound.getUserName(), userFound.getPassword(), getAuthoritiesByRoles(userFound.getRoles()));
+                    Authentication authentication = sessionService.getAuthentication(claims.getId(), user);
+                    if (authentication != null) {
+                        if (isNearExpiration(claims)) {
+                            addAuthentication(response, user, claims.getId());
+                        } else {
+                            response.setHeader(HEIMDALL_AUTHORIZATION_NAME, token);
+                        }
+                        return authentication;
                     }
                 }
             } catch (ExpiredJwtException ex) {
@@ -191,12 +200,10 @@ public class TokenAuthenticationService {
         return null;
     }
 
-    private Collection<? extends GrantedAuthority> getAuthoritiesByRoles(Set<Role> roles) {
-        Set<GrantedAuthority> authorities = new HashSet<>();
-
-        roles.forEach(role -> role.getPrivileges().forEach(privilege -> authorities.add(new SimpleGrantedAuthority(privilege.getName()))));
-
-        return authorities;
+    private boolean isNearExpiration(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration == null
+                || expiration.getTime() - System.currentTimeMillis() <= TimeUnit.SECONDS.toMillis(jwtProperty.getRefreshThreshold());
     }
 
     private LdapAuthenticationProvider ldapProvider(Ldap ldap) {
@@ -0,0 +1,92 @@
+package br.com.conductor.heimdall.api.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import br.com.conductor.heimdall.api.entity.CredentialState;
+import br.com.conductor.heimdall.api.entity.Privilege;
+import br.com.conductor.heimdall.api.entity.Role;
+import br.com.conductor.heimdall.api.entity.User;
+import br.com.conductor.heimdall.api.enums.CredentialStateEnum;
+import br.com.conductor.heimdall.api.environment.JwtProperty;
+import br.com.conductor.heimdall.api.repository.CredentialStateRepository;
+import br.com.conductor.heimdall.api.repository.RoleRepository;
+import br.com.conductor.heimdall.api.repository.UserRepository;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SessionServiceTest {
+
+     @InjectMocks
+     private SessionService sessionService;
+
+     @Spy
+     private JwtProperty jwtProperty = new JwtProperty();
+
+     @Mock
+     private CredentialStateRepository credentialStateRepository;
+
+     @Mock
+     private UserRepository userRepository;
+
+     @Mock
+     private RoleRepository roleRepository;
+
+     @Before
+     public void setUp() {
+          sessionService.init();
+
+          User user = new User();
+          user.setId(1L);
+          user.setUserName("foobar");
+          user.setPassword("hash");
+
+          Privilege privilege = new Privilege();
+          privilege.setName("READ_API");
+          Role role = new Role();
+          role.setPrivileges(Collections.singleton(privilege));
+
+          Mockito.when(credentialStateRepository.findByJtiAndStateEquals("jti", CredentialStateEnum.LOGIN))
+                  .thenReturn(new CredentialState(1L, "jti", "foobar", CredentialStateEnum.LOGIN));
+          Mockito.when(userRepository.findByUserName("foobar")).thenReturn(user);
+          Mockito.when(roleRepository.findRolesByUserId(1L)).thenReturn(Collections.singleton(role));
+     }
+
+     @Test
+     public void loadSessionOnlyOnce() {
+          Authentication authentication = sessionService.getAuthentication("jti", "foobar");
+          sessionService.getAuthentication("jti", "foobar");
+
+          assertEquals("foobar", authentication.getPrincipal());
+          assertEquals(Collections.singletonList(new SimpleGrantedAuthority("READ_API")), authentication.getAuthorities());
+          Mockito.verify(credentialStateRepository, Mockito.times(1)).findByJtiAndStateEquals("jti", CredentialStateEnum.LOGIN);
+     }
+
+     @Test
+     public void rejectSessionOfOtherUser() {
+          assertNull(sessionService.getAuthentication("jti", "other"));
+          assertNull(sessionService.getAuthentication("unknown", "foobar"));
+     }
+
+     @Test
+     public void reloadInvalidatedSession() {
+          sessionService.getAuthentication("jti", "foobar");
+          Mockito.when(credentialStateRepository.findByJtiAndStateEquals("jti", CredentialStateEnum.LOGIN)).thenReturn(null);
+
+          sessionService.invalidate("jti");
+
+          assertNull(sessionService.getAuthentication("jti", "foobar"));
+     }
+}
@@ -0,0 +1,52 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-core
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.core.dto;
+
+import java.io.Serializable;
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Class is a Data Transfer Object for a versioned change of the routes.
+ * <p>
+ * Each publisher numbers its deltas in sequence, so a gateway that finds a gap
+ * for a source knows it missed a change and reloads everything. When no operation
+ * is informed the whole Api is considered changed.
+ *
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RouteDeltaDTO implements Serializable {
+
+     private static final long serialVersionUID = 4086652711346817260L;
+
+     private String source;
+
+     private Long version;
+
+     private Set<Long> apis;
+
+     private Set<Long> operations;
+
+}
@@ -41,4 +41,6 @@ public class CacheDTO {
 
     private List<String> queryParams;
 
+    private Long staleWhileRevalidate;
+
 }
@@ -35,4 +35,5 @@ public class RateLimitDTO {
 
      private Long calls;
      private Interval interval;
+     private Long lease;
 }
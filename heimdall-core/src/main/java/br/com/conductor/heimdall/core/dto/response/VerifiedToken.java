@@ -0,0 +1,43 @@
+package br.com.conductor.heimdall.core.dto.response;
+
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-core
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+
+import br.com.conductor.heimdall.core.entity.OAuthAuthorize;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class represents a OAuth token verified, with its claims and operations already parsed.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+    private final OAuthAuthorize authorize;
+    private final Map<String, Object> claims;
+    private final Set<String> operations;
+    private final Date expiration;
+
+}
@@ -0,0 +1,43 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-core
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.core.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Represents a batch of calls leased from the shared rate limit window.
+ *
+ * @see RateLimit
+ */
+@Data
+@AllArgsConstructor
+public class RateLimitLease {
+
+     /**
+      * Number of calls granted, zero when the limit of the window was reached.
+      */
+     private long granted;
+
+     /**
+      * Time in milliseconds until the window ends.
+      */
+     private long ttl;
+}
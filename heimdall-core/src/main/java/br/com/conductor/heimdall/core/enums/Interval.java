@@ -21,6 +21,8 @@ package br.com.conductor.heimdall.core.enums;
  * ==========================LICENSE_END===================================
  */
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Enum that represents the time intervals that can be used.
  *
@@ -29,5 +31,20 @@ package br.com.conductor.heimdall.core.enums;
  */
 public enum Interval {
 
-     SECONDS, MINUTES, HOURS
+     SECONDS(TimeUnit.SECONDS), MINUTES(TimeUnit.MINUTES), HOURS(TimeUnit.HOURS);
+
+     private final TimeUnit unit;
+
+     Interval(TimeUnit unit) {
+          this.unit = unit;
+     }
+
+     /**
+      * Returns the length of the interval in milliseconds.
+      *
+      * @return The interval in milliseconds
+      */
+     public long toMillis() {
+          return unit.toMillis(1);
+     }
 }
@@ -154,6 +154,12 @@ public class Property {
           private Long queueSize;
           private Long discardingThreshold;
           private String zoneId;
+          private Long batchSize;
+          private Long flushInterval;
+          private Long writers;
+          private String backpressure;
+          private Long sampleRate;
+          private Boolean rollup;
           
      }
 
@@ -184,9 +190,77 @@ public class Property {
     	private int delayTimeSeconds = 30;
      }
 
+     private NearCache nearCache = new NearCache();
+
+     @Data
+     public class NearCache {
+          private boolean enabled = true;
+          private long maximumWeight = 67108864L;
+     }
+
+     private CacheGeneration cacheGeneration = new CacheGeneration();
+
+     @Data
+     public class CacheGeneration {
+          private long localTtlMillis = 1000L;
+          private long keysTtlSeconds = 604800L;
+          private int cleanerQueueSize = 1024;
+     }
+
+     private SingleFlight singleFlight = new SingleFlight();
+
+     @Data
+     public class SingleFlight {
+          private boolean enabled = true;
+          private long timeoutMillis = 5000L;
+          private boolean distributed = false;
+     }
+
+     private HttpClient httpClient = new HttpClient();
+
+     @Data
+     public class HttpClient {
+          private int maxTotal = 200;
+          private int maxPerRoute = 50;
+          private int acquireTimeoutMillis = 1000;
+          private int validateAfterInactivityMillis = 2000;
+          private long idleTimeoutSeconds = 30L;
+          private long timeToLiveSeconds = -1L;
+          private int asyncThreads = 32;
+          private int asyncQueueSize = 1024;
+     }
+
+     private VerifiedTokens verifiedTokens = new VerifiedTokens();
+
+     @Data
+     public class VerifiedTokens {
+          private boolean enabled = true;
+          private long maximumSize = 100000L;
+          private long maximumTtlSeconds = 3600L;
+     }
+
+     private Entitlement entitlement = new Entitlement();
+
+     @Data
+     public class Entitlement {
+          private long maximumSize = 100000L;
+          private long expireAfterWriteSeconds = 300L;
+          private long missingExpireAfterWriteSeconds = 10L;
+     }
+
+     private RateLimit rateLimit = new RateLimit();
+
+     @Data
+     public class RateLimit {
+          private long leaseMillis = 1000L;
+     }
+
+     private Interceptor interceptor = new Interceptor();
+
      @Data
      public class Interceptor {
         private Health health = new Health();
+        private int compilerThreads = 4;
      }
 
      @Data
@@ -35,12 +35,15 @@ import java.util.Map;
 public interface HeimdallInterceptor {
 
     /**
-     * Defines the template file for the interceptor.
+     * Defines the template file for the interceptor. Only the types that carry user code are rendered
+     * from a template, the other built-in types run as precompiled filters and have none.
      *
      * @param typeExecutionPoint {@link TypeExecutionPoint}
-     * @return  The name of the template file
+     * @return  The name of the template file, null if the type has no template
      */
-    String getFile(TypeExecutionPoint typeExecutionPoint);
+    default String getFile(TypeExecutionPoint typeExecutionPoint) {
+        return null;
+    }
 
     /**
      * Method to parse the content given by the user to be used in the interceptor.
@@ -22,7 +22,6 @@ package br.com.conductor.heimdall.core.interceptor.impl;
 
 import br.com.conductor.heimdall.core.dto.interceptor.AccessTokenClientIdDTO;
 import br.com.conductor.heimdall.core.entity.Interceptor;
-import br.com.conductor.heimdall.core.enums.TypeExecutionPoint;
 import br.com.conductor.heimdall.core.enums.TypeInterceptor;
 import br.com.conductor.heimdall.core.exception.ExceptionMessage;
 import br.com.conductor.heimdall.core.interceptor.HeimdallInterceptor;
@@ -41,11 +40,6 @@ import java.util.Map;
 @Slf4j
 public class AccessTokenHeimdallInterceptor implements HeimdallInterceptor {
 
-    @Override
-    public String getFile(TypeExecutionPoint typeExecutionPoint) {
-        return "access_token.mustache";
-    }
-
     @Override
     public AccessTokenClientIdDTO parseContent(String content) {
         try {
@@ -20,7 +20,6 @@
 package br.com.conductor.heimdall.core.interceptor.impl;
 
 import br.com.conductor.heimdall.core.entity.Interceptor;
-import br.com.conductor.heimdall.core.enums.TypeExecutionPoint;
 import br.com.conductor.heimdall.core.enums.TypeInterceptor;
 import br.com.conductor.heimdall.core.exception.ExceptionMessage;
 import br.com.conductor.heimdall.core.interceptor.HeimdallInterceptor;
@@ -39,11 +38,6 @@ import java.util.Map;
 @Slf4j
 public class CORSHeimdallInterceptor implements HeimdallInterceptor {
 
-    @Override
-    public String getFile(TypeExecutionPoint typeExecutionPoint) {
-        return "cors-pre.mustache";
-    }
-
     @Override
     public Map<String, String> parseContent(String content) {
         try {
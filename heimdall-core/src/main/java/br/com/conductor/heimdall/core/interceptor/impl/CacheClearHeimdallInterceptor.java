@@ -23,7 +23,6 @@ package br.com.conductor.heimdall.core.interceptor.impl;
 
 import br.com.conductor.heimdall.core.dto.interceptor.CacheDTO;
 import br.com.conductor.heimdall.core.entity.Interceptor;
-import br.com.conductor.heimdall.core.enums.TypeExecutionPoint;
 import br.com.conductor.heimdall.core.enums.TypeInterceptor;
 import br.com.conductor.heimdall.core.exception.ExceptionMessage;
 import br.com.conductor.heimdall.core.interceptor.HeimdallInterceptor;
@@ -42,11 +41,6 @@ import java.util.Map;
 @Slf4j
 public class CacheClearHeimdallInterceptor implements HeimdallInterceptor {
 
-    @Override
-    public String getFile(TypeExecutionPoint typeExecutionPoint) {
-        return "cache_clear.mustache";
-    }
-
     @Override
     public CacheDTO parseContent(String content) {
         try {
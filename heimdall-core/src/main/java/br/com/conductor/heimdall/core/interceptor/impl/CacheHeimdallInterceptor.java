@@ -23,7 +23,6 @@ package br.com.conductor.heimdall.core.interceptor.impl;
 
 import br.com.conductor.heimdall.core.dto.interceptor.CacheDTO;
 import br.com.conductor.heimdall.core.entity.Interceptor;
-import br.com.conductor.heimdall.core.enums.TypeExecutionPoint;
 import br.com.conductor.heimdall.core.enums.TypeInterceptor;
 import br.com.conductor.heimdall.core.exception.ExceptionMessage;
 import br.com.conductor.heimdall.core.interceptor.HeimdallInterceptor;
@@ -42,11 +41,6 @@ import java.util.Map;
 @Slf4j
 public class CacheHeimdallInterceptor implements HeimdallInterceptor {
 
-    @Override
-    public String getFile(TypeExecutionPoint typeExecutionPoint) {
-        return "cache.mustache";
-    }
-
     @Override
     public CacheDTO parseContent(String content) {
         try {
@@ -70,6 +64,7 @@ public class CacheHeimdallInterceptor implements HeimdallInterceptor {
         parameters.put("timeToLive", cacheDTO.getTimeToLive());
         parameters.put("headers", cacheDTO.getHeaders());
         parameters.put("queryParams", cacheDTO.getQueryParams());
+        parameters.put("staleWhileRevalidate", cacheDTO.getStaleWhileRevalidate() != null ? cacheDTO.getStaleWhileRevalidate() : 0L);
 
         return parameters;
     }
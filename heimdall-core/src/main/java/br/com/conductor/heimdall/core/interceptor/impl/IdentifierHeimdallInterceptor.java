@@ -22,7 +22,6 @@ package br.com.conductor.heimdall.core.interceptor.impl;
  */
 
 import br.com.conductor.heimdall.core.entity.Interceptor;
-import br.com.conductor.heimdall.core.enums.TypeExecutionPoint;
 import br.com.conductor.heimdall.core.interceptor.HeimdallInterceptor;
 
 import java.util.HashMap;
@@ -35,10 +34,6 @@ import java.util.Map;
  *
  */
 public class IdentifierHeimdallInterceptor implements HeimdallInterceptor {
-    @Override
-    public String getFile(TypeExecutionPoint typeExecutionPoint) {
-        return "identifier.mustache";
-    }
 
     @Override
     public String parseContent(String content) {
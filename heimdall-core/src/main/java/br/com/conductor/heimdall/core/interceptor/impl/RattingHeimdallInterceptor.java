@@ -22,7 +22,6 @@ package br.com.conductor.heimdall.core.interceptor.impl;
 
 import br.com.conductor.heimdall.core.dto.interceptor.RateLimitDTO;
 import br.com.conductor.heimdall.core.entity.Interceptor;
-import br.com.conductor.heimdall.core.enums.TypeExecutionPoint;
 import br.com.conductor.heimdall.core.enums.TypeInterceptor;
 import br.com.conductor.heimdall.core.exception.ExceptionMessage;
 import br.com.conductor.heimdall.core.interceptor.HeimdallInterceptor;
@@ -42,11 +41,6 @@ import java.util.Map;
 @Slf4j
 public class RattingHeimdallInterceptor implements HeimdallInterceptor {
 
-    @Override
-    public String getFile(TypeExecutionPoint typeExecutionPoint) {
-        return "ratting.mustache";
-    }
-
     @Override
     public RateLimitDTO parseContent(String content) {
         try {
@@ -67,6 +61,7 @@ public class RattingHeimdallInterceptor implements HeimdallInterceptor {
 
         parameters.put("calls", rateLimitDTO.getCalls());
         parameters.put("interval", rateLimitDTO.getInterval().name());
+        parameters.put("lease", rateLimitDTO.getLease() != null ? rateLimitDTO.getLease() : 0L);
         parameters.put("cache-key", ConstantsCache.RATE_LIMIT_KEY_PREFIX + interceptor.getId());
 
         return parameters;
@@ -22,8 +22,8 @@ package br.com.conductor.heimdall.core.repository;
  */
 
 import br.com.conductor.heimdall.core.entity.RateLimit;
+import br.com.conductor.heimdall.core.entity.RateLimitLease;
 import br.com.conductor.heimdall.core.enums.Interval;
-import org.redisson.api.RLock;
 
 /**
  * Provides methods to save, find and delete a {@link RateLimit}.
@@ -57,12 +57,35 @@ public interface RateLimitRepository {
      void delete(String path);
 
     /**
-     * Gets a lock to access Redis connection
+     * Consumes one call of the rate limit window in a single atomic operation.
+     * The window starts with the first call and lasts one interval.
      *
-     * @param key lock key
-     * @return RLock
+     * @param path rate limit key
+     * @param calls number of calls per interval
+     * @param interval time interval
+     * @return true if the call is allowed, false if the limit was reached
+     */
+     boolean acquire(String path, Long calls, Interval interval);
+
+    /**
+     * Leases up to a number of calls of the rate limit window in a single atomic operation,
+     * to be consumed locally by the gateway.
+     *
+     * @param path rate limit key
+     * @param calls number of calls per interval
+     * @param interval time interval
+     * @param permits number of calls requested
+     * @return the {@link RateLimitLease} with the calls granted
+     */
+     RateLimitLease lease(String path, Long calls, Interval interval, long permits);
+
+    /**
+     * Gives back calls leased and not used, while the window is still open.
+     *
+     * @param path rate limit key
+     * @param permits number of calls not used
      */
-     RLock getLock(String key);
+     void release(String path, long permits);
 
     /**
      * Creates the rate limit structure in Redis
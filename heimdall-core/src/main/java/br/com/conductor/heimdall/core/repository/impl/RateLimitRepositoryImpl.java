@@ -21,15 +21,25 @@ package br.com.conductor.heimdall.core.repository.impl;
 
 import javax.annotation.PostConstruct;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import br.com.conductor.heimdall.core.enums.Interval;
 import br.com.conductor.heimdall.core.util.ConstantsCache;
-import org.redisson.api.RLock;
 import org.redisson.api.RMap;
+import org.redisson.api.RScript;
+import org.redisson.api.RScript.Mode;
+import org.redisson.api.RScript.ReturnType;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import br.com.conductor.heimdall.core.entity.RateLimit;
+import br.com.conductor.heimdall.core.entity.RateLimitLease;
 import br.com.conductor.heimdall.core.repository.RateLimitRepository;
 
 /**
@@ -41,8 +51,46 @@ import br.com.conductor.heimdall.core.repository.RateLimitRepository;
 @Repository
 public class RateLimitRepositoryImpl implements RateLimitRepository {
 
+     /*
+      * Fixed window counter. The window starts with the first call and expires after one interval,
+      * so the counter is consumed and the window is created in a single atomic operation.
+      *
+      * KEYS[1] = counter key, ARGV[1] = calls, ARGV[2] = interval in milliseconds
+      */
+     private static final String ACQUIRE_SCRIPT =
+               "local used = redis.call('incr', KEYS[1]) " +
+               "if redis.call('pttl', KEYS[1]) < 0 then redis.call('pexpire', KEYS[1], ARGV[2]) end " +
+               "if used > tonumber(ARGV[1]) then return 0 end " +
+               "return 1";
+
+     /*
+      * Same window of the ACQUIRE_SCRIPT, but grants up to ARGV[3] calls at once and returns
+      * the calls granted with the time left in the window.
+      */
+     private static final String LEASE_SCRIPT =
+               "local used = tonumber(redis.call('get', KEYS[1]) or '0') " +
+               "local granted = math.min(tonumber(ARGV[3]), tonumber(ARGV[1]) - used) " +
+               "if granted < 0 then granted = 0 end " +
+               "if granted > 0 then redis.call('incrby', KEYS[1], granted) end " +
+               "local ttl = redis.call('pttl', KEYS[1]) " +
+               "if ttl < 0 and granted > 0 then redis.call('pexpire', KEYS[1], ARGV[2]) ttl = tonumber(ARGV[2]) end " +
+               "return {granted, ttl}";
+
+     /*
+      * KEYS[1] = counter key, ARGV[1] = calls not used
+      */
+     private static final String RELEASE_SCRIPT =
+               "if redis.call('pttl', KEYS[1]) > 0 then redis.call('decrby', KEYS[1], ARGV[1]) end " +
+               "return 0";
+
+     private static final String WINDOW_SUFFIX = ":window";
+
      private RMap<String, RateLimit> map;
 
+     private RScript script;
+
+     private final Map<String, String> shas = new ConcurrentHashMap<>();
+
      @Autowired
      private RedissonClient redissonClientRateLimitInterceptor;
 
@@ -51,6 +99,7 @@ public class RateLimitRepositoryImpl implements RateLimitRepository {
 
           if (redissonClientRateLimitInterceptor != null) {
                map = redissonClientRateLimitInterceptor.getMap(RateLimit.KEY);
+               script = redissonClientRateLimitInterceptor.getScript();
           }
 
      }
@@ -79,12 +128,40 @@ public class RateLimitRepositoryImpl implements RateLimitRepository {
 
           if (map != null) {
                map.remove(path);
+               redissonClientRateLimitInterceptor.getBucket(path + WINDOW_SUFFIX, StringCodec.INSTANCE).delete();
           }
      }
 
      @Override
-     public RLock getLock(String key) {
-          return redissonClientRateLimitInterceptor.getLock(key);
+     public boolean acquire(String path, Long calls, Interval interval) {
+
+          if (script == null) {
+               return true;
+          }
+
+          List<Object> keys = Collections.<Object>singletonList(path + WINDOW_SUFFIX);
+          Long allowed = evaluate(ACQUIRE_SCRIPT, ReturnType.INTEGER, keys, String.valueOf(calls), String.valueOf(interval.toMillis()));
+          return allowed != null && allowed > 0;
+     }
+
+     @Override
+     public RateLimitLease lease(String path, Long calls, Interval interval, long permits) {
+
+          if (script == null) {
+               return new RateLimitLease(permits, interval.toMillis());
+          }
+
+          List<Object> keys = Collections.<Object>singletonList(path + WINDOW_SUFFIX);
+          List<Long> result = evaluate(LEASE_SCRIPT, ReturnType.MULTI, keys, String.valueOf(calls), String.valueOf(interval.toMillis()), String.valueOf(permits));
+          return new RateLimitLease(result.get(0), Math.max(result.get(1), 0L));
+     }
+
+     @Override
+     public void release(String path, long permits) {
+
+          if (script != null && permits > 0) {
+               evaluate(RELEASE_SCRIPT, ReturnType.INTEGER, Collections.<Object>singletonList(path + WINDOW_SUFFIX), String.valueOf(permits));
+          }
      }
 
      @Override
@@ -93,6 +170,27 @@ public class RateLimitRepositoryImpl implements RateLimitRepository {
           String path = ConstantsCache.RATE_LIMIT_KEY_PREFIX + interceptorId;
 
           RateLimit rate = new RateLimit(path, calls, interval);
+          if (redissonClientRateLimitInterceptor != null) {
+               redissonClientRateLimitInterceptor.getBucket(path + WINDOW_SUFFIX, StringCodec.INSTANCE).delete();
+          }
           return this.save(rate);
      }
+
+     /*
+      * Runs the script by its SHA1, loading it again if Redis does not know it anymore.
+      */
+     private <R> R evaluate(String lua, ReturnType returnType, List<Object> keys, Object... values) {
+
+          String sha = shas.computeIfAbsent(lua, script::scriptLoad);
+
+          try {
+               return script.evalSha(Mode.READ_WRITE, StringCodec.INSTANCE, sha, returnType, keys, values);
+          } catch (RedisException e) {
+               if (e.getMessage() == null || !e.getMessage().contains("NOSCRIPT")) {
+                    throw e;
+               }
+               shas.put(lua, script.scriptLoad(lua));
+               return script.eval(Mode.READ_WRITE, StringCodec.INSTANCE, lua, returnType, keys, values);
+          }
+     }
 }
@@ -57,6 +57,7 @@ import br.com.conductor.heimdall.core.repository.AccessTokenRepository;
 import br.com.conductor.heimdall.core.repository.AppRepository;
 import br.com.conductor.heimdall.core.repository.PlanRepository;
 import br.com.conductor.heimdall.core.service.amqp.AMQPCacheService;
+import br.com.conductor.heimdall.core.util.ConstantsCache;
 import br.com.conductor.heimdall.core.util.Pageable;
 import net.bytebuddy.utility.RandomString;
 
@@ -174,6 +175,8 @@ public class AccessTokenService {
 
           accessToken = accessTokenRepository.save(accessToken);
 
+          amqpCacheService.dispatchClean(ConstantsCache.ACCESS_TOKENS_ACTIVE_CACHE, accessToken.getCode());
+
           return accessToken;
      }
 
@@ -204,7 +207,7 @@ public class AccessTokenService {
           GenericConverter.convertWithMapping(accessTokenPersist, accessToken, propertyMap);
           accessToken = accessTokenRepository.save(accessToken);
 
-          amqpCacheService.dispatchClean();
+          amqpCacheService.dispatchClean(ConstantsCache.ACCESS_TOKENS_ACTIVE_CACHE, accessToken.getCode());
 
           return accessToken;
      }
@@ -220,9 +223,9 @@ public class AccessTokenService {
           AccessToken accessToken = accessTokenRepository.findOne(id);
           HeimdallException.checkThrow(accessToken == null, GLOBAL_RESOURCE_NOT_FOUND);
 
-          amqpCacheService.dispatchClean();
-
           accessTokenRepository.delete(accessToken);
+
+          amqpCacheService.dispatchClean(ConstantsCache.ACCESS_TOKENS_ACTIVE_CACHE, accessToken.getCode());
      }
 
      /**
@@ -254,6 +257,8 @@ public class AccessTokenService {
 
           accessToken = accessTokenRepository.save(accessToken);
 
+          amqpCacheService.dispatchClean(ConstantsCache.ACCESS_TOKENS_ACTIVE_CACHE, accessToken.getCode());
+
           return accessToken;
      }
 
@@ -167,7 +167,7 @@ public class ApiService {
 
         api = apiRepository.save(api);
 
-        amqpRoute.dispatchRoutes();
+        amqpRoute.dispatchRoutes(api.getId());
         return api;
     }
 
@@ -194,7 +194,7 @@ public class ApiService {
 
         api = apiRepository.save(api);
 
-        amqpRoute.dispatchRoutes();
+        amqpRoute.dispatchRoutes(api.getId());
         return api;
     }
 
@@ -218,7 +218,7 @@ public class ApiService {
 
         api = apiRepository.save(api);
 
-        amqpRoute.dispatchRoutes();
+        amqpRoute.dispatchRoutes(api.getId());
         return api;
     }
 
@@ -236,7 +236,7 @@ public class ApiService {
         middlewareService.deleteAll(id);
 
         apiRepository.delete(api);
-        amqpRoute.dispatchRoutes();
+        amqpRoute.dispatchRoutes(id);
     }
 
      /**
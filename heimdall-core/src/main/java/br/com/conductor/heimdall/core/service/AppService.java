@@ -57,6 +57,7 @@ import br.com.conductor.heimdall.core.repository.AppRepository;
 import br.com.conductor.heimdall.core.repository.DeveloperRepository;
 import br.com.conductor.heimdall.core.repository.PlanRepository;
 import br.com.conductor.heimdall.core.service.amqp.AMQPCacheService;
+import br.com.conductor.heimdall.core.util.ConstantsCache;
 import br.com.conductor.heimdall.core.util.Pageable;
 import net.bytebuddy.utility.RandomString;
 
@@ -168,9 +169,11 @@ public class AppService {
           Developer dev = devRepository.findOne(app.getDeveloper().getId());
           HeimdallException.checkThrow(dev == null, DEVELOPER_NOT_EXIST);
 
-          amqpCacheService.dispatchClean();
+          app = appRepository.save(app);
+
+          dispatchClean(app.getClientId(), Collections.emptyList());
 
-          return appRepository.save(app);
+          return app;
 
      }
 
@@ -189,11 +192,13 @@ public class AppService {
      
           updateTokensPlansByApp(id, appDTO.getPlans().stream().map(ReferenceIdDTO::getId).collect(Collectors.toList()));
           
-          app.setAccessTokens(accessTokenRepository.findByAppId(app.getId()));
+          String clientId = app.getClientId();
+          List<AccessToken> accessTokens = accessTokenRepository.findByAppId(app.getId());
+          app.setAccessTokens(accessTokens);
           app = GenericConverter.mapper(appDTO, app);
           app = appRepository.save(app);
           
-          amqpCacheService.dispatchClean();
+          dispatchClean(clientId, accessTokens);
           
           return app;
      }
@@ -229,9 +234,11 @@ public class AppService {
           App app = appRepository.findOne(id);
           HeimdallException.checkThrow(app == null, GLOBAL_RESOURCE_NOT_FOUND);
 
-          amqpCacheService.dispatchClean();
+          List<AccessToken> accessTokens = accessTokenRepository.findByAppId(id);
 
           appRepository.delete(app);
+
+          dispatchClean(app.getClientId(), accessTokens);
      }
 
      /**
@@ -273,9 +280,21 @@ public class AppService {
 
           app = appRepository.save(app);
 
-          amqpCacheService.dispatchClean();
+          dispatchClean(app.getClientId(), accessTokenRepository.findByAppId(app.getId()));
 
           return app;
      }
 
+     /*
+      * Cleans the cached entries of a App and of its Access Tokens, which keep the App.
+      */
+     private void dispatchClean(String clientId, List<AccessToken> accessTokens) {
+
+          amqpCacheService.dispatchClean(ConstantsCache.APPS_CLIENT_ID, clientId);
+          amqpCacheService.dispatchClean(ConstantsCache.APPS_ACTIVE_CACHE, clientId);
+          if (accessTokens != null) {
+               accessTokens.forEach(accessToken -> amqpCacheService.dispatchClean(ConstantsCache.ACCESS_TOKENS_ACTIVE_CACHE, accessToken.getCode()));
+          }
+     }
+
 }
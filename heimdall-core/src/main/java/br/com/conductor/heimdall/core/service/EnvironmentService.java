@@ -45,6 +45,7 @@ import br.com.conductor.heimdall.core.entity.Environment;
 import br.com.conductor.heimdall.core.exception.ExceptionMessage;
 import br.com.conductor.heimdall.core.exception.HeimdallException;
 import br.com.conductor.heimdall.core.repository.EnvironmentRepository;
+import br.com.conductor.heimdall.core.service.amqp.AMQPRouteService;
 import br.com.conductor.heimdall.core.util.Pageable;
 
 /**
@@ -59,6 +60,9 @@ public class EnvironmentService {
     @Autowired
     private EnvironmentRepository environmentRepository;
 
+    @Autowired
+    private AMQPRouteService amqpRoute;
+
     /**
      * Finds a {@link Environment} by its ID.
      *
@@ -155,6 +159,8 @@ public class EnvironmentService {
 
         environmentRepository.save(environment);
 
+        amqpRoute.dispatchRoutes();
+
         return environment;
     }
 
@@ -110,7 +110,7 @@ public class MetricsService {
      * @return list of metrics found
      */
     public List<Metric> findMetricApiPerOperation(String id, Periods period) {
-        return this.findMetricXperSumY(id, "trace.apiName", "trace.pattern", period);
+        return this.findMetricXperSumY(id, "trace.apiName", "trace.operationId", period);
     }
 
     /**
@@ -23,6 +23,7 @@ package br.com.conductor.heimdall.core.service;
 import static br.com.conductor.heimdall.core.util.ConstantsOAuth.*;
 import br.com.conductor.heimdall.core.dto.request.OAuthRequest;
 import br.com.conductor.heimdall.core.dto.response.TokenImplicit;
+import br.com.conductor.heimdall.core.dto.response.VerifiedToken;
 import br.com.conductor.heimdall.core.entity.App;
 import br.com.conductor.heimdall.core.entity.OAuthAuthorize;
 import br.com.conductor.heimdall.core.entity.Provider;
@@ -30,6 +31,7 @@ import br.com.conductor.heimdall.core.entity.TokenOAuth;
 import br.com.conductor.heimdall.core.exception.*;
 import br.com.conductor.heimdall.core.repository.AppRepository;
 import br.com.conductor.heimdall.core.repository.OAuthAuthorizeRepository;
+import br.com.conductor.heimdall.core.service.amqp.AMQPTokenService;
 import br.com.conductor.heimdall.core.util.JwtUtils;
 import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
@@ -58,6 +60,9 @@ public class OAuthService {
     @Autowired
     private AppRepository appRepository;
 
+    @Autowired
+    private AMQPTokenService amqpTokenService;
+
     /**
      * Generates {@link TokenOAuth} from Code Authorize or RefreshToken
      *
@@ -131,7 +136,7 @@ public class OAuthService {
                             timeRefreshToken
                     );
                     //delete token used
-                    this.oAuthAuthorizeRepository.delete(tokenFound);
+                    delete(tokenFound);
                     //return new tokens
                     return tokenOAuthGenerated;
                 }
@@ -172,26 +177,33 @@ public class OAuthService {
      * @throws HeimdallException If token not valid.
      */
     public void tokenIsValid(String token, String privateKey) throws HeimdallException {
-        if (!tokenExist(token)) {
+        verifyToken(token, privateKey);
+    }
+
+    /**
+     * Validate if token exist and not expired, returning its {@link OAuthAuthorize} and claims.
+     * An expired token is deleted.
+     *
+     * @param token      The token
+     * @param privateKey The privateKey used to generate token
+     * @return The {@link VerifiedToken}
+     * @throws HeimdallException If token not valid.
+     */
+    public VerifiedToken verifyToken(String token, String privateKey) throws HeimdallException {
+        OAuthAuthorize authorize = this.oAuthAuthorizeRepository.findByTokenAuthorize(token);
+        if (Objects.isNull(authorize)) {
             throw new UnauthorizedException(ExceptionMessage.TOKEN_INVALID);
         }
+
+        Claims claims;
         try {
-            JwtUtils.tokenExpired(token, privateKey);
+            claims = JwtUtils.getClaims(token, privateKey);
         } catch (HeimdallException ex) {
-            this.oAuthAuthorizeRepository.delete(this.oAuthAuthorizeRepository.findByTokenAuthorize(token));
+            delete(authorize);
             throw ex;
         }
-    }
 
-
-    /**
-     * Validates if token exist in database.
-     *
-     * @param token The token
-     * @return True if exist and false otherwise.
-     */
-    private boolean tokenExist(String token) {
-        return Objects.nonNull(this.oAuthAuthorizeRepository.findByTokenAuthorize(token));
+        return new VerifiedToken(authorize, new HashMap<>(claims), JwtUtils.getOperationsFromClaims(claims), claims.getExpiration());
     }
 
     /**
@@ -264,12 +276,16 @@ public class OAuthService {
     }
 
     /**
-     * Delete one {@link OAuthAuthorize}
+     * Delete one {@link OAuthAuthorize}. The gateways are told to revoke the token, unless it is a implicit
+     * token, which they never cache.
      *
      * @param oAuthAuthorize The {@link OAuthAuthorize}
      */
     public void delete(OAuthAuthorize oAuthAuthorize) {
         oAuthAuthorizeRepository.delete(oAuthAuthorize);
+        if (!GRANT_TYPE_IMPLICIT.equals(oAuthAuthorize.getGrantType())) {
+            amqpTokenService.dispatchRevoke(oAuthAuthorize.getTokenAuthorize());
+        }
     }
 
     /**
@@ -282,8 +298,7 @@ public class OAuthService {
      * @return The new {@link TokenOAuth}
      */
     private TokenOAuth generateTokenOAuthFromOtherToken(String token, String privateKey, int timeAccessToken, int timeRefreshToken) throws HeimdallException {
-        String secretKey = JwtUtils.encodePrivateKey(privateKey);
-        Claims claimsFromTheToken = JwtUtils.getClaimsFromTheToken(token, secretKey);
+        Claims claimsFromTheToken = JwtUtils.getClaims(token, privateKey);
         Map<String, Object> claims = claimsFromTheToken.entrySet().stream()
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
@@ -298,8 +313,7 @@ public class OAuthService {
      * @return The new {@link TokenImplicit}
      */
     public TokenImplicit generateTokenImplicitFromOtherToken(String token, String privateKey, int timeAccessToken) throws HeimdallException {
-        String secretKey = JwtUtils.encodePrivateKey(privateKey);
-        Claims claimsFromTheToken = JwtUtils.getClaimsFromTheToken(token, secretKey);
+        Claims claimsFromTheToken = JwtUtils.getClaims(token, privateKey);
         Map<String, Object> claims = claimsFromTheToken.entrySet().stream()
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
@@ -207,7 +207,7 @@ public class OperationService {
 
           operation = operationRepository.save(operation);
 
-          amqpRoute.dispatchRoutes();
+          amqpRoute.dispatchRoutes(apiId, operation.getId());
 
           return operation;
      }
@@ -243,7 +243,7 @@ public class OperationService {
           
           operation = operationRepository.save(operation);
           
-          amqpRoute.dispatchRoutes();
+          amqpRoute.dispatchRoutes(apiId, operation.getId());
           
           amqpCacheService.dispatchClean(ConstantsCache.OPERATION_ACTIVE_FROM_ENDPOINT, operation.getResource().getApi().getBasePath() + operation.getPath());
           
@@ -270,7 +270,7 @@ public class OperationService {
           amqpCacheService.dispatchClean(ConstantsCache.OPERATION_ACTIVE_FROM_ENDPOINT, operation.getResource().getApi().getBasePath() + operation.getPath());
           
           
-          amqpRoute.dispatchRoutes();
+          amqpRoute.dispatchRoutes(apiId, operation.getId());
      }
 
      /**
@@ -44,6 +44,7 @@ import br.com.conductor.heimdall.core.dto.page.PlanPage;
 import br.com.conductor.heimdall.core.entity.Plan;
 import br.com.conductor.heimdall.core.exception.HeimdallException;
 import br.com.conductor.heimdall.core.repository.PlanRepository;
+import br.com.conductor.heimdall.core.util.ConstantsCache;
 import br.com.conductor.heimdall.core.util.Pageable;
 
 /**
@@ -131,7 +132,7 @@ public class PlanService {
 
           plan = planRepository.save(plan);
 
-          amqpCacheService.dispatchClean();
+          amqpCacheService.dispatchClean(ConstantsCache.PLAN_ENTITLEMENTS, plan.getId().toString());
 
           return plan;
      }
@@ -159,7 +160,7 @@ public class PlanService {
 
           plan = planRepository.save(plan);
 
-          amqpCacheService.dispatchClean();
+          amqpCacheService.dispatchClean(ConstantsCache.PLAN_ENTITLEMENTS, plan.getId().toString());
 
           return plan;
      }
@@ -179,7 +180,7 @@ public class PlanService {
 
           planRepository.delete(plan);
 
-          amqpCacheService.dispatchClean();
+          amqpCacheService.dispatchClean(ConstantsCache.PLAN_ENTITLEMENTS, id.toString());
      }
 
 }
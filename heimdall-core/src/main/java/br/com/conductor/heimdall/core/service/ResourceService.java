@@ -159,7 +159,7 @@ public class ResourceService {
           
           resource = resourceRepository.save(resource);
           
-          amqpRoute.dispatchRoutes();
+          amqpRoute.dispatchRoutes(apiId);
           
           return resource;
      }
@@ -184,7 +184,7 @@ public class ResourceService {
 
           resource = resourceRepository.save(resource);
 
-          amqpRoute.dispatchRoutes();
+          amqpRoute.dispatchRoutes(apiId);
 
           return resource;
      }
@@ -211,7 +211,7 @@ public class ResourceService {
           
           resource = resourceRepository.save(resource);
           
-          amqpRoute.dispatchRoutes();
+          amqpRoute.dispatchRoutes(apiId);
           
           return resource;
      }
@@ -235,7 +235,7 @@ public class ResourceService {
           
           resourceRepository.delete(resource.getId());
           
-          amqpRoute.dispatchRoutes();
+          amqpRoute.dispatchRoutes(apiId);
      }
 
      /**
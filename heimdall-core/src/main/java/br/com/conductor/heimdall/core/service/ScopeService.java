@@ -31,6 +31,7 @@ import br.com.conductor.heimdall.core.exception.HeimdallException;
 import br.com.conductor.heimdall.core.repository.OperationRepository;
 import br.com.conductor.heimdall.core.repository.ScopeRepository;
 import br.com.conductor.heimdall.core.service.amqp.AMQPCacheService;
+import br.com.conductor.heimdall.core.util.ConstantsCache;
 import br.com.conductor.heimdall.core.util.Pageable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Example;
@@ -157,7 +158,7 @@ public class ScopeService {
 
         scope = scopeRepository.save(scope);
 
-        amqpCacheService.dispatchClean();
+        amqpCacheService.dispatchClean(ConstantsCache.API_ENTITLEMENTS, apiId.toString());
 
         return scope;
     }
@@ -176,7 +177,7 @@ public class ScopeService {
 
         scopeRepository.delete(scope);
 
-        amqpCacheService.dispatchClean();
+        amqpCacheService.dispatchClean(ConstantsCache.API_ENTITLEMENTS, apiId.toString());
     }
 
     /**
@@ -199,7 +200,7 @@ public class ScopeService {
 
         scope = scopeRepository.save(scope);
 
-        amqpCacheService.dispatchClean();
+        amqpCacheService.dispatchClean(ConstantsCache.API_ENTITLEMENTS, apiId.toString());
 
         return scope;
     }
@@ -21,10 +21,16 @@ package br.com.conductor.heimdall.core.service.amqp;
  * ==========================LICENSE_END===================================
  */
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import br.com.conductor.heimdall.core.dto.RouteDeltaDTO;
 import br.com.conductor.heimdall.core.util.RabbitConstants;
 
 /**
@@ -39,12 +45,41 @@ public class AMQPRouteService {
      @Autowired
      private RabbitTemplate rabbitTemplate;
 
+     private final String source = UUID.randomUUID().toString();
+
+     private final AtomicLong versions = new AtomicLong();
+
      /**
-      * Dispatch a message to refresh zuul routes
+      * Dispatch a message to refresh all zuul routes
       */
      public void dispatchRoutes() {
 
           rabbitTemplate.convertAndSend(RabbitConstants.EXCHANGE_FANOUT_HEIMDALL_ROUTES, "", "");
      }
 
+     /**
+      * Dispatch a message to refresh the zuul routes of a single Api
+      * 
+      * @param apiId The Api Id
+      */
+     public void dispatchRoutes(Long apiId) {
+
+          dispatchRoutes(apiId, null);
+     }
+
+     /**
+      * Dispatch a message to refresh the zuul routes of a single Operation
+      * 
+      * @param apiId       The Api Id
+      * @param operationId The Operation Id, null when the whole Api changed
+      */
+     public synchronized void dispatchRoutes(Long apiId, Long operationId) {
+
+          RouteDeltaDTO delta = new RouteDeltaDTO(source, versions.incrementAndGet(),
+                  new HashSet<>(Collections.singleton(apiId)),
+                  operationId == null ? new HashSet<>() : new HashSet<>(Collections.singleton(operationId)));
+
+          rabbitTemplate.convertAndSend(RabbitConstants.EXCHANGE_FANOUT_HEIMDALL_ROUTES, "", delta);
+     }
+
 }
@@ -0,0 +1,49 @@
+package br.com.conductor.heimdall.core.service.amqp;
+
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-core
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import br.com.conductor.heimdall.core.util.DigestUtils;
+import br.com.conductor.heimdall.core.util.RabbitConstants;
+
+/**
+ * This class propagates the OAuth tokens revoked to the gateways.
+ */
+@Service
+public class AMQPTokenService {
+
+     @Autowired
+     private RabbitTemplate rabbitTemplate;
+
+     /**
+      * Dispatch a message to revoke a token. Only the SHA-256 digest of the token is sent.
+      * 
+      * @param token		The token revoked
+      */
+     public void dispatchRevoke(String token) {
+
+          rabbitTemplate.convertAndSend(RabbitConstants.EXCHANGE_FANOUT_HEIMDALL_REVOKE_TOKENS, "", DigestUtils.digestSHA256(token));
+     }
+
+}
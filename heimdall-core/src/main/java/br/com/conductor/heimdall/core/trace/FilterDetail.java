@@ -21,6 +21,8 @@ package br.com.conductor.heimdall.core.trace;
  * ==========================LICENSE_END===================================
  */
 
+import java.util.concurrent.TimeUnit;
+
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AccessLevel;
 import lombok.Data;
@@ -40,6 +42,10 @@ public class FilterDetail {
 
      private long timeInMillisShould;
 
+     private long timeInNanosRun;
+
+     private long timeInNanosShould;
+
      private String status;
 
      @Setter(value=AccessLevel.NONE)
@@ -59,9 +65,33 @@ public class FilterDetail {
           return timeInMillisRun + timeInMillisShould;
      }
 
+     /**
+      * Sets the time of the run in nanoseconds, also updating the time in milliseconds.
+      *
+      * @param timeInNanosRun Time in nanoseconds
+      */
+     public void setTimeInNanosRun(long timeInNanosRun) {
+
+          this.timeInNanosRun = timeInNanosRun;
+          this.timeInMillisRun = TimeUnit.NANOSECONDS.toMillis(timeInNanosRun);
+     }
+
+     /**
+      * Sets the time of the should filter in nanoseconds, also updating the time in milliseconds.
+      *
+      * @param timeInNanosShould Time in nanoseconds
+      */
+     public void setTimeInNanosShould(long timeInNanosShould) {
+
+          this.timeInNanosShould = timeInNanosShould;
+          this.timeInMillisShould = TimeUnit.NANOSECONDS.toMillis(timeInNanosShould);
+     }
+
      public void clear() {
           this.timeInMillisRun = 0;
           this.timeInMillisShould = 0;
+          this.timeInNanosRun = 0;
+          this.timeInNanosShould = 0;
           this.status = null;
           this.totalTimeInMillis = 0;
           this.stackTrace = null;
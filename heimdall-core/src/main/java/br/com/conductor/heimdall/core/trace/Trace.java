@@ -20,7 +20,9 @@
 package br.com.conductor.heimdall.core.trace;
 
 import static net.logstash.logback.marker.Markers.append;
+import static net.logstash.logback.marker.Markers.appendRaw;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -41,17 +43,15 @@ import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ser.FilterProvider;
-import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import br.com.conductor.heimdall.core.exception.ExceptionMessage;
 import br.com.conductor.heimdall.core.exception.HeimdallException;
 import br.com.conductor.heimdall.core.util.UrlUtil;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -111,6 +111,11 @@ public class Trace {
     @Getter
     private Map<String, FilterDetail> filters;
 
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<String, Long> shouldFilterNanos;
+
     private String profile;
 
     @JsonIgnore
@@ -128,6 +133,16 @@ public class Trace {
     @JsonIgnore
     private boolean printFilters;
 
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile TokenBuffer serialized;
+
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile String json;
+
     private String version;
 
     public Trace() {
@@ -191,9 +206,26 @@ public class Trace {
     public void addFilter(String name, FilterDetail detail) {
         if (this.filters == null) this.filters = new LinkedHashMap<>();
 
+        if (this.shouldFilterNanos != null && detail.getTimeInNanosShould() == 0) {
+            Long should = this.shouldFilterNanos.remove(name);
+            if (should != null) detail.setTimeInNanosShould(should);
+        }
+
         filters.put(name, detail);
     }
 
+    /**
+     * Keeps the time a filter that will run took to decide if it should run, until the filter is added.
+     *
+     * @param name  The name of the filter
+     * @param nanos Time in nanoseconds
+     */
+    public void shouldFilter(String name, long nanos) {
+        if (this.shouldFilterNanos == null) this.shouldFilterNanos = new LinkedHashMap<>();
+
+        shouldFilterNanos.put(name, nanos);
+    }
+
     /**
      * Creates and adds a new trace to the traces List.
      *
@@ -207,13 +239,14 @@ public class Trace {
     }
 
     /**
-     * Creates and adds a new trace from message and Object.
+     * Creates and adds a new trace from message and Object. It may be called from the threads
+     * of the async calls of a middleware.
      *
      * @param msg		The message for the trace
      * @param object	The Object to be added to the trace
      * @return			{@link Trace} created
      */
-    public Trace trace(String msg, Object object) {
+    public synchronized Trace trace(String msg, Object object) {
 
         if (this.traces == null) this.traces = new ArrayList<>();
 
@@ -260,21 +293,19 @@ public class Trace {
      *   * 3xx~4xx = WARN
      *   * OTHER   = ERROR
      */
-    private void writeTrace() throws JsonProcessingException {
-
-        ObjectMapper mapper = mapper();
+    private void writeTrace() throws IOException {
 
         if (this.printAllTrace) {
 
             if (isInfo(this.resultStatus)) {
 
-                log.info(" [HEIMDALL-TRACE] - {} ", mapper.writeValueAsString(this));
+                log.info(" [HEIMDALL-TRACE] - {} ", toJson());
             } else if (isWarn(this.resultStatus)) {
 
-                log.warn(" [HEIMDALL-TRACE] - {} ", mapper.writeValueAsString(this));
+                log.warn(" [HEIMDALL-TRACE] - {} ", toJson());
             } else {
 
-                log.error(" [HEIMDALL-TRACE] - {} ", mapper.writeValueAsString(this));
+                log.error(" [HEIMDALL-TRACE] - {} ", toJson());
             }
         } else {
             String url = Objects.nonNull(this.url) ? this.url : "";
@@ -296,34 +327,75 @@ public class Trace {
         }
 
         if (this.printLogstash) {
-            this.version = null;
             printInLogger(logstash);
         }
     }
 
-	private void printInLogger(Logger logger) throws JsonProcessingException {
-		ObjectMapper mapper = mapper();
+	/*
+	 * The trace sent to mongo is converted later by the appender, so it must not be changed here.
+	 * The trace sent to logstash does not carry the version.
+	 */
+	private void printInLogger(Logger logger) throws IOException {
 
 		if (isInfo(this.resultStatus)) {
 			if (isMongo(logger))
-				logger.info(mapper.writeValueAsString(this));
+				logger.info("{}", this);
 			else
-				logger.info(append("trace", mapper.convertValue(this, Map.class)), null);
+				logger.info(appendRaw("trace", TraceSerializer.toLogstashJson(serialized())), null);
 		} else if (isWarn(this.resultStatus)) {
 
 			if (isMongo(logger))
-				logger.warn(mapper.writeValueAsString(this));
+				logger.warn("{}", this);
 			else
-				logger.warn(append("trace", mapper.convertValue(this, Map.class)), null);
+				logger.warn(appendRaw("trace", TraceSerializer.toLogstashJson(serialized())), null);
 		} else {
 
 			if (isMongo(logger))
-				logger.error(mapper.writeValueAsString(this));
+				logger.error("{}", this);
 			else
-				logger.error(append("trace", mapper.convertValue(this, Map.class)), null);
+				logger.error(appendRaw("trace", TraceSerializer.toLogstashJson(serialized())), null);
 		}
 	}
 
+	/**
+	 * Serializes the trace to JSON. The JSON is written from the serialized form shared by every
+	 * sink and only once.
+	 *
+	 * @return The JSON of the trace
+	 * @throws IOException if the trace can not be serialized
+	 */
+	public String toJson() throws IOException {
+		String written = this.json;
+		if (written == null) {
+			written = TraceSerializer.toJson(serialized());
+			this.json = written;
+		}
+		return written;
+	}
+
+	/**
+	 * Converts the trace to a map of its properties, with the same content of {@link #toJson()}.
+	 * The map is read from the serialized form shared by every sink.
+	 *
+	 * @return The properties of the trace
+	 * @throws IOException if the trace can not be converted
+	 */
+	public Map<String, Object> toMap() throws IOException {
+		return TraceSerializer.toMap(serialized());
+	}
+
+	/*
+	 * The trace is serialized once, when the first sink writes it. It is not changed after it is written.
+	 */
+	private TokenBuffer serialized() throws IOException {
+		TokenBuffer buffer = this.serialized;
+		if (buffer == null) {
+			buffer = TraceSerializer.serialize(this, this.printFilters);
+			this.serialized = buffer;
+		}
+		return buffer;
+	}
+
 	private boolean isMongo(Logger logger) {
 		return "mongo".equals(logger.getName());
 	}
@@ -343,19 +415,4 @@ public class Trace {
         return HttpStatus.valueOf(statusCode).is3xxRedirection() ||
                 HttpStatus.valueOf(statusCode).is4xxClientError();
     }
-
-    private ObjectMapper mapper() {
-        SimpleBeanPropertyFilter customFilter;
-
-        if (!this.printFilters) {
-            customFilter = SimpleBeanPropertyFilter.serializeAllExcept("filters");
-        } else {
-            customFilter = SimpleBeanPropertyFilter.serializeAll();
-        }
-
-        FilterProvider filters = new SimpleFilterProvider().addFilter("customFilter", customFilter);
-
-        return new ObjectMapper().setFilterProvider(filters);
-
-    }
 }
@@ -0,0 +1,133 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-core
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.core.trace;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+
+/**
+ * Serializes the {@link Trace} with writers created once and shared by every request.
+ * <p>
+ * The trace is serialized only once, to an in-memory buffer of JSON tokens. The JSON of the log, the JSON
+ * sent to logstash and the document sent to mongo are written from that buffer, without walking the trace again.
+ */
+final class TraceSerializer {
+
+     private static final String FILTER_ID = "customFilter";
+
+     private static final ObjectMapper MAPPER = new ObjectMapper();
+
+     private static final ObjectWriter WITH_FILTERS = MAPPER.writer(
+               new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.serializeAll()));
+
+     private static final ObjectWriter WITHOUT_FILTERS = MAPPER.writer(
+               new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.serializeAllExcept("filters")));
+
+     private static final String VERSION = "version";
+
+     private static final ObjectReader MAP_READER = MAPPER.readerFor(new TypeReference<Map<String, Object>>() { });
+
+     private TraceSerializer() {
+
+     }
+
+     /**
+      * Serializes the trace to the buffer shared by every sink.
+      *
+      * @param trace        {@link Trace}
+      * @param printFilters If the Heimdall filters should be written
+      * @return The JSON tokens of the trace
+      * @throws IOException if the trace can not be serialized
+      */
+     static TokenBuffer serialize(Trace trace, boolean printFilters) throws IOException {
+
+          TokenBuffer buffer = new TokenBuffer(MAPPER, false);
+          (printFilters ? WITH_FILTERS : WITHOUT_FILTERS).writeValue(buffer, trace);
+          return buffer;
+     }
+
+     /**
+      * Writes the serialized trace as JSON.
+      *
+      * @param buffer The buffer returned by {@link #serialize(Trace, boolean)}
+      * @return The JSON of the trace
+      * @throws IOException if the JSON can not be written
+      */
+     static String toJson(TokenBuffer buffer) throws IOException {
+
+          StringWriter json = new StringWriter();
+          try (JsonGenerator generator = MAPPER.getFactory().createGenerator(json)) {
+               buffer.serialize(generator);
+          }
+          return json.toString();
+     }
+
+     /**
+      * Writes the serialized trace as the JSON sent to logstash, which does not carry the version.
+      *
+      * @param buffer The buffer returned by {@link #serialize(Trace, boolean)}
+      * @return The JSON of the trace without the version
+      * @throws IOException if the JSON can not be written
+      */
+     static String toLogstashJson(TokenBuffer buffer) throws IOException {
+
+          StringWriter json = new StringWriter();
+          try (JsonParser parser = buffer.asParser(); JsonGenerator generator = MAPPER.getFactory().createGenerator(json)) {
+               parser.nextToken();
+               generator.writeStartObject();
+               while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+                    if (VERSION.equals(name)) {
+                         parser.skipChildren();
+                    } else {
+                         generator.writeFieldName(name);
+                         generator.copyCurrentStructure(parser);
+                    }
+               }
+               generator.writeEndObject();
+          }
+          return json.toString();
+     }
+
+     /**
+      * Reads the serialized trace to a map of its properties, without writing it as JSON text.
+      *
+      * @param buffer The buffer returned by {@link #serialize(Trace, boolean)}
+      * @return The properties of the trace, with maps and lists for the nested values
+      * @throws IOException if the trace can not be read
+      */
+     static Map<String, Object> toMap(TokenBuffer buffer) throws IOException {
+
+          return MAP_READER.readValue(buffer.asParser());
+     }
+}
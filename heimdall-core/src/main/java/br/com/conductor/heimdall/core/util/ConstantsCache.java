@@ -48,10 +48,26 @@ public final class ConstantsCache {
 
      public static final String APPS_CLIENT_ID = "APPS_CLIENT_ID";
 
+     /**
+      * Clean message of the Apps and Access Tokens with a Plan, the id is the Plan id.
+      */
+     public static final String PLAN_ENTITLEMENTS = "PLAN_ENTITLEMENTS";
+
+     /**
+      * Clean message of the Apps and Access Tokens with a Plan of an Api, the id is the Api id.
+      */
+     public static final String API_ENTITLEMENTS = "API_ENTITLEMENTS";
+
      public static final String CACHE_TIME_TO_LIVE = "CACHE_TIME_TO_LIVE";
 
      public static final String CACHE_BUCKET = "CACHE_BUCKET";
 
+     public static final String CACHE_STALE_WHILE_REVALIDATE = "CACHE_STALE_WHILE_REVALIDATE";
+
+     public static final String CACHE_FLIGHT = "CACHE_FLIGHT";
+
+     public static final String CACHE_GENERATION = "CACHE_GENERATION";
+
      public static final String RATE_LIMIT_KEY_PREFIX = "ratelimit-interceptor:";
 
      public static final int RATE_LIMIT_DATABASE = 2;
@@ -0,0 +1,99 @@
+package br.com.conductor.heimdall.core.util;
+
+
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-core
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+
+import com.mongodb.MongoClient;
+import org.mongodb.morphia.AdvancedDatastore;
+import org.mongodb.morphia.Morphia;
+import org.mongodb.morphia.annotations.Id;
+
+import java.lang.reflect.Field;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps one Morphia Datastore per database of a {@link MongoClient}. The Datastores share one {@link Morphia},
+ * so each entity class is mapped only once.
+ * <p>
+ * Morphia keeps the mapped classes by name, so a registry must not be shared by classes of different class
+ * loaders, e.g. the middlewares keep one registry per deployment.
+ */
+public class DatastoreRegistry {
+
+     private static final ClassValue<Optional<Field>> ID_FIELDS = new ClassValue<Optional<Field>>() {
+          @Override
+          protected Optional<Field> computeValue(Class<?> type) {
+
+               for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                    for (Field field : clazz.getDeclaredFields()) {
+                         if (field.getAnnotation(Id.class) != null) {
+                              field.setAccessible(true);
+                              return Optional.of(field);
+                         }
+                    }
+               }
+               return Optional.empty();
+          }
+     };
+
+     private final MongoClient client;
+
+     private final Morphia morphia = new Morphia();
+
+     private final ConcurrentMap<String, AdvancedDatastore> datastores = new ConcurrentHashMap<>();
+
+     public DatastoreRegistry(MongoClient client) {
+
+          this.client = client;
+     }
+
+     /**
+      * Returns the Datastore of a database, creating it on the first call.
+      *
+      * @param databaseName The name of the database
+      * @return The {@link AdvancedDatastore}
+      */
+     public AdvancedDatastore datastore(String databaseName) {
+
+          return datastores.computeIfAbsent(databaseName, name -> (AdvancedDatastore) morphia.createDatastore(client, name));
+     }
+
+     /**
+      * Returns the value of the field annotated with {@link Id} of a entity.
+      *
+      * @param entity The entity
+      * @return The Id, null if the entity has no Id field
+      */
+     public static Object idOf(Object entity) {
+
+          Optional<Field> id = ID_FIELDS.get(entity.getClass());
+          if (!id.isPresent()) {
+               return null;
+          }
+          try {
+               return id.get().get(entity);
+          } catch (IllegalAccessException e) {
+               throw new IllegalStateException(e.getMessage(), e);
+          }
+     }
+}
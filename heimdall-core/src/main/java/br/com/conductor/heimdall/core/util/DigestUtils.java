@@ -21,6 +21,10 @@ package br.com.conductor.heimdall.core.util;
  * ==========================LICENSE_END===================================
  */
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 /**
  * DigestMD5 wrapper class
  * 
@@ -47,4 +51,31 @@ public final class DigestUtils {
                return value;
           }
      }
+
+     /**
+      * Return a hexadecimal string representation of the SHA-256 digest of the given value.
+      *
+      * @param  value		The value to be converted
+      * @return				The converted value. Returns the input value if its blank.
+      */
+     public static String digestSHA256(String value) {
+
+          if (value == null || value.isEmpty()) {
+
+               return value;
+          }
+
+          try {
+
+               byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+               StringBuilder hex = new StringBuilder(digest.length * 2);
+               for (byte b : digest) {
+                    hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+               }
+               return hex.toString();
+          } catch (NoSuchAlgorithmException e) {
+
+               throw new IllegalStateException(e);
+          }
+     }
 }
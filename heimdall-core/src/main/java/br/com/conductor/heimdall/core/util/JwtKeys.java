@@ -0,0 +1,79 @@
+package br.com.conductor.heimdall.core.util;
+
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-core
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the JWT signing keys of the interceptors and providers, already decoded.
+ * <p>
+ * The key of a private key is derived once, together with a configured {@link JwtParser}, which is
+ * not changed after it is built and can be shared between threads.
+ */
+final class JwtKeys {
+
+    private static final int MAXIMUM_SIZE = 1024;
+
+    private static final Map<String, JwtKeys> REGISTRY = new ConcurrentHashMap<>();
+
+    private final SecretKey secretKey;
+
+    private final JwtParser parser;
+
+    private JwtKeys(String privateKey) {
+        // Same bytes as decoding JwtUtils.encodePrivateKey, so the tokens already issued remain valid
+        this.secretKey = new SecretKeySpec(privateKey.getBytes(), SignatureAlgorithm.HS256.getJcaName());
+        this.parser = Jwts.parser().setSigningKey(secretKey);
+    }
+
+    /**
+     * Gets the keys of a private key, deriving them on the first use.
+     *
+     * @param privateKey The privateKey of the interceptor or provider
+     * @return The {@link JwtKeys}
+     */
+    static JwtKeys of(String privateKey) {
+        JwtKeys keys = REGISTRY.get(privateKey);
+        if (keys != null) {
+            return keys;
+        }
+
+        if (REGISTRY.size() >= MAXIMUM_SIZE) {
+            REGISTRY.clear();
+        }
+        return REGISTRY.computeIfAbsent(privateKey, JwtKeys::new);
+    }
+
+    SecretKey getSecretKey() {
+        return secretKey;
+    }
+
+    JwtParser getParser() {
+        return parser;
+    }
+}
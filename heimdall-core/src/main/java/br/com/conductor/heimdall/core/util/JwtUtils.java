@@ -96,7 +96,7 @@ public final class JwtUtils {
      * @throws HeimdallException If token expired
      */
     public static void tokenExpired(String token, String privateKey) throws HeimdallException {
-        getClaimsFromTheToken(token, encodePrivateKey(privateKey));
+        getClaims(token, privateKey);
     }
 
     /**
@@ -106,18 +106,29 @@ public final class JwtUtils {
      * @param privateKey The privateKey that is used to get the SecretKey
      * @return The operations from the token
      */
-    @SuppressWarnings("unchecked")
     public static Set<String> getOperationsFromToken(String token, String privateKey) {
         Claims claimsFromTheToken;
-        Set<String> operations = new HashSet<>();
         try {
-            claimsFromTheToken = getClaimsFromTheToken(token, encodePrivateKey(privateKey));
+            claimsFromTheToken = getClaims(token, privateKey);
         } catch (Exception e) {
             log.error(e.getMessage());
-            return operations;
+            return new HashSet<>();
         }
 
-        List<String> list = claimsFromTheToken.get("operations", ArrayList.class);
+        return getOperationsFromClaims(claimsFromTheToken);
+    }
+
+    /**
+     * This method recover the Operations from the {@link Claims} of a token.
+     *
+     * @param claims The {@link Claims} that contain the operations
+     * @return The operations from the claims
+     */
+    @SuppressWarnings("unchecked")
+    public static Set<String> getOperationsFromClaims(Claims claims) {
+        Set<String> operations = new HashSet<>();
+
+        List<String> list = claims.get("operations", ArrayList.class);
         if (list != null && !list.isEmpty())
             operations.addAll(list);
 
@@ -153,14 +164,13 @@ public final class JwtUtils {
      * @return The new token as {@link String}
      */
     private static String generateToken(String privateKey, LocalDateTime dateExpireToken, Map<String, Object> claims) {
-        final String secretKey = encodePrivateKey(privateKey);
         return Jwts.builder()
                 .addClaims(claims)
                 .setIssuedAt(Date.from(LocalDateTime.now().atZone(ZoneId.systemDefault()).toInstant()))
                 .setExpiration(Date.from(dateExpireToken.atZone(ZoneId.systemDefault()).toInstant()))
                 .signWith(
                         SignatureAlgorithm.HS256,
-                        secretKey
+                        JwtKeys.of(privateKey).getSecretKey()
                 )
                 .compact();
     }
@@ -174,9 +184,24 @@ public final class JwtUtils {
      * @throws HeimdallException Token expired
      */
     public static Claims getClaimsFromTheToken(String token, String secretKey) throws HeimdallException {
+        return parseClaims(Jwts.parser().setSigningKey(secretKey), token);
+    }
+
+    /**
+     * This method return {@link Claims} from the token, validated with the key already derived from the privateKey
+     *
+     * @param token      The token that contain the {@link Claims}
+     * @param privateKey The privateKey that is used to get the SecretKey
+     * @return The {@link Claims}
+     * @throws HeimdallException Token expired
+     */
+    public static Claims getClaims(String token, String privateKey) throws HeimdallException {
+        return parseClaims(JwtKeys.of(privateKey).getParser(), token);
+    }
+
+    private static Claims parseClaims(JwtParser parser, String token) throws HeimdallException {
         try {
-            return Jwts.parser()
-                    .setSigningKey(secretKey)
+            return parser
                     .parseClaimsJws(token)
                     .getBody();
         } catch (ExpiredJwtException e) {
@@ -195,7 +220,7 @@ public final class JwtUtils {
      * @throws HeimdallException If token expired
      */
     public static LocalDateTime recoverDateExpirationFromToken(String token, String privateKey) throws HeimdallException {
-        Claims claims = getClaimsFromTheToken(token, encodePrivateKey(privateKey));
+        Claims claims = getClaims(token, privateKey);
         return claims.getExpiration().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
     }
 
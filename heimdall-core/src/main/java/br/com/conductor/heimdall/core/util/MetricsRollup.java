@@ -0,0 +1,225 @@
+package br.com.conductor.heimdall.core.util;
+
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-core
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Schema of the metrics rollups, the counters of the traces pre-aggregated per hour.
+ * <p>
+ * Each rollup document counts the traces of a bucket for one value of a dimension (app, api, access token,
+ * result status or operation), optionally broken down by the result status or the operation. It also keeps
+ * the sum of the durations, so averages are computed from the rollups without reading the traces.
+ */
+public final class MetricsRollup {
+
+    private MetricsRollup() { }
+
+    public static final String BUCKET = "bucket";
+    public static final String DIMENSION = "dimension";
+    public static final String VALUE = "value";
+    public static final String METRIC = "metric";
+    public static final String METRIC_VALUE = "metricValue";
+    public static final String COUNT = "count";
+    public static final String DURATION_SUM = "durationSum";
+    public static final String DURATION_COUNT = "durationCount";
+
+    private static final String TRACE = "trace.";
+    private static final String DURATION = "durationMillis";
+    private static final String SUFFIX = "_rollup_hour";
+    private static final int DUPLICATE_KEY = 11000;
+
+    /**
+     * Trace fields counted by the rollups.
+     */
+    public static final List<String> DIMENSIONS = Arrays.asList("trace.app", "trace.apiName", "trace.accessToken", "trace.resultStatus", "trace.operationId");
+
+    /**
+     * Trace fields each dimension is broken down by.
+     */
+    public static final List<String> BREAKDOWNS = Arrays.asList("trace.resultStatus", "trace.operationId");
+
+    /**
+     * Trace field whose sum is kept by the rollups.
+     */
+    public static final String DURATION_METRIC = TRACE + DURATION;
+
+    /**
+     * @param dimension Trace field counted
+     * @param metric    Trace field the dimension is broken down by, null for the total of the dimension
+     * @return true if the rollups keep the counters of the dimension broken down by the metric
+     */
+    public static boolean isRolledUp(String dimension, String metric) {
+        return DIMENSIONS.contains(dimension) && (metric == null || (BREAKDOWNS.contains(metric) && !metric.equals(dimension)));
+    }
+
+    /**
+     * @param traces Name of the traces collection
+     * @return Name of the rollup collection of the traces
+     */
+    public static String collection(String traces) {
+        return traces + SUFFIX;
+    }
+
+    /**
+     * @param ts Date of a trace
+     * @return Start of the bucket of the date
+     */
+    public static Date bucket(Date ts) {
+        return Date.from(ts.toInstant().truncatedTo(ChronoUnit.HOURS));
+    }
+
+    /**
+     * Creates the indexes of the rollup collection. The bucket index also finds the first bucket rolled up,
+     * before which the metrics are read from the traces.
+     *
+     * @param database The traces database
+     * @param traces   Name of the traces collection
+     */
+    public static void createIndexes(MongoDatabase database, String traces) {
+
+        MongoCollection<Document> collection = database.getCollection(collection(traces));
+        collection.createIndex(Indexes.ascending(DIMENSION, VALUE, METRIC, METRIC_VALUE, BUCKET), new IndexOptions().unique(true));
+        collection.createIndex(Indexes.ascending(DIMENSION, METRIC, BUCKET));
+        collection.createIndex(Indexes.ascending(BUCKET));
+    }
+
+    /**
+     * Counters of a batch of traces, written with a single unordered bulk of upserts.
+     */
+    public static final class Batch {
+
+        private final Map<List<Object>, long[]> counters = new HashMap<>();
+
+        /**
+         * Counts a trace.
+         *
+         * @param ts    Date of the trace
+         * @param trace Fields of the trace
+         */
+        public void add(Date ts, Map<String, Object> trace) {
+
+            Date bucket = bucket(ts);
+            Object duration = trace.get(DURATION);
+
+            for (String dimension : DIMENSIONS) {
+                Object value = field(trace, dimension);
+                if (value == null) {
+                    continue;
+                }
+
+                count(Arrays.asList(bucket, dimension, value, null, null), duration);
+                for (String metric : BREAKDOWNS) {
+                    Object metricValue = field(trace, metric);
+                    if (metricValue != null && !metric.equals(dimension)) {
+                        count(Arrays.asList(bucket, dimension, value, metric, metricValue), duration);
+                    }
+                }
+            }
+        }
+
+        public boolean isEmpty() {
+            return counters.isEmpty();
+        }
+
+        /**
+         * Increments the counters of the batch in the rollup collection.
+         *
+         * @param database The traces database
+         * @param traces   Name of the traces collection
+         */
+        public void write(MongoDatabase database, String traces) {
+
+            if (counters.isEmpty()) {
+                return;
+            }
+
+            MongoCollection<Document> collection = database.getCollection(collection(traces));
+            List<WriteModel<Document>> updates = updates();
+            try {
+                collection.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+            } catch (MongoBulkWriteException e) {
+                // Concurrent upserts of a new bucket may collide on the unique index, the document exists now
+                List<WriteModel<Document>> retries = e.getWriteErrors().stream()
+                        .filter(error -> error.getCode() == DUPLICATE_KEY)
+                        .map(BulkWriteError::getIndex)
+                        .map(updates::get)
+                        .collect(Collectors.toList());
+                if (retries.size() < e.getWriteErrors().size() || retries.isEmpty()) {
+                    throw e;
+                }
+                collection.bulkWrite(retries, new BulkWriteOptions().ordered(false));
+            }
+        }
+
+        List<WriteModel<Document>> updates() {
+
+            UpdateOptions upsert = new UpdateOptions().upsert(true);
+            List<WriteModel<Document>> updates = new ArrayList<>(counters.size());
+            counters.forEach((key, counter) -> {
+                Document filter = new Document(BUCKET, key.get(0))
+                        .append(DIMENSION, key.get(1))
+                        .append(VALUE, key.get(2))
+                        .append(METRIC, key.get(3))
+                        .append(METRIC_VALUE, key.get(4));
+                Document inc = new Document(COUNT, counter[0])
+                        .append(DURATION_SUM, counter[1])
+                        .append(DURATION_COUNT, counter[2]);
+                updates.add(new UpdateOneModel<>(filter, new Document("$inc", inc), upsert));
+            });
+            return updates;
+        }
+
+        private void count(List<Object> key, Object duration) {
+
+            long[] counter = counters.computeIfAbsent(key, k -> new long[3]);
+            counter[0]++;
+            if (duration instanceof Number) {
+                counter[1] += ((Number) duration).longValue();
+                counter[2]++;
+            }
+        }
+
+        private static Object field(Map<String, Object> trace, String name) {
+            return trace.get(name.substring(TRACE.length()));
+        }
+    }
+
+}
@@ -27,27 +27,31 @@ import br.com.conductor.heimdall.core.dto.metrics.Metric;
 import br.com.conductor.heimdall.core.entity.LogTrace;
 import br.com.conductor.heimdall.core.environment.Property;
 import com.mongodb.*;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.mongodb.morphia.AdvancedDatastore;
-import org.mongodb.morphia.Morphia;
-import org.mongodb.morphia.aggregation.Accumulator;
-import org.mongodb.morphia.aggregation.AggregationPipeline;
-import org.mongodb.morphia.aggregation.Group;
-import org.mongodb.morphia.annotations.Id;
 import org.mongodb.morphia.query.FindOptions;
 import org.mongodb.morphia.query.Query;
-import org.mongodb.morphia.query.Sort;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
 import java.io.Serializable;
-import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * This class creates a connection fo the MongoDB used by Heimdall to save its
@@ -65,10 +69,15 @@ public class MongoLogConnector implements Serializable {
 
 	private static final String FIRST = "first";
 
-	private static final String METRIC = "metric";
-
 	private static final String VALUE = "value";
 
+	private static final String TS = "ts";
+
+	private static final Function<Document, Double> NUMBER_VALUE = document -> {
+		Object value = document.get(VALUE);
+		return value instanceof Number ? ((Number) value).doubleValue() : null;
+	};
+
 	private static final long serialVersionUID = 8125889338220953042L;
 
 	private String databaseName;
@@ -84,6 +93,10 @@ public class MongoLogConnector implements Serializable {
 
 	private MongoClient client;
 
+	private transient volatile DatastoreRegistry datastores;
+
+	private transient volatile Date firstBucket;
+
 	@PostConstruct
 	public void init() {
 		this.databaseName = property.getMongo().getDataBase();
@@ -146,95 +159,217 @@ public class MongoLogConnector implements Serializable {
 	 * @return List of metrics
 	 */
 	public List<Metric> findByTop(String id, int size, Periods period) {
-		final AdvancedDatastore datastore = this.datastore();
-		Query<LogTrace> query = prepareRange(datastore.createQuery(this.collection, LogTrace.class), period);
 
-		query.field(id).notEqual(null);
-
-		final AggregationPipeline pipeline = datastore.createAggregation(this.collection, LogTrace.class).match(query)
-				.group(id, Group.grouping(METRIC, Group.last(id)),
-						Group.grouping(VALUE, Accumulator.accumulator("$sum", 1)))
-				.sort(Sort.descending(VALUE)).limit(size);
-
-		final Iterator<Metric> aggregate = pipeline.aggregate(Metric.class);
+		Range range = range(period);
+		if (!fromRollups(range, id, null)) {
+			return aggregate(this.collection, Arrays.asList(
+					Aggregates.match(Filters.and(range.traces(), Filters.ne(id, null))),
+					Aggregates.group("$" + id, Accumulators.sum(VALUE, 1)),
+					Aggregates.sort(Sorts.descending(VALUE)),
+					Aggregates.limit(size)), NUMBER_VALUE);
+		}
 
-		List<Metric> list = new ArrayList<>();
-		aggregate.forEachRemaining(list::add);
+		Bson match = Filters.and(Filters.eq(MetricsRollup.DIMENSION, id), Filters.eq(MetricsRollup.METRIC, null), range.rollups());
 
-		return list;
+		return aggregate(MetricsRollup.collection(this.collection), Arrays.asList(
+				Aggregates.match(match),
+				Aggregates.group("$" + MetricsRollup.VALUE, Accumulators.sum(VALUE, "$" + MetricsRollup.COUNT)),
+				Aggregates.sort(Sorts.descending(VALUE)),
+				Aggregates.limit(size)), NUMBER_VALUE);
 	}
 
+	/**
+	 * Creates a list of the number of traces per value of a metric, for the traces
+	 * with a specific value of a field.
+	 *
+	 * @param id
+	 *                   Value of the field
+	 * @param source
+	 *                   Trace field filtered
+	 * @param metric
+	 *                   Trace field grouped
+	 * @param period
+	 *                   period of time wanted
+	 * @return List of metrics
+	 */
 	public List<Metric> findByMetricBySum(String id, String source, String metric, Periods period) {
-		final AdvancedDatastore datastore = this.datastore();
-		Query<LogTrace> query = prepareRange(datastore.createQuery(this.collection, LogTrace.class), period);
-
-		query.field(source).equal(id);
 
-		final AggregationPipeline aggregation = datastore.createAggregation(this.collection, LogTrace.class)
-				.match(query).group(metric, Group.grouping(METRIC, Group.last(metric)),
-						Group.grouping(VALUE, Accumulator.accumulator("$sum", 1)));
-
-		final Iterator<Metric> aggregate = aggregation.aggregate(Metric.class);
+		Range range = range(period);
+		if (!fromRollups(range, source, metric)) {
+			return aggregate(this.collection, Arrays.asList(
+					Aggregates.match(Filters.and(range.traces(), Filters.eq(source, id))),
+					Aggregates.group("$" + metric, Accumulators.sum(VALUE, 1))), NUMBER_VALUE);
+		}
 
-		List<Metric> list = new ArrayList<>();
-		aggregate.forEachRemaining(list::add);
+		Bson match = Filters.and(Filters.eq(MetricsRollup.DIMENSION, source), Filters.eq(MetricsRollup.VALUE, id),
+				Filters.eq(MetricsRollup.METRIC, metric), range.rollups());
 
-		return list;
+		return aggregate(MetricsRollup.collection(this.collection), Arrays.asList(
+				Aggregates.match(match),
+				Aggregates.group("$" + MetricsRollup.METRIC_VALUE, Accumulators.sum(VALUE, "$" + MetricsRollup.COUNT))), NUMBER_VALUE);
 	}
 
+	/**
+	 * Creates a list with the average of a metric of the traces with a specific
+	 * value of a field. The rollups keep only the sum of the durations, the
+	 * average of any other metric is read from the traces.
+	 *
+	 * @param id
+	 *                   Value of the field
+	 * @param source
+	 *                   Trace field filtered
+	 * @param metric
+	 *                   Trace field averaged
+	 * @param period
+	 *                   period of time wanted
+	 * @return List of metrics
+	 */
 	public List<Metric> findByMetricByAvg(String id, String source, String metric, Periods period) {
 
-		final AdvancedDatastore datastore = this.datastore();
-		Query<LogTrace> query = prepareRange(datastore.createQuery(this.collection, LogTrace.class), period);
+		Range range = range(period);
+		if (!MetricsRollup.DURATION_METRIC.equals(metric) || !fromRollups(range, source, null)) {
+			return aggregate(this.collection, Arrays.asList(
+					Aggregates.match(Filters.and(range.traces(), Filters.eq(source, id))),
+					Aggregates.group("$" + source, Accumulators.avg(VALUE, "$" + metric))), NUMBER_VALUE);
+		}
 
-		query.field(source).equal(id);
+		Bson match = Filters.and(Filters.eq(MetricsRollup.DIMENSION, source), Filters.eq(MetricsRollup.VALUE, id),
+				Filters.eq(MetricsRollup.METRIC, null), range.rollups());
+
+		return aggregate(MetricsRollup.collection(this.collection), Arrays.asList(
+				Aggregates.match(match),
+				Aggregates.group("$" + MetricsRollup.VALUE,
+						Accumulators.sum(MetricsRollup.DURATION_SUM, "$" + MetricsRollup.DURATION_SUM),
+						Accumulators.sum(MetricsRollup.DURATION_COUNT, "$" + MetricsRollup.DURATION_COUNT))),
+				document -> {
+					long count = ((Number) document.get(MetricsRollup.DURATION_COUNT)).longValue();
+					return count == 0 ? null : ((Number) document.get(MetricsRollup.DURATION_SUM)).doubleValue() / count;
+				});
+	}
 
-		final AggregationPipeline aggregation = datastore.createAggregation(this.collection, LogTrace.class)
-				.match(query).group(source, Group.grouping(METRIC, Group.last(source)),
-						Group.grouping(VALUE, Accumulator.accumulator("$avg", metric)));
+	private List<Metric> aggregate(String collectionName, List<Bson> pipeline, Function<Document, Double> value) {
 
-		final Iterator<Metric> aggregate = aggregation.aggregate(Metric.class);
+		MongoCollection<Document> collection = database().getCollection(collectionName);
 
 		List<Metric> list = new ArrayList<>();
-		aggregate.forEachRemaining(list::add);
+		for (Document document : collection.aggregate(pipeline)) {
+			Metric metric = new Metric();
+			metric.set_id(String.valueOf(document.get("_id")));
+			metric.setMetric(metric.get_id());
+			metric.setValue(value.apply(document));
+			list.add(metric);
+		}
 
 		return list;
 	}
 
-	private Query<LogTrace> prepareRange(Query<LogTrace> query, Periods date) {
-		String insertedOnDate = "ts";
-		switch (date) {
-		case TODAY: {
-			query.field(insertedOnDate).containsIgnoreCase(LocalDate.now().format(DateTimeFormatter.ISO_DATE));
-			break;
+	/*
+	 * The rollups answer only when they are enabled, keep the counters asked and
+	 * cover the whole range. Rollups start counting from their deployment, so a
+	 * range that starts before the first bucket is read from the traces.
+	 */
+	private boolean fromRollups(Range range, String dimension, String metric) {
+
+		if (property != null && Boolean.FALSE.equals(property.getMongo().getRollup())) {
+			return false;
 		}
+		if (!MetricsRollup.isRolledUp(dimension, metric)) {
+			return false;
+		}
+
+		Date first = firstBucket();
+		return first != null && !range.from.before(first);
+	}
+
+	/*
+	 * The hour rollups are never removed, so the first bucket is kept once found.
+	 */
+	private Date firstBucket() {
+
+		Date first = this.firstBucket;
+		if (first == null) {
+			Document document = database().getCollection(MetricsRollup.collection(this.collection)).find()
+					.projection(Projections.include(MetricsRollup.BUCKET))
+					.sort(Sorts.ascending(MetricsRollup.BUCKET))
+					.first();
+			if (document != null) {
+				first = document.getDate(MetricsRollup.BUCKET);
+				this.firstBucket = first;
+			}
+		}
+		return first;
+	}
+
+	/*
+	 * The traces are saved with the time of the zone shifted to UTC, so the
+	 * traces and the rollup buckets are compared with the days at UTC.
+	 */
+	private Range range(Periods date) {
+		LocalDate from;
+		LocalDate to;
+		switch (date) {
 		case YESTERDAY: {
-			query.field(insertedOnDate)
-					.containsIgnoreCase(LocalDate.now().minusDays(1).format(DateTimeFormatter.ISO_DATE));
+			from = LocalDate.now().minusDays(1);
+			to = from.plusDays(1);
 			break;
 		}
 		case THIS_WEEK: {
 			Map<String, LocalDate> week = CalendarUtils.firstAndLastDaysOfWeek(LocalDate.now());
-			query.field(insertedOnDate).greaterThanOrEq(week.get(FIRST).format(DateTimeFormatter.ISO_DATE));
-			query.field(insertedOnDate).lessThanOrEq(week.get(LAST).format(DateTimeFormatter.ISO_DATE));
+			from = week.get(FIRST);
+			to = week.get(LAST).plusDays(1);
 			break;
 		}
 		case LAST_WEEK: {
 			Map<String, LocalDate> week = CalendarUtils.firstAndLastDaysOfWeek(LocalDate.now().minusWeeks(1));
-			query.field(insertedOnDate).greaterThanOrEq(week.get(FIRST).format(DateTimeFormatter.ISO_DATE));
-			query.field(insertedOnDate).lessThanOrEq(week.get(LAST).format(DateTimeFormatter.ISO_DATE));
+			from = week.get(FIRST);
+			to = week.get(LAST).plusDays(1);
 			break;
 		}
 		case THIS_MONTH: {
-			query.field(insertedOnDate).containsIgnoreCase(CalendarUtils.yearAndMonth(LocalDate.now()));
+			from = LocalDate.now().withDayOfMonth(1);
+			to = from.plusMonths(1);
 			break;
 		}
 		case LAST_MONTH: {
-			query.field(insertedOnDate).containsIgnoreCase(CalendarUtils.yearAndMonth(LocalDate.now().minusMonths(1)));
+			from = LocalDate.now().minusMonths(1).withDayOfMonth(1);
+			to = from.plusMonths(1);
 			break;
 		}
+		default: {
+			from = LocalDate.now();
+			to = from.plusDays(1);
+			break;
+		}
+		}
+		return new Range(toDate(from), toDate(to));
+	}
+
+	private static Date toDate(LocalDate date) {
+
+		return Date.from(date.atStartOfDay(ZoneOffset.UTC).toInstant());
+	}
+
+	/*
+	 * Start, inclusive, and end, exclusive, of a period.
+	 */
+	private static final class Range {
+
+		private final Date from;
+
+		private final Date to;
+
+		private Range(Date from, Date to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		private Bson traces() {
+			return Filters.and(Filters.gte(TS, from), Filters.lt(TS, to));
+		}
+
+		private Bson rollups() {
+			return Filters.and(Filters.gte(MetricsRollup.BUCKET, from), Filters.lt(MetricsRollup.BUCKET, to));
 		}
-		return query;
 	}
 
 	private Query<LogTrace> prepareQuery(List<FiltersDTO> filtersDTOs) {
@@ -396,28 +531,31 @@ public class MongoLogConnector implements Serializable {
 
 	private AdvancedDatastore datastore() {
 
-		Morphia morphia = new Morphia();
-
-		if (this.client == null) {
-			this.createMongoClient();
+		DatastoreRegistry registry = this.datastores;
+		if (registry == null) {
+			synchronized (this) {
+				if (this.datastores == null) {
+					if (this.client == null) {
+						this.createMongoClient();
+					}
+					this.datastores = new DatastoreRegistry(this.client);
+				}
+				registry = this.datastores;
+			}
 		}
 
-		return (AdvancedDatastore) morphia.createDatastore(this.client, this.databaseName);
+		return registry.datastore(this.databaseName);
+	}
+
+	private MongoDatabase database() {
+
+		this.datastore();
+		return this.client.getDatabase(this.databaseName);
 	}
 
 	private <T> Object getValueId(T object) {
 
-		Field id = Arrays.stream(object.getClass().getDeclaredFields())
-				.filter(field -> field.getAnnotation(Id.class) != null).findFirst().orElse(null);
-		if (id != null) {
-			id.setAccessible(true);
-			try {
-				return id.get(object);
-			} catch (IllegalArgumentException | IllegalAccessException e) {
-				log.error(e.getMessage(), e);
-			}
-		}
-		return null;
+		return DatastoreRegistry.idOf(object);
 	}
 
 }
\ No newline at end of file
@@ -41,6 +41,8 @@ public final class RabbitConstants {
      public static final String EXCHANGE_FANOUT_HEIMDALL_MIDDLEWARES = "heimdall.EXCHANGE_FANOUT_HEIMDALL_MIDDLEWARES";
      public static final String EXCHANGE_FANOUT_HEIMDALL_REMOVE_MIDDLEWARES = "heimdall.EXCHANGE_FANOUT_HEIMDALL_REMOVE_MIDDLEWARES";
      public static final String EXCHANGE_FANOUT_HEIMDALL_CLEAN_INTERCEPTORS_CACHE = "heimdall.EXCHANGE_FANOUT_HEIMDALL_CLEAN_INTERCEPTORS_CACHE";
+     public static final String EXCHANGE_FANOUT_HEIMDALL_REVOKE_TOKENS = "heimdall.EXCHANGE_FANOUT_HEIMDALL_REVOKE_TOKENS";
+     public static final String EXCHANGE_FANOUT_HEIMDALL_API_SESSIONS = "heimdall.EXCHANGE_FANOUT_HEIMDALL_API_SESSIONS";
 
      //QUEUE's
      public static final String QUEUE_HEIMDALL_REMOVE_INTERCEPTORS = "heimdall.QUEUE_REMOVE_INTERCEPTORS";
@@ -51,6 +53,8 @@ public final class RabbitConstants {
      public static final String QUEUE_HEIMDALL_MIDDLEWARES = "heimdall.QUEUE_MIDDLEWARES";
      public static final String QUEUE_HEIMDALL_REMOVE_MIDDLEWARES = "heimdall.QUEUE_REMOVE_MIDDLEWARES";
      public static final String QUEUE_HEIMDALL_CLEAN_INTERCEPTORS_CACHE = "heimdall.QUEUE_CLEAN_INTERCEPTORS_CACHE";
+     public static final String QUEUE_HEIMDALL_REVOKE_TOKENS = "heimdall.QUEUE_REVOKE_TOKENS";
+     public static final String QUEUE_HEIMDALL_API_SESSIONS = "heimdall.QUEUE_API_SESSIONS";
 
      //Listeners
      public static final String LISTENER_HEIMDAL_ROUTES = "${heimdall.queue.routes}";
@@ -61,4 +65,6 @@ public final class RabbitConstants {
      public static final String LISTENER_HEIMDALL_MIDDLEWARES = "${heimdall.queue.middlewares}";
      public static final String LISTENER_HEIMDALL_REMOVE_MIDDLEWARES = "${heimdall.queue.remove-middlewares}";
      public static final String LISTENER_HEIMDALL_CLEAN_INTERCEPTORS_CACHE = "${heimdall.queue.clean-interceptors-cache}";
+     public static final String LISTENER_HEIMDALL_REVOKE_TOKENS = "${heimdall.queue.revoke-tokens}";
+     public static final String LISTENER_HEIMDALL_API_SESSIONS = "${heimdall.queue.api-sessions}";
 }
@@ -49,6 +49,8 @@ public final class RabbitQueueUtils {
                System.setProperty("heimdall.queue.middlewares", RabbitConstants.QUEUE_HEIMDALL_MIDDLEWARES + "." + InetAddress.getLocalHost().getHostName());
                System.setProperty("heimdall.queue.remove-middlewares", RabbitConstants.QUEUE_HEIMDALL_REMOVE_MIDDLEWARES + "." + InetAddress.getLocalHost().getHostName());
                System.setProperty("heimdall.queue.clean-interceptors-cache", RabbitConstants.QUEUE_HEIMDALL_CLEAN_INTERCEPTORS_CACHE + "." + InetAddress.getLocalHost().getHostName());
+               System.setProperty("heimdall.queue.revoke-tokens", RabbitConstants.QUEUE_HEIMDALL_REVOKE_TOKENS + "." + InetAddress.getLocalHost().getHostName());
+               System.setProperty("heimdall.queue.api-sessions", RabbitConstants.QUEUE_HEIMDALL_API_SESSIONS + "." + InetAddress.getLocalHost().getHostName());
           } catch (UnknownHostException e) {
                
         	  log.error(e.getMessage(), e);
@@ -0,0 +1,113 @@
+package br.com.conductor.heimdall.core.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.conductor.heimdall.core.enums.Interval;
+
+/**
+ * Checks the rate limit and measures its throughput with concurrent calls against a real Redis.
+ * <p>
+ * Only runs when the address of the Redis is informed, e.g.
+ * {@code mvn test -Dtest=RateLimitRepositoryImplTest -Dheimdall.test.redis=localhost:6379}
+ */
+public class RateLimitRepositoryImplTest {
+
+     private static final String ADDRESS = System.getProperty("heimdall.test.redis");
+
+     private static final int CALLS_PER_THREAD = 5_000;
+
+     private RedissonClient redisson;
+
+     private RateLimitRepositoryImpl repository;
+
+     @Before
+     public void setUp() {
+          Assume.assumeNotNull(ADDRESS);
+
+          Config config = new Config();
+          config.useSingleServer().setAddress(ADDRESS).setConnectionPoolSize(64).setDatabase(15);
+          redisson = Redisson.create(config);
+
+          repository = new RateLimitRepositoryImpl();
+          ReflectionTestUtils.setField(repository, "redissonClientRateLimitInterceptor", redisson);
+          ReflectionTestUtils.invokeMethod(repository, "init");
+     }
+
+     @After
+     public void tearDown() {
+          if (redisson != null) {
+               redisson.shutdown();
+          }
+     }
+
+     @Test
+     public void neverAllowsMoreThanTheLimit() throws InterruptedException {
+          String path = "ratelimit-test:limit";
+          repository.delete(path);
+
+          long allowed = run(path, 1_000L, 16, 500);
+
+          assertEquals(1_000L, allowed);
+     }
+
+     @Test
+     public void throughputScalesWithConcurrency() throws InterruptedException {
+          List<String> report = new ArrayList<>();
+          for (int threads : new int[] { 1, 2, 4, 8, 16, 32 }) {
+               String path = "ratelimit-test:" + threads;
+               repository.delete(path);
+
+               long start = System.nanoTime();
+               run(path, Long.MAX_VALUE, threads, CALLS_PER_THREAD);
+               long elapsed = System.nanoTime() - start;
+
+               long total = (long) threads * CALLS_PER_THREAD;
+               report.add(String.format("threads=%2d calls=%7d ops/s=%10.0f", threads, total, total / (elapsed / 1_000_000_000d)));
+               repository.delete(path);
+          }
+          report.forEach(System.out::println);
+     }
+
+     private long run(String path, Long calls, int threads, int callsPerThread) throws InterruptedException {
+          ExecutorService executor = Executors.newFixedThreadPool(threads);
+          CountDownLatch start = new CountDownLatch(1);
+          AtomicLong allowed = new AtomicLong();
+
+          for (int i = 0; i < threads; i++) {
+               executor.execute(() -> {
+                    try {
+                         start.await();
+                         for (int c = 0; c < callsPerThread; c++) {
+                              if (repository.acquire(path, calls, Interval.HOURS)) {
+                                   allowed.incrementAndGet();
+                              }
+                         }
+                    } catch (InterruptedException e) {
+                         Thread.currentThread().interrupt();
+                    }
+               });
+          }
+
+          start.countDown();
+          executor.shutdown();
+          executor.awaitTermination(5, TimeUnit.MINUTES);
+          return allowed.get();
+     }
+}
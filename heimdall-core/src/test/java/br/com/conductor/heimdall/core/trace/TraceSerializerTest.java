@@ -0,0 +1,64 @@
+package br.com.conductor.heimdall.core.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TraceSerializerTest {
+
+     @Test
+     public void serializeTraceOnlyOnce() throws IOException {
+          Trace trace = trace(true);
+
+          assertSame(trace.toJson(), trace.toJson());
+     }
+
+     @Test
+     public void writeFiltersOnlyWhenRequested() throws IOException {
+          assertTrue(trace(true).toJson().contains("\"filters\""));
+          assertFalse(trace(false).toJson().contains("\"filters\""));
+     }
+
+     @Test
+     @SuppressWarnings("unchecked")
+     public void writeVersionOnlyOutsideLogstash() throws IOException {
+          Trace trace = trace(false);
+          String logstash = TraceSerializer.toLogstashJson(TraceSerializer.serialize(trace, false));
+
+          assertTrue(trace.toJson().contains("\"version\""));
+          assertFalse(logstash.contains("\"version\""));
+
+          Map<String, Object> expected = new ObjectMapper().readValue(trace.toJson(), Map.class);
+          expected.remove("version");
+          assertEquals(expected, new ObjectMapper().readValue(logstash, Map.class));
+     }
+
+     @Test
+     @SuppressWarnings("unchecked")
+     public void convertTraceToTheSamePropertiesOfTheJson() throws IOException {
+          Trace trace = trace(false);
+          Map<String, Object> map = trace.toMap();
+
+          assertEquals(new ObjectMapper().readValue(trace.toJson(), Map.class), map);
+          assertFalse(map.containsKey("filters"));
+          assertTrue(trace(true).toMap().containsKey("filters"));
+     }
+
+     private Trace trace(boolean printFilters) {
+          MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/foo");
+          Trace trace = new Trace(true, "developer", request, false, false, "1.0", printFilters);
+          trace.setResultStatus(200);
+          trace.addFilter("HeimdallDecorationFilter", new FilterDetail());
+          return trace;
+     }
+
+}
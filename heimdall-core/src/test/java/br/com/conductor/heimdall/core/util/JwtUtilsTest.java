@@ -0,0 +1,46 @@
+package br.com.conductor.heimdall.core.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import br.com.conductor.heimdall.core.entity.TokenOAuth;
+import br.com.conductor.heimdall.core.exception.UnauthorizedException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+public class JwtUtilsTest {
+
+     private static final Map<String, Object> CLAIMS = Collections.singletonMap("operations", Collections.singletonList("/foo"));
+
+     private static final Set<String> OPERATIONS = Collections.singleton("/foo");
+
+     @Test
+     public void readTokenSignedWithEncodedPrivateKey() {
+          String token = Jwts.builder()
+                  .addClaims(CLAIMS)
+                  .signWith(SignatureAlgorithm.HS256, JwtUtils.encodePrivateKey("private"))
+                  .compact();
+
+          assertEquals(OPERATIONS, JwtUtils.getOperationsFromToken(token, "private"));
+     }
+
+     @Test
+     public void generateTokenReadableWithEncodedPrivateKey() {
+          TokenOAuth token = JwtUtils.generateTokenOAuth("private", 60, 120, CLAIMS);
+
+          assertEquals(OPERATIONS, JwtUtils.getOperationsFromClaims(JwtUtils.getClaimsFromTheToken(token.getAccessToken(), JwtUtils.encodePrivateKey("private"))));
+          assertEquals(OPERATIONS, JwtUtils.getOperationsFromClaims(JwtUtils.getClaims(token.getRefreshToken(), "private")));
+     }
+
+     @Test(expected = UnauthorizedException.class)
+     public void rejectTokenSignedWithOtherPrivateKey() {
+          TokenOAuth token = JwtUtils.generateTokenOAuth("private", 60, 120, CLAIMS);
+
+          JwtUtils.getClaims(token.getAccessToken(), "other");
+     }
+}
@@ -0,0 +1,90 @@
+package br.com.conductor.heimdall.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.junit.Test;
+
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+
+public class MetricsRollupTest {
+
+     private static final Date TS = new Date(1546300800000L + 61_500L);
+
+     @Test
+     public void truncateDateToBucket() {
+          assertEquals(new Date(1546300800000L), MetricsRollup.bucket(TS));
+          assertEquals("logs_rollup_hour", MetricsRollup.collection("logs"));
+     }
+
+     @Test
+     public void countTracesPerDimensionAndBreakdown() {
+          MetricsRollup.Batch batch = new MetricsRollup.Batch();
+          batch.add(TS, trace("first", 200, 10L));
+          batch.add(TS, trace("first", 200, 30L));
+          batch.add(TS, trace("first", 500, null));
+
+          Map<String, Document> updates = updates(batch.updates());
+
+          Document total = updates.get("trace.apiName=first");
+          assertEquals(3L, total.get(MetricsRollup.COUNT));
+          assertEquals(40L, total.get(MetricsRollup.DURATION_SUM));
+          assertEquals(2L, total.get(MetricsRollup.DURATION_COUNT));
+
+          assertEquals(2L, updates.get("trace.apiName=first/trace.resultStatus=200").get(MetricsRollup.COUNT));
+          assertEquals(1L, updates.get("trace.apiName=first/trace.resultStatus=500").get(MetricsRollup.COUNT));
+          assertEquals(2L, updates.get("trace.resultStatus=200").get(MetricsRollup.COUNT));
+     }
+
+     @Test
+     public void skipMissingFields() {
+          MetricsRollup.Batch batch = new MetricsRollup.Batch();
+          batch.add(TS, trace(null, 200, 10L));
+
+          Map<String, Document> updates = updates(batch.updates());
+
+          assertNull(updates.get("trace.apiName=null"));
+          assertTrue(updates.containsKey("trace.resultStatus=200"));
+          assertEquals(1, updates.size());
+     }
+
+     @Test
+     public void rollUpOnlyTheDimensionsAndBreakdowns() {
+          assertTrue(MetricsRollup.isRolledUp("trace.apiName", null));
+          assertTrue(MetricsRollup.isRolledUp("trace.apiName", "trace.resultStatus"));
+          assertFalse(MetricsRollup.isRolledUp("trace.resultStatus", "trace.resultStatus"));
+          assertFalse(MetricsRollup.isRolledUp("trace.apiName", "trace.method"));
+          assertFalse(MetricsRollup.isRolledUp("trace.method", null));
+     }
+
+     private Map<String, Object> trace(String apiName, int resultStatus, Long durationMillis) {
+          Map<String, Object> trace = new HashMap<>();
+          trace.put("apiName", apiName);
+          trace.put("resultStatus", resultStatus);
+          trace.put("durationMillis", durationMillis);
+          return trace;
+     }
+
+     private Map<String, Document> updates(List<WriteModel<Document>> models) {
+          Map<String, Document> updates = new HashMap<>();
+          for (WriteModel<Document> model : models) {
+               UpdateOneModel<Document> update = (UpdateOneModel<Document>) model;
+               Document filter = (Document) update.getFilter();
+               String key = filter.get(MetricsRollup.DIMENSION) + "=" + filter.get(MetricsRollup.VALUE);
+               if (filter.get(MetricsRollup.METRIC) != null) {
+                    key += "/" + filter.get(MetricsRollup.METRIC) + "=" + filter.get(MetricsRollup.METRIC_VALUE);
+               }
+               updates.put(key, (Document) ((Document) update.getUpdate()).get("$inc"));
+          }
+          return updates;
+     }
+}
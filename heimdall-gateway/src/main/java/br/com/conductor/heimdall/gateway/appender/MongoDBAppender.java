@@ -19,11 +19,14 @@
  */
 package br.com.conductor.heimdall.gateway.appender;
 
+import br.com.conductor.heimdall.core.trace.Trace;
+import br.com.conductor.heimdall.core.util.MetricsRollup;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.UnsynchronizedAppenderBase;
 import com.mongodb.*;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -31,13 +34,24 @@ import lombok.extern.slf4j.Slf4j;
 import org.bson.BsonDateTime;
 import org.bson.Document;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * This class provides a appender service to a MongoDB database.
+ * <p>
+ * The events are published to a {@link TraceRingBuffer} by the request threads and written
+ * by background writers with one insertMany per batch, flushed by size or by time. Each batch written also
+ * increments the per-hour {@link MetricsRollup} counters read by the metrics endpoints.
  *
  * @author Marcos Filho
  * @author Marcelo Aguiar Rodrigues
@@ -47,8 +61,33 @@ import java.util.Map;
 @NoArgsConstructor
 public class MongoDBAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
 
+	/**
+	 * What to do when the buffer can not keep up with the traces.
+	 */
+	public enum Backpressure {
+		/** Drops the traces that do not fit in the buffer */
+		DROP,
+		/** Keeps only one of each sampleRate traces when the buffer is almost full */
+		SAMPLE,
+		/** Blocks the request thread until there is room in the buffer */
+		BLOCK
+	}
+
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	private static final long STOP_TIMEOUT_MILLIS = 10000L;
+
 	private MongoClient mongoClient;
+	private MongoDatabase database;
 	private MongoCollection<Document> collection;
+	private ZoneId zone;
+	private TraceRingBuffer<Entry> ringBuffer;
+	private List<Thread> writers;
+	private volatile boolean running;
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong sampled = new AtomicLong();
 
     @Setter
     @Getter
@@ -68,6 +107,30 @@ public class MongoDBAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
 	@Setter
 	@Getter
 	private String uri;
+	@Setter
+	@Getter
+	private int bufferSize = 8192;
+	@Setter
+	@Getter
+	private int batchSize = 500;
+	@Setter
+	@Getter
+	private long flushIntervalMillis = 1000L;
+	@Setter
+	@Getter
+	private int writerThreads = 1;
+	@Setter
+	@Getter
+	private Backpressure backpressure = Backpressure.DROP;
+	@Setter
+	@Getter
+	private int sampleRate = 10;
+	@Setter
+	@Getter
+	private int discardingThreshold;
+	@Setter
+	@Getter
+	private boolean rollup = true;
 
 	public MongoDBAppender(String url, Long port, String dataBase, String collectionName, String zoneId) {
 		this.url = url;
@@ -95,44 +158,227 @@ public class MongoDBAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
 			this.mongoClient = new MongoClient(address, options);
 		}
 
-		MongoDatabase database = this.mongoClient.getDatabase(this.dataBase);
-		this.collection = database.getCollection(this.collectionName);
+		this.database = this.mongoClient.getDatabase(this.dataBase);
+		this.collection = this.database.getCollection(this.collectionName);
+		this.zone = ZoneId.of(this.zoneId);
 		log.info("Starting connection with url: {} - port: {}", this.url, this.port);
 		log.info("Database used: {} - Collection: {}", this.dataBase, this.collectionName);
+		if (this.rollup) {
+			try {
+				MetricsRollup.createIndexes(this.database, this.collectionName);
+			} catch (Exception e) {
+				log.error("Error creating the indexes of the metrics rollups", e);
+			}
+		}
+
+		this.ringBuffer = new TraceRingBuffer<>(this.bufferSize);
+		if (this.discardingThreshold <= 0) {
+			this.discardingThreshold = this.ringBuffer.capacity() / 5;
+		}
+		this.running = true;
+		this.writers = new ArrayList<>();
+		for (int i = 0; i < Math.max(1, this.writerThreads); i++) {
+			Thread writer = new Thread(this::write, "heimdall-mongo-writer-" + i);
+			writer.setDaemon(true);
+			writer.start();
+			this.writers.add(writer);
+		}
+		log.info("Buffer size: {} - Batch size: {} - Backpressure: {}", this.ringBuffer.capacity(), this.batchSize, this.backpressure);
 		super.start();
 	}
 
+	/**
+	 * Stops receiving events, flushes the ones in the buffer and closes the connection.
+	 */
 	@Override
 	public void stop() {
+		if (!isStarted()) {
+			return;
+		}
+
 		log.info("Closing mongodb appender");
-		this.mongoClient.close();
 		super.stop();
+		this.running = false;
+
+		long deadline = System.currentTimeMillis() + STOP_TIMEOUT_MILLIS;
+		for (Thread writer : this.writers) {
+			try {
+				writer.join(Math.max(1, deadline - System.currentTimeMillis()));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (this.ringBuffer.size() > 0) {
+			log.warn("{} traces were not written to mongodb before closing", this.ringBuffer.size());
+		}
+		this.mongoClient.close();
 	}
 
 	@Override
 	protected void append(ILoggingEvent e) {
-        ZoneId zoneId = ZoneId.of(this.zoneId);
+		Entry entry = new Entry(e);
 
-        // Offset in milliseconds based on the informed Zone
-        long offset = zoneId.getRules().getOffset(Instant.now()).getTotalSeconds() * 1000;
+		switch (this.backpressure) {
+			case BLOCK:
+				while (!this.ringBuffer.offer(entry)) {
+					if (!this.running) {
+						this.dropped.incrementAndGet();
+						return;
+					}
+					LockSupport.parkNanos(BLOCK_PARK_NANOS);
+				}
+				return;
+			case SAMPLE:
+				if (this.ringBuffer.capacity() - this.ringBuffer.size() < this.discardingThreshold
+						&& this.sampled.incrementAndGet() % this.sampleRate != 0) {
+					this.dropped.incrementAndGet();
+					return;
+				}
+				break;
+			default:
+				break;
+		}
+
+		if (!this.ringBuffer.offer(entry)) {
+			this.dropped.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @return The number of traces waiting to be written
+	 */
+	public int getQueueDepth() {
+		return (this.ringBuffer != null) ? this.ringBuffer.size() : 0;
+	}
+
+	/**
+	 * @return The number of traces discarded by the backpressure policy
+	 */
+	public long getDroppedCount() {
+		return this.dropped.get();
+	}
+
+	/*
+	 * Drains the buffer writing a batch when it is full or when the flush interval is over.
+	 */
+	private void write() {
+		List<Entry> batch = new ArrayList<>(this.batchSize);
+		long flushAt = 0L;
+
+		while (true) {
+			boolean empty = batch.isEmpty();
+			int drained = this.ringBuffer.drainTo(batch, this.batchSize - batch.size());
+			if (empty && drained > 0) {
+				flushAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.flushIntervalMillis);
+			}
+
+			boolean stopping = !this.running;
+			if (batch.size() >= this.batchSize || (!batch.isEmpty() && (stopping || System.nanoTime() - flushAt >= 0))) {
+				insert(batch);
+				batch.clear();
+			}
+
+			if (stopping && batch.isEmpty() && this.ringBuffer.size() == 0) {
+				return;
+			}
+
+			if (drained == 0) {
+				LockSupport.parkNanos(IDLE_PARK_NANOS);
+			}
+		}
+	}
+
+	private void insert(List<Entry> batch) {
+		// Offset in milliseconds based on the informed Zone
+		long offset = this.zone.getRules().getOffset(Instant.now()).getTotalSeconds() * 1000;
 
-		Map<String, Object> objLog = new HashMap<>();
-		objLog.put("ts", new BsonDateTime(e.getTimeStamp() + offset));
-		objLog.put("trace", BasicDBObject.parse(e.getFormattedMessage()));
-		objLog.put("level", e.getLevel().toString());
-		objLog.put("logger", e.getLoggerName());
-		objLog.put("thread", e.getThreadName());
+		List<Document> documents = new ArrayList<>(batch.size());
+		for (Entry entry : batch) {
+			try {
+				documents.add(entry.toDocument(offset));
+			} catch (Exception e) {
+				log.error("Error converting trace to mongodb document", e);
+			}
+		}
+
+		try {
+			if (!documents.isEmpty()) {
+				this.collection.insertMany(documents, new InsertManyOptions().ordered(false));
+			}
+		} catch (Exception e) {
+			this.dropped.addAndGet(documents.size());
+			log.error("Error writing {} traces to mongodb", documents.size(), e);
+			return;
+		}
+
+		if (this.rollup) {
+			rollup(documents);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void rollup(List<Document> documents) {
+		MetricsRollup.Batch batch = new MetricsRollup.Batch();
+		for (Document document : documents) {
+			Object trace = document.get("trace");
+			if (trace instanceof Map) {
+				batch.add(new Date(((BsonDateTime) document.get("ts")).getValue()), (Map<String, Object>) trace);
+			}
+		}
 
-		if (e.hasCallerData()) {
-			StackTraceElement st = e.getCallerData()[0];
-			String callerData = String.format("%s.%s:%d", st.getClassName(), st.getMethodName(), st.getLineNumber());
-			objLog.put("caller", callerData);
+		try {
+			batch.write(this.database, this.collectionName);
+		} catch (Exception e) {
+			log.error("Error writing the metrics rollup of {} traces", documents.size(), e);
 		}
-		Map<String, String> mdc = e.getMDCPropertyMap();
-		if (mdc != null && !mdc.isEmpty()) {
-			objLog.put("mdc", new BasicDBObject(mdc));
+	}
+
+	/*
+	 * Keeps what is needed from the event, the trace is only converted by the writers.
+	 */
+	private static final class Entry {
+
+		private final long timeStamp;
+		private final Object message;
+		private final String level;
+		private final String logger;
+		private final String thread;
+		private final String caller;
+		private final Map<String, String> mdc;
+
+		private Entry(ILoggingEvent e) {
+			Object[] arguments = e.getArgumentArray();
+			this.timeStamp = e.getTimeStamp();
+			this.message = (arguments != null && arguments.length == 1 && arguments[0] instanceof Trace) ? arguments[0] : e.getFormattedMessage();
+			this.level = e.getLevel().toString();
+			this.logger = e.getLoggerName();
+			this.thread = e.getThreadName();
+
+			if (e.hasCallerData()) {
+				StackTraceElement st = e.getCallerData()[0];
+				this.caller = String.format("%s.%s:%d", st.getClassName(), st.getMethodName(), st.getLineNumber());
+			} else {
+				this.caller = null;
+			}
+			this.mdc = e.getMDCPropertyMap();
+		}
+
+		private Document toDocument(long offset) throws IOException {
+			Map<String, Object> objLog = new HashMap<>();
+			objLog.put("ts", new BsonDateTime(this.timeStamp + offset));
+			objLog.put("trace", (this.message instanceof Trace) ? ((Trace) this.message).toMap() : BasicDBObject.parse((String) this.message));
+			objLog.put("level", this.level);
+			objLog.put("logger", this.logger);
+			objLog.put("thread", this.thread);
+
+			if (this.caller != null) {
+				objLog.put("caller", this.caller);
+			}
+			if (this.mdc != null && !this.mdc.isEmpty()) {
+				objLog.put("mdc", new BasicDBObject(this.mdc));
+			}
+			return new Document(objLog);
 		}
-		collection.insertOne(new Document(objLog));
 	}
 
 }
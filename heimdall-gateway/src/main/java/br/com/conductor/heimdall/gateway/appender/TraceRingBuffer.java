@@ -0,0 +1,157 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.appender;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue backed by a ring buffer, safe for many producers and many consumers.
+ * <p>
+ * Each slot keeps a sequence that tells whether it is free to be published or ready to be consumed,
+ * so producers and consumers only compete through a compare-and-set on their own position.
+ *
+ * @param <E> The type of the elements
+ */
+public class TraceRingBuffer<E> {
+
+    private final Object[] buffer;
+
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final AtomicLong publishPosition = new AtomicLong();
+
+    private final AtomicLong consumePosition = new AtomicLong();
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param capacity The minimum capacity, rounded up to a power of two
+     */
+    public TraceRingBuffer(int capacity) {
+
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+
+        this.buffer = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publishes an element if there is room for it.
+     *
+     * @param element The element
+     * @return true if the element was published, false if the buffer is full
+     */
+    public boolean offer(E element) {
+
+        long position = publishPosition.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (publishPosition.compareAndSet(position, position + 1)) {
+                    buffer[index] = element;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = publishPosition.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = publishPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Consumes the oldest element.
+     *
+     * @return The element, null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+
+        long position = consumePosition.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+
+            if (difference == 0) {
+                if (consumePosition.compareAndSet(position, position + 1)) {
+                    E element = (E) buffer[index];
+                    buffer[index] = null;
+                    sequences.lazySet(index, position + mask + 1);
+                    return element;
+                }
+                position = consumePosition.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = consumePosition.get();
+            }
+        }
+    }
+
+    /**
+     * Consumes up to max elements into the list.
+     *
+     * @param elements The list to add the elements to
+     * @param max      The maximum number of elements
+     * @return The number of elements consumed
+     */
+    public int drainTo(List<E> elements, int max) {
+
+        int drained = 0;
+        E element;
+        while (drained < max && (element = poll()) != null) {
+            elements.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * @return The approximate number of elements waiting to be consumed
+     */
+    public int size() {
+
+        long size = publishPosition.get() - consumePosition.get();
+        return (int) Math.max(0, Math.min(size, buffer.length));
+    }
+
+    /**
+     * @return The number of elements the buffer can hold
+     */
+    public int capacity() {
+
+        return buffer.length;
+    }
+}
@@ -20,20 +20,23 @@
 package br.com.conductor.heimdall.gateway.configuration;
 
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import br.com.conductor.heimdall.core.environment.Property;
 import br.com.conductor.heimdall.gateway.appender.MongoDBAppender;
-import ch.qos.logback.classic.AsyncAppender;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
-import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.Appender;
 import net.logstash.logback.appender.LogstashTcpSocketAppender;
 import net.logstash.logback.encoder.LogstashEncoder;
 
@@ -48,13 +51,19 @@ import net.logstash.logback.encoder.LogstashEncoder;
 @Configuration
 public class LogConfiguration {
 
-	private static final int DEFAULT_QUEUE_SIZE = 500;
+	private static final int DEFAULT_QUEUE_SIZE = 8192;
+
+	private static final int DEFAULT_BATCH_SIZE = 500;
+
+	private static final long DEFAULT_FLUSH_INTERVAL = 1000L;
 
 	private static final String DEFAULT_ZONE_ID = ZoneId.systemDefault().getId();
 
 	@Autowired
 	private Property property;
 
+	private MongoDBAppender mongoDBAppender;
+
 	@PostConstruct
 	public void onStartUp() {
 
@@ -68,27 +77,37 @@ public class LogConfiguration {
 			String zoneId = property.getMongo().getZoneId() != null ? property.getMongo().getZoneId() : DEFAULT_ZONE_ID;
 
 			// Creating custom MongoDBAppender
-			Appender<ILoggingEvent> appender;
+			MongoDBAppender appender;
 			if (property.getMongo().getUrl() != null) {
 				appender = new MongoDBAppender(property.getMongo().getUrl(), property.getMongo().getDataBase(), property.getMongo().getCollection(), zoneId);
 			} else {
 				appender = new MongoDBAppender(property.getMongo().getServerName(), property.getMongo().getPort(), property.getMongo().getDataBase(), property.getMongo().getCollection(), zoneId);
 			}
-			appender.setContext(lc);
-			appender.start();
 
-			// Creating AsyncAppender
-			int queueSize = (property.getMongo().getQueueSize() != null) ? property.getMongo().getQueueSize().intValue() : DEFAULT_QUEUE_SIZE;
-
-			AsyncAppender asyncAppender = new AsyncAppender();
-			asyncAppender.setQueueSize(queueSize);
+			// The appender batches the traces itself, so it is not wrapped by an AsyncAppender
+			appender.setBufferSize((property.getMongo().getQueueSize() != null) ? property.getMongo().getQueueSize().intValue() : DEFAULT_QUEUE_SIZE);
+			appender.setBatchSize((property.getMongo().getBatchSize() != null) ? property.getMongo().getBatchSize().intValue() : DEFAULT_BATCH_SIZE);
+			appender.setFlushIntervalMillis((property.getMongo().getFlushInterval() != null) ? property.getMongo().getFlushInterval() : DEFAULT_FLUSH_INTERVAL);
+			if (property.getMongo().getWriters() != null) {
+				appender.setWriterThreads(property.getMongo().getWriters().intValue());
+			}
+			if (property.getMongo().getBackpressure() != null) {
+				appender.setBackpressure(MongoDBAppender.Backpressure.valueOf(property.getMongo().getBackpressure().toUpperCase()));
+			}
+			if (property.getMongo().getSampleRate() != null) {
+				appender.setSampleRate(property.getMongo().getSampleRate().intValue());
+			}
 			if (property.getMongo().getDiscardingThreshold() != null) {
-				asyncAppender.setDiscardingThreshold(property.getMongo().getDiscardingThreshold().intValue());
+				appender.setDiscardingThreshold(property.getMongo().getDiscardingThreshold().intValue());
+			}
+			if (property.getMongo().getRollup() != null) {
+				appender.setRollup(property.getMongo().getRollup());
 			}
-			asyncAppender.addAppender(appender);
-			asyncAppender.start();
+			appender.setContext(lc);
+			appender.start();
 
-			logger.addAppender(asyncAppender);
+			logger.addAppender(appender);
+			mongoDBAppender = appender;
 		}
 
 		if (property.getLogstash().getEnabled()) {
@@ -109,4 +128,33 @@ public class LogConfiguration {
 		}
 	}
 
+	/**
+	 * Writes the traces left in the buffer before the application stops.
+	 */
+	@PreDestroy
+	public void onShutdown() {
+
+		if (mongoDBAppender != null) {
+			mongoDBAppender.stop();
+		}
+	}
+
+	/**
+	 * Exposes the depth of the trace buffer and how many traces were dropped.
+	 *
+	 * @return {@link PublicMetrics}
+	 */
+	@Bean
+	public PublicMetrics traceMetrics() {
+
+		return () -> {
+			List<Metric<?>> metrics = new ArrayList<>();
+			if (mongoDBAppender != null) {
+				metrics.add(new Metric<>("heimdall.trace.mongo.queue.depth", mongoDBAppender.getQueueDepth()));
+				metrics.add(new Metric<>("heimdall.trace.mongo.dropped", mongoDBAppender.getDroppedCount()));
+			}
+			return metrics;
+		};
+	}
+
 }
@@ -73,6 +73,9 @@ public class RabbitConfiguration implements RabbitListenerConfigurer {
      @Value("${heimdall.queue.clean-interceptors-cache}")
      private String queueCleanInterceptorsCache;
 
+     @Value("${heimdall.queue.revoke-tokens}")
+     private String queueRevokeTokens;
+
      @Bean
      public FanoutExchange exchangeFanoutRemoveInterceptors() {
 
@@ -121,6 +124,12 @@ public class RabbitConfiguration implements RabbitListenerConfigurer {
           return new FanoutExchange(RabbitConstants.EXCHANGE_FANOUT_HEIMDALL_CLEAN_INTERCEPTORS_CACHE, false, true);
      }
 
+     @Bean
+     public FanoutExchange exchangeFanoutRevokeTokens() {
+
+          return new FanoutExchange(RabbitConstants.EXCHANGE_FANOUT_HEIMDALL_REVOKE_TOKENS, false, true);
+     }
+
      @Bean
      public Queue queueRemoveInterceptors() {
           
@@ -176,6 +185,13 @@ public class RabbitConfiguration implements RabbitListenerConfigurer {
 
      }
 
+     @Bean
+     public Queue queueRevokeTokens() {
+
+          return new Queue(queueRevokeTokens, false, false, true);
+
+     }
+
      @Bean
      public Binding bindingRoutes() {
 
@@ -226,6 +242,12 @@ public class RabbitConfiguration implements RabbitListenerConfigurer {
           return BindingBuilder.bind(queueCleanInterceptorsCache()).to(exchangeFanoutCleanInterceptorsCache());
      }
 
+     @Bean
+     public Binding bindingRevokeTokens() {
+
+          return BindingBuilder.bind(queueRevokeTokens()).to(exchangeFanoutRevokeTokens());
+     }
+
      @Bean
      public RabbitTemplate rabbitTemplate(final ConnectionFactory connectionFactory) {
 
@@ -39,14 +39,13 @@ import org.springframework.cloud.netflix.zuul.filters.route.SimpleHostRoutingFil
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import br.com.conductor.heimdall.gateway.router.EnvironmentInfoRepository;
 import br.com.conductor.heimdall.gateway.failsafe.CircuitBreakerManager;
 import br.com.conductor.heimdall.gateway.filter.CustomHostRoutingFilter;
 import br.com.conductor.heimdall.gateway.filter.CustomSendErrorFilter;
 import br.com.conductor.heimdall.gateway.filter.CustomSendResponseFilter;
 import br.com.conductor.heimdall.gateway.filter.HeimdallDecorationFilter;
 import br.com.conductor.heimdall.gateway.listener.StartServer;
-import br.com.conductor.heimdall.gateway.router.CredentialRepository;
+import br.com.conductor.heimdall.gateway.router.RoutingSnapshotHolder;
 import br.com.conductor.heimdall.gateway.util.RequestHelper;
 import br.com.conductor.heimdall.gateway.zuul.route.ProxyRouteLocator;
 import br.com.conductor.heimdall.gateway.zuul.storage.CacheZuulRouteStorage;
@@ -70,9 +69,6 @@ public class ZuulConfiguration extends ZuulProxyAutoConfiguration {
 	@Autowired
 	private ServerProperties server;
 
-	@Autowired
-	private EnvironmentInfoRepository environmentInfoRepository;
-
 	@Autowired
 	private RequestHelper requestHelper;
 
@@ -84,7 +80,7 @@ public class ZuulConfiguration extends ZuulProxyAutoConfiguration {
 	private CircuitBreakerManager circuitBreakerManager;
 	
 	@Autowired
-	private CredentialRepository credentialRepository;
+	private RoutingSnapshotHolder routingSnapshotHolder;
 
 	@Bean
 	public ProxyRouteLocator proxyRouteLocator() {
@@ -97,7 +93,7 @@ public class ZuulConfiguration extends ZuulProxyAutoConfiguration {
 	public PreDecorationFilter preDecorationFilter(RouteLocator routeLocator, ProxyRequestHelper proxyRequestHelper) {
 
 		return new HeimdallDecorationFilter(proxyRouteLocator(), this.server.getServletPrefix(), zuulProperties,
-				proxyRequestHelper, requestHelper, credentialRepository, environmentInfoRepository);
+				proxyRequestHelper, requestHelper, routingSnapshotHolder);
 	}
 
 	@Bean
@@ -0,0 +1,198 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.entitlement;
+
+import br.com.conductor.heimdall.core.entity.App;
+import br.com.conductor.heimdall.core.entity.Plan;
+import br.com.conductor.heimdall.core.entity.Scope;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Flat and immutable view of what an App is allowed to call: the ids of its Apis and Plans and the
+ * ids of the Operations of the Scopes of its Plans per Api. The ids are kept in sorted primitive arrays.
+ */
+public final class Entitlement {
+
+    /**
+     * Entitlement of a client id or access token that does not exist.
+     */
+    public static final Entitlement NONE = new Entitlement(null, null, null, null, new long[0], new long[0], Collections.emptyMap());
+
+    private final Long appId;
+
+    private final String appName;
+
+    private final String clientId;
+
+    private final String developerEmail;
+
+    private final long[] apiIds;
+
+    private final long[] planIds;
+
+    private final Map<Long, long[]> operationIds;
+
+    private Entitlement(Long appId, String appName, String clientId, String developerEmail, long[] apiIds, long[] planIds, Map<Long, long[]> operationIds) {
+
+        this.appId = appId;
+        this.appName = appName;
+        this.clientId = clientId;
+        this.developerEmail = developerEmail;
+        this.apiIds = apiIds;
+        this.planIds = planIds;
+        this.operationIds = operationIds;
+    }
+
+    /**
+     * Builds the entitlement of an {@link App}.
+     *
+     * @param app The App, null if it does not exist
+     * @return The {@link Entitlement}
+     */
+    public static Entitlement of(App app) {
+
+        if (app == null) {
+            return NONE;
+        }
+
+        Set<Long> apis = new HashSet<>();
+        Set<Long> plans = new HashSet<>();
+        Map<Long, Set<Long>> operations = new HashMap<>();
+        if (app.getPlans() != null) {
+            for (Plan plan : app.getPlans()) {
+                if (plan == null) {
+                    continue;
+                }
+
+                plans.add(plan.getId());
+                if (plan.getApi() == null) {
+                    continue;
+                }
+
+                Long apiId = plan.getApi().getId();
+                apis.add(apiId);
+                Set<Long> apiOperations = operations.computeIfAbsent(apiId, id -> new HashSet<>());
+                if (plan.getScopes() != null) {
+                    for (Scope scope : plan.getScopes()) {
+                        if (scope != null) {
+                            apiOperations.addAll(scope.getOperationsIds());
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<Long, long[]> operationIds = new HashMap<>();
+        operations.forEach((apiId, ids) -> {
+            if (!ids.isEmpty()) {
+                operationIds.put(apiId, sorted(ids));
+            }
+        });
+
+        String developerEmail = app.getDeveloper() != null ? app.getDeveloper().getEmail() : null;
+
+        return new Entitlement(app.getId(), app.getName(), app.getClientId(), developerEmail, sorted(apis), sorted(plans), Collections.unmodifiableMap(operationIds));
+    }
+
+    /**
+     * @return true if the App exists
+     */
+    public boolean exists() {
+
+        return appId != null;
+    }
+
+    /**
+     * @param apiId The Api id
+     * @return true if one of the Plans of the App belongs to the Api
+     */
+    public boolean allowsApi(Long apiId) {
+
+        return contains(apiIds, apiId);
+    }
+
+    /**
+     * @param planId The Plan id
+     * @return true if the App has the Plan
+     */
+    public boolean hasPlan(Long planId) {
+
+        return contains(planIds, planId);
+    }
+
+    /**
+     * @param apiId The Api id
+     * @return true if the Plans of the App for the Api restrict the Operations with Scopes
+     */
+    public boolean hasScopes(Long apiId) {
+
+        return operationIds.containsKey(apiId);
+    }
+
+    /**
+     * @param apiId       The Api id
+     * @param operationId The Operation id
+     * @return true if one of the Scopes of the Plans of the App for the Api has the Operation
+     */
+    public boolean allowsOperation(Long apiId, Long operationId) {
+
+        return contains(operationIds.get(apiId), operationId);
+    }
+
+    public Long getAppId() {
+
+        return appId;
+    }
+
+    public String getAppName() {
+
+        return appName;
+    }
+
+    public String getClientId() {
+
+        return clientId;
+    }
+
+    public String getDeveloperEmail() {
+
+        return developerEmail;
+    }
+
+    private static boolean contains(long[] ids, Long id) {
+
+        return ids != null && id != null && Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    private static long[] sorted(Collection<Long> ids) {
+
+        long[] array = ids.stream().filter(id -> id != null).mapToLong(Long::longValue).toArray();
+        Arrays.sort(array);
+        return array;
+    }
+
+}
@@ -0,0 +1,222 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.entitlement;
+
+import br.com.conductor.heimdall.core.entity.AccessToken;
+import br.com.conductor.heimdall.core.entity.App;
+import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.core.repository.AccessTokenRepository;
+import br.com.conductor.heimdall.core.repository.AppRepository;
+import br.com.conductor.heimdall.core.util.ConstantsCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.netflix.zuul.context.RequestContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Index of the {@link Entitlement} of each client id and access token.
+ * <p>
+ * An entitlement is built once from the App found by the repositories and reused by every filter and
+ * interceptor of a request, being kept in the {@link RequestContext}. The entries are evicted when the
+ * caches of the Apps, Plans or Access Tokens are cleaned, only the affected ones when the message
+ * informs the id.
+ * <p>
+ * A client id or access token not found is remembered for a shorter time, so an App or token created
+ * while its clean message is lost is found soon.
+ */
+@Component
+public class EntitlementIndex {
+
+    private static final String CONTEXT_PREFIX = "heimdall.entitlement:";
+
+    @Autowired
+    private AppRepository appRepository;
+
+    @Autowired
+    private AccessTokenRepository accessTokenRepository;
+
+    @Autowired
+    private Property property;
+
+    private LoadingCache<String, Entitlement> clients;
+
+    private LoadingCache<String, Entitlement> tokens;
+
+    private Cache<String, Boolean> missingClients;
+
+    private Cache<String, Boolean> missingTokens;
+
+    @PostConstruct
+    public void init() {
+
+        Property.Entitlement config = property.getEntitlement();
+
+        clients = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getExpireAfterWriteSeconds(), TimeUnit.SECONDS)
+                .build(clientId -> {
+                    App app = appRepository.findByClientId(clientId);
+                    return app != null ? Entitlement.of(app) : null;
+                });
+
+        tokens = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getExpireAfterWriteSeconds(), TimeUnit.SECONDS)
+                .build(code -> {
+                    AccessToken token = accessTokenRepository.findAccessTokenActive(code);
+                    return token != null ? Entitlement.of(token.getApp()) : null;
+                });
+
+        missingClients = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getMissingExpireAfterWriteSeconds(), TimeUnit.SECONDS)
+                .build();
+
+        missingTokens = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getMissingExpireAfterWriteSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Gets the entitlement of the App of a client id.
+     *
+     * @param clientId The client id
+     * @return The {@link Entitlement}, {@link Entitlement#NONE} if there is no App with the client id
+     */
+    public Entitlement byClientId(String clientId) {
+
+        return resolve(clients, missingClients, "client:", clientId);
+    }
+
+    /**
+     * Gets the entitlement of the App of an active access token.
+     *
+     * @param accessToken The access token
+     * @return The {@link Entitlement}, {@link Entitlement#NONE} if the access token is not active
+     */
+    public Entitlement byAccessToken(String accessToken) {
+
+        return resolve(tokens, missingTokens, "token:", accessToken);
+    }
+
+    /**
+     * Evicts the entitlements built from a cache.
+     *
+     * @param cacheName The name of the cache cleaned
+     */
+    public void invalidate(String cacheName) {
+
+        if (isAppCache(cacheName)) {
+            invalidateAll();
+        } else if (ConstantsCache.ACCESS_TOKENS_ACTIVE_CACHE.equals(cacheName)) {
+            tokens.invalidateAll();
+            missingTokens.invalidateAll();
+        }
+    }
+
+    /**
+     * Evicts the entitlements built from one entry of a cache.
+     *
+     * @param cacheName The name of the cache cleaned
+     * @param id        The key of the entry, the client id or the access token
+     */
+    public void invalidate(String cacheName, String id) {
+
+        if (isAppCache(cacheName)) {
+            clients.invalidate(id);
+            missingClients.invalidate(id);
+            tokens.asMap().values().removeIf(entitlement -> id.equals(entitlement.getClientId()));
+        } else if (ConstantsCache.ACCESS_TOKENS_ACTIVE_CACHE.equals(cacheName)) {
+            tokens.invalidate(id);
+            missingTokens.invalidate(id);
+        }
+    }
+
+    /**
+     * Evicts the entitlements that allow one of the Apis.
+     *
+     * @param apiIds The ids of the Apis changed
+     */
+    public void invalidateApis(Collection<Long> apiIds) {
+
+        Predicate<Entitlement> allows = entitlement -> apiIds.stream().anyMatch(entitlement::allowsApi);
+        clients.asMap().values().removeIf(allows);
+        tokens.asMap().values().removeIf(allows);
+    }
+
+    /**
+     * Evicts the entitlements of the Apps with one of the Plans.
+     *
+     * @param planIds The ids of the Plans changed
+     */
+    public void invalidatePlans(Collection<Long> planIds) {
+
+        Predicate<Entitlement> has = entitlement -> planIds.stream().anyMatch(entitlement::hasPlan);
+        clients.asMap().values().removeIf(has);
+        tokens.asMap().values().removeIf(has);
+    }
+
+    /**
+     * Evicts every entitlement.
+     */
+    public void invalidateAll() {
+
+        clients.invalidateAll();
+        tokens.invalidateAll();
+        missingClients.invalidateAll();
+        missingTokens.invalidateAll();
+    }
+
+    private Entitlement resolve(LoadingCache<String, Entitlement> cache, Cache<String, Boolean> missing, String type, String key) {
+
+        if (key == null || key.isEmpty()) {
+            return Entitlement.NONE;
+        }
+
+        RequestContext context = RequestContext.getCurrentContext();
+        String contextKey = CONTEXT_PREFIX + type + key;
+
+        Entitlement entitlement = (Entitlement) context.get(contextKey);
+        if (entitlement == null) {
+            entitlement = missing.getIfPresent(key) == null ? cache.get(key) : null;
+            if (entitlement == null) {
+                missing.put(key, Boolean.TRUE);
+                entitlement = Entitlement.NONE;
+            }
+            context.put(contextKey, entitlement);
+        }
+
+        return entitlement;
+    }
+
+    private static boolean isAppCache(String cacheName) {
+
+        return ConstantsCache.APPS_CLIENT_ID.equals(cacheName) || ConstantsCache.APPS_ACTIVE_CACHE.equals(cacheName);
+    }
+
+}
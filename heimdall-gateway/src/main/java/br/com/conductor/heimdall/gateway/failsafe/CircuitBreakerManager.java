@@ -20,6 +20,7 @@
 package br.com.conductor.heimdall.gateway.failsafe;
 
 import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.core.trace.Trace;
 import br.com.conductor.heimdall.core.trace.TraceContextHolder;
 import br.com.conductor.heimdall.gateway.util.ConstantsContext;
 import com.netflix.zuul.context.RequestContext;
@@ -63,7 +64,7 @@ public class CircuitBreakerManager {
 		if (circuitBreaker.isOpen()) {
 			return Failsafe.with(circuitBreaker)
 					.withFallback(() ->  {
-						String body = logAndCreateBody("CircuitBreaker ENABLED | Operation: {0}, Exception: {1}",
+						String body = logAndCreateBody(TraceContextHolder.getInstance().getActualTrace(), "CircuitBreaker ENABLED | Operation: {0}, Exception: {1}",
 								operationPath,
                                 circuitBreakerHolder.getMessage());
 
@@ -83,6 +84,18 @@ public class CircuitBreakerManager {
 	}
 
 	public <T> T failsafe(Callable<T> callable, String url) {
+		return failsafe(callable, url, TraceContextHolder.getInstance().getActualTrace());
+	}
+
+	/**
+	 * Runs a call made inside a middleware with the circuit breaker of its url.
+	 *
+	 * @param callable The call
+	 * @param url      The method and url of the call
+	 * @param trace    The {@link Trace} of the request that made the call, captured in its thread as the call may run in other
+	 * @return The response of the call, or a 503 response when the circuit is open
+	 */
+	public <T> T failsafe(Callable<T> callable, String url, Trace trace) {
 		CircuitBreakerHolder circuitBreakerHolder = getCircuitHolder(url, middlewareCircuits);
 		CircuitBreaker circuitBreaker = circuitBreakerHolder.getCircuitBreaker();
 
@@ -90,7 +103,7 @@ public class CircuitBreakerManager {
 			return Failsafe.with(circuitBreaker)
 					.withFallback(() -> {
 
-						String body = logAndCreateBody("CircuitBreaker ENABLED | URL: {0}, Exception: {1}",
+						String body = logAndCreateBody(trace, "CircuitBreaker ENABLED | URL: {0}, Exception: {1}",
 								url,
                                 circuitBreakerHolder.getMessage());
 
@@ -124,11 +137,13 @@ public class CircuitBreakerManager {
 		return breakerHolder;
 	}
 
-	private String logAndCreateBody(String message, String... args) {
+	private String logAndCreateBody(Trace trace, String message, String... args) {
 		String finalMessage = new MessageFormat(message).format(args);
 
 		log.info(finalMessage);
-		TraceContextHolder.getInstance().getActualTrace().trace("CircuitBreaker Enabled" , finalMessage);
+		if (trace != null) {
+			trace.trace("CircuitBreaker Enabled" , finalMessage);
+		}
 
 		return "{" +
 				"\"" + HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase() + "\": \"" + args[0] + "\"," +
@@ -21,8 +21,11 @@ package br.com.conductor.heimdall.gateway.filter;
 
 import br.com.conductor.heimdall.core.util.Constants;
 import br.com.conductor.heimdall.core.trace.FilterDetail;
-import br.com.conductor.heimdall.core.trace.TraceContextHolder;
+import br.com.conductor.heimdall.gateway.trace.FilterLatency;
 import br.com.conductor.heimdall.gateway.filter.helper.ApiResponseImpl;
+import br.com.conductor.heimdall.gateway.service.CacheFlightService;
+import br.com.conductor.heimdall.gateway.service.CacheGenerationService;
+import br.com.conductor.heimdall.gateway.service.NearCacheService;
 import br.com.conductor.heimdall.gateway.util.ResponseHelper;
 import br.com.conductor.heimdall.middleware.spec.ApiResponse;
 import br.com.conductor.heimdall.middleware.spec.Helper;
@@ -38,6 +41,9 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static br.com.conductor.heimdall.core.util.ConstantsCache.CACHE_BUCKET;
+import static br.com.conductor.heimdall.core.util.ConstantsCache.CACHE_FLIGHT;
+import static br.com.conductor.heimdall.core.util.ConstantsCache.CACHE_GENERATION;
+import static br.com.conductor.heimdall.core.util.ConstantsCache.CACHE_STALE_WHILE_REVALIDATE;
 import static br.com.conductor.heimdall.core.util.ConstantsCache.CACHE_TIME_TO_LIVE;
 import static org.springframework.cloud.netflix.zuul.filters.support.FilterConstants.POST_TYPE;
 import static org.springframework.cloud.netflix.zuul.filters.support.FilterConstants.SEND_FORWARD_FILTER_ORDER;
@@ -51,11 +57,18 @@ import static org.springframework.cloud.netflix.zuul.filters.support.FilterConst
 @Slf4j
 public class CacheWriterFilter extends ZuulFilter {
 
-    private FilterDetail detail = new FilterDetail();
-
     @Autowired
     private Helper helper;
 
+    @Autowired
+    private NearCacheService nearCacheService;
+
+    @Autowired
+    private CacheFlightService cacheFlightService;
+
+    @Autowired
+    private CacheGenerationService cacheGenerationService;
+
     @Override
     public String filterType() {
         return POST_TYPE;
@@ -76,7 +89,8 @@ public class CacheWriterFilter extends ZuulFilter {
     @Override
     public Object run() {
 
-        long startTime = System.currentTimeMillis();
+        FilterDetail detail = new FilterDetail();
+        long startTime = System.nanoTime();
         try {
             process();
             detail.setStatus(Constants.SUCCESS);
@@ -84,12 +98,7 @@ public class CacheWriterFilter extends ZuulFilter {
             detail.setStatus(Constants.FAILED);
             log.error("Error during CacheWriterFilter", e);
         } finally {
-            long endTime = System.currentTimeMillis();
-
-            long duration = (endTime - startTime);
-
-            detail.setTimeInMillisRun(duration);
-            TraceContextHolder.getInstance().getActualTrace().addFilter(this.getClass().getSimpleName(), detail);
+            FilterLatency.getInstance().run(this.getClass().getSimpleName(), startTime, detail);
         }
 
         return null;
@@ -99,6 +108,22 @@ public class CacheWriterFilter extends ZuulFilter {
         RequestContext context = RequestContext.getCurrentContext();
 
         RBucket<ApiResponse> rBucket = (RBucket<ApiResponse>) context.get(CACHE_BUCKET);
+        Boolean flight = (Boolean) context.get(CACHE_FLIGHT);
+
+        ApiResponse apiResponse = null;
+        try {
+            apiResponse = write(context, rBucket);
+        } finally {
+            if (flight != null) {
+                cacheFlightService.complete(rBucket.getName(), apiResponse);
+                if (flight) {
+                    cacheFlightService.releaseLease(rBucket.getName());
+                }
+            }
+        }
+    }
+
+    private ApiResponse write(RequestContext context, RBucket<ApiResponse> rBucket) throws Throwable {
 
         HttpServletResponse response = context.getResponse();
 
@@ -114,8 +139,11 @@ public class CacheWriterFilter extends ZuulFilter {
         if (timeToLive != null && timeToLive > 0)
             rBucket.set(apiResponse, timeToLive, TimeUnit.MILLISECONDS);
         else
-            rBucket.set(apiResponse);
+            cacheGenerationService.setTracked((String) context.get(CACHE_GENERATION), rBucket, apiResponse);
+
+        nearCacheService.put(rBucket.getName(), apiResponse, timeToLive, (Long) context.get(CACHE_STALE_WHILE_REVALIDATE));
 
+        return apiResponse;
     }
 
 }
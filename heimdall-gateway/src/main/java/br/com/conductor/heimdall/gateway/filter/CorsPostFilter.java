@@ -21,7 +21,7 @@ package br.com.conductor.heimdall.gateway.filter;
 
 import br.com.conductor.heimdall.core.util.Constants;
 import br.com.conductor.heimdall.core.trace.FilterDetail;
-import br.com.conductor.heimdall.core.trace.TraceContextHolder;
+import br.com.conductor.heimdall.gateway.trace.FilterLatency;
 import br.com.conductor.heimdall.gateway.service.CORSInterceptorService;
 import br.com.conductor.heimdall.gateway.util.ConstantsContext;
 import com.netflix.zuul.ZuulFilter;
@@ -50,8 +50,6 @@ public class CorsPostFilter extends ZuulFilter {
     @Autowired
     private CORSInterceptorService corsInterceptorService;
 
-    private FilterDetail detail = new FilterDetail();
-
     @Override
     public String filterType() {
         return POST_TYPE;
@@ -71,7 +69,8 @@ public class CorsPostFilter extends ZuulFilter {
 
     @Override
     public Object run() {
-        long startTime = System.currentTimeMillis();
+        FilterDetail detail = new FilterDetail();
+        long startTime = System.nanoTime();
 
         try {
             process();
@@ -81,11 +80,7 @@ public class CorsPostFilter extends ZuulFilter {
             log.error("Error during CORSPostFilter", e);
         } finally {
 
-            long endTime = System.currentTimeMillis();
-            long duration = (endTime - startTime);
-
-            detail.setTimeInMillisRun(duration);
-            TraceContextHolder.getInstance().getActualTrace().addFilter(this.getClass().getSimpleName(), detail);
+            FilterLatency.getInstance().run(this.getClass().getSimpleName(), startTime, detail);
         }
 
         return null;
@@ -21,7 +21,7 @@ package br.com.conductor.heimdall.gateway.filter;
 
 import br.com.conductor.heimdall.core.util.Constants;
 import br.com.conductor.heimdall.core.trace.FilterDetail;
-import br.com.conductor.heimdall.core.trace.TraceContextHolder;
+import br.com.conductor.heimdall.gateway.trace.FilterLatency;
 import br.com.conductor.heimdall.gateway.failsafe.CircuitBreakerManager;
 import com.netflix.zuul.context.RequestContext;
 import lombok.extern.slf4j.Slf4j;
@@ -69,14 +69,11 @@ public class CustomHostRoutingFilter extends SimpleHostRoutingFilter {
 	 */
 	@Override
 	public boolean shouldFilter() {
-		long startTime = System.currentTimeMillis();
+		long startTime = System.nanoTime();
 
 		boolean should = super.shouldFilter();
 
-		long endTime = System.currentTimeMillis();
-		long duration = (endTime - startTime);
-
-		detail.setTimeInMillisShould(duration);
+		FilterLatency.getInstance().shouldFilter(this.getClass().getSimpleName(), startTime, should);
 		return should;
 	}
 
@@ -85,7 +82,8 @@ public class CustomHostRoutingFilter extends SimpleHostRoutingFilter {
 	 */
 	@Override
 	public Object run() {
-		long startTime = System.currentTimeMillis();
+		FilterDetail detail = new FilterDetail();
+		long startTime = System.nanoTime();
 
 		RequestContext context = RequestContext.getCurrentContext();
 		HttpServletRequest request = context.getRequest();
@@ -112,12 +110,7 @@ public class CustomHostRoutingFilter extends SimpleHostRoutingFilter {
 					httpHost.getSchemeName());
 			throw e;
 		} finally {
-			long endTime = System.currentTimeMillis();
-
-			long duration = (endTime - startTime);
-
-			detail.setTimeInMillisRun(duration);
-			TraceContextHolder.getInstance().getActualTrace().addFilter(this.getClass().getSimpleName(), detail);
+			FilterLatency.getInstance().run(this.getClass().getSimpleName(), startTime, detail);
 		}
 	}
 
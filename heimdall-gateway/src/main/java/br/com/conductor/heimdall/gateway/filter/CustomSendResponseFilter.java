@@ -21,7 +21,7 @@ package br.com.conductor.heimdall.gateway.filter;
 
 import br.com.conductor.heimdall.core.util.Constants;
 import br.com.conductor.heimdall.core.trace.FilterDetail;
-import br.com.conductor.heimdall.core.trace.TraceContextHolder;
+import br.com.conductor.heimdall.gateway.trace.FilterLatency;
 import com.netflix.zuul.context.RequestContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.netflix.zuul.filters.post.SendResponseFilter;
@@ -36,27 +36,23 @@ import org.springframework.cloud.netflix.zuul.filters.post.SendResponseFilter;
 @Slf4j
 public class CustomSendResponseFilter extends SendResponseFilter {
 
-	private FilterDetail detail = new FilterDetail();
-
 	@Override
 	public boolean shouldFilter() {
 
-		long startTime = System.currentTimeMillis();
+		long startTime = System.nanoTime();
 
 		RequestContext context = RequestContext.getCurrentContext();
 		boolean should = (!context.getZuulResponseHeaders().isEmpty() || context.getResponseDataStream() != null || context.getResponseBody() != null);
 		// boolean should = super.shouldFilter();
 
-		long endTime = System.currentTimeMillis();
-		long duration = (endTime - startTime);
-
-		detail.setTimeInMillisShould(duration);
+		FilterLatency.getInstance().shouldFilter(this.getClass().getSimpleName(), startTime, should);
 		return should;
 	}
 
 	@Override
 	public Object run() {
-		long startTime = System.currentTimeMillis();
+		FilterDetail detail = new FilterDetail();
+		long startTime = System.nanoTime();
 		try {
 			Object obj = super.run();
 			detail.setStatus(Constants.SUCCESS);
@@ -66,12 +62,7 @@ public class CustomSendResponseFilter extends SendResponseFilter {
 			log.error("Error during send response", e);
 			throw e;
 		} finally {
-			long endTime = System.currentTimeMillis();
-
-			long duration = (endTime - startTime);
-
-			detail.setTimeInMillisRun(duration);
-			TraceContextHolder.getInstance().getActualTrace().addFilter(this.getClass().getSimpleName(), detail);
+			FilterLatency.getInstance().run(this.getClass().getSimpleName(), startTime, detail);
 		}
 	}
 }
@@ -21,17 +21,19 @@ package br.com.conductor.heimdall.gateway.filter;
 
 import br.com.conductor.heimdall.core.enums.HttpMethod;
 import br.com.conductor.heimdall.core.trace.FilterDetail;
+import br.com.conductor.heimdall.gateway.trace.FilterLatency;
 import br.com.conductor.heimdall.core.trace.TraceContextHolder;
 import br.com.conductor.heimdall.core.util.Constants;
 import br.com.conductor.heimdall.core.util.ConstantsPath;
 import br.com.conductor.heimdall.core.util.UrlUtil;
 import br.com.conductor.heimdall.gateway.router.Credential;
-import br.com.conductor.heimdall.gateway.router.CredentialRepository;
 import br.com.conductor.heimdall.gateway.router.EnvironmentInfo;
-import br.com.conductor.heimdall.gateway.router.EnvironmentInfoRepository;
+import br.com.conductor.heimdall.gateway.router.RoutingSnapshot;
+import br.com.conductor.heimdall.gateway.router.RoutingSnapshotHolder;
 import br.com.conductor.heimdall.gateway.util.RequestHelper;
 import br.com.conductor.heimdall.gateway.zuul.route.HeimdallRoute;
 import br.com.conductor.heimdall.gateway.zuul.route.ProxyRouteLocator;
+import br.com.conductor.heimdall.gateway.zuul.route.RouteTrie;
 import com.netflix.zuul.context.RequestContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.netflix.zuul.filters.ProxyRequestHelper;
@@ -50,7 +52,6 @@ import org.springframework.web.util.UrlPathHelper;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -84,13 +85,9 @@ public class HeimdallDecorationFilter extends PreDecorationFilter {
 
     private RequestHelper requestHelper;
 
-    private FilterDetail detail = new FilterDetail();
-    
-    private CredentialRepository credentialRepository;
-    
-    private EnvironmentInfoRepository environmentInfoRepository;
+    private RoutingSnapshotHolder routingSnapshotHolder;
 
-    public HeimdallDecorationFilter(ProxyRouteLocator routeLocator, String dispatcherServletPath, ZuulProperties properties, ProxyRequestHelper proxyRequestHelper, RequestHelper requestHelper, CredentialRepository credentialRepository, EnvironmentInfoRepository environmentInfoRepository) {
+    public HeimdallDecorationFilter(ProxyRouteLocator routeLocator, String dispatcherServletPath, ZuulProperties properties, ProxyRequestHelper proxyRequestHelper, RequestHelper requestHelper, RoutingSnapshotHolder routingSnapshotHolder) {
 
         super(routeLocator, dispatcherServletPath, properties, proxyRequestHelper);
         this.routeLocator = routeLocator;
@@ -100,28 +97,25 @@ public class HeimdallDecorationFilter extends PreDecorationFilter {
         this.proxyRequestHelper = proxyRequestHelper;
         this.zuulServletPath = properties.getServletPath();
         this.requestHelper = requestHelper;
-        this.credentialRepository = credentialRepository;
-        this.environmentInfoRepository = environmentInfoRepository;
+        this.routingSnapshotHolder = routingSnapshotHolder;
     }
 
     @Override
     public boolean shouldFilter() {
 
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
         boolean should = super.shouldFilter();
 
-        long endTime = System.currentTimeMillis();
-        long duration = (endTime - startTime);
-
-        detail.setTimeInMillisShould(duration);
+        FilterLatency.getInstance().shouldFilter(this.getClass().getSimpleName(), startTime, should);
         return should;
     }
 
     @Override
     public Object run() {
 
-        long startTime = System.currentTimeMillis();
+        FilterDetail detail = new FilterDetail();
+        long startTime = System.nanoTime();
         try {
             process();
             detail.setStatus(Constants.SUCCESS);
@@ -129,12 +123,7 @@ public class HeimdallDecorationFilter extends PreDecorationFilter {
             detail.setStatus(Constants.FAILED);
             throw e;
         } finally {
-            long endTime = System.currentTimeMillis();
-
-            long duration = (endTime - startTime);
-
-            detail.setTimeInMillisRun(duration);
-            TraceContextHolder.getInstance().getActualTrace().addFilter(this.getClass().getSimpleName(), detail);
+            FilterLatency.getInstance().run(this.getClass().getSimpleName(), startTime, detail);
         }
 
         return null;
@@ -248,78 +237,75 @@ public class HeimdallDecorationFilter extends PreDecorationFilter {
     protected HeimdallRoute getMatchingHeimdallRoute(String requestURI, String method, RequestContext ctx) {
 
         boolean auxMatch = false;
-        for (Entry<String, ZuulRoute> entry : routeLocator.getAtomicRoutes().get().entrySet()) {
-            if (entry.getKey() != null) {
-                String pattern = entry.getKey();
-                if (this.pathMatcher.match(pattern, requestURI)) {
-
-                    auxMatch = true;
-                    List<Credential> credentials = credentialRepository.findByPattern(pattern);
-                    Credential credential = null;
-                    if (Objects.nonNull(credentials) && !credentials.isEmpty()) {
-
-                        if (method.equals(HttpMethod.OPTIONS.name())) {
-                            Optional<Credential> first = credentials.stream().findFirst();
-                            if (first.get().isCors()) {
-                            	credential = first.get();
-                            }
-                        }
-
-                        if (Objects.isNull(credential)) {
-                        	credential = credentials.stream()
-                                    .filter(o -> o.getMethod().equals(HttpMethod.ALL.name()) || method.equals(o.getMethod().toUpperCase()))
-                                    .findFirst().orElse(null);
-                        }
+        RoutingSnapshot snapshot = routingSnapshotHolder.get();
+        for (RouteTrie.Candidate candidate : routeLocator.getRouteTrie().match(requestURI)) {
+            String pattern = candidate.getPattern();
+
+            auxMatch = true;
+            List<Credential> credentials = snapshot.findByPattern(pattern);
+            Credential credential = null;
+            if (Objects.nonNull(credentials) && !credentials.isEmpty()) {
+
+                if (method.equals(HttpMethod.OPTIONS.name())) {
+                    Optional<Credential> first = credentials.stream().findFirst();
+                    if (first.get().isCors()) {
+                    	credential = first.get();
                     }
+                }
+
+                if (Objects.isNull(credential)) {
+                	credential = credentials.stream()
+                            .filter(o -> o.getMethod().equals(HttpMethod.ALL.name()) || method.equals(o.getMethod().toUpperCase()))
+                            .findFirst().orElse(null);
+                }
+            }
 
-                    if (credential != null) {
-                        ZuulRoute zuulRoute = entry.getValue();
+            if (credential != null) {
+                ZuulRoute zuulRoute = candidate.getRoute();
 
-                        String basePath = credential.getApiBasePath();
-                        requestURI = org.apache.commons.lang.StringUtils.removeStart(requestURI, basePath);
+                String basePath = credential.getApiBasePath();
+                requestURI = org.apache.commons.lang.StringUtils.removeStart(requestURI, basePath);
 
-                        ctx.put(PATTERN, org.apache.commons.lang.StringUtils.removeStart(pattern, basePath));
-                        ctx.put(API_NAME, credential.getApiName());
-                        ctx.put(API_ID, credential.getApiId());
-                        ctx.put(RESOURCE_ID, credential.getResourceId());
-                        ctx.put(OPERATION_ID, credential.getOperationId());
-                        ctx.put(OPERATION_PATH, credential.getOperationPath());
+                ctx.put(PATTERN, org.apache.commons.lang.StringUtils.removeStart(pattern, basePath));
+                ctx.put(API_NAME, credential.getApiName());
+                ctx.put(API_ID, credential.getApiId());
+                ctx.put(RESOURCE_ID, credential.getResourceId());
+                ctx.put(OPERATION_ID, credential.getOperationId());
+                ctx.put(OPERATION_PATH, credential.getOperationPath());
 
-                        String host = ctx.getRequest().getHeader("Host");
+                String host = ctx.getRequest().getHeader("Host");
 
-                        EnvironmentInfo environment;
-                        String location = null;
-                        if (host != null && !host.isEmpty()) {
-                            environment = environmentInfoRepository.findByApiIdAndEnvironmentInboundURL(credential.getApiId(), host.toLowerCase());
-                        } else {
-                            environment = environmentInfoRepository.findByApiIdAndEnvironmentInboundURL(credential.getApiId(), ctx.getRequest().getRequestURL().toString().toLowerCase());
-                        }
+                EnvironmentInfo environment;
+                String location = null;
+                if (host != null && !host.isEmpty()) {
+                    environment = snapshot.findByApiIdAndEnvironmentInboundURL(credential.getApiId(), host.toLowerCase());
+                } else {
+                    environment = snapshot.findByApiIdAndEnvironmentInboundURL(credential.getApiId(), ctx.getRequest().getRequestURL().toString().toLowerCase());
+                }
 
-                        if (environment != null) {
-                            location = environment.getOutboundURL();
-                            ctx.put(ENVIRONMENT_VARIABLES, environment.getVariables());
-                        }
+                if (environment != null) {
+                    location = environment.getOutboundURL();
+                    ctx.put(ENVIRONMENT_VARIABLES, environment.getVariables());
+                }
 
-                        Route route = new Route(zuulRoute.getId(),
-                                requestURI,
-                                location,
-                                "",
-                                zuulRoute.getRetryable() != null ? zuulRoute.getRetryable() : false,
-                                zuulRoute.isCustomSensitiveHeaders() ? zuulRoute.getSensitiveHeaders() : null);
+                Route route = new Route(zuulRoute.getId(),
+                        requestURI,
+                        location,
+                        "",
+                        zuulRoute.getRetryable() != null ? zuulRoute.getRetryable() : false,
+                        zuulRoute.isCustomSensitiveHeaders() ? zuulRoute.getSensitiveHeaders() : null);
 
-                        TraceContextHolder traceContextHolder = TraceContextHolder.getInstance();
+                TraceContextHolder traceContextHolder = TraceContextHolder.getInstance();
 
-                        traceContextHolder.getActualTrace().setApiId(credential.getApiId());
-                        traceContextHolder.getActualTrace().setApiName(credential.getApiName());
-                        traceContextHolder.getActualTrace().setResourceId(credential.getResourceId());
-                        traceContextHolder.getActualTrace().setOperationId(credential.getOperationId());
+                traceContextHolder.getActualTrace().setApiId(credential.getApiId());
+                traceContextHolder.getActualTrace().setApiName(credential.getApiName());
+                traceContextHolder.getActualTrace().setResourceId(credential.getResourceId());
+                traceContextHolder.getActualTrace().setOperationId(credential.getOperationId());
 
-                        return new HeimdallRoute(pattern, route, false);
-                    } else {
+                return new HeimdallRoute(pattern, route, false);
+            } else {
 
-                        ctx.put(INTERRUPT, true);
-                    }
-                }
+                ctx.put(INTERRUPT, true);
             }
         }
 
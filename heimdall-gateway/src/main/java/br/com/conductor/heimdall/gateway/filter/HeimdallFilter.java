@@ -26,7 +26,7 @@ import com.netflix.zuul.context.RequestContext;
 
 import br.com.conductor.heimdall.core.util.Constants;
 import br.com.conductor.heimdall.core.trace.FilterDetail;
-import br.com.conductor.heimdall.core.trace.TraceContextHolder;
+import br.com.conductor.heimdall.gateway.trace.FilterLatency;
 
 /**
  * HeimdallFilter is a extension of a {@link ZuulFilter}.
@@ -40,12 +40,9 @@ public abstract class HeimdallFilter extends ZuulFilter {
 
      public abstract boolean should();
 
-     private FilterDetail detail = new FilterDetail();
-     
      @Override
      public boolean shouldFilter() {
-          this.detail.clear();
-          long startTime = System.currentTimeMillis();
+          long startTime = System.nanoTime();
           boolean should = true;
           
           RequestContext ctx = RequestContext.getCurrentContext();
@@ -60,10 +57,7 @@ public abstract class HeimdallFilter extends ZuulFilter {
           boolean validateExecution = should && validateExecution();
           should = should && should();
           
-          long endTime = System.currentTimeMillis();
-          long duration = (endTime - startTime);
-          
-          detail.setTimeInMillisShould(duration);
+          FilterLatency.getInstance().shouldFilter(getName(), startTime, validateExecution && should);
           return validateExecution && should;
      }
 
@@ -79,7 +73,8 @@ public abstract class HeimdallFilter extends ZuulFilter {
      @Override
      public Object run() {
 
-          long startTime = System.currentTimeMillis();
+          FilterDetail detail = new FilterDetail();
+          long startTime = System.nanoTime();
           try {
                execute();
                detail.setStatus(Constants.SUCCESS);
@@ -87,12 +82,7 @@ public abstract class HeimdallFilter extends ZuulFilter {
                detail.setStatus(Constants.FAILED);
                detail.setStackTrace(e.getClass().getName(), e.getMessage());
           } finally {
-               long endTime = System.currentTimeMillis();
-
-               long duration = (endTime - startTime);
-
-               detail.setTimeInMillisRun(duration);
-               TraceContextHolder.getInstance().getActualTrace().addFilter(getName(), detail);
+               FilterLatency.getInstance().run(getName(), startTime, detail);
           }
           return null;
      }     
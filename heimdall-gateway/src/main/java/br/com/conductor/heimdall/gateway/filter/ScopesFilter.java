@@ -19,11 +19,11 @@
  */
 package br.com.conductor.heimdall.gateway.filter;
 
-import br.com.conductor.heimdall.core.entity.App;
-import br.com.conductor.heimdall.core.repository.AppRepository;
 import br.com.conductor.heimdall.core.util.Constants;
 import br.com.conductor.heimdall.core.trace.FilterDetail;
-import br.com.conductor.heimdall.core.trace.TraceContextHolder;
+import br.com.conductor.heimdall.gateway.entitlement.Entitlement;
+import br.com.conductor.heimdall.gateway.entitlement.EntitlementIndex;
+import br.com.conductor.heimdall.gateway.trace.FilterLatency;
 import com.netflix.zuul.ZuulFilter;
 import com.netflix.zuul.context.RequestContext;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,10 +31,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
-
 import static br.com.conductor.heimdall.gateway.util.ConstantsContext.*;
 import static org.springframework.cloud.netflix.zuul.filters.support.FilterConstants.PRE_TYPE;
 
@@ -47,9 +43,7 @@ import static org.springframework.cloud.netflix.zuul.filters.support.FilterConst
 public class ScopesFilter extends ZuulFilter {
 
     @Autowired
-    private AppRepository appRepository;
-
-    private FilterDetail detail = new FilterDetail();
+    private EntitlementIndex entitlementIndex;
 
     @Override
     public String filterType() {
@@ -68,7 +62,8 @@ public class ScopesFilter extends ZuulFilter {
 
     @Override
     public Object run() {
-        long startTime = System.currentTimeMillis();
+        FilterDetail detail = new FilterDetail();
+        long startTime = System.nanoTime();
         try {
             process();
             detail.setStatus(Constants.SUCCESS);
@@ -76,12 +71,7 @@ public class ScopesFilter extends ZuulFilter {
             detail.setStatus(Constants.FAILED);
             throw e;
         } finally {
-            long endTime = System.currentTimeMillis();
-
-            long duration = (endTime - startTime);
-
-            detail.setTimeInMillisRun(duration);
-            TraceContextHolder.getInstance().getActualTrace().addFilter(this.getClass().getSimpleName(), detail);
+            FilterLatency.getInstance().run(this.getClass().getSimpleName(), startTime, detail);
         }
         return null;
     }
@@ -93,33 +83,20 @@ public class ScopesFilter extends ZuulFilter {
 
         if (client_id != null) {
 
-            App app = appRepository.findByClientId(client_id);
-            if (app == null || app.getPlans() == null) return;
+            Entitlement entitlement = entitlementIndex.byClientId(client_id);
+            if (!entitlement.exists()) return;
 
-            Set<Long> apis = app.getPlans().stream().map(plan -> plan.getApi().getId()).collect(Collectors.toSet());
             Long apiId = (Long) context.get(API_ID);
-            if (!apis.contains(apiId)) return;
-
-            final Set<Long> allowedOperations = new HashSet<>();
-
-            app.getPlans()
-                    .forEach(plan -> {
-                        if (plan != null && plan.getApi().getId().equals(apiId))
-                            plan.getScopes()
-                                    .forEach(scope -> {
-                                        if (scope != null)
-                                            allowedOperations.addAll(scope.getOperationsIds());
-                                    });
-                    });
+            if (!entitlement.allowsApi(apiId)) return;
 
             final Long operation = (Long) context.get(OPERATION_ID);
 
             if (operation == null) return;
 
-            // If the allowedOperations is empty it means that Scopes are not set
-            if (allowedOperations.isEmpty()) return;
+            // If there are no allowed operations it means that Scopes are not set
+            if (!entitlement.hasScopes(apiId)) return;
 
-            if (!allowedOperations.contains(operation)) {
+            if (!entitlement.allowsOperation(apiId, operation)) {
                 context.setSendZuulResponse(false);
                 context.setResponseStatusCode(HttpStatus.FORBIDDEN.value());
                 context.setResponseBody(HttpStatus.FORBIDDEN.getReasonPhrase());
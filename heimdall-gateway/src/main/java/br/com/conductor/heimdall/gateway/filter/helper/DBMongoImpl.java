@@ -19,6 +19,7 @@
  */
 package br.com.conductor.heimdall.gateway.filter.helper;
 
+import br.com.conductor.heimdall.core.util.DatastoreRegistry;
 import br.com.conductor.heimdall.middleware.spec.DB;
 import br.com.conductor.heimdall.middleware.spec.DBMongo;
 import br.com.conductor.heimdall.middleware.spec.Json;
@@ -29,12 +30,11 @@ import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.mongodb.morphia.Datastore;
-import org.mongodb.morphia.Morphia;
-import org.mongodb.morphia.annotations.Id;
 import org.mongodb.morphia.query.FindOptions;
 import org.mongodb.morphia.query.Query;
 
@@ -57,6 +57,8 @@ import java.util.List;
 @Slf4j
 public class DBMongoImpl implements DBMongo {
 
+     private static final ObjectMapper MAPPER = new ObjectMapper();
+
      private Json json = new JsonImpl();
 
      private String databaseName;
@@ -67,6 +69,8 @@ public class DBMongoImpl implements DBMongo {
 
 	 private MongoClient mongoClient;
 
+     private DatastoreRegistry datastores;
+
      /**
       * Initializes the database connection by name.
       * 
@@ -75,8 +79,24 @@ public class DBMongoImpl implements DBMongo {
       */
      public DBMongoImpl(String databaseName, MongoClient mongoClient) {
 
+          this(databaseName, mongoClient, new DatastoreRegistry(mongoClient));
+     }
+
+     /**
+      * Initializes the database connection by name, reusing the Datastores of a {@link DatastoreRegistry}.
+      *
+      * @param databaseName
+      * Database names
+      * @param mongoClient
+      * The {@link MongoClient}
+      * @param datastores
+      * The {@link DatastoreRegistry} of the client
+      */
+     public DBMongoImpl(String databaseName, MongoClient mongoClient, DatastoreRegistry datastores) {
+
           this.databaseName = databaseName;
           this.mongoClient = mongoClient;
+          this.datastores = datastores;
      }
 
      @Override
@@ -97,6 +117,18 @@ public class DBMongoImpl implements DBMongo {
           return save(object);
      }
 
+     @Override
+     public <T> List<T> saveAll(List<T> objects) {
+
+          try {
+               this.datastore().save(objects);
+               return objects;
+          } catch (Exception e) {
+               log.error(e.getMessage(), e);
+               return null;
+          }
+     }
+
      @Override
      public <T> Boolean delete(T object) {
 
@@ -161,15 +193,20 @@ public class DBMongoImpl implements DBMongo {
 	@Override
 	public <T> void insertMany(MongoCollection<Document> collection, List<T> objects) {
 
+		insertMany(collection, objects, true);
+	}
+
+	@Override
+	public <T> void insertMany(MongoCollection<Document> collection, List<T> objects, boolean ordered) {
+
 		try {
 
-			List<Document> ts = new ArrayList<>();
+			List<Document> ts = new ArrayList<>(objects.size());
 			for (T t : objects) {
 
 				ts.add(Document.parse(json.parse(t)));
 			}
-			collection.insertMany(ts);
-			this.datastore().save(ts);
+			collection.insertMany(ts, new InsertManyOptions().ordered(ordered));
 		} catch (Exception e) {
 			log.error(e.getMessage(), e);
 		}
@@ -245,7 +282,7 @@ public class DBMongoImpl implements DBMongo {
           for (Document document : documents) {
             T parse;
 			try {
-				parse = new ObjectMapper().readValue(document.toJson(), classType);
+				parse = MAPPER.readValue(document.toJson(), classType);
 			} catch (IOException e) {
 				log.error("Json Parser error", e);
 				parse = null;
@@ -284,7 +321,7 @@ public class DBMongoImpl implements DBMongo {
 
      private Datastore datastore() {
     	 
-          return new Morphia().createDatastore(this.mongoClient, this.databaseName);
+          return this.datastores.datastore(this.databaseName);
      }
 
      private MongoDatabase database() {
@@ -294,14 +331,7 @@ public class DBMongoImpl implements DBMongo {
 
      private <T> Object getValueId(T object) {
 
-          Field id = Arrays.stream(object.getClass().getDeclaredFields()).filter(field -> field.getAnnotation(Id.class) != null).findFirst().get();
-          id.setAccessible(true);
-          try {
-               return id.get(object);
-          } catch (IllegalArgumentException | IllegalAccessException e) {
-               log.error(e.getMessage(), e);
-          }
-          return null;
+          return DatastoreRegistry.idOf(object);
      }
 
      private <T> Query<T> prepareQuery(Object criteria, Datastore dataStore) {
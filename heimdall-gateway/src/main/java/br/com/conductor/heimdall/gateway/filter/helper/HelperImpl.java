@@ -20,15 +20,16 @@
 package br.com.conductor.heimdall.gateway.filter.helper;
 
 import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.core.util.DatastoreRegistry;
 import br.com.conductor.heimdall.gateway.failsafe.CircuitBreakerManager;
-import br.com.conductor.heimdall.gateway.filter.helper.http.HeimdallResponseErrorHandler;
+import br.com.conductor.heimdall.gateway.filter.helper.http.MiddlewareHttpClient;
 import br.com.conductor.heimdall.middleware.enums.DBType;
 import br.com.conductor.heimdall.middleware.spec.*;
 import com.mongodb.MongoClient;
+import com.netflix.zuul.context.RequestContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cloud.netflix.zuul.filters.ZuulProperties;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
 
 /**
  * Implementation of the {@link Helper} interface.
@@ -40,27 +41,37 @@ public class HelperImpl implements Helper {
 	
 	@Autowired(required = false)
 	private MongoClient mongoClient;
+
+	private DatastoreRegistry datastores;
 	
 	private ThreadLocal<byte[]> buffers;
 
-	private boolean enableHandler;
+	/*
+	 * Kept in the RequestContext, so the handler chosen by a middleware applies only to its request.
+	 */
+	private static final String HTTP_HANDLER = "heimdall.httpHandler";
 
 	@Autowired
 	private Property property;
-	
-	@Autowired
-	private ZuulProperties zuulProperty;
 
 	@Autowired
 	private CircuitBreakerManager circuitBreakerManager;
 	
-	private RestTemplate restTemplate;
+	@Autowired
+	private MiddlewareHttpClient middlewareHttpClient;
 
 	public HelperImpl() {
-		enableHandler = false;
 		buffers = ThreadLocal.withInitial(() -> new byte[8192]);
 	}
 
+	@PostConstruct
+	public void init() {
+
+		if (mongoClient != null) {
+			datastores = new DatastoreRegistry(mongoClient);
+		}
+	}
+
 	@Override
 	public ApiResponse apiResponse() {
 
@@ -84,10 +95,23 @@ public class HelperImpl implements Helper {
 
 		switch (type) {
 		default:
-			return new DBMongoImpl(databaseName, mongoClient);
+			return new DBMongoImpl(databaseName, mongoClient, datastores());
 		}
 	}
 
+	/*
+	 * A middleware maps its entities in the registry of its own deployment, the shared one is used out of a middleware.
+	 */
+	private DatastoreRegistry datastores() {
+
+		if (mongoClient == null) {
+			return datastores;
+		}
+
+		DatastoreRegistry deployed = MiddlewareRuntime.getInstance().datastores(mongoClient);
+		return deployed != null ? deployed : datastores;
+	}
+
 	@Override
 	public DBMongo dbMongo(String databaseName) {
 
@@ -96,25 +120,9 @@ public class HelperImpl implements Helper {
 
 	@Override
 	public Http http() {
-		return new HttpImpl(rest(), circuitBreakerManager, property.getFailsafe().isEnabled());
-	}
-	
-	private RestTemplate rest() {
-        if (this.restTemplate == null) {
-            this.restTemplate = new RestTemplate(httpClientRequestFactory());
-        }
-
-        if (enableHandler) {
-            this.restTemplate.setErrorHandler(new HeimdallResponseErrorHandler());
-        }
-        return this.restTemplate;
-    }
-	
-	private HttpComponentsClientHttpRequestFactory httpClientRequestFactory() {
-		HttpComponentsClientHttpRequestFactory httpClient = new HttpComponentsClientHttpRequestFactory();
-		httpClient.setConnectTimeout(zuulProperty.getHost().getConnectTimeoutMillis());
-		httpClient.setReadTimeout(zuulProperty.getHost().getSocketTimeoutMillis());
-		return httpClient;
+		boolean useHandler = RequestContext.getCurrentContext().getBoolean(HTTP_HANDLER);
+		return new HttpImpl(middlewareHttpClient.restTemplate(useHandler), circuitBreakerManager, property.getFailsafe().isEnabled(),
+				middlewareHttpClient::supplyAsync);
 	}
 
 	@Override
@@ -132,7 +140,7 @@ public class HelperImpl implements Helper {
 
 	@Override
 	public void httpHandler(boolean useHandler) {
-		this.enableHandler = useHandler;
+		RequestContext.getCurrentContext().set(HTTP_HANDLER, useHandler);
 	}
 
 }
@@ -26,6 +26,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.http.entity.ContentType;
 import org.springframework.http.HttpEntity;
@@ -39,7 +42,10 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import com.netflix.zuul.context.RequestContext;
 
+import br.com.conductor.heimdall.core.trace.Trace;
+import br.com.conductor.heimdall.core.trace.TraceContextHolder;
 import br.com.conductor.heimdall.gateway.failsafe.CircuitBreakerManager;
+import br.com.conductor.heimdall.middleware.spec.ApiResponse;
 import br.com.conductor.heimdall.middleware.spec.Http;
 import br.com.conductor.heimdall.middleware.spec.Json;
 
@@ -52,14 +58,12 @@ import br.com.conductor.heimdall.middleware.spec.Json;
  */
 public class HttpImpl implements Http {
 
-    private Json json = new JsonImpl();
+    private static final Json JSON = new JsonImpl();
 
     private HttpHeaders headers = new HttpHeaders();
 
     private UriComponentsBuilder uriComponentsBuilder;
 
-    private HttpEntity<String> requestBody;
-
     private String body;
 
     private MultiValueMap<String, String> formData;
@@ -72,10 +76,21 @@ public class HttpImpl implements Http {
 
     private boolean isFailSafeEnabled;
 
+    private Function<Supplier<ApiResponse>, CompletableFuture<ApiResponse>> async;
+
     public HttpImpl(RestTemplate restTemplate, CircuitBreakerManager circuitBreakerManager, boolean isFailSafeEnabled) {
+    	this(restTemplate, circuitBreakerManager, isFailSafeEnabled, CompletableFuture::supplyAsync);
+    }
+
+    /**
+     * @param async Sends a request without blocking, the future returned may abort the request when cancelled
+     */
+    public HttpImpl(RestTemplate restTemplate, CircuitBreakerManager circuitBreakerManager, boolean isFailSafeEnabled,
+                    Function<Supplier<ApiResponse>, CompletableFuture<ApiResponse>> async) {
     	this.restTemplate = restTemplate;
         this.circuitBreakerManager = circuitBreakerManager;
         this.isFailSafeEnabled = isFailSafeEnabled;
+        this.async = async;
         this.queryParams = new LinkedMultiValueMap<>();
     }
 
@@ -132,7 +147,7 @@ public class HttpImpl implements Http {
             });
         } else {
 
-            body = json.parse(params);
+            body = JSON.parse(params);
         }
 
         return this;
@@ -141,7 +156,7 @@ public class HttpImpl implements Http {
     @Override
     public HttpImpl body(String params) {
 
-        body = json.parse(params);
+        body = JSON.parse(params);
 
         return this;
 
@@ -150,115 +165,106 @@ public class HttpImpl implements Http {
     @Override
     public ApiResponseImpl sendGet() {
 
-        setUIDFromInterceptor();
-        ResponseEntity<String> entity;
-    
-        updateQueryParams();
-        if (headers.isEmpty()) {
-            entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.GET, new HttpEntity(new HttpHeaders()), String.class);
-        } else {
-            entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.GET, new HttpEntity<>(headers), String.class);
-        }
-
-        return buildResponse(entity);
+        return request(HttpMethod.GET).get();
     }
 
     @Override
     public ApiResponseImpl sendPost() {
 
-        setUIDFromInterceptor();
-        ResponseEntity<String> entity;
-    
-        updateQueryParams();
-        if (headers.isEmpty()) {
+        return request(HttpMethod.POST).get();
+    }
 
-            requestBody = new HttpEntity<>(body);
-            entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.POST, requestBody, String.class);
-        } else {
+    @Override
+    public ApiResponseImpl sendPut() {
 
-            if (formData != null) {
+        return request(HttpMethod.PUT).get();
+    }
 
-                HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(formData, headers);
-                entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.POST, request, String.class);
-            } else {
+    @Override
+    public ApiResponseImpl sendDelete() {
 
-                requestBody = new HttpEntity<>(body, headers);
-                entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.POST, requestBody, String.class);
-            }
+        return request(HttpMethod.DELETE).get();
+    }
 
-            requestBody = new HttpEntity<>(body, headers);
-        }
+    @Override
+    public ApiResponseImpl sendPatch() {
 
-        return buildResponse(entity);
+        return request(HttpMethod.PATCH).get();
     }
 
     @Override
-    public ApiResponseImpl sendPut() {
+    public CompletableFuture<ApiResponse> sendGetAsync() {
 
-        setUIDFromInterceptor();
-        ResponseEntity<String> entity;
-    
-        updateQueryParams();
-        if (headers.isEmpty()) {
+        return sendAsync(HttpMethod.GET);
+    }
 
-            requestBody = new HttpEntity<>(body);
-            entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.PUT, requestBody, String.class);
-        } else {
+    @Override
+    public CompletableFuture<ApiResponse> sendPostAsync() {
 
-            if (formData != null) {
+        return sendAsync(HttpMethod.POST);
+    }
 
-                HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(formData, headers);
-                entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.PUT, request, String.class);
-            } else {
+    @Override
+    public CompletableFuture<ApiResponse> sendPutAsync() {
 
-                requestBody = new HttpEntity<>(body, headers);
-                entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.PUT, requestBody, String.class);
-            }
-        }
+        return sendAsync(HttpMethod.PUT);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> sendDeleteAsync() {
 
-        return buildResponse(entity);
+        return sendAsync(HttpMethod.DELETE);
     }
 
     @Override
-    public ApiResponseImpl sendDelete() {
+    public CompletableFuture<ApiResponse> sendPatchAsync() {
 
-        setUIDFromInterceptor();
-        ResponseEntity<String> entity;
-    
-        updateQueryParams();
-        if (headers.isEmpty()) {
-            entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.DELETE, null, String.class);
-        } else {
-            entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.DELETE, new HttpEntity<>(headers), String.class);
-        }
+        return sendAsync(HttpMethod.PATCH);
+    }
 
-        return buildResponse(entity);
+    /*
+     * The request is built in the calling thread, where the RequestContext is available, and sent without blocking.
+     */
+    private CompletableFuture<ApiResponse> sendAsync(HttpMethod method) {
+
+        Supplier<ApiResponseImpl> request = request(method);
+        return async.apply(request::get);
     }
 
-    @Override
-    public ApiResponseImpl sendPatch() {
+    /*
+     * Builds the request of a method with the current state of this Http.
+     */
+    private Supplier<ApiResponseImpl> request(HttpMethod method) {
 
         setUIDFromInterceptor();
-        ResponseEntity<String> entity;
-    
         updateQueryParams();
-        if (headers.isEmpty()) {
-            requestBody = new HttpEntity<>(body);
-            entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.PATCH, requestBody, String.class);
+        URI uri = uriComponentsBuilder.build().encode().toUri();
+
+        HttpEntity<?> httpEntity;
+        if (method == HttpMethod.GET) {
+            httpEntity = new HttpEntity<>(copyHeaders());
+        } else if (method == HttpMethod.DELETE) {
+            httpEntity = headers.isEmpty() ? null : new HttpEntity<>(copyHeaders());
+        } else if (headers.isEmpty()) {
+            httpEntity = new HttpEntity<>(body);
+        } else if (formData != null) {
+            httpEntity = new HttpEntity<>(formData, copyHeaders());
         } else {
-            if (formData != null) {
-                HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(formData, headers);
-                entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.PATCH, request, String.class);
-            } else {
-                requestBody = new HttpEntity<>(body, headers);
-                entity = sendRequest(uriComponentsBuilder.build().encode().toUri(), HttpMethod.PATCH, requestBody, String.class);
-            }
+            httpEntity = new HttpEntity<>(body, copyHeaders());
         }
 
-        return buildResponse(entity);
+        Trace trace = TraceContextHolder.getInstance().getActualTrace();
+        return () -> buildResponse(sendRequest(uri, method, httpEntity, String.class, trace));
+    }
+
+    private HttpHeaders copyHeaders() {
+
+        HttpHeaders copy = new HttpHeaders();
+        copy.putAll(headers);
+        return copy;
     }
 
-    private <T> ResponseEntity<T> sendRequest(URI uri, HttpMethod method, HttpEntity httpEntity, Class<T> responseType) {
+    private <T> ResponseEntity<T> sendRequest(URI uri, HttpMethod method, HttpEntity httpEntity, Class<T> responseType, Trace trace) {
 
         if (isFailSafeEnabled) {
 
@@ -266,7 +272,8 @@ public class HttpImpl implements Http {
 
             return circuitBreakerManager.failsafe(
                     () -> this.restTemplate.exchange(uri, method, httpEntity, responseType),
-                    url
+                    url,
+                    trace
             );
         }
 
@@ -27,10 +27,14 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -39,15 +43,21 @@ import org.json.JSONObject;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.Validator;
-import javax.validation.ValidatorFactory;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of the {@link Json} interface.
+ * <p>
+ * The mapper is configured once and shared, the readers and writers derived from it are immutable
+ * and thread safe.
  *
  * @author Filipe Germano
  *
@@ -55,12 +65,42 @@ import java.util.stream.Collectors;
 @Slf4j
 public class JsonImpl implements Json {
 
+	private static final ObjectMapper MAPPER = new ObjectMapper()
+			.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true)
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+			.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+	private static final ObjectMapper NON_NULL_MAPPER = MAPPER.copy().setSerializationInclusion(Include.NON_NULL);
+
+	private static final JavaType MAP_TYPE = MAPPER.getTypeFactory().constructMapType(Map.class, String.class, Object.class);
+
+	private static final ObjectWriter WRITER = MAPPER.writer();
+
+	/*
+	 * The readers are kept per class without holding the class loader of the middleware that owns the class.
+	 */
+	private static final ClassValue<ObjectReader> READERS = new ClassValue<ObjectReader>() {
+		@Override
+		protected ObjectReader computeValue(Class<?> type) {
+
+			return MAPPER.readerFor(type);
+		}
+	};
+
+	/*
+	 * The readers of the generic types are bounded and expire, so a redeployed middleware does not keep its classes.
+	 */
+	private static final Cache<JavaType, ObjectReader> GENERIC_READERS = Caffeine.newBuilder()
+			.maximumSize(1024)
+			.expireAfterAccess(10, TimeUnit.MINUTES)
+			.build();
+
+	private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
 	public String parse(Map<String, Object> body) {
 
 		try {
-			String json = mapper().writeValueAsString(body);
-
-			return json;
+			return WRITER.writeValueAsString(body);
 		} catch (JsonProcessingException e) {
 
 			log.error(e.getMessage(), e);
@@ -92,10 +132,7 @@ public class JsonImpl implements Json {
 	public <T> String parse(T object) {
 
 		try {
-
-			String jsonInString = mapper().writeValueAsString(object);
-
-			return jsonInString;
+			return WRITER.writeValueAsString(object);
 		} catch (Exception e) {
 
 			log.error(e.getMessage(), e);
@@ -106,19 +143,7 @@ public class JsonImpl implements Json {
 	public <T> T parse(String json, Class<?> classType) throws BeanValidationException {
 
 		try {
-			@SuppressWarnings("unchecked")
-			T obj = (T) mapper().readValue(json, classType);
-
-			List<BeanValidationErrorDTO> errors = beanValidation(obj);
-
-			if (!errors.isEmpty()) {
-
-				String jsonViolations = parse(errors);
-
-				throw new BeanValidationException("Bean validation error.", jsonViolations);
-			}
-
-			return obj;
+			return validate(READERS.get(classType).readValue(json));
 		} catch (BeanValidationException e) {
 			log.debug(e.getMessage(), e);
 			throw e;
@@ -132,20 +157,35 @@ public class JsonImpl implements Json {
 	@Override
 	public <T> T parse(String json, TypeReference<T> type) throws BeanValidationException {
 		try {
-			mapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-			@SuppressWarnings("unchecked")
-			T obj = (T) mapper().readValue(json, type);
+			return validate(reader(MAPPER.getTypeFactory().constructType(type)).readValue(json));
+		} catch (BeanValidationException e) {
+			log.debug(e.getMessage(), e);
+			throw e;
+		} catch (Exception e) {
 
-			List<BeanValidationErrorDTO> errors = beanValidation(obj);
+			log.error(e.getMessage(), e);
+			return null;
+		}
+	}
 
-			if (!errors.isEmpty()) {
 
-				String jsonViolations = parse(errors);
+	public <T> T parse(String json, Class<?> parametrized, Class<?>... parameterClasses) throws BeanValidationException {
+		try {
+			return validate(reader(MAPPER.getTypeFactory().constructParametricType(parametrized, parameterClasses)).readValue(json));
+		} catch (BeanValidationException e) {
+			log.error(e.getMessage(), e);
+			throw e;
+		} catch (Exception e) {
+			log.error(e.getMessage(), e);
+			return null;
+		}
+	}
 
-				throw new BeanValidationException("Bean validation error.", jsonViolations);
-			}
+	@Override
+	public <T> T parse(InputStream json, Class<T> classType) throws BeanValidationException {
 
-			return obj;
+		try {
+			return validate(READERS.get(classType).readValue(json));
 		} catch (BeanValidationException e) {
 			log.debug(e.getMessage(), e);
 			throw e;
@@ -156,40 +196,43 @@ public class JsonImpl implements Json {
 		}
 	}
 
+	@Override
+	public <T> T parse(byte[] json, Class<T> classType) throws BeanValidationException {
 
-	public <T> T parse(String json, Class<?> parametrized, Class<?>... parameterClasses) throws BeanValidationException {
 		try {
-			@SuppressWarnings("unchecked")
-			T obj = (T) mapper().readValue(json, TypeFactory.defaultInstance().constructParametricType(parametrized, parameterClasses));
+			return validate(READERS.get(classType).readValue(json));
+		} catch (BeanValidationException e) {
+			log.debug(e.getMessage(), e);
+			throw e;
+		} catch (Exception e) {
 
-			List<BeanValidationErrorDTO> errors = beanValidation(obj);
-			
-			if (!errors.isEmpty()) {
+			log.error(e.getMessage(), e);
+			return null;
+		}
+	}
 
-				String jsonViolations = parse(errors);
+	@Override
+	public byte[] parseToBytes(Object object) {
 
-				throw new BeanValidationException("Bean validation error.", jsonViolations);
-			}
+		try {
+			return WRITER.writeValueAsBytes(object);
+		} catch (JsonProcessingException e) {
 
-			return obj;
-		} catch (BeanValidationException e) {
-			log.error(e.getMessage(), e);
-			throw e;
-		} catch (Exception e) {
 			log.error(e.getMessage(), e);
 			return null;
 		}
 	}
 
+	@Override
+	public void write(Object object, OutputStream output) throws IOException {
+
+		WRITER.writeValue(output, object);
+	}
+
 	public <T> Map<String, Object> parseToMap(T object) {
 
 		try {
-			ObjectMapper mapper = mapper().setSerializationInclusion(Include.NON_NULL);
-			String jsonInString = mapper.writeValueAsString(object);
-
-			@SuppressWarnings("unchecked")
-			Map<String, Object> map = mapper.readValue(jsonInString, Map.class);
-			return map;
+			return NON_NULL_MAPPER.convertValue(object, MAP_TYPE);
 		} catch (Exception e) {
 
 			log.error(e.getMessage(), e);
@@ -199,7 +242,7 @@ public class JsonImpl implements Json {
 
 	public boolean isJson(String string) {
 
-		try (JsonParser parser = new ObjectMapper().getFactory().createParser(string)) {
+		try (JsonParser parser = MAPPER.getFactory().createParser(string)) {
 
 			while (parser.nextToken() != null) {}
 
@@ -210,26 +253,38 @@ public class JsonImpl implements Json {
 
 	}
 
-	private ObjectMapper mapper() {
+	private static ObjectReader reader(JavaType type) {
+
+		return GENERIC_READERS.get(type, MAPPER::readerFor);
+	}
+
+	/*
+	 * Throws a BeanValidationException with the violations of the bean, if any.
+	 */
+	private <T> T validate(T bean) throws BeanValidationException {
+
+		List<BeanValidationErrorDTO> errors = beanValidation(bean);
+
+		if (!errors.isEmpty()) {
 
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+			String jsonViolations = parse(errors);
+
+			throw new BeanValidationException("Bean validation error.", jsonViolations);
+		}
 
-		return mapper;
+		return bean;
 	}
 	
 	private <T> List<BeanValidationErrorDTO> beanValidation(T bean) {
 
-        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
-        	Validator validator = factory.getValidator();
-        	
-        	Set<ConstraintViolation<T>> violations = validator.validate(bean);
-        	
-        	return violations.stream().map(v -> {
-				return new BeanValidationErrorDTO(v.getPropertyPath().toString(), v.getMessage());
-			}).collect(Collectors.toList());
-        }
+		if (bean == null) {
+			return Collections.emptyList();
+		}
+
+		Set<ConstraintViolation<T>> violations = VALIDATOR.validate(bean);
+
+		return violations.stream()
+				.map(v -> new BeanValidationErrorDTO(v.getPropertyPath().toString(), v.getMessage()))
+				.collect(Collectors.toList());
    }
 }
@@ -19,12 +19,7 @@
  */
 package br.com.conductor.heimdall.gateway.filter.helper;
 
-import groovy.lang.GroovyClassLoader;
-
-import java.io.File;
-import java.io.FilenameFilter;
-import java.util.Arrays;
-import java.util.Comparator;
+import br.com.conductor.heimdall.middleware.spec.Helper;
 
 /**
  * Middleware representation.
@@ -35,10 +30,6 @@ import java.util.Comparator;
  */
 public class Middleware {
 
-     private GroovyClassLoader classLoader;
-
-     private final String JAR = ".jar";
-     
      private final String pathReferences;
 
      /**
@@ -49,26 +40,35 @@ public class Middleware {
      public Middleware(String pathReferences) {
 
           this.pathReferences = pathReferences;
-          loadClassPath();
      }
 
      /**
-      * Returns a instance of a class by its name.
+      * Returns a instance of a class by its name. The class is resolved once per deployed jar by the
+      * {@link MiddlewareRuntime}, and a class without instance state always returns the same instance.
       * 
       * @param className				- The name of the class
-      * @return							The instance created
+      * @return							The instance
       * @throws ClassNotFoundException
       * @throws InstantiationException
       * @throws IllegalAccessException
       */
-     @SuppressWarnings("unchecked")
      public <T> T instance(String className) throws ClassNotFoundException, InstantiationException, IllegalAccessException {
 
-          Class<?> clazz = classLoader.loadClass(className);
+          return MiddlewareRuntime.getInstance().instance(pathReferences, className);
+     }
 
-          Object newInstance = clazz.newInstance();
+     /**
+      * Runs a class of the middleware, keeping its deployment open until the call finishes.
+      *
+      * @param className				- The name of the class
+      * @param helper					- The {@link Helper} of the request
+      * @throws ClassNotFoundException
+      * @throws InstantiationException
+      * @throws IllegalAccessException
+      */
+     public void run(String className, Helper helper) throws ClassNotFoundException, InstantiationException, IllegalAccessException {
 
-          return (T) newInstance;
+          MiddlewareRuntime.getInstance().run(pathReferences, className, helper);
      }
 
      /**
@@ -86,56 +86,4 @@ public class Middleware {
           return instance(packageName + "." + className);
      }
 
-     /**
-      * Returns a {@link GroovyClassLoader} created from a reference path.
-      * 
-      * @return					{@link GroovyClassLoader}
-      */
-     private GroovyClassLoader loadClassPath() {
-
-          classLoader = new GroovyClassLoader();
-          File lastModifiedFile = lastModified((dir, name) -> name.contains(JAR));
-
-          if (lastModifiedFile != null)
-               classLoader.addClasspath(pathReferences + File.separator + lastModifiedFile.getName());
-          
-          return classLoader;
-     }
-
-     /*
-      * List all files from a path using a FilenameFilter.
-      * 
-      * @param filter		- The FilenameFilter
-      * @return				List<Files>
-      */
-     private File lastModified(FilenameFilter filter) {
-
-          File directory = new File(pathReferences);
-          
-          File[] entries = directory.listFiles();
-
-          return (entries != null)
-             ? Arrays.stream(entries)
-                  .filter(e -> filter.accept(directory, e.getName()))
-                  .max(Comparator.comparingLong(File::lastModified))
-                  .orElse(null)
-             : null;
-
-     }
-
-     /*
-      * Converts the middleware version from the name of the file.
-      *
-      * This functionality is not used yet but it will be needed when we implement the automatic middleware versioning.
-      *
-      * Ex.: version 2.15.57
-      *      integer generated: 2015057
-      */
-     private static Integer version(File file) {
-          String[] values = file.getName().replaceAll(".+\\.\\d{14}\\.(.+)\\.jar", "$1").split("\\.");
-          return Integer.parseInt(values[0])*1000000 +
-                  Integer.parseInt(values[1])*1000 +
-                  Integer.parseInt(values[2]);
-     }
-
 }
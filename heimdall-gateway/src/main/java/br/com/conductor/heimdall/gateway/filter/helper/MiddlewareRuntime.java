@@ -0,0 +1,418 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.helper;
+
+import br.com.conductor.heimdall.core.util.DatastoreRegistry;
+import br.com.conductor.heimdall.middleware.spec.Helper;
+import com.mongodb.MongoClient;
+import groovy.lang.GroovyClassLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the classes of the deployed middleware jars loaded, one {@link GroovyClassLoader} per jar version.
+ * <p>
+ * The entry classes are resolved once per deployment, and a class without instance state is instantiated once
+ * and shared by every request. A new jar replaces the whole deployment at once, so a request uses either the
+ * previous or the new version. Each deployment counts the calls running on it, and the class loader of a deployment
+ * replaced or removed is closed when its last call finishes.
+ * <p>
+ * Each deployment also keeps its own {@link DatastoreRegistry}, because Morphia maps the entity classes by name
+ * and two middlewares, or two versions of one, may declare different classes with the same name.
+ */
+@Slf4j
+public class MiddlewareRuntime {
+
+     private static final String JAR = ".jar";
+
+     private final ConcurrentMap<String, Deployment> deployments = new ConcurrentHashMap<>();
+
+     private final List<Runnable> redeployListeners = new CopyOnWriteArrayList<>();
+
+     /*
+      * The deployment of the middleware running in the thread.
+      */
+     private final ThreadLocal<Deployment> running = new ThreadLocal<>();
+
+     private static class LazyHolder {
+          static final MiddlewareRuntime INSTANCE = new MiddlewareRuntime();
+     }
+
+     /**
+      * Thread safe singleton initializer.
+      *
+      * @return {@link MiddlewareRuntime} instance
+      */
+     public static MiddlewareRuntime getInstance() {
+
+          return LazyHolder.INSTANCE;
+     }
+
+     /**
+      * Returns a instance of a class of the middleware deployed in a path. The instance is shared when the
+      * class has no instance state.
+      *
+      * @param pathReferences The path of the middleware jars
+      * @param className      The name of the class
+      * @return The instance
+      * @throws ClassNotFoundException
+      * @throws InstantiationException
+      * @throws IllegalAccessException
+      */
+     @SuppressWarnings("unchecked")
+     public <T> T instance(String pathReferences, String className) throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+
+          Deployment deployment = deployments.get(key(pathReferences));
+          if (deployment == null) {
+               deployment = load(pathReferences);
+          }
+
+          return (T) deployment.entry(className).instance();
+     }
+
+     /**
+      * Runs a class of the middleware deployed in a path. The deployment is kept open until the call finishes,
+      * even if it is replaced or removed meanwhile.
+      *
+      * @param pathReferences The path of the middleware jars
+      * @param className      The name of the class
+      * @param helper         The {@link Helper} of the request
+      * @throws ClassNotFoundException
+      * @throws InstantiationException
+      * @throws IllegalAccessException
+      */
+     public void run(String pathReferences, String className, Helper helper) throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+
+          Deployment deployment = acquire(pathReferences);
+          Deployment caller = running.get();
+          running.set(deployment);
+          try {
+               Object middleware = deployment.entry(className).instance();
+               if (middleware instanceof br.com.conductor.heimdall.middleware.spec.Middleware) {
+                    ((br.com.conductor.heimdall.middleware.spec.Middleware) middleware).run(helper);
+               } else {
+                    InvokerHelper.invokeMethod(middleware, "run", helper);
+               }
+          } finally {
+               if (caller != null) {
+                    running.set(caller);
+               } else {
+                    running.remove();
+               }
+               deployment.release();
+          }
+     }
+
+     /**
+      * Returns the {@link DatastoreRegistry} of the middleware running in the current thread. The registry is
+      * created on the first call and discarded with the deployment.
+      *
+      * @param client The {@link MongoClient} of the Datastores
+      * @return The {@link DatastoreRegistry}, null if no middleware is running in the current thread
+      */
+     public DatastoreRegistry datastores(MongoClient client) {
+
+          Deployment deployment = running.get();
+          return deployment != null ? deployment.datastores(client) : null;
+     }
+
+     /*
+      * The current deployment of a path, counting one more call on it.
+      */
+     private Deployment acquire(String pathReferences) {
+
+          while (true) {
+               Deployment deployment = deployments.get(key(pathReferences));
+               if (deployment == null) {
+                    deployment = load(pathReferences);
+               }
+               if (deployment.acquire()) {
+                    return deployment;
+               }
+          }
+     }
+
+     /**
+      * Registers a callback run every time a deployment is replaced or removed, to drop anything that still
+      * refers to the classes of the previous jar.
+      *
+      * @param listener The callback
+      */
+     public void onRedeploy(Runnable listener) {
+
+          redeployListeners.add(listener);
+     }
+
+     /**
+      * Loads the newest jar of a path. The current deployment is kept when its jar did not change, otherwise
+      * the new one replaces it. The replaced class loader is closed when the calls still running on it finish.
+      *
+      * @param pathReferences The path of the middleware jars
+      */
+     public void deploy(String pathReferences) {
+
+          load(pathReferences);
+     }
+
+     private Deployment load(String pathReferences) {
+
+          String key = key(pathReferences);
+          File jar = lastModified(pathReferences);
+
+          AtomicReference<Deployment> replaced = new AtomicReference<>();
+          Deployment deployed = deployments.compute(key, (k, previous) -> {
+               if (previous != null && previous.isSame(jar)) {
+                    return previous;
+               }
+
+               Deployment deployment = new Deployment(jar);
+               if (previous != null) {
+                    replaced.set(previous);
+                    log.info("Middleware in {} replaced by {}", pathReferences, jar == null ? "nothing" : jar.getName());
+               }
+               return deployment;
+          });
+
+          if (replaced.get() != null) {
+               replaced.get().retire();
+               redeployed();
+          }
+          return deployed;
+     }
+
+     /**
+      * Removes the deployment of a path. Its class loader is closed when the calls still running on it finish.
+      *
+      * @param pathReferences The path of the middleware jars
+      */
+     public void undeploy(String pathReferences) {
+
+          Deployment removed = deployments.remove(key(pathReferences));
+          if (removed != null) {
+               removed.retire();
+               redeployed();
+          }
+     }
+
+     private void redeployed() {
+
+          redeployListeners.forEach(listener -> {
+               try {
+                    listener.run();
+               } catch (Exception e) {
+                    log.error(e.getMessage(), e);
+               }
+          });
+     }
+
+     /*
+      * The current deployment of a path, null if there is none.
+      */
+     Deployment deployment(String pathReferences) {
+
+          return deployments.get(key(pathReferences));
+     }
+
+     private static String key(String pathReferences) {
+
+          return Paths.get(pathReferences).toAbsolutePath().normalize().toString();
+     }
+
+     /*
+      * The newest jar of a path.
+      */
+     private static File lastModified(String pathReferences) {
+
+          File[] entries = new File(pathReferences).listFiles((dir, name) -> name.contains(JAR));
+
+          return (entries != null)
+             ? Arrays.stream(entries)
+                  .max(Comparator.comparingLong(File::lastModified))
+                  .orElse(null)
+             : null;
+     }
+
+     /*
+      * A class has instance state when it declares any field that is not static, transient or synthetic.
+      */
+     static boolean isStateless(Class<?> type) {
+
+          for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+               for (Field field : clazz.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!field.isSynthetic() && !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                         return false;
+                    }
+               }
+          }
+          return true;
+     }
+
+     /*
+      * The classes loaded from one version of a middleware jar.
+      */
+     static final class Deployment {
+
+          private final File jar;
+
+          private final long lastModified;
+
+          private final GroovyClassLoader classLoader;
+
+          private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+          private final AtomicInteger calls = new AtomicInteger();
+
+          private final AtomicBoolean closed = new AtomicBoolean();
+
+          private volatile boolean retired;
+
+          private volatile DatastoreRegistry datastores;
+
+          private Deployment(File jar) {
+
+               this.jar = jar;
+               this.lastModified = jar == null ? 0L : jar.lastModified();
+               this.classLoader = new GroovyClassLoader();
+               if (jar != null) {
+                    classLoader.addClasspath(jar.getAbsolutePath());
+               }
+          }
+
+          private boolean isSame(File other) {
+
+               return Objects.equals(jar, other) && (other == null || other.lastModified() == lastModified);
+          }
+
+          private Entry entry(String className) throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+
+               Entry entry = entries.get(className);
+               if (entry == null) {
+                    Class<?> type = classLoader.loadClass(className);
+                    entry = new Entry(type, isStateless(type) ? type.newInstance() : null);
+                    Entry previous = entries.putIfAbsent(className, entry);
+                    if (previous != null) {
+                         entry = previous;
+                    }
+               }
+               return entry;
+          }
+
+          private DatastoreRegistry datastores(MongoClient client) {
+
+               DatastoreRegistry registry = datastores;
+               if (registry == null) {
+                    synchronized (this) {
+                         registry = datastores;
+                         if (registry == null) {
+                              registry = new DatastoreRegistry(client);
+                              datastores = registry;
+                         }
+                    }
+               }
+               return registry;
+          }
+
+          /*
+           * Counts a call, false if the deployment was already replaced or removed.
+           */
+          private boolean acquire() {
+
+               calls.incrementAndGet();
+               if (retired) {
+                    release();
+                    return false;
+               }
+               return true;
+          }
+
+          private void release() {
+
+               if (calls.decrementAndGet() == 0 && retired) {
+                    close();
+               }
+          }
+
+          /*
+           * Stops new calls and closes the class loader once no call is running.
+           */
+          private void retire() {
+
+               retired = true;
+               if (calls.get() == 0) {
+                    close();
+               }
+          }
+
+          boolean isClosed() {
+
+               return closed.get();
+          }
+
+          private void close() {
+
+               if (!closed.compareAndSet(false, true)) {
+                    return;
+               }
+
+               datastores = null;
+
+               try {
+                    classLoader.close();
+               } catch (IOException e) {
+                    log.error(e.getMessage(), e);
+               }
+          }
+     }
+
+     private static final class Entry {
+
+          private final Class<?> type;
+
+          private final Object shared;
+
+          private Entry(Class<?> type, Object shared) {
+
+               this.type = type;
+               this.shared = shared;
+          }
+
+          private Object instance() throws InstantiationException, IllegalAccessException {
+
+               return shared != null ? shared : type.newInstance();
+          }
+     }
+}
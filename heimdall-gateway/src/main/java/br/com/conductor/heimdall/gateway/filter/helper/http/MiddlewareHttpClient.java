@@ -0,0 +1,238 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.helper.http;
+
+import br.com.conductor.heimdall.core.environment.Property;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.netflix.zuul.filters.ZuulProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Outbound HTTP client shared by every middleware call made through {@code Helper.http()}.
+ * <p>
+ * The connections are pooled and kept alive per destination, the pool limits how many requests run at once
+ * for each destination and how long a request waits for a free connection. The error handler is chosen per
+ * call, so the client keeps one {@link RestTemplate} for each handler over the same pool.
+ */
+@Slf4j
+@Component
+public class MiddlewareHttpClient {
+
+    /*
+     * Receives the requests created by the thread of an async call, so the call can abort them when it is cancelled.
+     */
+    private static final ThreadLocal<Consumer<HttpUriRequest>> CREATED = new ThreadLocal<>();
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final CloseableHttpClient httpClient;
+
+    private final RestTemplate defaultTemplate;
+
+    private final RestTemplate handlerTemplate;
+
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public MiddlewareHttpClient(Property property, ZuulProperties zuulProperties) {
+
+        Property.HttpClient config = property.getHttpClient();
+
+        connectionManager = new PoolingHttpClientConnectionManager(config.getTimeToLiveSeconds(), TimeUnit.SECONDS);
+        connectionManager.setMaxTotal(config.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(config.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity(config.getValidateAfterInactivityMillis());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(zuulProperties.getHost().getConnectTimeoutMillis())
+                .setSocketTimeout(zuulProperties.getHost().getSocketTimeoutMillis())
+                .setConnectionRequestTimeout(config.getAcquireTimeoutMillis())
+                .build();
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictExpiredConnections()
+                .evictIdleConnections(config.getIdleTimeoutSeconds(), TimeUnit.SECONDS)
+                .disableCookieManagement()
+                .build();
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient) {
+            @Override
+            protected HttpUriRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+
+                HttpUriRequest request = super.createHttpUriRequest(httpMethod, uri);
+                Consumer<HttpUriRequest> listener = CREATED.get();
+                if (listener != null) {
+                    listener.accept(request);
+                }
+                return request;
+            }
+        };
+        defaultTemplate = new RestTemplate(requestFactory);
+        handlerTemplate = new RestTemplate(requestFactory);
+        handlerTemplate.setErrorHandler(new HeimdallResponseErrorHandler());
+
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(config.getAsyncThreads(), config.getAsyncThreads(), 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(config.getAsyncQueueSize()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "heimdall-middleware-http-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs a call in the executor of the async requests. When it is full the call runs in the calling thread.
+     * <p>
+     * Cancelling the future returned aborts the request in flight, which releases its connection and ends the
+     * call with an error instead of waiting for the socket timeout.
+     *
+     * @param call The call that sends the request through one of the templates of this client
+     * @param <T>  The result type
+     * @return The {@link CompletableFuture} of the call
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> call) {
+
+        AbortableFuture<T> future = new AbortableFuture<>();
+        executor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            CREATED.set(future::track);
+            try {
+                future.complete(call.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                CREATED.remove();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @param useHandler true to use the {@link HeimdallResponseErrorHandler}, false to use the default handler
+     * @return The {@link RestTemplate} over the shared pool
+     */
+    public RestTemplate restTemplate(boolean useHandler) {
+
+        return useHandler ? handlerTemplate : defaultTemplate;
+    }
+
+    /**
+     * Returns the state of the pool, in total and for each destination.
+     *
+     * @return Map with the leased, available, pending and max connections
+     */
+    public Map<String, Object> metrics() {
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("total", stats(connectionManager.getTotalStats()));
+
+        Map<String, Object> routes = new TreeMap<>();
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            routes.put(route.getTargetHost().toURI(), stats(connectionManager.getStats(route)));
+        }
+        metrics.put("routes", routes);
+
+        Map<String, Integer> async = new LinkedHashMap<>();
+        async.put("active", executor.getActiveCount());
+        async.put("queued", executor.getQueue().size());
+        metrics.put("async", async);
+
+        return metrics;
+    }
+
+    private static final class AbortableFuture<T> extends CompletableFuture<T> {
+
+        private volatile HttpUriRequest request;
+
+        void track(HttpUriRequest request) {
+
+            this.request = request;
+            if (isCancelled()) {
+                request.abort();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            HttpUriRequest current = request;
+            if (cancelled && current != null) {
+                current.abort();
+            }
+            return cancelled;
+        }
+    }
+
+    private static Map<String, Integer> stats(PoolStats stats) {
+
+        Map<String, Integer> values = new LinkedHashMap<>();
+        values.put("leased", stats.getLeased());
+        values.put("available", stats.getAvailable());
+        values.put("pending", stats.getPending());
+        values.put("max", stats.getMax());
+        return values;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        executor.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+}
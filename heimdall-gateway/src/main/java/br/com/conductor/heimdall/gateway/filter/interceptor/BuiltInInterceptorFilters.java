@@ -0,0 +1,85 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import br.com.conductor.heimdall.core.enums.TypeInterceptor;
+import com.netflix.zuul.ZuulFilter;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Creates the filters of the built-in {@link TypeInterceptor}s from their {@link InterceptorParameters},
+ * without generating and compiling a class for each interceptor.
+ */
+public final class BuiltInInterceptorFilters {
+
+    private static final Map<TypeInterceptor, Function<InterceptorParameters, ZuulFilter>> FACTORIES;
+
+    static {
+        Map<TypeInterceptor, Function<InterceptorParameters, ZuulFilter>> factories = new EnumMap<>(TypeInterceptor.class);
+        factories.put(TypeInterceptor.MOCK, MockInterceptorFilter::new);
+        factories.put(TypeInterceptor.RATTING, RateLimitInterceptorFilter::new);
+        factories.put(TypeInterceptor.ACCESS_TOKEN, AccessTokenInterceptorFilter::new);
+        factories.put(TypeInterceptor.CLIENT_ID, ClientIdInterceptorFilter::new);
+        factories.put(TypeInterceptor.OAUTH, OAuthInterceptorFilter::new);
+        factories.put(TypeInterceptor.BLACKLIST, parameters -> new IpsInterceptorFilter(parameters, false));
+        factories.put(TypeInterceptor.WHITELIST, parameters -> new IpsInterceptorFilter(parameters, true));
+        factories.put(TypeInterceptor.CACHE, CacheInterceptorFilter::new);
+        factories.put(TypeInterceptor.CACHE_CLEAR, CacheClearInterceptorFilter::new);
+        factories.put(TypeInterceptor.IDENTIFIER, IdentifierInterceptorFilter::new);
+        factories.put(TypeInterceptor.LOG_MASKER, LogMaskerInterceptorFilter::new);
+        factories.put(TypeInterceptor.LOG_WRITER, LogWriterInterceptorFilter::new);
+        factories.put(TypeInterceptor.CORS, CorsInterceptorFilter::new);
+        FACTORIES = Collections.unmodifiableMap(factories);
+    }
+
+    private BuiltInInterceptorFilters() { }
+
+    /**
+     * Checks if a {@link TypeInterceptor} has a built-in filter. The ones without it carry user code
+     * and are still compiled from their templates.
+     *
+     * @param type The {@link TypeInterceptor}
+     * @return true if the type has a built-in filter
+     */
+    public static boolean isBuiltIn(TypeInterceptor type) {
+
+        return FACTORIES.containsKey(type);
+    }
+
+    /**
+     * Creates the filter of a built-in interceptor.
+     *
+     * @param type       The {@link TypeInterceptor}
+     * @param parameters The {@link InterceptorParameters} of the interceptor
+     * @return The {@link ZuulFilter}
+     */
+    public static ZuulFilter create(TypeInterceptor type, InterceptorParameters parameters) {
+
+        Function<InterceptorParameters, ZuulFilter> factory = FACTORIES.get(type);
+        if (factory == null) {
+            throw new IllegalArgumentException("Interceptor type without built-in filter: " + type);
+        }
+        return factory.apply(parameters);
+    }
+}
@@ -0,0 +1,97 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import br.com.conductor.heimdall.core.trace.FilterDetail;
+import br.com.conductor.heimdall.core.util.Constants;
+import br.com.conductor.heimdall.gateway.service.CacheInterceptorService;
+import br.com.conductor.heimdall.gateway.service.LifeCycleService;
+import br.com.conductor.heimdall.gateway.trace.FilterLatency;
+import com.netflix.zuul.ZuulFilter;
+import lombok.extern.slf4j.Slf4j;
+
+import static br.com.conductor.heimdall.gateway.filter.interceptor.InterceptorFilter.bean;
+import static org.springframework.cloud.netflix.zuul.filters.support.FilterConstants.POST_TYPE;
+
+/**
+ * Built-in CACHE_CLEAR interceptor, always a post filter. It runs even when the response was already
+ * sent by a previous filter, so it does not extend {@link InterceptorFilter}.
+ */
+@Slf4j
+public class CacheClearInterceptorFilter extends ZuulFilter {
+
+    private final InterceptorParameters parameters;
+
+    private final String cacheName;
+
+    public CacheClearInterceptorFilter(InterceptorParameters parameters) {
+
+        this.parameters = parameters;
+        this.cacheName = parameters.getString("cache");
+    }
+
+    @Override
+    public String filterType() {
+
+        return POST_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+
+        return parameters.getOrder();
+    }
+
+    @Override
+    public boolean shouldFilter() {
+
+        long startTime = System.nanoTime();
+        boolean should = bean(LifeCycleService.class).should(parameters.getLifeCycle(), parameters.getReferenceId(), parameters.getApiId(),
+                parameters.getIgnoredResources(), parameters.getIgnoredOperations(), parameters.isStatus());
+        FilterLatency.getInstance().shouldFilter(parameters.getName(), startTime, should);
+        return should;
+    }
+
+    @Override
+    public Object run() {
+
+        FilterDetail detail = new FilterDetail();
+        long startTime = System.nanoTime();
+        try {
+            bean(CacheInterceptorService.class).cacheClearInterceptor(cacheName);
+            detail.setStatus(Constants.SUCCESS);
+        } catch (Exception e) {
+            detail.setStatus(Constants.FAILED);
+            log.error("Error during filtering: {}", e.getMessage());
+        } finally {
+            FilterLatency.getInstance().run(parameters.getName(), startTime, detail);
+        }
+
+        return null;
+    }
+
+    /**
+     * @return The {@link InterceptorParameters} of this interceptor
+     */
+    public InterceptorParameters getParameters() {
+
+        return parameters;
+    }
+}
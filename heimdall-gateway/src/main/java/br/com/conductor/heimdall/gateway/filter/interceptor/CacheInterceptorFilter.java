@@ -0,0 +1,64 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import br.com.conductor.heimdall.gateway.service.CacheInterceptorService;
+
+import java.util.List;
+
+import static org.springframework.cloud.netflix.zuul.filters.support.FilterConstants.PRE_TYPE;
+
+/**
+ * Built-in CACHE interceptor, always a pre filter.
+ */
+public class CacheInterceptorFilter extends InterceptorFilter {
+
+    private final String cacheName;
+
+    private final Long timeToLive;
+
+    private final Long staleWhileRevalidate;
+
+    private final List<String> headers;
+
+    private final List<String> queryParams;
+
+    public CacheInterceptorFilter(InterceptorParameters parameters) {
+
+        super(parameters);
+        this.cacheName = parameters.getString("cache");
+        this.timeToLive = parameters.getLong("timeToLive");
+        this.staleWhileRevalidate = parameters.getLong("staleWhileRevalidate");
+        this.headers = parameters.getStrings("headers");
+        this.queryParams = parameters.getStrings("queryParams");
+    }
+
+    @Override
+    public String filterType() {
+
+        return PRE_TYPE;
+    }
+
+    @Override
+    public void execute() throws Throwable {
+
+        bean(CacheInterceptorService.class).cacheInterceptor(cacheName, timeToLive, staleWhileRevalidate, headers, queryParams);
+    }
+}
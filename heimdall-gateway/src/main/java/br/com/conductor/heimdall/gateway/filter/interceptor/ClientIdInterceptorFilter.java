@@ -0,0 +1,43 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import br.com.conductor.heimdall.core.enums.Location;
+import br.com.conductor.heimdall.gateway.service.ClientIdInterceptorService;
+
+/**
+ * Built-in CLIENT_ID interceptor.
+ */
+public class ClientIdInterceptorFilter extends InterceptorFilter {
+
+    private final Location location;
+
+    public ClientIdInterceptorFilter(InterceptorParameters parameters) {
+
+        super(parameters);
+        this.location = Location.valueOf(parameters.getString("location"));
+    }
+
+    @Override
+    public void execute() throws Throwable {
+
+        bean(ClientIdInterceptorService.class).validate(parameters.getApiId(), location);
+    }
+}
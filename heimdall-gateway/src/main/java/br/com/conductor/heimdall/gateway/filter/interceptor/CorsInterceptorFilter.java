@@ -0,0 +1,68 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import br.com.conductor.heimdall.gateway.service.CORSInterceptorService;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.cloud.netflix.zuul.filters.support.FilterConstants.PRE_TYPE;
+
+/**
+ * Built-in CORS interceptor, always the pre filter of order 20.
+ */
+public class CorsInterceptorFilter extends InterceptorFilter {
+
+    private final Map<String, String> cors;
+
+    public CorsInterceptorFilter(InterceptorParameters parameters) {
+
+        super(parameters);
+        Map<String, String> headers = new LinkedHashMap<>();
+        Object entries = parameters.get("cors");
+        if (entries instanceof Collection) {
+            for (Object entry : (Collection<?>) entries) {
+                headers.put(String.valueOf(((Map.Entry<?, ?>) entry).getKey()), String.valueOf(((Map.Entry<?, ?>) entry).getValue()));
+            }
+        }
+        this.cors = Collections.unmodifiableMap(headers);
+    }
+
+    @Override
+    public String filterType() {
+
+        return PRE_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+
+        return 20;
+    }
+
+    @Override
+    public void execute() throws Throwable {
+
+        bean(CORSInterceptorService.class).executeCorsPreFilter(cors);
+    }
+}
@@ -0,0 +1,77 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import br.com.conductor.heimdall.core.util.BeanManager;
+import br.com.conductor.heimdall.gateway.filter.HeimdallFilter;
+import br.com.conductor.heimdall.gateway.service.LifeCycleService;
+
+/**
+ * Base of the built-in interceptors. Each instance runs one interceptor with its {@link InterceptorParameters},
+ * so the same class serves every interceptor of a type.
+ */
+public abstract class InterceptorFilter extends HeimdallFilter {
+
+    protected final InterceptorParameters parameters;
+
+    protected InterceptorFilter(InterceptorParameters parameters) {
+
+        this.parameters = parameters;
+    }
+
+    @Override
+    public String filterType() {
+
+        return parameters.getExecutionPoint();
+    }
+
+    @Override
+    public int filterOrder() {
+
+        return parameters.getOrder();
+    }
+
+    @Override
+    public String getName() {
+
+        return parameters.getName();
+    }
+
+    @Override
+    public boolean should() {
+
+        return bean(LifeCycleService.class).should(parameters.getLifeCycle(), parameters.getReferenceId(), parameters.getApiId(),
+                parameters.getIgnoredResources(), parameters.getIgnoredOperations(), parameters.isStatus());
+    }
+
+    /**
+     * @return The {@link InterceptorParameters} of this interceptor
+     */
+    public InterceptorParameters getParameters() {
+
+        return parameters;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T bean(Class<T> type) {
+
+        return (T) BeanManager.getBean(type);
+    }
+}
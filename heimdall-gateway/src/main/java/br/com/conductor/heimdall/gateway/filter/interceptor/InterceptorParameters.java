@@ -0,0 +1,144 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import br.com.conductor.heimdall.core.enums.InterceptorLifeCycle;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable parameters of a built-in interceptor, read from the same parameters used to render the templates.
+ */
+@Getter
+public final class InterceptorParameters {
+
+    private final Long interceptorId;
+
+    private final String name;
+
+    private final String executionPoint;
+
+    private final int order;
+
+    private final InterceptorLifeCycle lifeCycle;
+
+    private final Long referenceId;
+
+    private final Long apiId;
+
+    private final boolean status;
+
+    private final Set<Integer> ignoredResources;
+
+    private final Set<Integer> ignoredOperations;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Object> values;
+
+    public InterceptorParameters(Map<String, Object> parameters) {
+
+        this.interceptorId = (Long) parameters.get("interceptor-id");
+        this.name = (String) parameters.get("name");
+        this.executionPoint = (String) parameters.get("executionPoint");
+        this.order = Integer.parseInt(String.valueOf(parameters.get("order")));
+        this.lifeCycle = InterceptorLifeCycle.valueOf(String.valueOf(parameters.get("lifeCycle")));
+        this.referenceId = (Long) parameters.get("referenceId");
+        this.apiId = (Long) parameters.get("apiId");
+        this.status = Boolean.TRUE.equals(parameters.get("interceptorStatus"));
+        this.ignoredResources = ids(parameters.get("ignoredResources"));
+        this.ignoredOperations = ids(parameters.get("ignoredOperations"));
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<>(parameters));
+    }
+
+    /**
+     * Returns a value specific to the type of the interceptor.
+     *
+     * @param key The name of the parameter
+     * @return The value, null if not present
+     */
+    public Object get(String key) {
+
+        return values.get(key);
+    }
+
+    public String getString(String key) {
+
+        Object value = values.get(key);
+        return value == null ? null : value.toString();
+    }
+
+    public Long getLong(String key) {
+
+        Object value = values.get(key);
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    public boolean getBoolean(String key) {
+
+        return Boolean.TRUE.equals(values.get(key));
+    }
+
+    /**
+     * @param key The name of the parameter
+     * @return A unmodifiable List with the Strings of a collection parameter, empty if not present
+     */
+    public List<String> getStrings(String key) {
+
+        Object value = values.get(key);
+        List<String> strings = new ArrayList<>();
+        if (value instanceof Collection) {
+            ((Collection<?>) value).forEach(item -> strings.add(String.valueOf(item)));
+        }
+        return Collections.unmodifiableList(strings);
+    }
+
+    /**
+     * @return A representation of every parameter that changes whenever any of them changes
+     */
+    public String fingerprint() {
+
+        Map<String, String> sorted = new TreeMap<>();
+        values.forEach((key, value) -> sorted.put(key, Objects.toString(value)));
+        return sorted.toString();
+    }
+
+    /*
+     * The life cycle checks compare the ignored Ids as Integer, like the values added by the templates.
+     */
+    private static Set<Integer> ids(Object value) {
+
+        Set<Integer> ids = new HashSet<>();
+        if (value instanceof Collection) {
+            ((Collection<?>) value).forEach(id -> ids.add(((Number) id).intValue()));
+        }
+        return Collections.unmodifiableSet(ids);
+    }
+}
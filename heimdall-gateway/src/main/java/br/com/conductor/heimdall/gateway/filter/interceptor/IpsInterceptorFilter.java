@@ -0,0 +1,51 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import br.com.conductor.heimdall.gateway.service.IpsInterceptorService;
+import br.com.conductor.heimdall.gateway.util.IpRangeSet;
+
+/**
+ * Built-in BLACKLIST and WHITELIST interceptors.
+ */
+public class IpsInterceptorFilter extends InterceptorFilter {
+
+    private final IpRangeSet ips;
+
+    private final boolean whitelist;
+
+    public IpsInterceptorFilter(InterceptorParameters parameters, boolean whitelist) {
+
+        super(parameters);
+        this.ips = IpRangeSet.of(parameters.getStrings("ips"));
+        this.whitelist = whitelist;
+    }
+
+    @Override
+    public void execute() throws Throwable {
+
+        IpsInterceptorService ipsInterceptorService = bean(IpsInterceptorService.class);
+        if (whitelist) {
+            ipsInterceptorService.executeWhiteList(ips);
+        } else {
+            ipsInterceptorService.executeBlackList(ips);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import br.com.conductor.heimdall.gateway.service.LogWriterService;
+
+import java.util.List;
+
+/**
+ * Built-in LOG_WRITER interceptor.
+ */
+public class LogWriterInterceptorFilter extends InterceptorFilter {
+
+    private final boolean body;
+
+    private final boolean headers;
+
+    private final List<String> requiredHeaders;
+
+    public LogWriterInterceptorFilter(InterceptorParameters parameters) {
+
+        super(parameters);
+        this.body = parameters.getBoolean("body");
+        this.headers = parameters.getBoolean("headers");
+        this.requiredHeaders = parameters.getStrings("requiredHeaders");
+    }
+
+    @Override
+    public void execute() throws Throwable {
+
+        bean(LogWriterService.class).execute(filterType(), body, headers, requiredHeaders);
+    }
+}
@@ -0,0 +1,48 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import br.com.conductor.heimdall.gateway.service.MockInterceptorService;
+
+/**
+ * Built-in MOCK interceptor.
+ * <p>
+ * The body is returned exactly as configured. The old template embedded it in a Groovy string literal,
+ * so escape sequences and ${...} expressions in the body were evaluated; they are now returned as they are.
+ */
+public class MockInterceptorFilter extends InterceptorFilter {
+
+    private final int status;
+
+    private final String body;
+
+    public MockInterceptorFilter(InterceptorParameters parameters) {
+
+        super(parameters);
+        this.status = Integer.parseInt(parameters.getString("status"));
+        this.body = parameters.getString("body");
+    }
+
+    @Override
+    public void execute() throws Throwable {
+
+        bean(MockInterceptorService.class).execute(status, body);
+    }
+}
@@ -0,0 +1,57 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import br.com.conductor.heimdall.core.enums.TypeOAuth;
+import br.com.conductor.heimdall.gateway.service.OAuthInterceptorService;
+
+import java.util.Objects;
+
+/**
+ * Built-in OAUTH interceptor.
+ */
+public class OAuthInterceptorFilter extends InterceptorFilter {
+
+    private final TypeOAuth typeOAuth;
+
+    private final String privateKey;
+
+    private final int timeAccessToken;
+
+    private final int timeRefreshToken;
+
+    private final Long providerId;
+
+    public OAuthInterceptorFilter(InterceptorParameters parameters) {
+
+        super(parameters);
+        this.typeOAuth = TypeOAuth.valueOf(parameters.getString("typeOAuth"));
+        this.privateKey = Objects.toString(parameters.getString("privateKey"), "");
+        this.timeAccessToken = parameters.getLong("timeAccessToken").intValue();
+        this.timeRefreshToken = parameters.getLong("timeRefreshToken").intValue();
+        this.providerId = parameters.getLong("providerId");
+    }
+
+    @Override
+    public void execute() throws Throwable {
+
+        bean(OAuthInterceptorService.class).execute(typeOAuth, privateKey, timeAccessToken, timeRefreshToken, providerId);
+    }
+}
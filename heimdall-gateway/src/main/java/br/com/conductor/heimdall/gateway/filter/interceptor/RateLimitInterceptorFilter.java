@@ -0,0 +1,52 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import br.com.conductor.heimdall.core.enums.Interval;
+import br.com.conductor.heimdall.gateway.service.RattingInterceptorService;
+
+/**
+ * Built-in RATTING interceptor.
+ */
+public class RateLimitInterceptorFilter extends InterceptorFilter {
+
+    private final Long calls;
+
+    private final Interval interval;
+
+    private final Long lease;
+
+    private final String cacheKey;
+
+    public RateLimitInterceptorFilter(InterceptorParameters parameters) {
+
+        super(parameters);
+        this.calls = parameters.getLong("calls");
+        this.interval = Interval.valueOf(parameters.getString("interval"));
+        this.lease = parameters.getLong("lease");
+        this.cacheKey = parameters.getString("cache-key");
+    }
+
+    @Override
+    public void execute() throws Throwable {
+
+        bean(RattingInterceptorService.class).execute(getName(), cacheKey, calls, interval, parameters.getInterceptorId(), lease);
+    }
+}
@@ -20,7 +20,12 @@
 package br.com.conductor.heimdall.gateway.listener;
 
 import br.com.conductor.heimdall.core.service.CacheService;
+import br.com.conductor.heimdall.core.util.ConstantsCache;
 import br.com.conductor.heimdall.core.util.RabbitConstants;
+import br.com.conductor.heimdall.gateway.entitlement.EntitlementIndex;
+import br.com.conductor.heimdall.gateway.service.CacheGenerationService;
+import br.com.conductor.heimdall.gateway.service.NearCacheService;
+import br.com.conductor.heimdall.gateway.service.VerifiedTokenCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -28,6 +33,8 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+
 /**
  * Keeps track of the Rabbit Cache to clean it when necessary.
  *
@@ -44,6 +51,18 @@ public class CacheListener {
      @Autowired
      private CacheService cacheService;
 
+     @Autowired
+     private NearCacheService nearCacheService;
+
+     @Autowired
+     private CacheGenerationService cacheGenerationService;
+
+     @Autowired
+     private EntitlementIndex entitlementIndex;
+
+     @Autowired
+     private VerifiedTokenCache verifiedTokenCache;
+
      /**
       * Cleans the Rabbit cache with specific message.
       * 
@@ -61,20 +80,42 @@ public class CacheListener {
                     
                     String[] split = key.split(";");
                     log.info("Clean cache with key: {} and id: {} ", split[0], split[1]);
-                    cacheService.clean(split[0], split[1]);
+                    if (ConstantsCache.PLAN_ENTITLEMENTS.equals(split[0])) {
+                         cleanAppCaches();
+                         entitlementIndex.invalidatePlans(Collections.singleton(Long.valueOf(split[1])));
+                    } else if (ConstantsCache.API_ENTITLEMENTS.equals(split[0])) {
+                         cleanAppCaches();
+                         entitlementIndex.invalidateApis(Collections.singleton(Long.valueOf(split[1])));
+                    } else {
+                         cacheService.clean(split[0], split[1]);
+                         entitlementIndex.invalidate(split[0], split[1]);
+                    }
                } else {
                     
                     log.info("Clean cache with key: {}", key);
                     cacheService.clean(key);
+                    entitlementIndex.invalidate(key);
                }
           } else {
                
                log.info("Clean all caches");
                cacheService.clean();
+               entitlementIndex.invalidateAll();
+               cacheGenerationService.reset();
           }
           
      }
 
+     /*
+      * The Apps and Access Tokens cached keep their Plans and Scopes, the entries changed are not known by id.
+      */
+     private void cleanAppCaches() {
+
+          cacheService.clean(ConstantsCache.APPS_CLIENT_ID);
+          cacheService.clean(ConstantsCache.APPS_ACTIVE_CACHE);
+          cacheService.clean(ConstantsCache.ACCESS_TOKENS_ACTIVE_CACHE);
+     }
+
      /**
       * Cleans the Rabbit cache with specific message.
       *
@@ -85,6 +126,20 @@ public class CacheListener {
 
           log.info("Clean all caches from Cache interceptors");
           cacheService.cleanInterceptorsCache();
+          nearCacheService.invalidateAll();
+          cacheGenerationService.reset();
+     }
+
+     /**
+      * Revokes a OAuth token deleted, removing it from the verified tokens.
+      *
+      * @param message	{@link Message} with the SHA-256 digest of the token
+      */
+     @RabbitListener( queues = RabbitConstants.LISTENER_HEIMDALL_REVOKE_TOKENS)
+     public void revokeToken(final Message message) {
+
+          String digest = (String) rabbitTemplate.getMessageConverter().fromMessage(message);
+          verifiedTokenCache.revoke(digest);
      }
 
 }
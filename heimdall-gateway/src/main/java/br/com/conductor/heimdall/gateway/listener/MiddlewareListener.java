@@ -64,8 +64,8 @@ public class MiddlewareListener {
                     
                     log.info("Updating/Creating middleware id: " + middlewareId);
                     startServer.addApiDirectoryToPath(middleware.getApi());
-                    startServer.createMiddlewaresInterceptor(middleware);
                     startServer.loadMiddlewareFiles(middleware);
+                    startServer.createMiddlewaresInterceptor(middleware);
                } else {
                     
                     log.info("It was not possible Updating/Creating middleware id: " + middlewareId);
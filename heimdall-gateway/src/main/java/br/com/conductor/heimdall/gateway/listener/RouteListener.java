@@ -19,16 +19,28 @@
  */
 package br.com.conductor.heimdall.gateway.listener;
 
+import br.com.conductor.heimdall.core.dto.RouteDeltaDTO;
 import br.com.conductor.heimdall.core.service.CacheService;
+import br.com.conductor.heimdall.core.util.ConstantsCache;
 import br.com.conductor.heimdall.core.util.RabbitConstants;
 import br.com.conductor.heimdall.gateway.configuration.HeimdallHandlerMapping;
+import br.com.conductor.heimdall.gateway.entitlement.EntitlementIndex;
+import br.com.conductor.heimdall.gateway.router.RoutingSnapshot;
+import br.com.conductor.heimdall.gateway.router.RoutingSnapshotHolder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.netflix.zuul.filters.ZuulProperties.ZuulRoute;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Listener that controls the Routes.
  *
@@ -48,20 +60,91 @@ public class RouteListener {
      @Autowired
      private StartServer startServer;
 
+     @Autowired
+     private RoutingSnapshotHolder routingSnapshotHolder;
+
+     @Autowired
+     private RabbitTemplate rabbitTemplate;
+
+     @Autowired
+     private EntitlementIndex entitlementIndex;
+
+     private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
      /**
       * Updates the {@link ZuulRoute} repository.
+      * <p>
+      * A {@link RouteDeltaDTO} only reloads the Apis it names. Any other message, or a delta
+      * that skips a version of its source, reloads everything.
       * 
       * @param message {@link Message}
       */
      @RabbitListener(queues = RabbitConstants.LISTENER_HEIMDAL_ROUTES)
      public void updateZuulRoutes(final Message message) {
           try {
+               Object payload = rabbitTemplate.getMessageConverter().fromMessage(message);
+               if (payload instanceof RouteDeltaDTO && inSequence((RouteDeltaDTO) payload) && applyDelta((RouteDeltaDTO) payload)) {
+                    return;
+               }
+
                log.info("Updating Zuul Routes");
                cacheService.clean();
+               routingSnapshotHolder.refresh();
                heimdallHandlerMapping.setDirty(false);
                startServer.initApplication();
           } catch (Exception e) {
                log.error(e.getMessage(), e);
           }
      }
+
+     /*
+      * Records the version of the delta and checks that no delta of the same source was missed.
+      * The first delta seen from a source is accepted, its previous changes are already loaded.
+      */
+     private boolean inSequence(RouteDeltaDTO delta) {
+
+          if (delta.getSource() == null || delta.getVersion() == null) {
+               return false;
+          }
+
+          Long previous = versions.put(delta.getSource(), delta.getVersion());
+          if (previous != null && previous + 1 != delta.getVersion()) {
+               log.warn("Route delta {} of {} arrived after {}, reloading all routes", delta.getVersion(), delta.getSource(), previous);
+               return false;
+          }
+          return true;
+     }
+
+     /*
+      * Reloads the routing data of the changed Apis and evicts only the endpoints they had or now have,
+      * and the Apps and entitlements, which keep the Apis and Operations they allow.
+      */
+     private boolean applyDelta(RouteDeltaDTO delta) {
+
+          Set<Long> apis = delta.getApis();
+          if (apis == null || apis.isEmpty()) {
+               return false;
+          }
+          Set<Long> operations = Objects.isNull(delta.getOperations()) ? Collections.emptySet() : delta.getOperations();
+
+          log.info("Updating Zuul Routes of Apis {}", apis);
+          RoutingSnapshot previous = routingSnapshotHolder.get();
+          if (!routingSnapshotHolder.refresh(apis)) {
+               return false;
+          }
+
+          Set<String> endpoints = previous.findPatterns(apis, operations);
+          endpoints.addAll(routingSnapshotHolder.get().findPatterns(apis, operations));
+          for (String endpoint : endpoints) {
+               cacheService.clean(ConstantsCache.OPERATION_ACTIVE_FROM_ENDPOINT, endpoint);
+               cacheService.clean(ConstantsCache.API_ACTIVE_FROM_ACCESS_TOKEN, endpoint);
+          }
+          cacheService.clean(ConstantsCache.APPS_CLIENT_ID);
+          cacheService.clean(ConstantsCache.APPS_ACTIVE_CACHE);
+          cacheService.clean(ConstantsCache.ACCESS_TOKENS_ACTIVE_CACHE);
+          entitlementIndex.invalidateApis(apis);
+
+          heimdallHandlerMapping.setDirty(false);
+          return true;
+     }
 }
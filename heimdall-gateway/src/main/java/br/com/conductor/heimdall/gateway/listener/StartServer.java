@@ -59,6 +59,7 @@ import br.com.conductor.heimdall.core.repository.jdbc.MiddlewareJDBCRepository;
 import br.com.conductor.heimdall.core.service.FileService;
 import br.com.conductor.heimdall.core.util.Constants;
 import br.com.conductor.heimdall.gateway.configuration.HeimdallHandlerMapping;
+import br.com.conductor.heimdall.gateway.filter.helper.MiddlewareRuntime;
 import br.com.conductor.heimdall.gateway.service.InterceptorFileService;
 import br.com.conductor.heimdall.gateway.util.HeimdallFilterFileManager;
 import lombok.extern.slf4j.Slf4j;
@@ -174,10 +175,7 @@ public class StartServer implements ServletContextListener {
 	private void createInterceptors() {
 
 		List<Interceptor> interceptors = interceptorJDBCRepository.findAllInterceptorsSimplified();
-		if (Objects.nonNull(interceptors)) {
-
-			interceptors.forEach(interceptor -> interceptorFileService.createFileInterceptor(interceptor));
-		}
+		interceptorFileService.createFileInterceptors(Objects.nonNull(interceptors) ? interceptors : Collections.emptyList());
 	}
 
 	/**
@@ -255,6 +253,7 @@ public class StartServer implements ServletContextListener {
 				cleanFilesFolder(rootMiddlewares);
 				fileService.save(middleware.getFile(), rootMiddlewares + "/" + middleware.getName() + "."
 						+ middleware.getVersion() + "." + middleware.getType());
+				MiddlewareRuntime.getInstance().deploy(rootMiddlewares);
 			}
 		} catch (Exception e) {
 
@@ -276,6 +275,7 @@ public class StartServer implements ServletContextListener {
 				if (Status.ACTIVE.equals(middleware.getStatus())) {
 					fileService.save(middleware.getFile(), middleware.getPath() + "/" + middleware.getName() + "."
 							+ middleware.getVersion() + "." + middleware.getType());
+					MiddlewareRuntime.getInstance().deploy(middleware.getPath());
 				}
 			}
 		} catch (Exception e) {
@@ -294,6 +294,7 @@ public class StartServer implements ServletContextListener {
 		try {
 
 			cleanFilesFolder(path);
+			MiddlewareRuntime.getInstance().undeploy(path);
 			HeimdallFilterFileManager.getInstance().removeDirectory(path);
 
 		} catch (Exception e) {
@@ -19,14 +19,12 @@
  */
 package br.com.conductor.heimdall.gateway.router;
 
-import br.com.conductor.heimdall.core.util.ConstantsCache;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
-import java.util.List;
 
 @Repository
 public class CredentialRepository {
@@ -37,10 +35,36 @@ public class CredentialRepository {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
-    @Cacheable(ConstantsCache.CREDENTIAL_ACTIVE_FROM_ENDPOINT)
-    public List<Credential> findByPattern(String pattern) {
-        StringBuilder sql = new StringBuilder(350);
+    /**
+     * Loads every {@link Credential}, with the pattern it is registered to, into a {@link RoutingSnapshot}.
+     *
+     * @param builder The {@link RoutingSnapshot.Builder}
+     */
+    public void findAll(RoutingSnapshot.Builder builder) {
+        StringBuilder sql = select();
+        sql.append("ORDER BY OP.ID ");
+
+        query(builder, sql.toString());
+    }
+
+    /**
+     * Loads the {@link Credential}s of a single Api into a {@link RoutingSnapshot}.
+     *
+     * @param apiId   The Api Id
+     * @param builder The {@link RoutingSnapshot.Builder}
+     */
+    public void findByApi(Long apiId, RoutingSnapshot.Builder builder) {
+        StringBuilder sql = select();
+        sql.append("WHERE API.ID = ? ");
+        sql.append("ORDER BY OP.ID ");
+
+        query(builder, sql.toString(), apiId);
+    }
+
+    private StringBuilder select() {
+        StringBuilder sql = new StringBuilder(400);
         sql.append("SELECT ");
+        sql.append("CONCAT(API.BASE_PATH, OP.PATH) AS PATTERN, ");
         sql.append("OP.METHOD AS METHOD, ");
         sql.append("API.BASE_PATH AS APIBASEPATH, ");
         sql.append("API.NAME AS APINAME, ");
@@ -52,8 +76,12 @@ public class CredentialRepository {
         sql.append("FROM OPERATIONS OP ");
         sql.append("INNER JOIN RESOURCES RES ON OP.RESOURCE_ID = RES.ID ");
         sql.append("INNER JOIN APIS API ON RES.API_ID = API.ID ");
-        sql.append("WHERE CONCAT(API.BASE_PATH, OP.PATH) = ? ");
 
-        return jdbcTemplate.query(sql.toString(), new Object[]{pattern}, new BeanPropertyRowMapper<>(Credential.class));
+        return sql;
+    }
+
+    private void query(RoutingSnapshot.Builder builder, String sql, Object... args) {
+        BeanPropertyRowMapper<Credential> mapper = new BeanPropertyRowMapper<>(Credential.class);
+        jdbcTemplate.query(sql, (RowCallbackHandler) resultSet -> builder.credential(resultSet.getString("PATTERN"), mapper.mapRow(resultSet, 0)), args);
     }
 }
@@ -19,14 +19,12 @@
  */
 package br.com.conductor.heimdall.gateway.router;
 
-import br.com.conductor.heimdall.core.util.ConstantsCache;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Repository
@@ -38,51 +36,54 @@ public class EnvironmentInfoRepository {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
-    @Cacheable(cacheNames = ConstantsCache.ENVIRONMENT_ACTIVE_CACHE, key = "#apiId.toString() + ':' + #inboundURL")
-    public EnvironmentInfo findByApiIdAndEnvironmentInboundURL(Long apiId, String inboundURL) {
+    /**
+     * Loads every {@link EnvironmentInfo}, with its variables and the inbound URL of each Api it is attached to, into a {@link RoutingSnapshot}.
+     *
+     * @param builder The {@link RoutingSnapshot.Builder}
+     */
+    public void findAll(RoutingSnapshot.Builder builder) {
+        Map<Long, Map<String, String>> variables = new HashMap<>();
+        jdbcTemplate.query("select environment_id, \"key\", value from variables", (RowCallbackHandler) resultSet ->
+                variables.computeIfAbsent(resultSet.getLong("environment_id"), id -> new HashMap<>())
+                        .put(resultSet.getString("key"), resultSet.getString("value")));
+
         StringBuilder sql = new StringBuilder();
-        sql.append("SELECT EN.ID, EN.OUTBOUND_URL as OUTBOUNDURL FROM ENVIRONMENTS AS EN ");
+        sql.append("SELECT AE.API_ID AS APIID, EN.ID, EN.INBOUND_URL AS INBOUNDURL, EN.OUTBOUND_URL AS OUTBOUNDURL FROM ENVIRONMENTS AS EN ");
         sql.append("INNER JOIN APIS_ENVIRONMENTS AE ON EN.ID = AE.ENVIRONMENT_ID ");
-        sql.append("WHERE AE.API_ID = ");
-        sql.append(apiId);
-        sql.append(" AND EN.INBOUND_URL LIKE '%");
-        sql.append(inboundURL);
-        sql.append("%'");
-
-        final List<EnvironmentInfo> environmentInfos = jdbcTemplate.query(sql.toString(), (resultSet, ignored) -> {
-            EnvironmentInfo env = new EnvironmentInfo();
-            env.setId(resultSet.getLong("id"));
-            env.setOutboundURL(resultSet.getString("outboundURL"));
-            return env;
-        });
-
-        EnvironmentInfo environment = null;
-
-        if (!environmentInfos.isEmpty()) {
-            environment = environmentInfos.get(0);
-        }
+        sql.append("ORDER BY EN.ID");
 
-        if (environment != null) {
+        query(builder, variables, sql.toString());
+    }
 
-            String getVariables = "select \"key\", value from variables where environment_id = " + environment.getId();
+    /**
+     * Loads the {@link EnvironmentInfo}s attached to a single Api into a {@link RoutingSnapshot}.
+     *
+     * @param apiId   The Api Id
+     * @param builder The {@link RoutingSnapshot.Builder}
+     */
+    public void findByApi(Long apiId, RoutingSnapshot.Builder builder) {
+        Map<Long, Map<String, String>> variables = new HashMap<>();
+        jdbcTemplate.query("select v.environment_id, v.\"key\", v.value from variables v inner join apis_environments ae on v.environment_id = ae.environment_id where ae.api_id = ?", (RowCallbackHandler) resultSet ->
+                variables.computeIfAbsent(resultSet.getLong("environment_id"), id -> new HashMap<>())
+                        .put(resultSet.getString("key"), resultSet.getString("value")), apiId);
 
-            Map variables = jdbcTemplate.query(getVariables, resultSetExtractor -> {
-                Map<String, String> result = new HashMap<>();
-                while (resultSetExtractor.next()) {
-                    result.put(
-                            resultSetExtractor.getString("key"),
-                            resultSetExtractor.getString("value")
-                    );
-                }
-                return result;
-            });
+        StringBuilder sql = new StringBuilder();
+        sql.append("SELECT AE.API_ID AS APIID, EN.ID, EN.INBOUND_URL AS INBOUNDURL, EN.OUTBOUND_URL AS OUTBOUNDURL FROM ENVIRONMENTS AS EN ");
+        sql.append("INNER JOIN APIS_ENVIRONMENTS AE ON EN.ID = AE.ENVIRONMENT_ID ");
+        sql.append("WHERE AE.API_ID = ? ");
+        sql.append("ORDER BY EN.ID");
 
-            environment.setVariables(variables);
+        query(builder, variables, sql.toString(), apiId);
+    }
 
-            return environment;
-        } else {
-            return null;
-        }
+    private void query(RoutingSnapshot.Builder builder, Map<Long, Map<String, String>> variables, String sql, Object... args) {
+        jdbcTemplate.query(sql, (RowCallbackHandler) resultSet -> {
+            EnvironmentInfo env = new EnvironmentInfo();
+            env.setId(resultSet.getLong("id"));
+            env.setOutboundURL(resultSet.getString("outboundURL"));
+            env.setVariables(variables.getOrDefault(env.getId(), new HashMap<>()));
+            builder.environment(resultSet.getLong("apiId"), resultSet.getString("inboundURL"), env);
+        }, args);
     }
 
 }
@@ -0,0 +1,252 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.router;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable in-process view of the data needed to route a request: the {@link Credential}s of every
+ * pattern and the {@link EnvironmentInfo}s of every Api by inbound URL.
+ * <p>
+ * A new snapshot is built by the {@link RoutingSnapshotHolder} whenever the routes are updated, so
+ * the lookups made by the gateway for each request never leave the JVM.
+ */
+public final class RoutingSnapshot {
+
+     private static final RoutingSnapshot EMPTY = new Builder(0L).build();
+
+     private final long version;
+
+     private final Map<String, List<Credential>> credentials;
+
+     private final Map<Long, List<Inbound>> environments;
+
+     private RoutingSnapshot(long version, Map<String, List<Credential>> credentials, Map<Long, List<Inbound>> environments) {
+
+          this.version = version;
+          this.credentials = credentials;
+          this.environments = environments;
+     }
+
+     /**
+      * Returns a snapshot without any data.
+      *
+      * @return The empty {@link RoutingSnapshot}
+      */
+     public static RoutingSnapshot empty() {
+
+          return EMPTY;
+     }
+
+     /**
+      * Creates a new {@link Builder} for the version informed.
+      *
+      * @param version The version of the snapshot
+      * @return The {@link Builder}
+      */
+     public static Builder builder(long version) {
+
+          return new Builder(version);
+     }
+
+     /**
+      * Returns the version of this snapshot.
+      *
+      * @return The version
+      */
+     public long getVersion() {
+
+          return version;
+     }
+
+     /**
+      * Finds the {@link Credential}s registered to a pattern. Each {@link Credential} represents one method of the pattern.
+      *
+      * @param pattern The pattern of the route
+      * @return The List of {@link Credential}, never null
+      */
+     public List<Credential> findByPattern(String pattern) {
+
+          return credentials.getOrDefault(pattern, Collections.emptyList());
+     }
+
+     /**
+      * Finds the {@link EnvironmentInfo} of an Api whose inbound URL contains the inbound informed.
+      *
+      * @param apiId      The Api Id
+      * @param inboundURL The inbound URL of the request
+      * @return The {@link EnvironmentInfo} found, null otherwise
+      */
+     public EnvironmentInfo findByApiIdAndEnvironmentInboundURL(Long apiId, String inboundURL) {
+
+          if (apiId == null || inboundURL == null) {
+               return null;
+          }
+
+          for (Inbound inbound : environments.getOrDefault(apiId, Collections.emptyList())) {
+               if (inbound.url.contains(inboundURL)) {
+                    return inbound.environment;
+               }
+          }
+
+          return null;
+     }
+
+     /**
+      * Finds the patterns registered to the Apis informed. When Operations are informed only
+      * the patterns of those Operations are returned.
+      *
+      * @param apiIds       The Api Ids
+      * @param operationIds The Operation Ids, empty to return every pattern of the Apis
+      * @return The Set of patterns, never null
+      */
+     public Set<String> findPatterns(Collection<Long> apiIds, Collection<Long> operationIds) {
+
+          Set<String> patterns = new HashSet<>();
+          for (Entry<String, List<Credential>> entry : credentials.entrySet()) {
+               for (Credential credential : entry.getValue()) {
+                    if (apiIds.contains(credential.getApiId())
+                            && (operationIds.isEmpty() || operationIds.contains(credential.getOperationId()))) {
+                         patterns.add(entry.getKey());
+                         break;
+                    }
+               }
+          }
+
+          return patterns;
+     }
+
+     private static final class Inbound {
+
+          private final String url;
+
+          private final EnvironmentInfo environment;
+
+          private Inbound(String url, EnvironmentInfo environment) {
+
+               this.url = url;
+               this.environment = environment;
+          }
+     }
+
+     /**
+      * Collects the data of a {@link RoutingSnapshot}.
+      */
+     public static final class Builder {
+
+          private final long version;
+
+          private final Map<String, List<Credential>> credentials = new HashMap<>();
+
+          private final Map<Long, List<Inbound>> environments = new HashMap<>();
+
+          private Builder(long version) {
+
+               this.version = version;
+          }
+
+          /**
+           * Copies the data of a previous {@link RoutingSnapshot}, except the data of the Apis informed.
+           *
+           * @param snapshot     The previous {@link RoutingSnapshot}
+           * @param excludedApis The Ids of the Apis that are not copied
+           * @return This {@link Builder}
+           */
+          public Builder from(RoutingSnapshot snapshot, Collection<Long> excludedApis) {
+
+               for (Entry<String, List<Credential>> entry : snapshot.credentials.entrySet()) {
+                    for (Credential credential : entry.getValue()) {
+                         if (!excludedApis.contains(credential.getApiId())) {
+                              credentials.computeIfAbsent(entry.getKey(), p -> new ArrayList<>()).add(credential);
+                         }
+                    }
+               }
+
+               for (Entry<Long, List<Inbound>> entry : snapshot.environments.entrySet()) {
+                    if (!excludedApis.contains(entry.getKey())) {
+                         environments.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+                    }
+               }
+               return this;
+          }
+
+          /**
+           * Adds a {@link Credential} to a pattern.
+           *
+           * @param pattern    The pattern of the route
+           * @param credential The {@link Credential}
+           * @return This {@link Builder}
+           */
+          public Builder credential(String pattern, Credential credential) {
+
+               if (pattern != null && credential != null) {
+                    credentials.computeIfAbsent(pattern, p -> new ArrayList<>()).add(credential);
+               }
+               return this;
+          }
+
+          /**
+           * Adds a {@link EnvironmentInfo} to an Api.
+           *
+           * @param apiId       The Api Id
+           * @param inboundURL  The inbound URL of the environment
+           * @param environment The {@link EnvironmentInfo}
+           * @return This {@link Builder}
+           */
+          public Builder environment(Long apiId, String inboundURL, EnvironmentInfo environment) {
+
+               if (apiId != null && inboundURL != null && environment != null) {
+                    Map<String, String> variables = Objects.isNull(environment.getVariables()) ? Collections.emptyMap() : environment.getVariables();
+                    EnvironmentInfo copy = new EnvironmentInfo(environment.getId(), environment.getOutboundURL(), Collections.unmodifiableMap(new HashMap<>(variables)));
+                    environments.computeIfAbsent(apiId, id -> new ArrayList<>()).add(new Inbound(inboundURL, copy));
+               }
+               return this;
+          }
+
+          /**
+           * Builds the immutable {@link RoutingSnapshot}.
+           *
+           * @return The {@link RoutingSnapshot}
+           */
+          public RoutingSnapshot build() {
+
+               Map<String, List<Credential>> credentialsCopy = new HashMap<>(credentials.size());
+               for (Entry<String, List<Credential>> entry : credentials.entrySet()) {
+                    credentialsCopy.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+               }
+
+               Map<Long, List<Inbound>> environmentsCopy = new HashMap<>(environments.size());
+               for (Entry<Long, List<Inbound>> entry : environments.entrySet()) {
+                    environmentsCopy.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+               }
+
+               return new RoutingSnapshot(version, Collections.unmodifiableMap(credentialsCopy), Collections.unmodifiableMap(environmentsCopy));
+          }
+     }
+}
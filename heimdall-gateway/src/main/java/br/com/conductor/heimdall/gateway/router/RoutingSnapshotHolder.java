@@ -0,0 +1,110 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.router;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the actual {@link RoutingSnapshot} used by the gateway to route the requests.
+ */
+@Slf4j
+@Component
+public class RoutingSnapshotHolder {
+
+     private final CredentialRepository credentialRepository;
+
+     private final EnvironmentInfoRepository environmentInfoRepository;
+
+     private final AtomicLong versions = new AtomicLong();
+
+     private final AtomicReference<RoutingSnapshot> snapshot = new AtomicReference<>(RoutingSnapshot.empty());
+
+     public RoutingSnapshotHolder(CredentialRepository credentialRepository, EnvironmentInfoRepository environmentInfoRepository) {
+
+          this.credentialRepository = credentialRepository;
+          this.environmentInfoRepository = environmentInfoRepository;
+     }
+
+     /**
+      * Loads a new {@link RoutingSnapshot} from the database and replaces the actual one.
+      * If the load fails the previous snapshot is kept.
+      */
+     @PostConstruct
+     public synchronized void refresh() {
+
+          try {
+
+               RoutingSnapshot.Builder builder = RoutingSnapshot.builder(versions.incrementAndGet());
+               credentialRepository.findAll(builder);
+               environmentInfoRepository.findAll(builder);
+
+               RoutingSnapshot loaded = builder.build();
+               snapshot.set(loaded);
+               log.info("Routing snapshot updated to version {}", loaded.getVersion());
+          } catch (Exception e) {
+
+               log.error(e.getMessage(), e);
+          }
+     }
+
+     /**
+      * Reloads only the data of the Apis informed, keeping the data of every other Api from the actual
+      * {@link RoutingSnapshot}. If the load fails the previous snapshot is kept.
+      *
+      * @param apiIds The Ids of the Apis that changed
+      * @return true if the snapshot was replaced, false otherwise
+      */
+     public synchronized boolean refresh(Collection<Long> apiIds) {
+
+          try {
+
+               RoutingSnapshot.Builder builder = RoutingSnapshot.builder(versions.incrementAndGet()).from(snapshot.get(), apiIds);
+               for (Long apiId : apiIds) {
+                    credentialRepository.findByApi(apiId, builder);
+                    environmentInfoRepository.findByApi(apiId, builder);
+               }
+
+               RoutingSnapshot loaded = builder.build();
+               snapshot.set(loaded);
+               log.info("Routing snapshot updated to version {} for Apis {}", loaded.getVersion(), apiIds);
+               return true;
+          } catch (Exception e) {
+
+               log.error(e.getMessage(), e);
+               return false;
+          }
+     }
+
+     /**
+      * Returns the actual {@link RoutingSnapshot}.
+      *
+      * @return The {@link RoutingSnapshot}
+      */
+     public RoutingSnapshot get() {
+
+          return snapshot.get();
+     }
+}
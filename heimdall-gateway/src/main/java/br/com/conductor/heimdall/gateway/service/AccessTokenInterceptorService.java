@@ -19,22 +19,17 @@
  */
 package br.com.conductor.heimdall.gateway.service;
 
-import br.com.conductor.heimdall.core.entity.AccessToken;
-import br.com.conductor.heimdall.core.entity.Plan;
 import br.com.conductor.heimdall.core.enums.Location;
-import br.com.conductor.heimdall.core.repository.AccessTokenRepository;
 import br.com.conductor.heimdall.core.util.ConstantsInterceptors;
 import br.com.conductor.heimdall.core.util.DigestUtils;
 import br.com.conductor.heimdall.core.trace.TraceContextHolder;
+import br.com.conductor.heimdall.gateway.entitlement.Entitlement;
+import br.com.conductor.heimdall.gateway.entitlement.EntitlementIndex;
 import com.netflix.zuul.context.RequestContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-
 import static br.com.conductor.heimdall.core.util.Constants.INTERRUPT;
 import static br.com.conductor.heimdall.gateway.util.ConstantsContext.ACCESS_TOKEN;
 import static br.com.conductor.heimdall.gateway.util.ConstantsContext.CLIENT_ID;
@@ -46,7 +41,7 @@ import static br.com.conductor.heimdall.gateway.util.ConstantsContext.CLIENT_ID;
 public class AccessTokenInterceptorService {
 
     @Autowired
-    private AccessTokenRepository accessTokenRepository;
+    private EntitlementIndex entitlementIndex;
 
     /**
      * Validates if a access token originated from {@link Location} is valid
@@ -94,18 +89,15 @@ public class AccessTokenInterceptorService {
 
         if (accessToken != null && !accessToken.isEmpty()) {
 
-            AccessToken token = accessTokenRepository.findAccessTokenActive(accessToken);
+            Entitlement entitlement = entitlementIndex.byAccessToken(accessToken);
 
-            if (token != null && token.getApp() != null) {
+            if (entitlement.exists()) {
 
-                List<Plan> plans = token.getApp().getPlans();
-                Set<Long> collect = plans.parallelStream().map(plan -> plan.getApi().getId()).collect(Collectors.toSet());
-                if (collect.contains(apiId)) {
+                if (entitlement.allowsApi(apiId)) {
 
-                    String cId = token.getApp().getClientId();
-                    if (clientId.equals(cId)) {
+                    if (clientId.equals(entitlement.getClientId())) {
 
-                        TraceContextHolder.getInstance().getActualTrace().setApp(token.getApp().getName());
+                        TraceContextHolder.getInstance().getActualTrace().setApp(entitlement.getAppName());
 
                     } else {
                         buildResponse(String.format(ConstantsInterceptors.GLOBAL_CLIENT_ID_OR_ACESS_TOKEN_NOT_FOUND, ACCESS_TOKEN));
@@ -0,0 +1,216 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.service;
+
+import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.middleware.spec.ApiResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes only one request per cache key go to the backend when the cache misses. The other requests
+ * wait, for a bounded time, for the response of the first one.
+ * <p>
+ * When the distributed mode is enabled the first request also takes a short lease on Redis, so only one
+ * gateway goes to the backend and the others wait for the response to be written to the cache. The gateway
+ * that took the lease publishes the end of its flight through a Redis topic.
+ */
+@Slf4j
+@Service
+public class CacheFlightService {
+
+    private static final String LEASE_SUFFIX = ":flight";
+
+    private static final String COMPLETION_TOPIC = "heimdall:cache-flight";
+
+    @Autowired
+    private Property property;
+
+    @Autowired
+    private RedissonClient redissonClientCacheInterceptor;
+
+    private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, CompletableFuture<Void>> remoteFlights = new ConcurrentHashMap<>();
+
+    private RTopic<String> topic;
+
+    @PostConstruct
+    public void init() {
+
+        if (!property.getSingleFlight().isDistributed()) {
+            return;
+        }
+
+        topic = redissonClientCacheInterceptor.getTopic(COMPLETION_TOPIC, StringCodec.INSTANCE);
+        if (topic != null) {
+            topic.addListener((channel, key) -> {
+                CompletableFuture<Void> completion = remoteFlights.remove(key);
+                if (completion != null) {
+                    completion.complete(null);
+                }
+            });
+        }
+    }
+
+    /**
+     * Joins the flight of a cache key.
+     *
+     * @param key The cache key
+     * @return null if the caller leads the flight and must fetch the response, otherwise the future of the leader response
+     */
+    public CompletableFuture<ApiResponse> join(String key) {
+
+        if (!property.getSingleFlight().isEnabled()) {
+            return null;
+        }
+
+        Flight created = new Flight();
+        Flight current = flights.putIfAbsent(key, created);
+        if (current == null) {
+            return null;
+        }
+
+        if (current.isOverdue(property.getSingleFlight().getTimeoutMillis()) && flights.replace(key, current, created)) {
+            current.response.complete(null);
+            return null;
+        }
+
+        return current.response;
+    }
+
+    /**
+     * Waits for the response of the leader of a flight.
+     *
+     * @param flight The future returned by {@link #join(String)}
+     * @return The {@link ApiResponse} of the leader, null if the leader failed or the time is over
+     */
+    public ApiResponse await(CompletableFuture<ApiResponse> flight) {
+
+        try {
+            return flight.get(property.getSingleFlight().getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Cache flight finished without response", e);
+        }
+        return null;
+    }
+
+    /**
+     * Takes the lease of a cache key on Redis when the distributed mode is enabled.
+     *
+     * @param key The cache key
+     * @return true if this gateway must fetch the response, false if other gateway is already fetching it
+     */
+    public boolean acquireLease(String key) {
+
+        if (!property.getSingleFlight().isDistributed()) {
+            return true;
+        }
+
+        RBucket<String> lease = redissonClientCacheInterceptor.getBucket(key + LEASE_SUFFIX, StringCodec.INSTANCE);
+        return lease.trySet("1", property.getSingleFlight().getTimeoutMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for other gateway to finish the flight of a cache key and reads the response it wrote.
+     *
+     * @param bucket The {@link RBucket} of the cache key
+     * @return The {@link ApiResponse} written, null if the other gateway failed or the time is over
+     */
+    public ApiResponse awaitRemote(RBucket<ApiResponse> bucket) {
+
+        String key = bucket.getName();
+        CompletableFuture<Void> completion = remoteFlights.computeIfAbsent(key, k -> new CompletableFuture<>());
+
+        // The response may have been written before this gateway started to wait
+        ApiResponse response = bucket.get();
+        if (response != null || topic == null) {
+            return response;
+        }
+
+        try {
+            completion.get(property.getSingleFlight().getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            remoteFlights.remove(key, completion);
+            log.debug("Remote cache flight finished without response", e);
+        }
+
+        return bucket.get();
+    }
+
+    /**
+     * Finishes the flight of a cache key, releasing the requests that are waiting.
+     *
+     * @param key      The cache key
+     * @param response The {@link ApiResponse} fetched, null if it could not be fetched
+     */
+    public void complete(String key, ApiResponse response) {
+
+        Flight flight = flights.remove(key);
+        if (flight != null) {
+            flight.response.complete(response);
+        }
+    }
+
+    /**
+     * Releases the lease of a cache key taken by {@link #acquireLease(String)}, waking the gateways waiting for it.
+     *
+     * @param key The cache key
+     */
+    public void releaseLease(String key) {
+
+        if (property.getSingleFlight().isDistributed()) {
+            redissonClientCacheInterceptor.getBucket(key + LEASE_SUFFIX, StringCodec.INSTANCE).delete();
+            if (topic != null) {
+                topic.publish(key);
+            }
+        }
+    }
+
+    private static final class Flight {
+
+        private final CompletableFuture<ApiResponse> response = new CompletableFuture<>();
+
+        private final long startedAt = System.nanoTime();
+
+        private boolean isOverdue(long timeoutMillis) {
+
+            return System.nanoTime() - startedAt > TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.service;
+
+import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.middleware.spec.ApiResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RSet;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the generation of each cache of the Cache interceptors.
+ * <p>
+ * The generation is part of the cache keys, so clearing a cache only increments its generation on Redis
+ * and the old responses are no longer found, expiring with their time to live. Responses cached without
+ * a time to live are tracked by generation and deleted when it is replaced. They expire with the set that
+ * tracks them, so none of them is left behind when the set expires.
+ * <p>
+ * Each gateway keeps the generations it read for a short time. A new generation is published to the other
+ * gateways, and a gateway that misses the message reads it again from Redis when its copy expires.
+ */
+@Slf4j
+@Service
+public class CacheGenerationService {
+
+    private static final String GENERATION_TOPIC = "heimdall:cache-generation";
+
+    private static final String GENERATION_SUFFIX = "generation";
+
+    private static final String KEYS_SUFFIX = "keys";
+
+    @Autowired
+    private Property property;
+
+    @Autowired
+    private RedissonClient redissonClientCacheInterceptor;
+
+    private final ConcurrentMap<String, Generation> generations = new ConcurrentHashMap<>();
+
+    private RTopic<String> topic;
+
+    private ThreadPoolExecutor cleaner;
+
+    @PostConstruct
+    public void init() {
+
+        topic = redissonClientCacheInterceptor.getTopic(GENERATION_TOPIC, StringCodec.INSTANCE);
+        if (topic != null) {
+            topic.addListener((channel, prefix) -> generations.remove(prefix));
+        }
+
+        cleaner = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(property.getCacheGeneration().getCleanerQueueSize()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "heimdall-cache-generation-cleaner");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        cleaner.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gets the prefix of the cache keys of the current generation of a cache.
+     *
+     * @param prefix The prefix of the cache, as apiId-apiName:cacheName:
+     * @return The prefix followed by the current generation
+     */
+    public String prefix(String prefix) {
+
+        long now = System.nanoTime();
+        Generation generation = generations.get(prefix);
+
+        if (generation == null || generation.isExpired(now)) {
+            Generation read = new Generation(redissonClientCacheInterceptor.getAtomicLong(prefix + GENERATION_SUFFIX).get(), now + ttlNanos());
+
+            // A generation started by this gateway while reading is kept
+            generation = generations.merge(prefix, read,
+                    (current, fresh) -> (current.value > fresh.value && !current.isExpired(now)) ? current : fresh);
+        }
+
+        return prefix + "g" + generation.value + ":";
+    }
+
+    /**
+     * Starts a new generation of a cache, in this and in the other gateways.
+     *
+     * @param prefix The prefix of the cache, as apiId-apiName:cacheName:
+     */
+    public void next(String prefix) {
+
+        long generation = redissonClientCacheInterceptor.getAtomicLong(prefix + GENERATION_SUFFIX).incrementAndGet();
+
+        // The local copy may be older than the generation just replaced by this increment
+        String previous = prefix + "g" + (generation - 1) + ":";
+
+        generations.put(prefix, new Generation(generation, System.nanoTime() + ttlNanos()));
+        if (topic != null) {
+            topic.publish(prefix);
+        }
+
+        cleaner.execute(() -> delete(previous + KEYS_SUFFIX));
+    }
+
+    /**
+     * Writes a response cached without time to live and tracks it so it is deleted with its generation.
+     * The set of tracked responses expires when its generation is no longer written, and the response expires
+     * with it, so a response that is only read can not outlive the set.
+     *
+     * @param generationPrefix The prefix returned by {@link #prefix(String)}
+     * @param bucket           The {@link RBucket} of the cache key
+     * @param response         The {@link ApiResponse} to cache
+     */
+    public void setTracked(String generationPrefix, RBucket<ApiResponse> bucket, ApiResponse response) {
+
+        if (generationPrefix == null) {
+            bucket.set(response);
+            return;
+        }
+
+        long keysTtlSeconds = property.getCacheGeneration().getKeysTtlSeconds();
+        bucket.set(response, keysTtlSeconds, TimeUnit.SECONDS);
+
+        // The set is renewed after the response, so it always expires last
+        RSet<String> tracked = redissonClientCacheInterceptor.getSet(generationPrefix + KEYS_SUFFIX, StringCodec.INSTANCE);
+        tracked.addAsync(bucket.getName());
+        tracked.expireAsync(keysTtlSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Forgets the generations known by this gateway, reading them again from Redis.
+     */
+    public void reset() {
+
+        generations.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        cleaner.shutdown();
+    }
+
+    private long ttlNanos() {
+
+        return TimeUnit.MILLISECONDS.toNanos(property.getCacheGeneration().getLocalTtlMillis());
+    }
+
+    private void delete(String name) {
+
+        try {
+            RSet<String> tracked = redissonClientCacheInterceptor.getSet(name, StringCodec.INSTANCE);
+            Set<String> keys = new HashSet<>(tracked.readAll());
+            keys.add(name);
+
+            log.debug("Deleting {} cache keys of an old generation", keys.size() - 1);
+            redissonClientCacheInterceptor.getKeys().delete(keys.toArray(new String[0]));
+        } catch (Exception e) {
+            log.error("Error deleting cache keys of an old generation", e);
+        }
+    }
+
+    private static final class Generation {
+
+        private final long value;
+
+        private final long expiresAt;
+
+        private Generation(long value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
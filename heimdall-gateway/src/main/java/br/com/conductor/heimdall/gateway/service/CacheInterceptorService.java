@@ -33,8 +33,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static br.com.conductor.heimdall.core.util.ConstantsCache.CACHE_BUCKET;
+import static br.com.conductor.heimdall.core.util.ConstantsCache.CACHE_FLIGHT;
+import static br.com.conductor.heimdall.core.util.ConstantsCache.CACHE_GENERATION;
+import static br.com.conductor.heimdall.core.util.ConstantsCache.CACHE_STALE_WHILE_REVALIDATE;
 import static br.com.conductor.heimdall.core.util.ConstantsCache.CACHE_TIME_TO_LIVE;
 import static br.com.conductor.heimdall.gateway.util.ConstantsContext.API_ID;
 import static br.com.conductor.heimdall.gateway.util.ConstantsContext.API_NAME;
@@ -53,30 +57,69 @@ public class CacheInterceptorService {
 	@Autowired
 	private RedissonClient redissonClientCacheInterceptor;
 
+	@Autowired
+	private NearCacheService nearCacheService;
+
+	@Autowired
+	private CacheFlightService cacheFlightService;
+
+	@Autowired
+	private CacheGenerationService cacheGenerationService;
+
     /**
      * Checks if the request is in cache. If true then returns the cached response, otherwise
      * continues the request normally and signals to create the cache for this request.
      *
      * @param cacheName   Cache name provided
-     * @param timeToLive  How much time the cache will live (0 or less to live forever)
+     * @param timeToLive  How much time the cache will live (0 or less to live until the cache is cleared, up to cacheGeneration.keysTtlSeconds)
      * @param headers     List of headers that when present signal that the request should be cached
      * @param queryParams List of queryParams that when present signal that the request should be cached
      */
     public void cacheInterceptor(String cacheName, Long timeToLive, List<String> headers, List<String> queryParams) {
 
+        cacheInterceptor(cacheName, timeToLive, 0L, headers, queryParams);
+    }
+
+    /**
+     * Checks if the request is in cache. If true then returns the cached response, otherwise only one request
+     * per cache key continues to the backend and signals to create the cache, while the others wait for its response.
+     * An expired response is still returned for staleWhileRevalidate milliseconds while one request, the leader
+     * of the flight, goes to the backend to refresh it.
+     *
+     * @param cacheName            Cache name provided
+     * @param timeToLive           How much time the cache will live (0 or less to live until the cache is cleared, up to cacheGeneration.keysTtlSeconds)
+     * @param staleWhileRevalidate How much time the expired cache can be returned while it is refreshed
+     * @param headers              List of headers that when present signal that the request should be cached
+     * @param queryParams          List of queryParams that when present signal that the request should be cached
+     */
+    public void cacheInterceptor(String cacheName, Long timeToLive, Long staleWhileRevalidate, List<String> headers, List<String> queryParams) {
+
         RequestContext context = RequestContext.getCurrentContext();
 
         boolean responseFromCache = false;
 
         if (shouldCache(context, headers, queryParams)) {
-            RBucket<ApiResponse> rBucket = redissonClientCacheInterceptor.getBucket(createCacheKey(context, cacheName, headers, queryParams));
+            String generationPrefix = cacheGenerationService.prefix(createCachePrefix(context, cacheName));
+            String cacheKey = createCacheKey(context, generationPrefix, headers, queryParams);
+
+            ApiResponse response = nearCacheService.get(cacheKey);
 
-            if (rBucket.get() == null) {
-                context.put(CACHE_BUCKET, rBucket);
-                context.put(CACHE_TIME_TO_LIVE, timeToLive);
-            } else {
-                ApiResponse response = rBucket.get();
+            if (response == null) {
+                RBucket<ApiResponse> rBucket = redissonClientCacheInterceptor.getBucket(cacheKey);
+                response = rBucket.get();
 
+                if (response == null) {
+                    context.put(CACHE_GENERATION, generationPrefix);
+                    response = fetch(context, rBucket, timeToLive, staleWhileRevalidate);
+                } else {
+                    Long remainingTimeToLive = remainingTimeToLive(rBucket, timeToLive);
+                    if (remainingTimeToLive != null) {
+                        nearCacheService.put(cacheKey, response, remainingTimeToLive, staleWhileRevalidate);
+                    }
+                }
+            }
+
+            if (response != null) {
                 helper.call().response().header().addAll(response.getHeaders());
                 helper.call().response().setBody(response.getBody());
                 helper.call().response().setStatus(response.getStatus());
@@ -88,29 +131,77 @@ public class CacheInterceptorService {
         TraceContextHolder.getInstance().getActualTrace().setCache(responseFromCache);
     }
 
+    /*
+     * Makes only one request go to the backend for a missing cache key. Returns the response to serve
+     * from cache, or null when this request must continue to the backend. The request that leads the flight
+     * of a stale response goes to the backend to refresh it, while the other requests are served the stale one.
+     */
+    private ApiResponse fetch(RequestContext context, RBucket<ApiResponse> rBucket, Long timeToLive, Long staleWhileRevalidate) {
+
+        String cacheKey = rBucket.getName();
+        ApiResponse stale = nearCacheService.getStale(cacheKey);
+        CompletableFuture<ApiResponse> flight = cacheFlightService.join(cacheKey);
+
+        if (flight == null) {
+            boolean lease = cacheFlightService.acquireLease(cacheKey);
+            if (!lease) {
+                ApiResponse response = (stale != null) ? stale : cacheFlightService.awaitRemote(rBucket);
+                if (response != null) {
+                    cacheFlightService.complete(cacheKey, response);
+                    return response;
+                }
+            }
+
+            context.put(CACHE_FLIGHT, lease);
+        } else {
+            ApiResponse response = (stale != null) ? stale : cacheFlightService.await(flight);
+            if (response != null) {
+                return response;
+            }
+        }
+
+        context.put(CACHE_BUCKET, rBucket);
+        context.put(CACHE_TIME_TO_LIVE, timeToLive);
+        context.put(CACHE_STALE_WHILE_REVALIDATE, staleWhileRevalidate);
+
+        return null;
+    }
+
+    /*
+     * Time to live left of the response in Redis, so the near cache does not outlive it.
+     * Returns null when the response should not be kept in the near cache.
+     */
+    private Long remainingTimeToLive(RBucket<ApiResponse> rBucket, Long timeToLive) {
+
+        if (timeToLive == null || timeToLive <= 0) {
+            return timeToLive;
+        }
+
+        long remaining = rBucket.remainTimeToLive();
+        return (remaining > 0) ? remaining : null;
+    }
+
     /**
-     * Clears a cache if it exists
+     * Clears a cache if it exists. The cache starts a new generation, so the time to clear it
+     * does not depend on how many responses are cached.
      *
      * @param cacheName Cache name provided
      */
     public void cacheClearInterceptor(String cacheName) {
         RequestContext context = RequestContext.getCurrentContext();
 
-        redissonClientCacheInterceptor.getKeys().deleteByPattern(createDeleteCacheKey(context, cacheName));
+        String prefix = createCachePrefix(context, cacheName);
+        cacheGenerationService.next(prefix);
+        nearCacheService.invalidate(prefix);
     }
 
     /*
      * Creates the cache key
      */
-    private String createCacheKey(RequestContext context, String cacheName, List<String> headers, List<String> queryParams) {
+    private String createCacheKey(RequestContext context, String generationPrefix, List<String> headers, List<String> queryParams) {
 
         StringBuilder cacheKey = new StringBuilder();
-        cacheKey.append(context.get(API_ID));
-        cacheKey.append("-");
-        cacheKey.append(context.get(API_NAME));
-        cacheKey.append(":");
-        cacheKey.append(cacheName);
-        cacheKey.append(":");
+        cacheKey.append(generationPrefix);
         cacheKey.append(context.getRequest().getRequestURL().toString());
 
         if (headers != null && !headers.isEmpty()) {
@@ -143,13 +234,13 @@ public class CacheInterceptorService {
     }
 
     /*
-     * Creates a cache key to delete the cache
+     * Creates the prefix of the cache keys of a cache
      */
-    private String createDeleteCacheKey(RequestContext context, String cacheName) {
+    private String createCachePrefix(RequestContext context, String cacheName) {
 
         return context.get(API_ID) + "-" +
                 context.get(API_NAME) + ":" +
-                cacheName + ":*";
+                cacheName + ":";
     }
 
     /*
@@ -19,13 +19,12 @@
  */
 package br.com.conductor.heimdall.gateway.service;
 
-import br.com.conductor.heimdall.core.entity.App;
-import br.com.conductor.heimdall.core.entity.Plan;
 import br.com.conductor.heimdall.core.enums.Location;
-import br.com.conductor.heimdall.core.repository.AppRepository;
 import br.com.conductor.heimdall.core.util.ConstantsInterceptors;
 import br.com.conductor.heimdall.core.util.DigestUtils;
 import br.com.conductor.heimdall.core.trace.TraceContextHolder;
+import br.com.conductor.heimdall.gateway.entitlement.Entitlement;
+import br.com.conductor.heimdall.gateway.entitlement.EntitlementIndex;
 import com.netflix.zuul.context.RequestContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -41,7 +40,7 @@ import static br.com.conductor.heimdall.gateway.util.ConstantsContext.CLIENT_ID;
 public class ClientIdInterceptorService {
 
     @Autowired
-    private AppRepository appRepository;
+    private EntitlementIndex entitlementIndex;
 
     /**
      * Validates if a client id originated from {@link Location} is valid
@@ -78,13 +77,12 @@ public class ClientIdInterceptorService {
         if (clientId != null) {
 
             TraceContextHolder.getInstance().getActualTrace().setClientId(DigestUtils.digestMD5(clientId));
-            App app = appRepository.findByClientId(clientId);
-            if (app != null) {
+            Entitlement entitlement = entitlementIndex.byClientId(clientId);
+            if (entitlement.exists()) {
 
-                Plan plan = app.getPlans().stream().filter(p -> apiId.equals(p.getApi().getId())).findFirst().orElse(null);
-                if (plan != null) {
-                    TraceContextHolder.getInstance().getActualTrace().setApp(app.getName());
-                    TraceContextHolder.getInstance().getActualTrace().setAppDeveloper(app.getDeveloper().getEmail());
+                if (entitlement.allowsApi(apiId)) {
+                    TraceContextHolder.getInstance().getActualTrace().setApp(entitlement.getAppName());
+                    TraceContextHolder.getInstance().getActualTrace().setAppDeveloper(entitlement.getDeveloperEmail());
 
                 } else {
                     buildResponse(ConstantsInterceptors.GLOBAL_ACCESS_NOT_ALLOWED_API);
@@ -28,19 +28,18 @@ import br.com.conductor.heimdall.core.exception.ExceptionMessage;
 import br.com.conductor.heimdall.core.exception.HeimdallException;
 import br.com.conductor.heimdall.core.repository.jdbc.OperationJDBCRepository;
 import br.com.conductor.heimdall.core.util.*;
-import com.netflix.zuul.FilterLoader;
-import com.netflix.zuul.filters.FilterRegistry;
+import br.com.conductor.heimdall.gateway.filter.interceptor.BuiltInInterceptorFilters;
+import br.com.conductor.heimdall.gateway.filter.interceptor.InterceptorParameters;
+import br.com.conductor.heimdall.gateway.zuul.filter.InterceptorDispatchIndex;
+import br.com.conductor.heimdall.gateway.zuul.filter.InterceptorFilterLoader;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.ReflectionUtils;
 
 import java.io.*;
-import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -63,6 +62,12 @@ public class InterceptorFileService {
 	@Autowired
 	private OperationJDBCRepository operationJdbcRepository;
 
+    @Autowired
+    private InterceptorDispatchIndex interceptorDispatchIndex;
+
+    @Autowired
+    private InterceptorFilterLoader interceptorFilterLoader;
+
     @Value("${zuul.filter.root}")
     private String zuulFilterRoot;
 
@@ -90,27 +95,77 @@ public class InterceptorFileService {
 
         HeimdallException.checkThrow(interceptor == null, ExceptionMessage.INTERCEPTOR_NOT_EXIST);
 
+        InterceptorFilterLoader.Source source = generateSource(interceptor);
+        if (source != null) {
+            interceptorFilterLoader.load(source);
+        }
+    }
+
+    /**
+     * Creates all the {@link Interceptor}s informed at once and removes the ones that are not informed.
+     *
+     * @param interceptors The List of {@link Interceptor}
+     */
+    @Transactional(readOnly = true)
+    public void createFileInterceptors(List<Interceptor> interceptors) {
+
+        List<InterceptorFilterLoader.Source> sources = new ArrayList<>();
+        for (Interceptor interceptor : interceptors) {
+            InterceptorFilterLoader.Source source = generateSource(interceptor);
+            if (source != null) {
+                sources.add(source);
+            }
+        }
+
+        interceptorFilterLoader.loadAll(sources).forEach(interceptorDispatchIndex::remove);
+    }
+
+    /*
+     * Builds the source of the filter of a Interceptor and indexes it. The built-in types are instances of
+     * precompiled classes, only the types with user code are rendered from their templates.
+     */
+    private InterceptorFilterLoader.Source generateSource(Interceptor interceptor) {
+
+        final TypeInterceptor type = interceptor.getType();
+        if (BuiltInInterceptorFilters.isBuiltIn(type)) {
+            InterceptorParameters parameters = new InterceptorParameters(buildParameters(interceptor));
+            String hash = DigestUtils.digestMD5(type.name() + parameters.fingerprint());
+            index(interceptor, parameters.getName(), parameters.getReferenceId());
+            return new InterceptorFilterLoader.Source(interceptor.getId(), parameters.getName(), hash,
+                    () -> BuiltInInterceptorFilters.create(type, parameters));
+        }
+
         String template = templateInterceptor(interceptor.getType(), interceptor.getExecutionPoint());
 
         if (template != null) {
-        	List<Long> ignoredOperations = operationJdbcRepository.findIgnoredOperationsFromInterceptor(interceptor.getId());
-        	if (ignoredOperations != null && !ignoredOperations.isEmpty()) {
-        		interceptor.setIgnoredOperations(new HashSet<>(ignoredOperations));
-        	}
-            final Map<String, Object> parameters = buildParametersFile(interceptor);
+            final Map<String, Object> parameters = buildParameters(interceptor);
 
-            generateFileInterceptor(template, parameters);
+            String code = GenerateMustache.generateTemplate(template, parameters);
+            index(interceptor, (String) parameters.get(NAME), (Long) parameters.get(REFERENCE_ID));
+            return new InterceptorFilterLoader.Source(interceptor.getId(), (String) parameters.get(NAME), code);
         } else {
             String[] message = {ExceptionMessage.INTERCEPTOR_TEMPLATE_NOT_EXIST.getMessage(), interceptor.getId().toString(), interceptor.getType().name(), interceptor.getExecutionPoint().name()};
             String error = String.join(", ", message);
             log.error(error);
         }
+        return null;
+    }
+
+    private void index(Interceptor interceptor, String name, Long referenceId) {
+
+        interceptorDispatchIndex.put(interceptor.getId(), name, interceptor.getApi().getId(),
+                interceptor.getLifeCycle(), referenceId, interceptor.getExecutionPoint().getFilterType());
     }
 
     /*
-     * Constructs a parameter file from a Interceptor.
+     * Constructs the parameters of a Interceptor, with the operations it ignores.
      */
-    private Map<String, Object> buildParametersFile(Interceptor interceptor) {
+    private Map<String, Object> buildParameters(Interceptor interceptor) {
+
+    	List<Long> ignoredOperations = operationJdbcRepository.findIgnoredOperationsFromInterceptor(interceptor.getId());
+    	if (ignoredOperations != null && !ignoredOperations.isEmpty()) {
+    		interceptor.setIgnoredOperations(new HashSet<>(ignoredOperations));
+    	}
 
         final long INVALID_REFERENCE_ID = -1L;
 
@@ -135,36 +190,14 @@ public class InterceptorFileService {
     }
 
     /**
-     * Removes a {@link Interceptor} file.
+     * Removes a {@link Interceptor} filter.
      *
      * @param interceptor {@link InterceptorFileDTO}
      */
     public void removeFileInterceptor(InterceptorFileDTO interceptor) {
 
-        File interceptorFile = new File(interceptor.getPath());
-
-        if (interceptorFile.exists() && interceptorFile.isFile()) {
-            String filter = interceptorFile.getAbsolutePath() + interceptorFile.getName();
-            if (interceptorFile.delete()) {
-                log.info("File - Removing File Filter: {}", interceptorFile.getAbsolutePath());
-                FilterRegistry.instance().remove(filter);
-                clearLoaderCache();
-                log.debug("FilterRegistry - Removing File Filter {}", filter);
-            } else {
-                log.warn("Not possible to remove File: {} with Interceptor ID: {}", interceptorFile.getAbsolutePath(), interceptor.getId());
-            }
-        }
-    }
-
-    /*
-     * Clears the loader cache
-     */
-    private void clearLoaderCache() {
-        FilterLoader filterLoader = FilterLoader.getInstance();
-        Field field = ReflectionUtils.findField(FilterLoader.class, "hashFiltersByType");
-        ReflectionUtils.makeAccessible(field);
-        Map<?, ?> cache = (Map<?, ?>) ReflectionUtils.getField(field, filterLoader);
-        cache.clear();
+        interceptorFilterLoader.unload(interceptor.getId());
+        interceptorDispatchIndex.remove(interceptor.getId());
     }
 
     /*
@@ -172,13 +205,18 @@ public class InterceptorFileService {
      */
     private String templateInterceptor(TypeInterceptor type, TypeExecutionPoint executionPoint) {
 
+        String file = type.getHeimdallInterceptor().getFile(executionPoint);
+        if (file == null) {
+            return null;
+        }
+
         String result = null;
         String filePath = "template-interceptor";
         try (
                 InputStream inputStream = new ClassPathResource(
                         filePath +
                         File.separator +
-                        type.getHeimdallInterceptor().getFile(executionPoint)).getInputStream();
+                        file).getInputStream();
                 InputStreamReader inputStreamReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
                 BufferedReader bufferedReader = new BufferedReader(inputStreamReader)
         ) {
@@ -205,29 +243,4 @@ public class InterceptorFileService {
 
     }
 
-    private void generateFileInterceptor(String template, Map<String, Object> parameters) {
-
-        try {
-            String codeInterceptor = GenerateMustache.generateTemplate(template, parameters);
-            String fileName = parameters.get("name") + ".groovy";
-
-            String pathName;
-            final TypeInterceptor interceptorType = (TypeInterceptor) parameters.get("interceptorType");
-            if (TypeInterceptor.MIDDLEWARE.equals(interceptorType)) {
-
-                pathName = String.join(File.separator, zuulFilterRoot, MIDDLEWARE_API_ROOT, parameters.get("apiId").toString(), fileName);
-            } else {
-
-                pathName = String.join(File.separator, zuulFilterRoot, parameters.get("executionPoint").toString(), fileName);
-            }
-            File file = new File(pathName);
-
-            FileUtils.writeStringToFile(file, codeInterceptor, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-
-            log.error(e.getMessage(), e);
-        }
-
-    }
-
 }
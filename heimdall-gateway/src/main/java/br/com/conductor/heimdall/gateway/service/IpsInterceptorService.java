@@ -19,21 +19,18 @@
  */
 package br.com.conductor.heimdall.gateway.service;
 
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletRequest;
 
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.net.util.SubnetUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import com.netflix.zuul.context.RequestContext;
 
+import br.com.conductor.heimdall.gateway.util.IpRangeSet;
+
 /**
  * Provides methods to validate request with blacklist and whitelist interceptors.
  *
@@ -44,7 +41,6 @@ import com.netflix.zuul.context.RequestContext;
 public class IpsInterceptorService {
 
 	private static final String X_FORWARDED_FOR = "X-FORWARDED-FOR";
-	private boolean isAuthorized;
 
     /**
      * Checks if the request ip is in the whitelist
@@ -53,27 +49,19 @@ public class IpsInterceptorService {
      * @throws Throwable
      */
     public void executeWhiteList(Set<String> whitelist) throws Throwable {
-    	isAuthorized = false;
+        executeWhiteList(IpRangeSet.of(whitelist));
+    }
+
+    /**
+     * Checks if the request ip is in the whitelist already compiled
+     *
+     * @param whitelist {@link IpRangeSet} of allowed ips
+     * @throws Throwable
+     */
+    public void executeWhiteList(IpRangeSet whitelist) throws Throwable {
 
         RequestContext ctx = RequestContext.getCurrentContext();
-        Set<String> requestIps = getIpFromRequest(ctx.getRequest());
-        
-        Set<String> ipsWithoutMask = new HashSet<>();
-        Set<String> ipsWithMask = new HashSet<>();
-        
-        classifyIps(whitelist, ipsWithMask, ipsWithoutMask);
-        
-        ipsWithMask.forEach(ipWithMask -> {
-        	requestIps.forEach(ip -> {
-        		if (isInterDomainRouting(ipWithMask, ip)) {
-        			isAuthorized = true;
-        		}
-        	});
-        });
-
-        if (ipsWithoutMask.stream().anyMatch(requestIps::contains)) {
-        	isAuthorized = true;
-        }
+        boolean isAuthorized = containsRequestIp(whitelist, ctx.getRequest());
 
         if (!isAuthorized) {
             ctx.getResponse().sendError(HttpStatus.UNAUTHORIZED.value(), "Unauthorized ip");
@@ -81,48 +69,22 @@ public class IpsInterceptorService {
     }
     
     /**
-     * Removing port from ip's used during request
-     * @param requestIps
+     * Removing port from ip used during request
+     * @param ip
      * @return
      */
-	private Set<String> sanitizeIps(Set<String> requestIps) {
-		return requestIps.stream().map(ip -> {
-			if (ip.contains(":")) {
-				return StringUtils.substringBefore(ip, ":");
-			}
-			return ip;
-		}).collect(Collectors.toSet());
-	}
-
-	/**
-	 * Check if ip is present inside CIDR Range, network and broadcast addresses are to be included.
-	 * @param cidr
-	 * @param ip
-	 * @return
-	 */
-	private boolean isInterDomainRouting(String cidr, String ip) {
-    	SubnetUtils subnet = new SubnetUtils(cidr);
-		subnet.setInclusiveHostCount(true);
-		
-		return subnet.getInfo().isInRange(ip);
-    }
-	
-
-	/**
-	 * Separate ip's with '/' (CIDR) to another Set list, providing better flexibility to identify the ip's match.
-	 * @param iplist
-	 * @param ipsWithMask
-	 * @param ipsWithoutMask
-	 */
-    private void classifyIps(Set<String> iplist, Set<String> ipsWithMask, Set<String> ipsWithoutMask) {
-    	for (String ip : iplist) {
-			if (ip.contains("/")) {
-				ipsWithMask.add(ip);
-			} else {				
-				ipsWithoutMask.add(ip);
+	private String sanitizeIp(String ip) {
+		if (ip.startsWith("[")) {
+			int end = ip.indexOf(']');
+			if (end > 0) {
+				return ip.substring(1, end);
 			}
 		}
-		
+		int colon = ip.indexOf(':');
+		if (colon >= 0 && ip.indexOf(':', colon + 1) < 0) {
+			return ip.substring(0, colon);
+		}
+		return ip;
 	}
 
 	/**
@@ -132,27 +94,19 @@ public class IpsInterceptorService {
      * @throws Throwable
      */
 	public void executeBlackList(Set<String> blacklist) throws Throwable {
-		isAuthorized = true;
-
-		RequestContext ctx = RequestContext.getCurrentContext();
-		Set<String> requestIps = getIpFromRequest(ctx.getRequest());
-
-		Set<String> ipsWithoutMask = new HashSet<>();
-		Set<String> ipsWithMask = new HashSet<>();
-
-		classifyIps(blacklist, ipsWithMask, ipsWithoutMask);
+		executeBlackList(IpRangeSet.of(blacklist));
+	}
 
-		ipsWithMask.forEach(ipWithMask -> {
-			requestIps.forEach(ip -> {
-				if (isInterDomainRouting(ipWithMask, ip)) {
-					isAuthorized = false;
-				}
-			});
-		});
+	/**
+     * Checks if the request ip is in the blacklist already compiled
+     *
+     * @param blacklist {@link IpRangeSet} of blocked ips
+     * @throws Throwable
+     */
+	public void executeBlackList(IpRangeSet blacklist) throws Throwable {
 
-		if (ipsWithoutMask.stream().anyMatch(requestIps::contains)) {
-			isAuthorized = false;
-		}
+		RequestContext ctx = RequestContext.getCurrentContext();
+		boolean isAuthorized = !containsRequestIp(blacklist, ctx.getRequest());
 
 		if (!isAuthorized) {
 			ctx.getResponse().sendError(HttpStatus.UNAUTHORIZED.value(), "Unauthorized ip");
@@ -160,24 +114,32 @@ public class IpsInterceptorService {
 	}
 
     /**
-     * Method that recovers Ips from {@link HttpServletRequest}
+     * Checks the Ips from {@link HttpServletRequest}, the X-Forwarded-For entries and the remote address, one at a time
      *
+     * @param ips The {@link IpRangeSet}
      * @param req The {@link HttpServletRequest}
-     * @return {@link Set}<{@link String}> of request Ips
+     * @return True if any request Ip is in the set
      */
-	private Set<String> getIpFromRequest(HttpServletRequest req) {
+	private boolean containsRequestIp(IpRangeSet ips, HttpServletRequest req) {
 
-		Set<String> ipsFromRequest = new HashSet<>();
-
-		if (Objects.nonNull(req)) {
+		if (Objects.isNull(req)) {
+			return false;
+		}
 
-			if (Objects.nonNull(req.getHeader(X_FORWARDED_FOR))) {
-				Arrays.stream(req.getHeader(X_FORWARDED_FOR).split(",")).forEach(ip -> ipsFromRequest.add(ip.trim()));
+		String forwarded = req.getHeader(X_FORWARDED_FOR);
+		if (Objects.nonNull(forwarded)) {
+			int start = 0;
+			while (start <= forwarded.length()) {
+				int comma = forwarded.indexOf(',', start);
+				int end = comma < 0 ? forwarded.length() : comma;
+				if (ips.contains(sanitizeIp(forwarded.substring(start, end).trim()))) {
+					return true;
+				}
+				start = end + 1;
 			}
-
-			ipsFromRequest.add(req.getRemoteAddr());
 		}
 
-		return sanitizeIps(ipsFromRequest);
+		String remoteAddr = req.getRemoteAddr();
+		return Objects.nonNull(remoteAddr) && ips.contains(sanitizeIp(remoteAddr));
 	}
 }
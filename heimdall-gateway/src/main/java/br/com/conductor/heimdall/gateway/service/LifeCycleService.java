@@ -19,16 +19,13 @@
  */
 package br.com.conductor.heimdall.gateway.service;
 
-import br.com.conductor.heimdall.core.entity.App;
-import br.com.conductor.heimdall.core.entity.Plan;
 import br.com.conductor.heimdall.core.enums.InterceptorLifeCycle;
-import br.com.conductor.heimdall.core.repository.AppRepository;
+import br.com.conductor.heimdall.gateway.entitlement.EntitlementIndex;
 import com.netflix.zuul.context.RequestContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import static br.com.conductor.heimdall.gateway.util.ConstantsContext.*;
 
@@ -41,7 +38,7 @@ import static br.com.conductor.heimdall.gateway.util.ConstantsContext.*;
 public class LifeCycleService {
 
     @Autowired
-    private AppRepository appRepository;
+    private EntitlementIndex entitlementIndex;
 
     public boolean should(InterceptorLifeCycle interceptorLifeCycle,
                           Long referenceId,
@@ -85,13 +82,6 @@ public class LifeCycleService {
 
         if (client_id == null) return false;
 
-        App app = appRepository.findByClientId(client_id);
-
-        if (app == null) return false;
-        if (app.getPlans() == null || app.getPlans().isEmpty()) return false;
-
-        Set<Long> plansIds = app.getPlans().stream().map(Plan::getId).collect(Collectors.toSet());
-
-        return plansIds.contains(referenceId);
+        return entitlementIndex.byClientId(client_id).hasPlan(referenceId);
     }
 }
@@ -0,0 +1,227 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.service;
+
+import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.middleware.spec.ApiResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process cache in front of the Redis used by the Cache interceptors.
+ * <p>
+ * The entries are bounded by the approximate size of the responses and evicted by frequency,
+ * each one expires with the time to live of the interceptor that cached it. Invalidations are
+ * published to the other gateways through a Redis topic.
+ */
+@Slf4j
+@Service
+public class NearCacheService {
+
+    private static final String INVALIDATION_TOPIC = "heimdall:near-cache:invalidation";
+
+    private static final int ENTRY_OVERHEAD = 64;
+
+    @Autowired
+    private Property property;
+
+    @Autowired
+    private RedissonClient redissonClientCacheInterceptor;
+
+    private Cache<String, Entry> cache;
+
+    private RTopic<String> topic;
+
+    @PostConstruct
+    public void init() {
+
+        if (!property.getNearCache().isEnabled()) {
+            return;
+        }
+
+        cache = Caffeine.newBuilder()
+                .maximumWeight(property.getNearCache().getMaximumWeight())
+                .weigher((String key, Entry entry) -> entry.weight + key.length())
+                .build();
+
+        topic = redissonClientCacheInterceptor.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+        if (topic != null) {
+            topic.addListener((channel, prefix) -> invalidateLocal(prefix));
+        }
+    }
+
+    /**
+     * Gets a response from the near cache.
+     *
+     * @param key The cache key
+     * @return The {@link ApiResponse} cached, null if it is not present or expired
+     */
+    public ApiResponse get(String key) {
+
+        if (cache == null) {
+            return null;
+        }
+
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.isExpired()) {
+            if (!entry.isStale()) {
+                cache.asMap().remove(key, entry);
+            }
+            return null;
+        }
+
+        return entry.response;
+    }
+
+    /**
+     * Gets a response that has expired but can still be served while it is revalidated.
+     *
+     * @param key The cache key
+     * @return The stale {@link ApiResponse}, null if there is none
+     */
+    public ApiResponse getStale(String key) {
+
+        if (cache == null) {
+            return null;
+        }
+
+        Entry entry = cache.getIfPresent(key);
+        return (entry != null && entry.isExpired() && entry.isStale()) ? entry.response : null;
+    }
+
+    /**
+     * Puts a response in the near cache.
+     *
+     * @param key        The cache key
+     * @param response   The {@link ApiResponse}
+     * @param timeToLive How much time the response will live in milliseconds (0 or less to live until evicted)
+     */
+    public void put(String key, ApiResponse response, Long timeToLive) {
+
+        put(key, response, timeToLive, 0L);
+    }
+
+    /**
+     * Puts a response in the near cache that can be served stale after it expires.
+     *
+     * @param key                  The cache key
+     * @param response             The {@link ApiResponse}
+     * @param timeToLive           How much time the response will live in milliseconds (0 or less to live until evicted)
+     * @param staleWhileRevalidate How much time in milliseconds the response can be served after it expires
+     */
+    public void put(String key, ApiResponse response, Long timeToLive, Long staleWhileRevalidate) {
+
+        if (cache != null && response != null) {
+            cache.put(key, new Entry(response, timeToLive, staleWhileRevalidate));
+        }
+    }
+
+    /**
+     * Removes every response whose key starts with the prefix, in this and in the other gateways.
+     *
+     * @param prefix The prefix of the cache keys
+     */
+    public void invalidate(String prefix) {
+
+        invalidateLocal(prefix);
+        if (topic != null) {
+            topic.publish(prefix);
+        }
+    }
+
+    /**
+     * Removes every response of this gateway.
+     */
+    public void invalidateAll() {
+
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    private void invalidateLocal(String prefix) {
+
+        if (cache != null && prefix != null) {
+            cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private static final class Entry {
+
+        private final ApiResponse response;
+
+        private final long expiresAt;
+
+        private final long staleUntil;
+
+        private final int weight;
+
+        private Entry(ApiResponse response, Long timeToLive, Long staleWhileRevalidate) {
+
+            this.response = response;
+            this.expiresAt = (timeToLive != null && timeToLive > 0) ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeToLive) : 0L;
+            this.staleUntil = (staleWhileRevalidate != null && staleWhileRevalidate > 0) ? expiresAt + TimeUnit.MILLISECONDS.toNanos(staleWhileRevalidate) : expiresAt;
+            this.weight = weigh(response);
+        }
+
+        private boolean isExpired() {
+
+            return expiresAt != 0L && System.nanoTime() - expiresAt >= 0;
+        }
+
+        private boolean isStale() {
+
+            return System.nanoTime() - staleUntil < 0;
+        }
+
+        private static int weigh(ApiResponse response) {
+
+            int weight = ENTRY_OVERHEAD;
+            if (response.getBody() != null) {
+                weight += response.getBody().length();
+            }
+            if (response.getHeaders() != null) {
+                for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+                    weight += ENTRY_OVERHEAD + length(header.getKey()) + length(header.getValue());
+                }
+            }
+            return weight;
+        }
+
+        private static int length(String value) {
+
+            return value != null ? value.length() : 0;
+        }
+    }
+}
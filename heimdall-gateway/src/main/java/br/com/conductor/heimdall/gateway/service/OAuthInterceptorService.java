@@ -21,6 +21,7 @@ package br.com.conductor.heimdall.gateway.service;
 
 import br.com.conductor.heimdall.core.dto.request.OAuthRequest;
 import br.com.conductor.heimdall.core.dto.response.TokenImplicit;
+import br.com.conductor.heimdall.core.dto.response.VerifiedToken;
 import br.com.conductor.heimdall.core.entity.*;
 import br.com.conductor.heimdall.core.enums.TypeOAuth;
 import br.com.conductor.heimdall.core.exception.ExceptionMessage;
@@ -86,6 +87,9 @@ public class OAuthInterceptorService {
     @Autowired
     private AppRepository appRepository;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     private RequestContext context;
 
     /**
@@ -252,14 +256,21 @@ public class OAuthInterceptorService {
 
         String token = authorization.replace("Bearer ", "");
 
-        oAuthService.tokenIsValid(token, privateKey);
+        if (verifiedTokenCache.get(token, privateKey) != null) {
+            return;
+        }
 
-        OAuthAuthorize oAuthAuthorizeFromToken = oAuthService.getOAuthAuthorizeFromToken(token);
+        VerifiedToken verified = oAuthService.verifyToken(token, privateKey);
+        OAuthAuthorize oAuthAuthorizeFromToken = verified.getAuthorize();
 
         if (oAuthAuthorizeFromToken.getGrantType().equals(GRANT_TYPE_IMPLICIT)) {
+            // Implicit tokens are used only once, so they are never cached
             generateTokenImplicit(privateKey, token, oAuthAuthorizeFromToken);
             oAuthService.delete(oAuthAuthorizeFromToken);
+            return;
         }
+
+        verifiedTokenCache.put(token, privateKey, verified);
     }
 
 
@@ -478,15 +489,17 @@ public class OAuthInterceptorService {
         }
     }
 
-    private ObjectMapper mapper() {
-
-        ObjectMapper mapper = new ObjectMapper();
+    /*
+     * Configured once, a ObjectMapper is thread safe after its configuration.
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
 
-        mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+    private ObjectMapper mapper() {
 
-        return mapper;
+        return MAPPER;
     }
 
     public boolean isJson(String string) {
@@ -19,86 +19,250 @@
  */
 package br.com.conductor.heimdall.gateway.service;
 
-import br.com.conductor.heimdall.core.entity.RateLimit;
+import br.com.conductor.heimdall.core.entity.RateLimitLease;
 import br.com.conductor.heimdall.core.enums.Interval;
+import br.com.conductor.heimdall.core.environment.Property;
 import br.com.conductor.heimdall.core.repository.RateLimitRepository;
 import com.netflix.zuul.context.RequestContext;
-import org.redisson.api.RLock;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Rate limit interceptor provides a limit to the number of requests
  *
  * @author Marcelo Aguiar Rodrigues
  */
+@Slf4j
 @Service
 public class RattingInterceptorService {
 
+    private static final int LEASE_ATTEMPTS = 3;
+
     @Autowired
     private RateLimitRepository rateLimitRepository;
 
+    @Autowired
+    private Property property;
+
+    private final ConcurrentMap<String, Lease> leases = new ConcurrentHashMap<>();
+
     /**
-     * Limits the number of requests to a specific path
+     * Limits the number of requests to a specific path.
+     * Each call is counted with a single atomic operation on Redis, no lock is held between gateways.
      *
-     * @param name RLock name
+     * @param name interceptor name
      * @param path rate limit key
      */
     public void execute(String name, String path, Long calls, Interval interval, Long id) {
-        RequestContext ctx = RequestContext.getCurrentContext();
 
-        RLock lock = rateLimitRepository.getLock(name);
-        lock.lock();
+        execute(name, path, calls, interval, id, 0L);
+    }
 
-        RateLimit rate = rateLimitRepository.find(path);
+    /**
+     * Limits the number of requests to a specific path.
+     * When lease is greater than one the gateway takes that many calls at once from Redis and
+     * consumes them locally. A lease lives at most heimdall.rateLimit.leaseMillis, then the calls not used
+     * are given back to Redis.
+     * The lease is the most calls one gateway can hold that the others will not see.
+     *
+     * @param name interceptor name
+     * @param path rate limit key
+     * @param lease number of calls taken from Redis at once, zero to count every call on Redis
+     */
+    public void execute(String name, String path, Long calls, Interval interval, Long id, Long lease) {
+        RequestContext ctx = RequestContext.getCurrentContext();
 
-        if (rate == null) {
-            rate = rateLimitRepository.mountRatelimit(id, calls, interval);
+        boolean allowed;
+        if (lease != null && lease > 1) {
+            allowed = acquireFromLease(path, calls, interval, Math.min(lease, calls));
+        } else {
+            allowed = rateLimitRepository.acquire(path, calls, interval);
         }
 
-        if (rate.getLastRequest() == null) {
-            rate.setLastRequest(LocalDateTime.now());
+        if (!allowed) {
+            ctx.setSendZuulResponse(false);
+            ctx.setResponseStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
+            ctx.setResponseBody(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
         }
+    }
 
-        if (hasIntervalEnded(rate)) {
-            rate.reset();
-            rate.decreaseRemaining();
-            rateLimitRepository.save(rate);
-        } else {
-            if (rate.hasRemaining()) {
-                rate.decreaseRemaining();
-                rateLimitRepository.save(rate);
-            } else {
-                ctx.setSendZuulResponse(false);
-                ctx.setResponseStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
-                ctx.setResponseBody(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+    /*
+     * Consumes a call from the local lease, taking a new batch from Redis when it is used up or expired.
+     * Only one request renews the lease of a path, the others wait for it. The batch is taken outside of
+     * the map and swapped in, so no Redis call runs under a map lock.
+     */
+    private boolean acquireFromLease(String path, Long calls, Interval interval, long permits) {
+
+        long leaseMillis = property.getRateLimit().getLeaseMillis();
+
+        for (int attempt = 0; attempt < LEASE_ATTEMPTS; attempt++) {
+            Lease current = leases.get(path);
+            if (current == null) {
+                current = leases.computeIfAbsent(path, key -> Lease.empty());
+            }
+            if (current.tryConsume()) {
+                return true;
             }
+            if (current.isAlive() && current.isExhausted()) {
+                return false;
+            }
+
+            if (!current.startRenewal()) {
+                current.awaitRenewal(leaseMillis);
+                continue;
+            }
+
+            Lease next;
+            try {
+                RateLimitLease granted = rateLimitRepository.lease(path, calls, interval, permits);
+                next = new Lease(granted.getGranted(), granted.getTtl(), leaseMillis);
+            } catch (RuntimeException e) {
+                // The next request renews it again
+                leases.remove(path, current);
+                current.finishRenewal();
+                throw e;
+            }
+
+            boolean swapped = leases.replace(path, current, next);
+            current.finishRenewal();
 
+            if (!swapped) {
+                // The lease expired and was forgotten while it was renewed, the calls taken are given back
+                release(path, next);
+                continue;
+            }
+
+            release(path, current);
+            return next.tryConsume();
+        }
+
+        return false;
+    }
+
+    /**
+     * Gives back to Redis the calls of the expired leases and forgets the paths not used since then.
+     */
+    @Scheduled(fixedDelayString = "${heimdall.rateLimit.leaseMillis:1000}")
+    public void expireLeases() {
+
+        leases.forEach((path, lease) -> {
+            if (!lease.isAlive() && leases.remove(path, lease)) {
+                release(path, lease);
+            }
+        });
+    }
+
+    /**
+     * Gives back to Redis the calls leased and not used by this gateway.
+     */
+    @PreDestroy
+    public void releaseLeases() {
+
+        leases.forEach(this::release);
+        leases.clear();
+    }
+
+    private void release(String path, Lease lease) {
+
+        long unused = lease.drain();
+        if (unused <= 0) {
+            return;
+        }
+
+        try {
+            rateLimitRepository.release(path, unused);
+        } catch (Exception e) {
+            log.warn("Could not release the rate limit lease of {}", path, e);
         }
-        lock.unlock();
     }
 
     /*
-     * Checks if the limiting time has ended
+     * Calls leased by this gateway. A lease lives at most the maximum lease time, so the calls not used
+     * return to Redis while the window is still open. A lease that got no calls rejects the requests
+     * for that time too, then one request asks Redis again for the calls the other gateways gave back.
      */
-    private boolean hasIntervalEnded(RateLimit rate) {
+    private static final class Lease {
+
+        private final AtomicLong remaining;
 
-        switch (rate.getInterval()) {
-            case SECONDS:
-                return Duration.between(LocalDateTime.now(), rate.getLastRequest()).getSeconds() < 0;
+        private final boolean exhausted;
 
-            case MINUTES:
-                return Duration.between(LocalDateTime.now(), rate.getLastRequest()).toMinutes() < 0;
+        private final long expiresAt;
 
-            case HOURS:
-                return Duration.between(LocalDateTime.now(), rate.getLastRequest()).toHours() < 0;
+        private final long windowEndsAt;
+
+        private final AtomicBoolean renewing = new AtomicBoolean();
+
+        private final CountDownLatch renewed = new CountDownLatch(1);
+
+        private Lease(long granted, long ttl, long maximumMillis) {
+            long now = System.nanoTime();
+            this.remaining = new AtomicLong(granted);
+            this.exhausted = granted <= 0;
+            this.windowEndsAt = now + TimeUnit.MILLISECONDS.toNanos(ttl);
+            this.expiresAt = now + TimeUnit.MILLISECONDS.toNanos(Math.min(ttl, maximumMillis));
+        }
 
-            default:
+        /*
+         * Already expired lease of a path not leased yet, renewed by the first request.
+         */
+        private static Lease empty() {
+            return new Lease(0L, 0L, 0L);
+        }
+
+        private boolean startRenewal() {
+            return renewing.compareAndSet(false, true);
+        }
+
+        private void finishRenewal() {
+            renewed.countDown();
+        }
+
+        private void awaitRenewal(long timeoutMillis) {
+            try {
+                renewed.await(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private boolean tryConsume() {
+            if (!isAlive()) {
                 return false;
+            }
+            long value;
+            do {
+                value = remaining.get();
+                if (value <= 0) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(value, value - 1));
+            return true;
+        }
+
+        private boolean isAlive() {
+            return System.nanoTime() - expiresAt < 0;
+        }
+
+        private boolean isExhausted() {
+            return exhausted;
+        }
+
+        private long drain() {
+            long unused = Math.max(remaining.getAndSet(0), 0);
+            // Calls of a window already closed would be taken from the next one
+            return System.nanoTime() - windowEndsAt < 0 ? unused : 0;
         }
     }
 
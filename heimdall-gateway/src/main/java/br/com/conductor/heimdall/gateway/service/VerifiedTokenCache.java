@@ -0,0 +1,158 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.service;
+
+import br.com.conductor.heimdall.core.dto.response.VerifiedToken;
+import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.core.util.DigestUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process cache of the OAuth tokens already verified by the OAuth VALIDATE interceptors.
+ * <p>
+ * The tokens are kept by their SHA-256 digest until their expiration, bounded by a maximum time to live.
+ * The tokens deleted by the {@link br.com.conductor.heimdall.core.service.OAuthService} are published to
+ * every gateway and kept in a revocation set, so a validation running concurrently can not cache them again.
+ */
+@Service
+public class VerifiedTokenCache {
+
+    @Autowired
+    private Property property;
+
+    private Cache<String, Entry> tokens;
+
+    private Cache<String, Boolean> revoked;
+
+    @PostConstruct
+    public void init() {
+
+        if (!property.getVerifiedTokens().isEnabled()) {
+            return;
+        }
+
+        long maximumTtl = property.getVerifiedTokens().getMaximumTtlSeconds();
+
+        tokens = Caffeine.newBuilder()
+                .maximumSize(property.getVerifiedTokens().getMaximumSize())
+                .expireAfterWrite(maximumTtl, TimeUnit.SECONDS)
+                .build();
+
+        revoked = Caffeine.newBuilder()
+                .maximumSize(property.getVerifiedTokens().getMaximumSize())
+                .expireAfterWrite(maximumTtl, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Gets a token verified with a private key.
+     *
+     * @param token      The token
+     * @param privateKey The private key of the interceptor
+     * @return The {@link VerifiedToken}, null if it is not cached, expired or revoked
+     */
+    public VerifiedToken get(String token, String privateKey) {
+
+        if (tokens == null) {
+            return null;
+        }
+
+        String digest = DigestUtils.digestSHA256(token);
+        Entry entry = tokens.getIfPresent(digest);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.isExpired()) {
+            tokens.asMap().remove(digest, entry);
+            return null;
+        }
+
+        return entry.privateKey.equals(privateKey) ? entry.token : null;
+    }
+
+    /**
+     * Caches a token verified with a private key until it expires.
+     *
+     * @param token      The token
+     * @param privateKey The private key of the interceptor
+     * @param verified   The {@link VerifiedToken}
+     */
+    public void put(String token, String privateKey, VerifiedToken verified) {
+
+        if (tokens == null) {
+            return;
+        }
+
+        String digest = DigestUtils.digestSHA256(token);
+        Entry entry = new Entry(verified, privateKey);
+        if (entry.isExpired()) {
+            return;
+        }
+
+        tokens.put(digest, entry);
+        if (revoked.getIfPresent(digest) != null) {
+            tokens.asMap().remove(digest, entry);
+        }
+    }
+
+    /**
+     * Revokes a token in this gateway.
+     *
+     * @param digest The SHA-256 digest of the token
+     */
+    public void revoke(String digest) {
+
+        if (tokens == null || digest == null) {
+            return;
+        }
+
+        revoked.put(digest, Boolean.TRUE);
+        tokens.invalidate(digest);
+    }
+
+    private static final class Entry {
+
+        private final VerifiedToken token;
+
+        private final String privateKey;
+
+        private final long expiresAt;
+
+        private Entry(VerifiedToken token, String privateKey) {
+
+            this.token = token;
+            this.privateKey = privateKey;
+            this.expiresAt = token.getExpiration() != null ? token.getExpiration().getTime() : Long.MAX_VALUE;
+        }
+
+        private boolean isExpired() {
+
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
+}
@@ -20,19 +20,16 @@
 
 package br.com.conductor.heimdall.gateway.task;
 
-import java.io.File;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import br.com.conductor.heimdall.core.entity.Interceptor;
-import br.com.conductor.heimdall.core.enums.TypeInterceptor;
 import br.com.conductor.heimdall.core.repository.jdbc.InterceptorJDBCRepository;
-import br.com.conductor.heimdall.core.util.StringUtils;
 import br.com.conductor.heimdall.gateway.service.InterceptorFileService;
+import br.com.conductor.heimdall.gateway.zuul.filter.InterceptorFilterLoader;
 
 /**
  * @author @author <a href="https://dijalmasilva.github.io" target="_blank">Dijalma Silva</a>
@@ -46,35 +43,18 @@ public class ScheduledInterceptors {
     @Autowired
     private InterceptorJDBCRepository interceptorJDBCRepository;
 
-    @Value("${zuul.filter.root}")
-    private String path;
+    @Autowired
+    private InterceptorFilterLoader interceptorFilterLoader;
 
     @Scheduled(fixedRateString = "${heimdall.interceptor.health.fixedRate}")
     public void checkFilesInterceptors() {
         List<Interceptor> interceptors = interceptorJDBCRepository.findAllInterceptorsSimplified();
 
         interceptors.forEach(interceptor -> {
-            if (!checkInterceptorInDisk(interceptor)) {
+            if (!interceptorFilterLoader.isLoaded(interceptor.getId())) {
                 interceptorFileService.createFileInterceptor(interceptor);
             }
         });
     }
 
-    private boolean checkInterceptorInDisk(Interceptor interceptor) {
-
-        String filename = StringUtils.concatCamelCase(interceptor.getLifeCycle().name(), interceptor.getType().name(), interceptor.getExecutionPoint().getFilterType(), interceptor.getId().toString()) + ".groovy";
-        String path = this.path;
-
-        if (interceptor.getType() == TypeInterceptor.MIDDLEWARE) {
-            path = path.concat(File.separator + "api" + File.separator + interceptor.getApi().getId());
-        } else {
-            path = path.concat(File.separator + interceptor.getExecutionPoint().getFilterType());
-        }
-
-        path = path.concat(File.separator + filename);
-        File file = new File(path);
-        
-        return file.exists();
-    }
-
 }
@@ -0,0 +1,130 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.trace;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import br.com.conductor.heimdall.core.trace.FilterDetail;
+import br.com.conductor.heimdall.core.trace.Trace;
+import br.com.conductor.heimdall.core.trace.TraceContextHolder;
+
+/**
+ * Records how long each filter takes to decide if it should run and to run, in the {@link Trace}
+ * of the request and in a {@link LatencyHistogram} per filter.
+ * <p>
+ * The filters are singletons, so the time is measured in local variables and the details are
+ * kept only in the {@link Trace} of the request.
+ */
+public class FilterLatency {
+
+     private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+     private final ConcurrentMap<String, LatencyHistogram[]> histograms = new ConcurrentHashMap<>();
+
+     private static class LazyHolder {
+          static final FilterLatency INSTANCE = new FilterLatency();
+     }
+
+     /**
+      * Thread safe singleton initializer.
+      *
+      * @return {@link FilterLatency} instance
+      */
+     public static FilterLatency getInstance() {
+
+          return LazyHolder.INSTANCE;
+     }
+
+     /**
+      * Records the time a filter took to decide if it should run. The time is kept in the {@link Trace}
+      * only for the filters that run, the others are only recorded in the histogram.
+      *
+      * @param name      The name of the filter
+      * @param startTime The {@link System#nanoTime()} when the filter started
+      * @param should    If the filter will run
+      */
+     public void shouldFilter(String name, long startTime, boolean should) {
+
+          long duration = System.nanoTime() - startTime;
+
+          histograms(name)[0].record(duration);
+          if (!should) {
+               return;
+          }
+
+          Trace trace = TraceContextHolder.getInstance().getActualTrace();
+          if (trace != null) {
+               trace.shouldFilter(name, duration);
+          }
+     }
+
+     /**
+      * Records the time a filter took to run and adds its {@link FilterDetail} to the {@link Trace}.
+      *
+      * @param name      The name of the filter
+      * @param startTime The {@link System#nanoTime()} when the filter started
+      * @param detail    The {@link FilterDetail} of the filter
+      */
+     public void run(String name, long startTime, FilterDetail detail) {
+
+          long duration = System.nanoTime() - startTime;
+
+          histograms(name)[1].record(duration);
+          detail.setTimeInNanosRun(duration);
+          Trace trace = TraceContextHolder.getInstance().getActualTrace();
+          if (trace != null) {
+               trace.addFilter(name, detail);
+          }
+     }
+
+     /**
+      * Summarizes the latency of each filter in milliseconds.
+      *
+      * @return {@link Map} by filter name
+      */
+     public Map<String, Object> snapshot() {
+
+          Map<String, Object> snapshot = new TreeMap<>();
+          histograms.forEach((name, latency) -> {
+               Map<String, Object> filter = new TreeMap<>();
+               filter.put("should", latency[0].summary(NANOS_PER_MILLI));
+               filter.put("run", latency[1].summary(NANOS_PER_MILLI));
+               snapshot.put(name, filter);
+          });
+          return snapshot;
+     }
+
+     /**
+      * Discards the latencies recorded.
+      */
+     public void reset() {
+
+          histograms.clear();
+     }
+
+     private LatencyHistogram[] histograms(String name) {
+
+          return histograms.computeIfAbsent(name, n -> new LatencyHistogram[] { new LatencyHistogram(), new LatencyHistogram() });
+     }
+}
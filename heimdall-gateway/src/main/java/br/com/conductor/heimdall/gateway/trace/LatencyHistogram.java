@@ -0,0 +1,149 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.trace;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets.
+ * <p>
+ * Each power of two is split in {@value #SUB_BUCKETS} linear buckets, so any recorded value is
+ * reported with an error below 4%, in the same way as the HdrHistogram.
+ */
+public class LatencyHistogram {
+
+     private static final int SUB_BUCKET_BITS = 5;
+
+     private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+     private static final int MAX_EXPONENT = 40;
+
+     private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+     private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+
+     private final LongAdder count = new LongAdder();
+
+     private final LongAdder sum = new LongAdder();
+
+     private final AtomicLong max = new AtomicLong();
+
+     /**
+      * Records a value.
+      *
+      * @param value The value, values below zero are recorded as zero
+      */
+     public void record(long value) {
+
+          long recorded = Math.min(Math.max(value, 0L), MAX_VALUE);
+
+          counts.incrementAndGet(index(recorded));
+          count.increment();
+          sum.add(recorded);
+          max.accumulateAndGet(recorded, Math::max);
+     }
+
+     /**
+      * @return The number of values recorded
+      */
+     public long getCount() {
+
+          return count.sum();
+     }
+
+     /**
+      * Gets the value below which the percentage of the recorded values falls.
+      *
+      * @param percentile The percentile, from 0 to 100
+      * @return The highest value equivalent to the percentile
+      */
+     public long getValueAtPercentile(double percentile) {
+
+          long total = 0;
+          long[] snapshot = new long[counts.length()];
+          for (int i = 0; i < snapshot.length; i++) {
+               snapshot[i] = counts.get(i);
+               total += snapshot[i];
+          }
+
+          if (total == 0) {
+               return 0L;
+          }
+
+          long target = Math.max(1L, (long) Math.ceil(total * Math.min(percentile, 100d) / 100d));
+          long cumulative = 0;
+          for (int i = 0; i < snapshot.length; i++) {
+               cumulative += snapshot[i];
+               if (cumulative >= target) {
+                    return Math.min(highestEquivalentValue(i), max.get());
+               }
+          }
+
+          return max.get();
+     }
+
+     /**
+      * Summarizes the recorded values with the unit informed.
+      *
+      * @param divisor Divisor to convert the recorded values to the unit of the summary
+      * @return {@link Map} with the count, mean, max and the main percentiles
+      */
+     public Map<String, Object> summary(double divisor) {
+
+          long total = getCount();
+
+          Map<String, Object> summary = new LinkedHashMap<>();
+          summary.put("count", total);
+          summary.put("mean", total == 0 ? 0d : sum.sum() / (double) total / divisor);
+          summary.put("p50", getValueAtPercentile(50d) / divisor);
+          summary.put("p90", getValueAtPercentile(90d) / divisor);
+          summary.put("p99", getValueAtPercentile(99d) / divisor);
+          summary.put("p999", getValueAtPercentile(99.9d) / divisor);
+          summary.put("max", max.get() / divisor);
+          return summary;
+     }
+
+     private static int index(long value) {
+
+          if (value < SUB_BUCKETS) {
+               return (int) value;
+          }
+
+          int exponent = 63 - Long.numberOfLeadingZeros(value);
+          int shift = exponent - SUB_BUCKET_BITS;
+          int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+          return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+     }
+
+     private static long highestEquivalentValue(int index) {
+
+          if (index < SUB_BUCKETS) {
+               return index;
+          }
+
+          int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+          int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+          return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+     }
+}
@@ -0,0 +1,405 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of IPv4 and IPv6 addresses and CIDR ranges.
+ * <p>
+ * The ranges are compiled into a binary trie per address family, so a lookup walks at most 32 or 128 bits,
+ * whatever the number of ranges. IPv4-mapped IPv6 addresses and ranges, e.g. ::ffff:10.0.0.0/104, are stored
+ * and looked up as IPv4.
+ */
+@Slf4j
+public final class IpRangeSet {
+
+    private static final int IPV4_BITS = 32;
+
+    private static final int IPV6_BITS = 128;
+
+    /*
+     * Length of the ::ffff:0:0/96 prefix of the IPv4-mapped addresses.
+     */
+    private static final int MAPPED_BITS = IPV6_BITS - IPV4_BITS;
+
+    private static final long MAPPED_LOW = 0xFFFFL << IPV4_BITS;
+
+    private final Trie ipv4;
+
+    private final Trie ipv6;
+
+    private IpRangeSet(Trie ipv4, Trie ipv6) {
+
+        this.ipv4 = ipv4;
+        this.ipv6 = ipv6;
+    }
+
+    /**
+     * Compiles a set of addresses and CIDR ranges, e.g. 192.168.0.10, 10.0.0.0/8 or 2001:db8::/32.
+     * Invalid entries are ignored.
+     *
+     * @param ranges The addresses and CIDR ranges
+     * @return The {@link IpRangeSet}
+     */
+    public static IpRangeSet of(Collection<String> ranges) {
+
+        Trie ipv4 = new Trie();
+        Trie ipv6 = new Trie();
+        long[] address = new long[2];
+
+        for (String range : ranges) {
+            if (range == null || !add(range.trim(), ipv4, ipv6, address)) {
+                log.warn("Ignoring invalid ip or CIDR range: {}", range);
+            }
+        }
+
+        return new IpRangeSet(ipv4.trim(), ipv6.trim());
+    }
+
+    /**
+     * Checks if an address is in one of the ranges.
+     *
+     * @param ip The IPv4 or IPv6 address
+     * @return True if the address is in the set, false otherwise or if it is not a valid address
+     */
+    public boolean contains(String ip) {
+
+        if (ip == null) {
+            return false;
+        }
+
+        long v4 = parseIpv4(ip, 0, ip.length());
+        if (v4 >= 0) {
+            return ipv4.matches(v4 << IPV4_BITS, 0L, IPV4_BITS);
+        }
+
+        long[] address = new long[2];
+        if (!parseIpv6(ip, address)) {
+            return false;
+        }
+
+        if (address[0] == 0L && address[1] >>> IPV4_BITS == 0xFFFFL) {
+            return ipv4.matches(address[1] << IPV4_BITS, 0L, IPV4_BITS);
+        }
+
+        return ipv6.matches(address[0], address[1], IPV6_BITS);
+    }
+
+    private static boolean add(String range, Trie ipv4, Trie ipv6, long[] address) {
+
+        int slash = range.indexOf('/');
+        String ip = slash < 0 ? range : range.substring(0, slash);
+
+        Trie trie;
+        int length;
+        long v4 = parseIpv4(ip, 0, ip.length());
+        if (v4 >= 0) {
+            address[0] = v4 << IPV4_BITS;
+            address[1] = 0L;
+            trie = ipv4;
+            length = IPV4_BITS;
+        } else if (parseIpv6(ip, address)) {
+            trie = ipv6;
+            length = IPV6_BITS;
+        } else {
+            return false;
+        }
+
+        if (slash >= 0) {
+            int prefix = parseDecimal(range, slash + 1, range.length());
+            if (prefix < 0 || prefix > length) {
+                return false;
+            }
+            length = prefix;
+        }
+
+        if (trie == ipv6 && isMapped(address, length)) {
+            if (length < MAPPED_BITS) {
+                // The range covers the whole IPv4-mapped block, which is only ever looked up as IPv4
+                ipv4.insert(0L, 0L, 0);
+            } else {
+                ipv4.insert(address[1] << IPV4_BITS, 0L, length - MAPPED_BITS);
+                return true;
+            }
+        }
+
+        trie.insert(address[0], address[1], length);
+        return true;
+    }
+
+    /*
+     * Checks if the first length bits of the address are in the IPv4-mapped block ::ffff:0:0/96, or cover it.
+     */
+    private static boolean isMapped(long[] address, int length) {
+
+        int bits = Math.min(length, MAPPED_BITS);
+        if (bits <= 64) {
+            return bits == 0 || address[0] >>> (64 - bits) == 0L;
+        }
+        return address[0] == 0L && (address[1] ^ MAPPED_LOW) >>> (IPV6_BITS - bits) == 0L;
+    }
+
+    /*
+     * Parses a dotted IPv4 address between from and to, returning -1 if it is not valid.
+     */
+    private static long parseIpv4(String s, int from, int to) {
+
+        long value = 0L;
+        int octets = 0;
+        int i = from;
+
+        while (true) {
+            int start = i;
+            while (i < to && i - start < 3 && Character.isDigit(s.charAt(i))) {
+                i++;
+            }
+
+            int octet = parseDecimal(s, start, i);
+            if (octet < 0 || octet > 255) {
+                return -1L;
+            }
+
+            value = value << 8 | octet;
+            octets++;
+
+            if (i == to) {
+                return octets == 4 ? value : -1L;
+            }
+            if (octets == 4 || s.charAt(i) != '.') {
+                return -1L;
+            }
+            i++;
+        }
+    }
+
+    /*
+     * Parses a IPv6 address into its high and low 64 bits. A zone id (%eth0) is ignored.
+     */
+    private static boolean parseIpv6(String s, long[] address) {
+
+        int end = s.indexOf('%');
+        if (end < 0) {
+            end = s.length();
+        }
+
+        address[0] = 0L;
+        address[1] = 0L;
+
+        int gap = s.indexOf("::");
+        if (gap >= end) {
+            gap = -1;
+        }
+
+        int groups = parseGroups(s, 0, gap < 0 ? end : gap, 0, address);
+        if (groups < 0) {
+            return false;
+        }
+        if (gap < 0) {
+            return groups == 8;
+        }
+
+        int tail = gap + 2;
+        int tailGroups = countGroups(s, tail, end);
+        if (groups + tailGroups > 7) {
+            return false;
+        }
+
+        return parseGroups(s, tail, end, 8 - tailGroups, address) == 8;
+    }
+
+    /*
+     * Parses the groups separated by ':' between from and to, starting at the group index.
+     * Returns the index after the last group parsed or -1 if they are not valid.
+     */
+    private static int parseGroups(String s, int from, int to, int index, long[] address) {
+
+        if (from == to) {
+            return index;
+        }
+
+        int start = from;
+        while (true) {
+            int colon = s.indexOf(':', start);
+            int fieldEnd = colon < 0 || colon > to ? to : colon;
+            if (fieldEnd == start) {
+                return -1;
+            }
+
+            if (fieldEnd == to && s.lastIndexOf('.', to - 1) >= start) {
+                long v4 = parseIpv4(s, start, to);
+                if (v4 < 0 || index > 6) {
+                    return -1;
+                }
+                setGroup(address, index++, (int) (v4 >>> 16));
+                setGroup(address, index++, (int) (v4 & 0xFFFF));
+                return index;
+            }
+
+            int value = parseHex(s, start, fieldEnd);
+            if (value < 0 || index > 7) {
+                return -1;
+            }
+            setGroup(address, index++, value);
+
+            if (fieldEnd == to) {
+                return index;
+            }
+            start = fieldEnd + 1;
+        }
+    }
+
+    private static int countGroups(String s, int from, int to) {
+
+        if (from == to) {
+            return 0;
+        }
+
+        int groups = 1;
+        int lastColon = from - 1;
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == ':') {
+                groups++;
+                lastColon = i;
+            }
+        }
+
+        return s.lastIndexOf('.', to - 1) > lastColon ? groups + 1 : groups;
+    }
+
+    private static void setGroup(long[] address, int index, int value) {
+
+        if (index < 4) {
+            address[0] |= (long) value << (16 * (3 - index));
+        } else {
+            address[1] |= (long) value << (16 * (7 - index));
+        }
+    }
+
+    private static int parseHex(String s, int from, int to) {
+
+        if (to - from < 1 || to - from > 4) {
+            return -1;
+        }
+
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(s.charAt(i), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private static int parseDecimal(String s, int from, int to) {
+
+        if (to - from < 1 || to - from > 3) {
+            return -1;
+        }
+
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Binary trie of prefixes, stored in arrays. The children of the node n are at 2n and 2n + 1,
+     * the root is the node 0 and a child 0 means there is no child.
+     */
+    private static final class Trie {
+
+        private int[] children = new int[32];
+
+        private boolean[] terminal = new boolean[16];
+
+        private int size = 1;
+
+        private void insert(long high, long low, int length) {
+
+            int node = 0;
+            for (int i = 0; i < length; i++) {
+                if (terminal[node]) {
+                    return;
+                }
+
+                int slot = 2 * node + bit(high, low, i);
+                int child = children[slot];
+                if (child == 0) {
+                    child = newNode();
+                    children[slot] = child;
+                }
+                node = child;
+            }
+
+            // A prefix covers every longer prefix below it
+            terminal[node] = true;
+            children[2 * node] = 0;
+            children[2 * node + 1] = 0;
+        }
+
+        private boolean matches(long high, long low, int length) {
+
+            int node = 0;
+            for (int i = 0; i < length; i++) {
+                if (terminal[node]) {
+                    return true;
+                }
+
+                node = children[2 * node + bit(high, low, i)];
+                if (node == 0) {
+                    return false;
+                }
+            }
+            return terminal[node];
+        }
+
+        private int newNode() {
+
+            if (size == terminal.length) {
+                terminal = Arrays.copyOf(terminal, size * 2);
+                children = Arrays.copyOf(children, size * 4);
+            }
+            return size++;
+        }
+
+        private Trie trim() {
+
+            terminal = Arrays.copyOf(terminal, size);
+            children = Arrays.copyOf(children, size * 2);
+            return this;
+        }
+
+        private static int bit(long high, long low, int index) {
+
+            return index < 64 ? (int) (high >>> (63 - index)) & 1 : (int) (low >>> (127 - index)) & 1;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.zuul.filter;
+
+import br.com.conductor.heimdall.gateway.filter.HeimdallFilter;
+import com.netflix.zuul.FilterProcessor;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.Debug;
+import com.netflix.zuul.context.RequestContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import static br.com.conductor.heimdall.gateway.util.ConstantsContext.API_ID;
+import static br.com.conductor.heimdall.gateway.util.ConstantsContext.OPERATION_ID;
+import static br.com.conductor.heimdall.gateway.util.ConstantsContext.RESOURCE_ID;
+
+/**
+ * {@link FilterProcessor} that runs only the interceptors that apply to the request.
+ * <p>
+ * The filters that are not indexed interceptors always run, as in Zuul. The interceptors are grouped by
+ * Api, Resource and Operation using the {@link InterceptorDispatchIndex}, and once the Api of the request
+ * is known only the interceptors of its Api, Resource and Operation are merged, in order, with the other filters.
+ */
+public class HeimdallFilterProcessor extends FilterProcessor {
+
+    private final InterceptorDispatchIndex index;
+
+    private final Function<String, List<ZuulFilter>> filtersByType;
+
+    private final ConcurrentMap<String, Dispatch> dispatches = new ConcurrentHashMap<>();
+
+    /**
+     * @param index         The {@link InterceptorDispatchIndex} of the interceptors
+     * @param filtersByType Returns the filters of a type, sorted by order
+     */
+    public HeimdallFilterProcessor(InterceptorDispatchIndex index, Function<String, List<ZuulFilter>> filtersByType) {
+
+        this.index = index;
+        this.filtersByType = filtersByType;
+    }
+
+    @Override
+    public Object runFilters(String sType) throws Throwable {
+
+        RequestContext context = RequestContext.getCurrentContext();
+        if (context.debugRouting()) {
+            Debug.addRoutingDebug("Invoking {" + sType + "} type filters");
+        }
+
+        List<ZuulFilter> filters = filtersByType.apply(sType);
+        if (filters == null) {
+            return false;
+        }
+
+        Dispatch dispatch = dispatch(sType, filters);
+        List<ZuulFilter> common = dispatch.common;
+        List<ZuulFilter> interceptors = null;
+        int c = 0;
+        int i = 0;
+        int lastOrder = Integer.MIN_VALUE;
+        boolean bResult = false;
+
+        while (true) {
+            if (interceptors == null) {
+                interceptors = dispatch.interceptors(context);
+                // The interceptors before the Api was known would not have matched the request
+                while (interceptors != null && i < interceptors.size() && interceptors.get(i).filterOrder() < lastOrder) {
+                    i++;
+                }
+            }
+
+            ZuulFilter next;
+            if (interceptors != null && i < interceptors.size()
+                    && (c >= common.size() || interceptors.get(i).filterOrder() < common.get(c).filterOrder())) {
+                next = interceptors.get(i++);
+            } else if (c < common.size()) {
+                next = common.get(c++);
+            } else {
+                break;
+            }
+
+            lastOrder = next.filterOrder();
+            Object result = processZuulFilter(next);
+            if (result instanceof Boolean) {
+                bResult |= (Boolean) result;
+            }
+        }
+
+        return bResult;
+    }
+
+    private Dispatch dispatch(String type, List<ZuulFilter> filters) {
+
+        long version = index.version();
+        Dispatch dispatch = dispatches.get(type);
+        if (dispatch == null || dispatch.filters != filters || dispatch.version != version) {
+            dispatch = new Dispatch(filters, version, index);
+            dispatches.put(type, dispatch);
+        }
+        return dispatch;
+    }
+
+    /*
+     * The filters of a type grouped by where they apply.
+     */
+    private static final class Dispatch {
+
+        private final List<ZuulFilter> filters;
+
+        private final long version;
+
+        private final List<ZuulFilter> common = new ArrayList<>();
+
+        private final Map<Long, List<ZuulFilter>> byApi = new HashMap<>();
+
+        private final Map<Long, List<ZuulFilter>> byResource = new HashMap<>();
+
+        private final Map<Long, List<ZuulFilter>> byOperation = new HashMap<>();
+
+        private final ConcurrentMap<String, List<ZuulFilter>> merged = new ConcurrentHashMap<>();
+
+        private Dispatch(List<ZuulFilter> filters, long version, InterceptorDispatchIndex index) {
+
+            this.filters = filters;
+            this.version = version;
+
+            for (ZuulFilter filter : filters) {
+                InterceptorDispatchIndex.Entry entry = (filter instanceof HeimdallFilter) ? index.get(((HeimdallFilter) filter).getName()) : null;
+                if (entry == null) {
+                    common.add(filter);
+                    continue;
+                }
+
+                switch (entry.getLifeCycle()) {
+                    case RESOURCE:
+                        byResource.computeIfAbsent(entry.getReferenceId(), k -> new ArrayList<>()).add(filter);
+                        break;
+                    case OPERATION:
+                        byOperation.computeIfAbsent(entry.getReferenceId(), k -> new ArrayList<>()).add(filter);
+                        break;
+                    default:
+                        byApi.computeIfAbsent(entry.getApiId(), k -> new ArrayList<>()).add(filter);
+                        break;
+                }
+            }
+        }
+
+        /*
+         * Returns the interceptors of the Api, Resource and Operation of the request, null while the Api is not known.
+         */
+        private List<ZuulFilter> interceptors(RequestContext context) {
+
+            Long apiId = (Long) context.get(API_ID);
+            if (apiId == null) {
+                return null;
+            }
+
+            Long resourceId = (Long) context.get(RESOURCE_ID);
+            Long operationId = (Long) context.get(OPERATION_ID);
+
+            return merged.computeIfAbsent(apiId + ":" + resourceId + ":" + operationId, key -> {
+                List<ZuulFilter> interceptors = new ArrayList<>();
+                interceptors.addAll(byApi.getOrDefault(apiId, Collections.emptyList()));
+                interceptors.addAll(byResource.getOrDefault(resourceId, Collections.emptyList()));
+                interceptors.addAll(byOperation.getOrDefault(operationId, Collections.emptyList()));
+                Collections.sort(interceptors);
+                return Collections.unmodifiableList(interceptors);
+            });
+        }
+    }
+}
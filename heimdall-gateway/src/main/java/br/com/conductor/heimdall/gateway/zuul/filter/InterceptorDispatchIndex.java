@@ -0,0 +1,128 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.zuul.filter;
+
+import br.com.conductor.heimdall.core.enums.InterceptorLifeCycle;
+import com.netflix.zuul.FilterProcessor;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of the interceptor filters by API, life cycle and reference.
+ * <p>
+ * It is updated when the interceptors are created or removed and used by the {@link HeimdallFilterProcessor}
+ * to run only the interceptors of the API, resource and operation of the request.
+ */
+@Component
+public class InterceptorDispatchIndex {
+
+    private final ConcurrentMap<Long, Entry> byInterceptorId = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Entry> byName = new ConcurrentHashMap<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    @Autowired
+    private InterceptorFilterLoader interceptorFilterLoader;
+
+    @PostConstruct
+    public void init() {
+
+        FilterProcessor.setProcessor(new HeimdallFilterProcessor(this, interceptorFilterLoader::getFiltersByType));
+    }
+
+    /**
+     * Indexes the filter of an interceptor.
+     *
+     * @param interceptorId  The interceptor Id
+     * @param name           The name of the generated filter
+     * @param apiId          The Api Id
+     * @param lifeCycle      The {@link InterceptorLifeCycle}
+     * @param referenceId    The Id of the Api, Plan, Resource or Operation the interceptor belongs to
+     * @param executionPoint The filter type
+     */
+    public void put(Long interceptorId, String name, Long apiId, InterceptorLifeCycle lifeCycle, Long referenceId, String executionPoint) {
+
+        Entry entry = new Entry(name, apiId, lifeCycle, referenceId, executionPoint);
+
+        Entry previous = byInterceptorId.put(interceptorId, entry);
+        if (previous != null) {
+            byName.remove(previous.getName(), previous);
+        }
+        byName.put(name, entry);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Removes the filter of an interceptor from the index.
+     *
+     * @param interceptorId The interceptor Id
+     */
+    public void remove(Long interceptorId) {
+
+        Entry previous = byInterceptorId.remove(interceptorId);
+        if (previous != null) {
+            byName.remove(previous.getName(), previous);
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param name The name of the filter
+     * @return The {@link Entry} of the filter, null if the filter is not an indexed interceptor
+     */
+    Entry get(String name) {
+
+        return byName.get(name);
+    }
+
+    /**
+     * @return A number that changes every time the index changes
+     */
+    long version() {
+
+        return version.get();
+    }
+
+    /**
+     * Where an interceptor filter applies.
+     */
+    @Getter
+    @AllArgsConstructor
+    static final class Entry {
+
+        private final String name;
+
+        private final Long apiId;
+
+        private final InterceptorLifeCycle lifeCycle;
+
+        private final Long referenceId;
+
+        private final String executionPoint;
+    }
+}
@@ -0,0 +1,332 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.zuul.filter;
+
+import br.com.conductor.heimdall.core.environment.Property;
+import com.netflix.zuul.DynamicCodeCompiler;
+import com.netflix.zuul.FilterLoader;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.filters.FilterRegistry;
+import com.netflix.zuul.groovy.GroovyCompiler;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PreDestroy;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Compiles the interceptor sources in memory and registers the filters directly in the {@link FilterRegistry}.
+ * <p>
+ * The sources are compiled in parallel on a bounded executor, and an interceptor whose source did not change
+ * keeps its loaded filter. The compiled classes are kept by the hash of their source, so the same source is
+ * not compiled again while a filter of it is loaded. Every change republishes the filters of the affected types
+ * at once, so the {@link HeimdallFilterProcessor} sees either the previous or the new filters.
+ */
+@Slf4j
+@Component
+public class InterceptorFilterLoader {
+
+    private final ConcurrentMap<Long, Loaded> loaded = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Class<?>> classes = new ConcurrentHashMap<>();
+
+    private volatile Map<String, List<ZuulFilter>> filtersByType = Collections.emptyMap();
+
+    private final DynamicCodeCompiler compiler = new GroovyCompiler();
+
+    private final ExecutorService executor;
+
+    public InterceptorFilterLoader(Property property) {
+
+        int threads = Math.max(1, property.getInterceptor().getCompilerThreads());
+        AtomicInteger count = new AtomicInteger();
+        ClassLoader classLoader = getClass().getClassLoader();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(threads * 64), runnable -> {
+            Thread thread = new Thread(runnable, "heimdall-interceptor-compiler-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    /**
+     * Loads the filter of a single interceptor, replacing its previous filter.
+     *
+     * @param source The {@link Source} of the interceptor
+     */
+    public void load(Source source) {
+
+        Map<Long, ZuulFilter> compiled = compile(Collections.singletonList(source));
+        synchronized (this) {
+            Set<String> types = new HashSet<>();
+            register(source, compiled.get(source.getInterceptorId()), types);
+            publish(types);
+        }
+    }
+
+    /**
+     * Loads the filters of every interceptor informed and unloads the interceptors that are not informed.
+     *
+     * @param sources The {@link Source}s of all interceptors
+     * @return The Ids of the interceptors unloaded
+     */
+    public Set<Long> loadAll(Collection<Source> sources) {
+
+        Map<Long, ZuulFilter> compiled = compile(sources);
+        synchronized (this) {
+            Set<String> types = new HashSet<>();
+            Set<Long> ids = new HashSet<>();
+            for (Source source : sources) {
+                ids.add(source.getInterceptorId());
+                register(source, compiled.get(source.getInterceptorId()), types);
+            }
+
+            Set<Long> removed = new HashSet<>(loaded.keySet());
+            removed.removeAll(ids);
+            removed.forEach(id -> unregister(id, types));
+            publish(types);
+
+            return removed;
+        }
+    }
+
+    /**
+     * Unloads the filter of an interceptor.
+     *
+     * @param interceptorId The interceptor Id
+     */
+    public synchronized void unload(Long interceptorId) {
+
+        Set<String> types = new HashSet<>();
+        unregister(interceptorId, types);
+        publish(types);
+    }
+
+    /**
+     * Returns the filters of a type, sorted by order. The types without interceptors are read from the
+     * {@link FilterLoader}.
+     *
+     * @param type The filter type
+     * @return The filters of the type
+     */
+    public List<ZuulFilter> getFiltersByType(String type) {
+
+        List<ZuulFilter> filters = filtersByType.get(type);
+        return (filters != null) ? filters : FilterLoader.getInstance().getFiltersByType(type);
+    }
+
+    /**
+     * @param interceptorId The interceptor Id
+     * @return true if the filter of the interceptor is loaded
+     */
+    public boolean isLoaded(Long interceptorId) {
+
+        return loaded.containsKey(interceptorId);
+    }
+
+    /*
+     * Compiles in parallel the sources that changed since they were loaded.
+     */
+    private Map<Long, ZuulFilter> compile(Collection<Source> sources) {
+
+        Map<Long, CompletableFuture<ZuulFilter>> futures = new HashMap<>();
+        for (Source source : sources) {
+            Loaded previous = loaded.get(source.getInterceptorId());
+            if (previous != null && previous.hash.equals(source.hash)) {
+                continue;
+            }
+            futures.put(source.getInterceptorId(), CompletableFuture.supplyAsync(() -> newFilter(source), executor));
+        }
+
+        Map<Long, ZuulFilter> filters = new HashMap<>();
+        futures.forEach((id, future) -> {
+            try {
+                filters.put(id, future.join());
+            } catch (Exception e) {
+                log.error("Not possible to create the Interceptor ID: " + id, e);
+            }
+        });
+        return filters;
+    }
+
+    private ZuulFilter newFilter(Source source) {
+
+        try {
+            if (source.factory != null) {
+                return source.factory.get();
+            }
+            Class<?> clazz = classes.get(source.hash);
+            if (clazz == null) {
+                clazz = compiler.compile(source.getCode(), source.getName());
+                if (Modifier.isAbstract(clazz.getModifiers())) {
+                    throw new IllegalStateException(source.getName() + " is abstract");
+                }
+                Class<?> current = classes.putIfAbsent(source.hash, clazz);
+                clazz = (current != null) ? current : clazz;
+            }
+            return (ZuulFilter) clazz.newInstance();
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /*
+     * Registers a compiled filter, a null filter keeps the one already loaded.
+     */
+    private void register(Source source, ZuulFilter filter, Set<String> types) {
+
+        if (filter == null) {
+            return;
+        }
+
+        Loaded previous = loaded.put(source.getInterceptorId(), new Loaded(source.hash, source.getName(), filter));
+        if (previous != null) {
+            types.add(previous.filter.filterType());
+            if (!previous.name.equals(source.getName())) {
+                FilterRegistry.instance().remove(previous.name);
+            }
+        }
+        FilterRegistry.instance().put(source.getName(), filter);
+        types.add(filter.filterType());
+        log.debug("FilterRegistry - Registering Filter {}", source.getName());
+    }
+
+    private void unregister(Long interceptorId, Set<String> types) {
+
+        Loaded previous = loaded.remove(interceptorId);
+        if (previous != null) {
+            FilterRegistry.instance().remove(previous.name);
+            types.add(previous.filter.filterType());
+            log.debug("FilterRegistry - Removing Filter {}", previous.name);
+        }
+    }
+
+    /*
+     * Replaces the published filters of each type with the registered ones, and forgets the classes
+     * of the sources no longer loaded.
+     */
+    private void publish(Set<String> types) {
+
+        if (types.isEmpty()) {
+            return;
+        }
+
+        Set<String> hashes = new HashSet<>();
+        loaded.values().forEach(current -> hashes.add(current.hash));
+        classes.keySet().retainAll(hashes);
+
+        Map<String, List<ZuulFilter>> published = new HashMap<>(filtersByType);
+        for (String type : types) {
+            List<ZuulFilter> filters = new ArrayList<>();
+            for (ZuulFilter filter : FilterRegistry.instance().getAllFilters()) {
+                if (Objects.equals(type, filter.filterType())) {
+                    filters.add(filter);
+                }
+            }
+            Collections.sort(filters);
+            published.put(type, Collections.unmodifiableList(filters));
+        }
+        filtersByType = published;
+    }
+
+    /**
+     * The source of an interceptor filter, either the rendered code or a factory of a built-in filter.
+     */
+    @Getter
+    public static final class Source {
+
+        private final Long interceptorId;
+
+        private final String name;
+
+        private final String code;
+
+        @Getter(AccessLevel.NONE)
+        private final String hash;
+
+        @Getter(AccessLevel.NONE)
+        private final Supplier<ZuulFilter> factory;
+
+        public Source(Long interceptorId, String name, String code) {
+
+            this.interceptorId = interceptorId;
+            this.name = name;
+            this.code = code;
+            this.hash = DigestUtils.md5DigestAsHex(code.getBytes(StandardCharsets.UTF_8));
+            this.factory = null;
+        }
+
+        /**
+         * Source of a filter created without compiling code.
+         *
+         * @param interceptorId The Id of the interceptor
+         * @param name          The name of the filter
+         * @param hash          Changes whenever the filter must be recreated
+         * @param factory       Creates the filter
+         */
+        public Source(Long interceptorId, String name, String hash, Supplier<ZuulFilter> factory) {
+
+            this.interceptorId = interceptorId;
+            this.name = name;
+            this.code = null;
+            this.hash = hash;
+            this.factory = factory;
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class Loaded {
+
+        private final String hash;
+
+        private final String name;
+
+        private final ZuulFilter filter;
+    }
+}
@@ -51,6 +51,8 @@ public class ProxyRouteLocator extends DiscoveryClientRouteLocator {
 
      private AtomicReference<Map<String, ZuulRoute>> routes = new AtomicReference<>();
 
+     private AtomicReference<RouteTrie> routeTrie = new AtomicReference<>(RouteTrie.compile(null));
+
      public ProxyRouteLocator(String servletPath, DiscoveryClient discovery, ZuulProperties properties, ZuulRouteStorage storage) {
 
           super(servletPath, discovery, properties);
@@ -140,6 +142,7 @@ public class ProxyRouteLocator extends DiscoveryClientRouteLocator {
 
           }
 
+          this.routeTrie.set(RouteTrie.compile(values));
           this.getAtomicRoutes().set(values);
           return values;
 
@@ -165,4 +168,14 @@ public class ProxyRouteLocator extends DiscoveryClientRouteLocator {
 
           return routes;
      }
+
+     /**
+      * Returns the {@link RouteTrie} compiled from the last located routes.
+      * 
+      * @return	The actual {@link RouteTrie}
+      */
+     public RouteTrie getRouteTrie() {
+
+          return routeTrie.get();
+     }
 }
@@ -0,0 +1,318 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.zuul.route;
+
+import org.springframework.cloud.netflix.zuul.filters.ZuulProperties.ZuulRoute;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Immutable path trie compiled from the routes located by the {@link ProxyRouteLocator}.
+ * <p>
+ * Each pattern is split in segments and stored as literal, single wildcard ({@code *} or
+ * {@code {variable}}) or double wildcard ({@code **}) nodes, so a lookup only walks the
+ * segments of the request path instead of testing every route. Patterns with segments the
+ * trie does not understand (e.g. {@code *.json} or {@code {id:[0-9]+}}) are kept in a small
+ * fallback list that is still matched by the {@link AntPathMatcher}.
+ * <p>
+ * The candidates are always returned in the order of the original route map, which keeps the
+ * precedence defined by the {@link br.com.conductor.heimdall.gateway.util.RouteSort}.
+ */
+public final class RouteTrie {
+
+     private static final String SEPARATOR = "/";
+
+     private static final String SINGLE_WILDCARD = "*";
+
+     private static final String MULTI_WILDCARD = "**";
+
+     private static final Comparator<Candidate> BY_ORDER = Comparator.comparingInt(Candidate::getOrder);
+
+     private final Node root;
+
+     private final List<Candidate> fallback;
+
+     private final int size;
+
+     private final PathMatcher pathMatcher = new AntPathMatcher();
+
+     private RouteTrie(Node root, List<Candidate> fallback, int size) {
+
+          this.root = root;
+          this.fallback = fallback;
+          this.size = size;
+     }
+
+     /**
+      * Compiles a new {@link RouteTrie} from a ordered Map of patterns and {@link ZuulRoute}.
+      *
+      * @param routes The routes in order of precedence
+      * @return The compiled {@link RouteTrie}
+      */
+     public static RouteTrie compile(Map<String, ZuulRoute> routes) {
+
+          Node root = new Node();
+          List<Candidate> fallback = new ArrayList<>();
+          int order = 0;
+
+          if (routes != null) {
+
+               for (Entry<String, ZuulRoute> entry : routes.entrySet()) {
+
+                    String pattern = entry.getKey();
+                    if (pattern == null) {
+                         continue;
+                    }
+
+                    String[] segments = tokenize(pattern);
+                    boolean compilable = pattern.startsWith(SEPARATOR);
+                    boolean multi = false;
+                    for (String segment : segments) {
+                         if (MULTI_WILDCARD.equals(segment)) {
+                              multi = true;
+                         } else if (!isSingleWildcard(segment) && !isLiteral(segment)) {
+                              compilable = false;
+                         }
+                    }
+
+                    boolean trailingWildcard = segments.length > 0 && SINGLE_WILDCARD.equals(segments[segments.length - 1]);
+                    Candidate candidate = new Candidate(pattern, entry.getValue(), order++, pattern.endsWith(SEPARATOR), trailingWildcard, multi);
+                    if (compilable) {
+                         root.insert(segments, 0, candidate);
+                    } else {
+                         fallback.add(candidate);
+                    }
+               }
+          }
+
+          return new RouteTrie(root, Collections.unmodifiableList(fallback), order);
+     }
+
+     /**
+      * Finds every route that matches the path, in order of precedence.
+      *
+      * @param path The request path
+      * @return The List of {@link Candidate} that match the path
+      */
+     public List<Candidate> match(String path) {
+
+          if (path == null) {
+               return Collections.emptyList();
+          }
+
+          List<Candidate> matches = new ArrayList<>(2);
+          if (path.startsWith(SEPARATOR)) {
+               root.collect(tokenize(path), 0, path.endsWith(SEPARATOR), matches);
+          }
+
+          for (Candidate candidate : fallback) {
+               if (pathMatcher.match(candidate.pattern, path)) {
+                    matches.add(candidate);
+               }
+          }
+
+          if (matches.size() > 1) {
+               matches.sort(BY_ORDER);
+               Candidate previous = null;
+               List<Candidate> distinct = new ArrayList<>(matches.size());
+               for (Candidate candidate : matches) {
+                    if (candidate != previous) {
+                         distinct.add(candidate);
+                    }
+                    previous = candidate;
+               }
+               return distinct;
+          }
+
+          return matches;
+     }
+
+     /**
+      * Returns the number of routes compiled in this trie.
+      *
+      * @return The number of routes
+      */
+     public int size() {
+
+          return size;
+     }
+
+     private static String[] tokenize(String path) {
+
+          List<String> tokens = new ArrayList<>();
+          int start = 0;
+          int length = path.length();
+          while (start < length) {
+               int end = path.indexOf('/', start);
+               if (end < 0) {
+                    end = length;
+               }
+               if (end > start) {
+                    tokens.add(path.substring(start, end));
+               }
+               start = end + 1;
+          }
+          return tokens.toArray(new String[0]);
+     }
+
+     private static boolean isSingleWildcard(String segment) {
+
+          if (SINGLE_WILDCARD.equals(segment)) {
+               return true;
+          }
+
+          if (segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}') {
+               String variable = segment.substring(1, segment.length() - 1);
+               return variable.indexOf(':') < 0 && variable.indexOf('{') < 0 && variable.indexOf('}') < 0;
+          }
+
+          return false;
+     }
+
+     private static boolean isLiteral(String segment) {
+
+          return segment.indexOf('*') < 0 && segment.indexOf('?') < 0 && segment.indexOf('{') < 0 && segment.indexOf('}') < 0;
+     }
+
+     /**
+      * A route reached by the trie.
+      */
+     public static final class Candidate {
+
+          private final String pattern;
+
+          private final ZuulRoute route;
+
+          private final int order;
+
+          private final boolean trailingSeparator;
+
+          private final boolean trailingWildcard;
+
+          private final boolean multiWildcard;
+
+          private Candidate(String pattern, ZuulRoute route, int order, boolean trailingSeparator, boolean trailingWildcard, boolean multiWildcard) {
+
+               this.pattern = pattern;
+               this.route = route;
+               this.order = order;
+               this.trailingSeparator = trailingSeparator;
+               this.trailingWildcard = trailingWildcard;
+               this.multiWildcard = multiWildcard;
+          }
+
+          public String getPattern() {
+
+               return pattern;
+          }
+
+          public ZuulRoute getRoute() {
+
+               return route;
+          }
+
+          public int getOrder() {
+
+               return order;
+          }
+     }
+
+     private static final class Node {
+
+          private final Map<String, Node> literals = new HashMap<>();
+
+          private Node single;
+
+          private Node multi;
+
+          private final List<Candidate> candidates = new ArrayList<>(1);
+
+          private void insert(String[] segments, int index, Candidate candidate) {
+
+               if (index == segments.length) {
+                    candidates.add(candidate);
+                    return;
+               }
+
+               String segment = segments[index];
+               Node next;
+               if (MULTI_WILDCARD.equals(segment)) {
+                    if (multi == null) {
+                         multi = new Node();
+                    }
+                    next = multi;
+               } else if (isSingleWildcard(segment)) {
+                    if (single == null) {
+                         single = new Node();
+                    }
+                    next = single;
+               } else {
+                    next = literals.computeIfAbsent(segment, s -> new Node());
+               }
+               next.insert(segments, index + 1, candidate);
+          }
+
+          /*
+           * Mirrors the AntPathMatcher rules: the trailing separator must agree unless the pattern
+           * has a '**', and a pattern ending in '*' also matches the same path ending in a separator.
+           */
+          private void collect(String[] segments, int index, boolean trailingSeparator, List<Candidate> matches) {
+
+               if (multi != null) {
+                    for (int i = index; i <= segments.length; i++) {
+                         multi.collect(segments, i, trailingSeparator, matches);
+                    }
+               }
+
+               if (index == segments.length) {
+                    for (Candidate candidate : candidates) {
+                         if (candidate.multiWildcard || candidate.trailingSeparator == trailingSeparator) {
+                              matches.add(candidate);
+                         }
+                    }
+                    if (trailingSeparator && single != null) {
+                         for (Candidate candidate : single.candidates) {
+                              if (candidate.trailingWildcard && !candidate.multiWildcard) {
+                                   matches.add(candidate);
+                              }
+                         }
+                    }
+                    return;
+               }
+
+               Node literal = literals.get(segments[index]);
+               if (literal != null) {
+                    literal.collect(segments, index + 1, trailingSeparator, matches);
+               }
+
+               if (single != null) {
+                    single.collect(segments, index + 1, trailingSeparator, matches);
+               }
+          }
+     }
+}
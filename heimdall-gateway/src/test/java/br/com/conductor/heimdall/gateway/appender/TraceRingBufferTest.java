@@ -0,0 +1,76 @@
+package br.com.conductor.heimdall.gateway.appender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TraceRingBufferTest {
+
+     @Test
+     public void roundCapacityToPowerOfTwo() {
+          assertEquals(8, new TraceRingBuffer<String>(5).capacity());
+     }
+
+     @Test
+     public void refuseElementsWhenFull() {
+          TraceRingBuffer<String> buffer = new TraceRingBuffer<>(2);
+
+          assertTrue(buffer.offer("a"));
+          assertTrue(buffer.offer("b"));
+          assertFalse(buffer.offer("c"));
+          assertEquals(2, buffer.size());
+
+          assertEquals("a", buffer.poll());
+          assertTrue(buffer.offer("c"));
+          assertEquals("b", buffer.poll());
+          assertEquals("c", buffer.poll());
+          assertNull(buffer.poll());
+     }
+
+     @Test
+     public void drainUpToMax() {
+          TraceRingBuffer<Integer> buffer = new TraceRingBuffer<>(8);
+          for (int i = 0; i < 5; i++) {
+               buffer.offer(i);
+          }
+
+          List<Integer> drained = new ArrayList<>();
+
+          assertEquals(3, buffer.drainTo(drained, 3));
+          assertEquals(2, buffer.size());
+     }
+
+     @Test
+     public void keepEveryElementPublishedConcurrently() throws InterruptedException {
+          TraceRingBuffer<Integer> buffer = new TraceRingBuffer<>(1024);
+          ExecutorService executor = Executors.newFixedThreadPool(4);
+          CountDownLatch done = new CountDownLatch(4);
+
+          for (int t = 0; t < 4; t++) {
+               executor.execute(() -> {
+                    for (int i = 0; i < 200; i++) {
+                         buffer.offer(i);
+                    }
+                    done.countDown();
+               });
+          }
+
+          assertTrue(done.await(10, TimeUnit.SECONDS));
+          executor.shutdown();
+
+          List<Integer> drained = new ArrayList<>();
+          buffer.drainTo(drained, Integer.MAX_VALUE);
+          assertEquals(800, drained.size());
+     }
+
+}
@@ -0,0 +1,86 @@
+package br.com.conductor.heimdall.gateway.entitlement;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.netflix.zuul.context.RequestContext;
+
+import br.com.conductor.heimdall.core.entity.Api;
+import br.com.conductor.heimdall.core.entity.App;
+import br.com.conductor.heimdall.core.entity.Plan;
+import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.core.repository.AccessTokenRepository;
+import br.com.conductor.heimdall.core.repository.AppRepository;
+import br.com.conductor.heimdall.core.util.ConstantsCache;
+
+public class EntitlementIndexTest {
+
+     private AppRepository appRepository;
+
+     private EntitlementIndex index;
+
+     @Before
+     public void setUp() {
+          appRepository = Mockito.mock(AppRepository.class);
+
+          index = new EntitlementIndex();
+          ReflectionTestUtils.setField(index, "appRepository", appRepository);
+          ReflectionTestUtils.setField(index, "accessTokenRepository", Mockito.mock(AccessTokenRepository.class));
+          ReflectionTestUtils.setField(index, "property", new Property());
+          index.init();
+     }
+
+     @Test
+     public void findAppCreatedAfterItsCleanMessage() {
+          assertSame(Entitlement.NONE, lookup("client"));
+
+          Mockito.when(appRepository.findByClientId("client")).thenReturn(app("client", 100L));
+          assertSame(Entitlement.NONE, lookup("client"));
+
+          index.invalidate(ConstantsCache.APPS_CLIENT_ID, "client");
+          assertTrue(lookup("client").exists());
+     }
+
+     @Test
+     public void evictOnlyTheAppsWithThePlanChanged() {
+          Mockito.when(appRepository.findByClientId("first")).thenReturn(app("first", 100L));
+          Mockito.when(appRepository.findByClientId("second")).thenReturn(app("second", 200L));
+          lookup("first");
+          lookup("second");
+
+          index.invalidatePlans(Collections.singleton(100L));
+
+          Mockito.when(appRepository.findByClientId("first")).thenReturn(null);
+          Mockito.when(appRepository.findByClientId("second")).thenReturn(null);
+          assertFalse(lookup("first").exists());
+          assertTrue(lookup("second").exists());
+     }
+
+     private Entitlement lookup(String clientId) {
+          RequestContext.getCurrentContext().clear();
+          return index.byClientId(clientId);
+     }
+
+     private App app(String clientId, Long planId) {
+          Api api = new Api();
+          api.setId(1L);
+
+          Plan plan = new Plan();
+          plan.setId(planId);
+          plan.setApi(api);
+
+          App app = new App();
+          app.setId(planId);
+          app.setClientId(clientId);
+          app.setPlans(Collections.singletonList(plan));
+          return app;
+     }
+}
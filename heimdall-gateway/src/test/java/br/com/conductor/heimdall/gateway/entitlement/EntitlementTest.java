@@ -0,0 +1,67 @@
+package br.com.conductor.heimdall.gateway.entitlement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import br.com.conductor.heimdall.core.entity.Api;
+import br.com.conductor.heimdall.core.entity.App;
+import br.com.conductor.heimdall.core.entity.Operation;
+import br.com.conductor.heimdall.core.entity.Plan;
+import br.com.conductor.heimdall.core.entity.Scope;
+
+public class EntitlementTest {
+
+     @Test
+     public void flattenPlansApisAndScopes() {
+          Plan scoped = plan(100L, 1L);
+          Scope scope = new Scope(1000L, null, null, null, new HashSet<>(Arrays.asList(new Operation(11L, null, null, null, null), new Operation(12L, null, null, null, null))));
+          scoped.setScopes(new HashSet<>(Collections.singletonList(scope)));
+
+          App app = new App();
+          app.setId(10L);
+          app.setName("app");
+          app.setClientId("client");
+          app.setPlans(Arrays.asList(scoped, plan(200L, 2L)));
+
+          Entitlement entitlement = Entitlement.of(app);
+
+          assertTrue(entitlement.exists());
+          assertEquals("client", entitlement.getClientId());
+          assertTrue(entitlement.allowsApi(1L));
+          assertTrue(entitlement.allowsApi(2L));
+          assertFalse(entitlement.allowsApi(3L));
+          assertTrue(entitlement.hasPlan(200L));
+          assertFalse(entitlement.hasPlan(300L));
+          assertTrue(entitlement.hasScopes(1L));
+          assertFalse(entitlement.hasScopes(2L));
+          assertTrue(entitlement.allowsOperation(1L, 12L));
+          assertFalse(entitlement.allowsOperation(1L, 13L));
+          assertFalse(entitlement.allowsApi(null));
+     }
+
+     @Test
+     public void missingAppHasNoEntitlement() {
+          assertSame(Entitlement.NONE, Entitlement.of(null));
+          assertFalse(Entitlement.NONE.exists());
+          assertFalse(Entitlement.NONE.allowsApi(1L));
+          assertFalse(Entitlement.NONE.hasPlan(1L));
+     }
+
+     private Plan plan(Long id, Long apiId) {
+          Api api = new Api();
+          api.setId(apiId);
+
+          Plan plan = new Plan();
+          plan.setId(id);
+          plan.setApi(api);
+          return plan;
+     }
+}
@@ -3,12 +3,13 @@ package br.com.conductor.heimdall.gateway.filter;
 import br.com.conductor.heimdall.core.enums.HttpMethod;
 import br.com.conductor.heimdall.core.trace.TraceContextHolder;
 import br.com.conductor.heimdall.gateway.router.Credential;
-import br.com.conductor.heimdall.gateway.router.CredentialRepository;
 import br.com.conductor.heimdall.gateway.router.EnvironmentInfo;
-import br.com.conductor.heimdall.gateway.router.EnvironmentInfoRepository;
+import br.com.conductor.heimdall.gateway.router.RoutingSnapshot;
+import br.com.conductor.heimdall.gateway.router.RoutingSnapshotHolder;
 import br.com.conductor.heimdall.gateway.util.RequestHelper;
 import br.com.conductor.heimdall.gateway.zuul.route.HeimdallRoute;
 import br.com.conductor.heimdall.gateway.zuul.route.ProxyRouteLocator;
+import br.com.conductor.heimdall.gateway.zuul.route.RouteTrie;
 import com.netflix.zuul.context.RequestContext;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -21,9 +22,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
 
-import org.assertj.core.util.Lists;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -46,10 +45,7 @@ public class HeimdallDecorationFilterTest {
     private ProxyRouteLocator routeLocator;
 
     @Mock
-    private EnvironmentInfoRepository environmentInfoRepository;
-
-    @Mock
-    private CredentialRepository credentialRepository;
+    private RoutingSnapshotHolder routingSnapshotHolder;
 
     @Mock
     private RequestHelper requestHelper;
@@ -67,7 +63,7 @@ public class HeimdallDecorationFilterTest {
     @Before
     public void init() {
 
-        this.filter = new HeimdallDecorationFilter(routeLocator, "/", properties, proxyRequestHelper, requestHelper, credentialRepository, environmentInfoRepository);
+        this.filter = new HeimdallDecorationFilter(routeLocator, "/", properties, proxyRequestHelper, requestHelper, routingSnapshotHolder);
         this.ctx = RequestContext.getCurrentContext();
         this.ctx.clear();
         this.ctx.setRequest(this.request);
@@ -101,9 +97,10 @@ public class HeimdallDecorationFilterTest {
         Credential opGet = new Credential(HttpMethod.GET.name(), "/api/foo/{id}", "/v2", "apiName", 10L, 88L, 10L, false);
         Credential opDelete = new Credential(HttpMethod.DELETE.name(), "/api/foo/{id}", "/v2", "apiName", 10L, 88L, 10L, false);
 
-        Mockito.when(routeLocator.getAtomicRoutes()).thenReturn(new AtomicReference<>(routes));
-        Mockito.when(credentialRepository.findByPattern("/v2/api/foo/{id}")).thenReturn(Lists.newArrayList(opPost, opGet, opDelete));
-        Mockito.when(environmentInfoRepository.findByApiIdAndEnvironmentInboundURL(10L, "http://localhost/v2/api/foo/1")).thenReturn(environmentInfo);
+        Mockito.when(routeLocator.getRouteTrie()).thenReturn(RouteTrie.compile(routes));
+        RoutingSnapshot.Builder snapshot = RoutingSnapshot.builder(1L).credential("/v2/api/foo/{id}", opPost).credential("/v2/api/foo/{id}", opGet).credential("/v2/api/foo/{id}", opDelete);
+        snapshot.environment(10L, "http://localhost/v2/api/foo/1", environmentInfo);
+        Mockito.when(routingSnapshotHolder.get()).thenReturn(snapshot.build());
 
         this.filter.run();
 
@@ -129,9 +126,10 @@ public class HeimdallDecorationFilterTest {
         Credential opGet = new Credential(HttpMethod.GET.name(), "/api/foo", "/path", "apiName", 10L, 88L, 10L, false);
         Credential opDelete = new Credential(HttpMethod.DELETE.name(), "/api/foo", "/path", "apiName", 10L, 88L, 10L, false);
 
-        Mockito.when(routeLocator.getAtomicRoutes()).thenReturn(new AtomicReference<>(routes));
-        Mockito.when(credentialRepository.findByPattern("/path/api/foo")).thenReturn(Lists.newArrayList(opGet, opDelete));
-        Mockito.when(environmentInfoRepository.findByApiIdAndEnvironmentInboundURL(10L, "some-path.com")).thenReturn(environmentInfo);
+        Mockito.when(routeLocator.getRouteTrie()).thenReturn(RouteTrie.compile(routes));
+        RoutingSnapshot.Builder snapshot = RoutingSnapshot.builder(1L).credential("/path/api/foo", opGet).credential("/path/api/foo", opDelete);
+        snapshot.environment(10L, "https://some-path.com", environmentInfo);
+        Mockito.when(routingSnapshotHolder.get()).thenReturn(snapshot.build());
 
         this.filter.run();
 
@@ -149,8 +147,9 @@ public class HeimdallDecorationFilterTest {
 
         Credential opGet = new Credential(HttpMethod.GET.name(), "/api/foo/{id}", "/path", "apiName", 10L, 88L, 10L, false);
 
-        Mockito.when(routeLocator.getAtomicRoutes()).thenReturn(new AtomicReference<>(routes));
-        Mockito.when(credentialRepository.findByPattern("/v2/api/foo/{id}")).thenReturn(Lists.newArrayList(opGet));
+        Mockito.when(routeLocator.getRouteTrie()).thenReturn(RouteTrie.compile(routes));
+        RoutingSnapshot.Builder snapshot = RoutingSnapshot.builder(1L).credential("/v2/api/foo/{id}", opGet);
+        Mockito.when(routingSnapshotHolder.get()).thenReturn(snapshot.build());
 
         this.filter.run();
 
@@ -170,8 +169,9 @@ public class HeimdallDecorationFilterTest {
         Credential opDelete = new Credential(HttpMethod.DELETE.name(), "/api/foo/{id}", "/v2", "apiName", 11L, 88L, 10L, false);
         Credential opAll = new Credential(HttpMethod.ALL.name(), "/api/foo/{id}", "/v2", "apiName", 12L, 88L, 10L, false);
 
-        Mockito.when(routeLocator.getAtomicRoutes()).thenReturn(new AtomicReference<>(routes));
-        Mockito.when(credentialRepository.findByPattern("/v2/api/foo")).thenReturn(Lists.newArrayList(opPost, opDelete, opAll));
+        Mockito.when(routeLocator.getRouteTrie()).thenReturn(RouteTrie.compile(routes));
+        RoutingSnapshot.Builder snapshot = RoutingSnapshot.builder(1L).credential("/v2/api/foo", opPost).credential("/v2/api/foo", opDelete).credential("/v2/api/foo", opAll);
+        Mockito.when(routingSnapshotHolder.get()).thenReturn(snapshot.build());
 
         HeimdallRoute heimdallRoute = this.filter.getMatchingHeimdallRoute("/v2/api/foo", HttpMethod.GET.name(), this.ctx);
         assertNotNull(heimdallRoute);
@@ -191,8 +191,9 @@ public class HeimdallDecorationFilterTest {
         Credential opDelete = new Credential(HttpMethod.DELETE.name(), "/api/foo", "/v2", "apiName", 11L, 88L, 10L, false);
         Credential opGet = new Credential(HttpMethod.GET.name(), "/api/foo", "/v2", "apiName", 11L, 88L, 10L, false);
 
-        Mockito.when(routeLocator.getAtomicRoutes()).thenReturn(new AtomicReference<>(routes));
-        Mockito.when(credentialRepository.findByPattern("/v2/api/foo")).thenReturn(Lists.newArrayList(opPost, opDelete, opGet));
+        Mockito.when(routeLocator.getRouteTrie()).thenReturn(RouteTrie.compile(routes));
+        RoutingSnapshot.Builder snapshot = RoutingSnapshot.builder(1L).credential("/v2/api/foo", opPost).credential("/v2/api/foo", opDelete).credential("/v2/api/foo", opGet);
+        Mockito.when(routingSnapshotHolder.get()).thenReturn(snapshot.build());
 
         HeimdallRoute heimdallRoute = this.filter.getMatchingHeimdallRoute("/v2/api/foo", HttpMethod.GET.name(), this.ctx);
         assertNotNull(heimdallRoute);
@@ -212,8 +213,9 @@ public class HeimdallDecorationFilterTest {
         Credential opDelete = new Credential(HttpMethod.DELETE.name(), "/api/foo", "/v2", "apiName", 12L, 88L, 10L, true);
         Credential opGet = new Credential(HttpMethod.GET.name(), "/api/foo", "/v2", "apiName", 13L, 88L, 10L, true);
 
-        Mockito.when(routeLocator.getAtomicRoutes()).thenReturn(new AtomicReference<>(routes));
-        Mockito.when(credentialRepository.findByPattern("/v2/api/foo")).thenReturn(Lists.newArrayList(opPost, opDelete, opGet));
+        Mockito.when(routeLocator.getRouteTrie()).thenReturn(RouteTrie.compile(routes));
+        RoutingSnapshot.Builder snapshot = RoutingSnapshot.builder(1L).credential("/v2/api/foo", opPost).credential("/v2/api/foo", opDelete).credential("/v2/api/foo", opGet);
+        Mockito.when(routingSnapshotHolder.get()).thenReturn(snapshot.build());
 
         HeimdallRoute heimdallRoute = this.filter.getMatchingHeimdallRoute("/v2/api/foo", HttpMethod.OPTIONS.name(), this.ctx);
         assertNotNull(heimdallRoute);
@@ -233,8 +235,9 @@ public class HeimdallDecorationFilterTest {
         Credential opDelete = new Credential(HttpMethod.DELETE.name(), "/api/foo", "/v2", "apiName", 12L, 88L, 10L, false);
         Credential opGet = new Credential(HttpMethod.GET.name(), "/api/foo", "/v2", "apiName", 13L, 88L, 10L, false);
 
-        Mockito.when(routeLocator.getAtomicRoutes()).thenReturn(new AtomicReference<>(routes));
-        Mockito.when(credentialRepository.findByPattern("/v2/api/foo")).thenReturn(Lists.newArrayList(opPost, opDelete, opGet));
+        Mockito.when(routeLocator.getRouteTrie()).thenReturn(RouteTrie.compile(routes));
+        RoutingSnapshot.Builder snapshot = RoutingSnapshot.builder(1L).credential("/v2/api/foo", opPost).credential("/v2/api/foo", opDelete).credential("/v2/api/foo", opGet);
+        Mockito.when(routingSnapshotHolder.get()).thenReturn(snapshot.build());
 
         HeimdallRoute heimdallRoute = this.filter.getMatchingHeimdallRoute("/v2/api/foo", HttpMethod.OPTIONS.name(), this.ctx);
         assertTrue(heimdallRoute.isMethodNotAllowed());
@@ -253,8 +256,9 @@ public class HeimdallDecorationFilterTest {
         Credential opDelete = new Credential(HttpMethod.OPTIONS.name(), "/api/foo", "/v2", "apiName", 11L, 88L, 10L, false);
         Credential opGet = new Credential(HttpMethod.GET.name(), "/api/foo", "/v2", "apiName", 12L, 88L, 10L, false);
 
-        Mockito.when(routeLocator.getAtomicRoutes()).thenReturn(new AtomicReference<>(routes));
-        Mockito.when(credentialRepository.findByPattern("/v2/api/foo")).thenReturn(Lists.newArrayList(opPost, opDelete, opGet));
+        Mockito.when(routeLocator.getRouteTrie()).thenReturn(RouteTrie.compile(routes));
+        RoutingSnapshot.Builder snapshot = RoutingSnapshot.builder(1L).credential("/v2/api/foo", opPost).credential("/v2/api/foo", opDelete).credential("/v2/api/foo", opGet);
+        Mockito.when(routingSnapshotHolder.get()).thenReturn(snapshot.build());
 
         HeimdallRoute heimdallRoute = this.filter.getMatchingHeimdallRoute("/v2/api/foo", HttpMethod.OPTIONS.name(), this.ctx);
         assertNotNull(heimdallRoute);
@@ -20,10 +20,12 @@
 package br.com.conductor.heimdall.gateway.filter;
 
 import br.com.conductor.heimdall.core.entity.*;
+import br.com.conductor.heimdall.core.environment.Property;
 import br.com.conductor.heimdall.core.repository.AppRepository;
 import br.com.conductor.heimdall.core.util.Constants;
 import br.com.conductor.heimdall.core.trace.FilterDetail;
 import br.com.conductor.heimdall.core.trace.TraceContextHolder;
+import br.com.conductor.heimdall.gateway.entitlement.EntitlementIndex;
 import com.netflix.zuul.context.RequestContext;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -36,6 +38,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -72,6 +75,12 @@ public class ScopesFilterTest {
     @Before
     public void init() {
 
+        EntitlementIndex entitlementIndex = new EntitlementIndex();
+        ReflectionTestUtils.setField(entitlementIndex, "appRepository", appRepository);
+        ReflectionTestUtils.setField(entitlementIndex, "property", new Property());
+        entitlementIndex.init();
+        ReflectionTestUtils.setField(filter, "entitlementIndex", entitlementIndex);
+
         context.clear();
         context.setRequest(this.request);
         context.setResponse(this.response);
@@ -1,7 +1,13 @@
 package br.com.conductor.heimdall.gateway.filter.helper;
 
+import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.core.trace.Trace;
+import br.com.conductor.heimdall.core.trace.TraceContextHolder;
+import br.com.conductor.heimdall.gateway.failsafe.CircuitBreakerHolder;
 import br.com.conductor.heimdall.gateway.failsafe.CircuitBreakerManager;
+import br.com.conductor.heimdall.gateway.util.ConstantsContext;
 import br.com.conductor.heimdall.middleware.spec.ApiResponse;
+import net.jodah.failsafe.CircuitBreaker;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -11,8 +17,11 @@ import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import static junit.framework.TestCase.assertEquals;
@@ -36,7 +45,7 @@ public class HttpImplTest {
      
      @Test
      public void sendGetWithNoParams() {
-          Mockito.when(circuitBreakerManager.failsafe(Mockito.any(Callable.class), Mockito.anyString())).thenReturn(responseEntity);
+          Mockito.when(circuitBreakerManager.failsafe(Mockito.any(Callable.class), Mockito.anyString(), Mockito.any(Trace.class))).thenReturn(responseEntity);
 
           ApiResponse apiResponse = subject.url("https://www.google.com/search")
                                            .sendGet();
@@ -49,7 +58,7 @@ public class HttpImplTest {
      
      @Test
      public void sendGetWithInvalidParams() {
-          Mockito.when(circuitBreakerManager.failsafe(Mockito.any(Callable.class), Mockito.anyString())).thenReturn(responseEntity);
+          Mockito.when(circuitBreakerManager.failsafe(Mockito.any(Callable.class), Mockito.anyString(), Mockito.any(Trace.class))).thenReturn(responseEntity);
           
           ApiResponse apiResponse = subject.url("https://www.google.com/search")
                                            .queryParam("search", null)
@@ -63,7 +72,7 @@ public class HttpImplTest {
      
      @Test
      public void setUrlThenAddQueryParam() {
-          Mockito.when(circuitBreakerManager.failsafe(Mockito.any(Callable.class), Mockito.anyString())).thenReturn(responseEntity);
+          Mockito.when(circuitBreakerManager.failsafe(Mockito.any(Callable.class), Mockito.anyString(), Mockito.any(Trace.class))).thenReturn(responseEntity);
           
           ApiResponse apiResponse = subject.url("https://www.google.com/search")
                                            .queryParam("search", "Heimdall")
@@ -77,7 +86,7 @@ public class HttpImplTest {
      
      @Test
      public void addQueryParamThenSetUrl() {
-          Mockito.when(circuitBreakerManager.failsafe(Mockito.any(Callable.class), Mockito.anyString())).thenReturn(responseEntity);
+          Mockito.when(circuitBreakerManager.failsafe(Mockito.any(Callable.class), Mockito.anyString(), Mockito.any(Trace.class))).thenReturn(responseEntity);
           
           ApiResponse apiResponse = subject.queryParam("search", "Heimdall")
                                            .url("https://www.google.com/search")
@@ -88,4 +97,46 @@ public class HttpImplTest {
           assertEquals(apiResponse.getStatus().intValue(), HttpStatus.OK.value());
           assertEquals(apiResponse.getBody(), "OK");
      }
+     
+     @Test
+     public void sendGetAsyncThroughCircuitBreaker() throws Exception {
+          Mockito.when(circuitBreakerManager.failsafe(Mockito.any(Callable.class), Mockito.anyString(), Mockito.any(Trace.class))).thenReturn(responseEntity);
+
+          ApiResponse apiResponse = subject.url("https://www.google.com/search")
+                                           .sendGetAsync()
+                                           .get();
+          assertNotNull(apiResponse);
+          assertEquals(apiResponse.getStatus().intValue(), HttpStatus.OK.value());
+          assertEquals(apiResponse.getBody(), "OK");
+     }
+
+     @Test
+     public void returnServiceUnavailableAsyncWhenTheCircuitIsOpen() throws Exception {
+          CircuitBreakerManager manager = new CircuitBreakerManager();
+          ReflectionTestUtils.setField(manager, "property", new Property());
+
+          CircuitBreaker circuitBreaker = new CircuitBreaker();
+          circuitBreaker.open();
+          CircuitBreakerHolder holder = new CircuitBreakerHolder();
+          holder.setCircuitBreaker(circuitBreaker);
+
+          Map<String, CircuitBreakerHolder> circuits = (Map<String, CircuitBreakerHolder>) ReflectionTestUtils.getField(CircuitBreakerManager.class, "middlewareCircuits");
+          circuits.put("GET:https://www.google.com/open", holder);
+
+          Trace trace = TraceContextHolder.getInstance().init(true, "developer", new MockHttpServletRequest(), false, false, "", true);
+          try {
+               ApiResponse apiResponse = new HttpImpl(new RestTemplate(), manager, true)
+                         .url("https://www.google.com/open")
+                         .sendGetAsync()
+                         .get();
+
+               assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), apiResponse.getStatus().intValue());
+               assertEquals("enabled", apiResponse.getHeaders().get(ConstantsContext.CIRCUIT_BREAKER_ENABLED));
+               assertEquals("CircuitBreaker Enabled", trace.getTraces().get(0).getDescription());
+          } finally {
+               circuits.remove("GET:https://www.google.com/open");
+               TraceContextHolder.getInstance().clearActual();
+               TraceContextHolder.getInstance().unset();
+          }
+     }
 }
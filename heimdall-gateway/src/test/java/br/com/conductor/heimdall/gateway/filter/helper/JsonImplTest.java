@@ -5,8 +5,14 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.beans.HasPropertyWithValue.hasProperty;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import javax.validation.constraints.Email;
 import javax.validation.constraints.Min;
@@ -116,6 +122,36 @@ public class JsonImplTest {
           assertThat(person, hasProperty("email", is("heimdall@heimdall.com")));
      }
      
+     @Test
+     public void parseFromBytesAndStream() {
+          String json = "{\"name\":\"Getu\", \"age\": 20, \"socialMedia\": 3}";
+          byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+          assertThat(subject.parse(bytes, PersonJsonTest.class), hasProperty("name", is("Getu")));
+          assertThat(subject.parse(new ByteArrayInputStream(bytes), PersonJsonTest.class), hasProperty("age", is(20)));
+     }
+
+     @Test
+     public void writeBytesAndStream() throws IOException {
+          Map<String, Object> body = Collections.singletonMap("name", "Getu");
+          ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+          subject.write(body, output);
+
+          assertThat(new String(subject.parseToBytes(body), StandardCharsets.UTF_8), is("{\"name\":\"Getu\"}"));
+          assertThat(new String(output.toByteArray(), StandardCharsets.UTF_8), is("{\"name\":\"Getu\"}"));
+     }
+
+     @Test
+     public void parseToMapWithoutNulls() {
+          PersonJsonTest person = new PersonJsonTest();
+          person.setName("Getu");
+
+          Map<String, Object> map = subject.parseToMap(person);
+
+          assertThat(map, is(Collections.<String, Object>singletonMap("name", "Getu")));
+     }
+     
      @Data
      public static class PersonJsonTest {
           @NotBlank
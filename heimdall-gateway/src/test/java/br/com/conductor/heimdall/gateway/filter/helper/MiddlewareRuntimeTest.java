@@ -0,0 +1,180 @@
+package br.com.conductor.heimdall.gateway.filter.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import br.com.conductor.heimdall.core.util.DatastoreRegistry;
+import br.com.conductor.heimdall.middleware.spec.Helper;
+import br.com.conductor.heimdall.middleware.spec.Middleware;
+
+public class MiddlewareRuntimeTest {
+
+     @Rule
+     public TemporaryFolder folder = new TemporaryFolder();
+
+     private String path;
+
+     @Before
+     public void setUp() {
+          path = folder.getRoot().getAbsolutePath();
+     }
+
+     @After
+     public void tearDown() {
+          MiddlewareRuntime.getInstance().undeploy(path);
+     }
+
+     @Test
+     public void shareInstanceOfStatelessClass() throws Exception {
+          Middleware middleware = new Middleware(path);
+
+          Object first = middleware.instance("java.lang.Object");
+
+          assertSame(first, middleware.instance("java.lang.Object"));
+     }
+
+     @Test
+     public void createInstanceOfStatefulClassPerCall() throws Exception {
+          Middleware middleware = new Middleware(path);
+
+          assertNotSame(middleware.instance("java.util.ArrayList"), middleware.instance("java.util.ArrayList"));
+     }
+
+     @Test
+     public void keepDeploymentWhileJarDidNotChange() throws Exception {
+          MiddlewareRuntime runtime = MiddlewareRuntime.getInstance();
+          Object first = runtime.instance(path, "java.lang.Object");
+
+          runtime.deploy(path);
+          assertSame(first, runtime.instance(path, "java.lang.Object"));
+
+          folder.newFile("middleware.1.jar");
+          runtime.deploy(path);
+          assertNotSame(first, runtime.instance(path, "java.lang.Object"));
+     }
+
+     @Test
+     public void notifyListenersWhenDeploymentIsReplaced() throws Exception {
+          MiddlewareRuntime runtime = MiddlewareRuntime.getInstance();
+          AtomicInteger redeploys = new AtomicInteger();
+          runtime.onRedeploy(redeploys::incrementAndGet);
+
+          runtime.deploy(path);
+          runtime.deploy(path);
+          assertEquals(0, redeploys.get());
+
+          folder.newFile("middleware.1.jar");
+          runtime.deploy(path);
+          assertEquals(1, redeploys.get());
+
+          runtime.undeploy(path);
+          assertEquals(2, redeploys.get());
+     }
+
+     @Test
+     public void closeReplacedDeploymentWhenItsCallsFinish() throws Exception {
+          MiddlewareRuntime runtime = MiddlewareRuntime.getInstance();
+          runtime.deploy(path);
+          MiddlewareRuntime.Deployment deployment = runtime.deployment(path);
+
+          BlockingMiddleware.started = new CountDownLatch(1);
+          BlockingMiddleware.finish = new CountDownLatch(1);
+          Thread call = new Thread(() -> {
+               try {
+                    runtime.run(path, BlockingMiddleware.class.getName(), null);
+               } catch (Exception e) {
+                    throw new IllegalStateException(e);
+               }
+          });
+          call.start();
+          assertTrue(BlockingMiddleware.started.await(5, TimeUnit.SECONDS));
+
+          folder.newFile("middleware.1.jar");
+          runtime.deploy(path);
+          assertFalse(deployment.isClosed());
+
+          BlockingMiddleware.finish.countDown();
+          call.join(5000);
+          assertTrue(deployment.isClosed());
+          assertFalse(runtime.deployment(path).isClosed());
+     }
+
+     @Test
+     public void closeRemovedDeploymentWithoutCalls() throws Exception {
+          MiddlewareRuntime runtime = MiddlewareRuntime.getInstance();
+          runtime.deploy(path);
+          MiddlewareRuntime.Deployment deployment = runtime.deployment(path);
+
+          runtime.undeploy(path);
+
+          assertTrue(deployment.isClosed());
+     }
+
+     @Test
+     public void keepOneDatastoreRegistryPerDeployment() throws Exception {
+          MiddlewareRuntime runtime = MiddlewareRuntime.getInstance();
+          assertNull(runtime.datastores(null));
+
+          runtime.run(path, RegistryMiddleware.class.getName(), null);
+          DatastoreRegistry first = RegistryMiddleware.datastores;
+          assertNotNull(first);
+
+          runtime.run(path, RegistryMiddleware.class.getName(), null);
+          assertSame(first, RegistryMiddleware.datastores);
+
+          folder.newFile("middleware.1.jar");
+          runtime.deploy(path);
+          runtime.run(path, RegistryMiddleware.class.getName(), null);
+          assertNotSame(first, RegistryMiddleware.datastores);
+          assertNull(runtime.datastores(null));
+     }
+
+     @Test
+     public void detectInstanceState() {
+          assertTrue(MiddlewareRuntime.isStateless(Object.class));
+          assertFalse(MiddlewareRuntime.isStateless(ArrayList.class));
+     }
+
+     public static class BlockingMiddleware implements Middleware {
+
+          static CountDownLatch started;
+
+          static CountDownLatch finish;
+
+          @Override
+          public void run(Helper helper) {
+               started.countDown();
+               try {
+                    finish.await(5, TimeUnit.SECONDS);
+               } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+               }
+          }
+     }
+
+     public static class RegistryMiddleware implements Middleware {
+
+          static DatastoreRegistry datastores;
+
+          @Override
+          public void run(Helper helper) {
+               datastores = MiddlewareRuntime.getInstance().datastores(null);
+          }
+     }
+}
@@ -0,0 +1,120 @@
+package br.com.conductor.heimdall.gateway.filter.helper.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.netflix.zuul.filters.ZuulProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.sun.net.httpserver.HttpServer;
+
+import br.com.conductor.heimdall.core.environment.Property;
+
+public class MiddlewareHttpClientTest {
+
+     private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+     private final CountDownLatch slowReceived = new CountDownLatch(1);
+
+     private final CountDownLatch slowReleased = new CountDownLatch(1);
+
+     private HttpServer server;
+
+     private MiddlewareHttpClient client;
+
+     private String url;
+
+     @Before
+     public void setUp() throws IOException {
+          server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+          server.createContext("/", exchange -> {
+               clientPorts.add(exchange.getRemoteAddress().getPort());
+               if (exchange.getRequestURI().getPath().endsWith("slow")) {
+                    slowReceived.countDown();
+                    try {
+                         slowReleased.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                         Thread.currentThread().interrupt();
+                    }
+               }
+               byte[] body = "body".getBytes(StandardCharsets.UTF_8);
+               int status = exchange.getRequestURI().getPath().endsWith("missing") ? 404 : 200;
+               exchange.sendResponseHeaders(status, body.length);
+               try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+               }
+          });
+          server.setExecutor(Executors.newCachedThreadPool());
+          server.start();
+          url = "http://127.0.0.1:" + server.getAddress().getPort();
+
+          client = new MiddlewareHttpClient(new Property(), new ZuulProperties());
+     }
+
+     @After
+     public void tearDown() {
+          slowReleased.countDown();
+          client.shutdown();
+          server.stop(0);
+     }
+
+     @Test
+     @SuppressWarnings("unchecked")
+     public void reuseConnectionOfTheSameDestination() {
+          for (int i = 0; i < 3; i++) {
+               assertEquals("body", client.restTemplate(false).getForObject(url + "/found", String.class));
+          }
+
+          assertEquals(1, clientPorts.size());
+          Map<String, Integer> total = (Map<String, Integer>) client.metrics().get("total");
+          assertEquals(Integer.valueOf(0), total.get("leased"));
+          assertEquals(Integer.valueOf(1), total.get("available"));
+     }
+
+     @Test(expected = HttpClientErrorException.class)
+     public void throwClientErrorWithDefaultHandler() {
+          client.restTemplate(false).getForEntity(url + "/missing", String.class);
+     }
+
+     @Test
+     public void returnClientErrorWithHeimdallHandler() {
+          ResponseEntity<String> response = client.restTemplate(true).getForEntity(url + "/missing", String.class);
+
+          assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+          assertEquals("body", client.restTemplate(false).getForObject(url + "/found", String.class));
+          assertEquals(1, clientPorts.size());
+     }
+
+     @Test
+     @SuppressWarnings("unchecked")
+     public void abortRequestWhenTheCallIsCancelled() throws InterruptedException {
+          CompletableFuture<String> call = client.supplyAsync(() -> client.restTemplate(false).getForObject(url + "/slow", String.class));
+          assertTrue(slowReceived.await(1, TimeUnit.SECONDS));
+
+          assertTrue(call.cancel(true));
+
+          Map<String, Integer> total = (Map<String, Integer>) client.metrics().get("total");
+          for (int i = 0; i < 100 && total.get("leased") > 0; i++) {
+               Thread.sleep(10);
+               total = (Map<String, Integer>) client.metrics().get("total");
+          }
+          assertEquals(Integer.valueOf(0), total.get("leased"));
+     }
+}
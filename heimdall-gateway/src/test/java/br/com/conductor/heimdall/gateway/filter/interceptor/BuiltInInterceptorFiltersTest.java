@@ -0,0 +1,79 @@
+package br.com.conductor.heimdall.gateway.filter.interceptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.netflix.zuul.ZuulFilter;
+
+import br.com.conductor.heimdall.core.enums.InterceptorLifeCycle;
+import br.com.conductor.heimdall.core.enums.TypeInterceptor;
+
+public class BuiltInInterceptorFiltersTest {
+
+     private Map<String, Object> parameters() {
+          Map<String, Object> parameters = new HashMap<>();
+          parameters.put("interceptor-id", 10L);
+          parameters.put("name", "apiRattingPre10");
+          parameters.put("executionPoint", "pre");
+          parameters.put("order", "1010");
+          parameters.put("lifeCycle", "API");
+          parameters.put("referenceId", 1L);
+          parameters.put("apiId", 1L);
+          parameters.put("interceptorStatus", true);
+          parameters.put("ignoredOperations", new HashSet<>(Arrays.asList(2L, 3L)));
+          parameters.put("calls", 5L);
+          parameters.put("interval", "MINUTES");
+          parameters.put("lease", 0L);
+          parameters.put("cache-key", "rate-limit-10");
+          return parameters;
+     }
+
+     @Test
+     public void readCommonParameters() {
+          InterceptorParameters parameters = new InterceptorParameters(parameters());
+
+          assertEquals(Long.valueOf(10L), parameters.getInterceptorId());
+          assertEquals(1010, parameters.getOrder());
+          assertEquals(InterceptorLifeCycle.API, parameters.getLifeCycle());
+          assertTrue(parameters.isStatus());
+          assertEquals(new HashSet<>(Arrays.asList(2, 3)), parameters.getIgnoredOperations());
+          assertTrue(parameters.getIgnoredResources().isEmpty());
+          assertEquals(Collections.emptyList(), parameters.getStrings("headers"));
+     }
+
+     @Test
+     public void createFilterOfBuiltInType() {
+          ZuulFilter filter = BuiltInInterceptorFilters.create(TypeInterceptor.RATTING, new InterceptorParameters(parameters()));
+
+          assertTrue(filter instanceof RateLimitInterceptorFilter);
+          assertEquals("pre", filter.filterType());
+          assertEquals(1010, filter.filterOrder());
+          assertEquals("apiRattingPre10", ((RateLimitInterceptorFilter) filter).getName());
+     }
+
+     @Test
+     public void compileTypesWithUserCode() {
+          assertFalse(BuiltInInterceptorFilters.isBuiltIn(TypeInterceptor.CUSTOM));
+          assertFalse(BuiltInInterceptorFilters.isBuiltIn(TypeInterceptor.MIDDLEWARE));
+          assertTrue(BuiltInInterceptorFilters.isBuiltIn(TypeInterceptor.CACHE_CLEAR));
+     }
+
+     @Test
+     public void fingerprintChangesWithAnyParameter() {
+          Map<String, Object> changed = parameters();
+          changed.put("calls", 6L);
+
+          assertEquals(new InterceptorParameters(parameters()).fingerprint(), new InterceptorParameters(parameters()).fingerprint());
+          assertNotEquals(new InterceptorParameters(parameters()).fingerprint(), new InterceptorParameters(changed).fingerprint());
+     }
+}
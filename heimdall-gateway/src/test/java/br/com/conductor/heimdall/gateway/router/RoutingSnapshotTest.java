@@ -0,0 +1,51 @@
+package br.com.conductor.heimdall.gateway.router;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+public class RoutingSnapshotTest {
+
+     private static final Credential FOO_GET = new Credential("GET", "/foo", "/v1", "first", 1L, 1L, 1L, false);
+
+     private static final Credential FOO_POST = new Credential("POST", "/foo", "/v1", "first", 2L, 1L, 1L, false);
+
+     private static final Credential BAR_GET = new Credential("GET", "/bar", "/v2", "second", 3L, 2L, 2L, false);
+
+     private RoutingSnapshot snapshot() {
+          return RoutingSnapshot.builder(1L)
+                  .credential("/v1/foo", FOO_GET)
+                  .credential("/v1/foo", FOO_POST)
+                  .credential("/v2/bar", BAR_GET)
+                  .environment(1L, "http://localhost/v1", new EnvironmentInfo(1L, "http://first", new HashMap<>()))
+                  .environment(2L, "http://localhost/v2", new EnvironmentInfo(2L, "http://second", new HashMap<>()))
+                  .build();
+     }
+
+     @Test
+     public void copyEveryApiExceptTheExcludedOnes() {
+          RoutingSnapshot copy = RoutingSnapshot.builder(2L).from(snapshot(), Collections.singleton(1L)).build();
+
+          assertTrue(copy.findByPattern("/v1/foo").isEmpty());
+          assertNull(copy.findByApiIdAndEnvironmentInboundURL(1L, "http://localhost/v1"));
+          assertEquals(Collections.singletonList(BAR_GET), copy.findByPattern("/v2/bar"));
+          assertNotNull(copy.findByApiIdAndEnvironmentInboundURL(2L, "http://localhost/v2"));
+     }
+
+     @Test
+     public void findPatternsOfApisAndOperations() {
+          RoutingSnapshot snapshot = snapshot();
+
+          assertEquals(new HashSet<>(Arrays.asList("/v1/foo", "/v2/bar")), snapshot.findPatterns(Arrays.asList(1L, 2L), Collections.emptySet()));
+          assertEquals(Collections.singleton("/v1/foo"), snapshot.findPatterns(Collections.singleton(1L), Collections.singleton(2L)));
+          assertTrue(snapshot.findPatterns(Collections.singleton(2L), Collections.singleton(2L)).isEmpty());
+     }
+}
@@ -0,0 +1,116 @@
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+package br.com.conductor.heimdall.gateway.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.redisson.api.RBucket;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.StringCodec;
+
+import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.gateway.filter.helper.ApiResponseImpl;
+import br.com.conductor.heimdall.middleware.spec.ApiResponse;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CacheFlightServiceTest {
+
+     @InjectMocks
+     private CacheFlightService cacheFlightService;
+
+     @Mock
+     private RedissonClient redissonClientCacheInterceptor;
+
+     @Mock
+     private Property property;
+
+     @Before
+     public void setUp() {
+          Property.SingleFlight singleFlight = new Property().new SingleFlight();
+          Mockito.when(property.getSingleFlight()).thenReturn(singleFlight);
+     }
+
+     @Test
+     public void firstRequestLeadsAndOthersWaitForItsResponse() {
+          assertNull(cacheFlightService.join("10-api:cache:http://localhost/foo"));
+
+          CompletableFuture<ApiResponse> flight = cacheFlightService.join("10-api:cache:http://localhost/foo");
+          assertNotNull(flight);
+
+          ApiResponse response = new ApiResponseImpl();
+          response.setBody("body");
+          response.setStatus(200);
+          response.setHeaders(new HashMap<>());
+          cacheFlightService.complete("10-api:cache:http://localhost/foo", response);
+
+          assertEquals(response, cacheFlightService.await(flight));
+          assertNull(cacheFlightService.join("10-api:cache:http://localhost/foo"));
+     }
+
+     @Test
+     @SuppressWarnings("unchecked")
+     public void remoteWaitEndsWhenTheLeaderPublishes() throws Exception {
+          property.getSingleFlight().setDistributed(true);
+          property.getSingleFlight().setTimeoutMillis(5000L);
+          RTopic<String> topic = Mockito.mock(RTopic.class);
+          Mockito.when(redissonClientCacheInterceptor.<String>getTopic("heimdall:cache-flight", StringCodec.INSTANCE)).thenReturn(topic);
+          cacheFlightService.init();
+
+          ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+          Mockito.verify(topic).addListener(listener.capture());
+
+          ApiResponse response = new ApiResponseImpl();
+          response.setStatus(200);
+          RBucket<ApiResponse> bucket = Mockito.mock(RBucket.class);
+          Mockito.when(bucket.getName()).thenReturn("10-api:cache:http://localhost/foo");
+          Mockito.when(bucket.get()).thenReturn(null, response);
+
+          CompletableFuture<ApiResponse> waiting = CompletableFuture.supplyAsync(() -> cacheFlightService.awaitRemote(bucket));
+          Mockito.verify(bucket, Mockito.timeout(1000)).get();
+          listener.getValue().onMessage("heimdall:cache-flight", "10-api:cache:http://localhost/foo");
+
+          assertEquals(response, waiting.get());
+     }
+
+     @Test
+     public void replaceFlightAfterTimeout() throws InterruptedException {
+          property.getSingleFlight().setTimeoutMillis(1L);
+          assertNull(cacheFlightService.join("10-api:cache:http://localhost/foo"));
+          Thread.sleep(5);
+
+          assertNull(cacheFlightService.join("10-api:cache:http://localhost/foo"));
+     }
+
+}
@@ -0,0 +1,117 @@
+package br.com.conductor.heimdall.gateway.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RBucket;
+import org.redisson.api.RKeys;
+import org.redisson.api.RSet;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.gateway.filter.helper.ApiResponseImpl;
+import br.com.conductor.heimdall.middleware.spec.ApiResponse;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CacheGenerationServiceTest {
+
+     @InjectMocks
+     private CacheGenerationService cacheGenerationService;
+
+     @Mock
+     private RedissonClient redissonClientCacheInterceptor;
+
+     @Mock
+     private Property property;
+
+     @Mock
+     private RTopic<Object> topic;
+
+     @Mock
+     private RAtomicLong generation;
+
+     @Mock
+     private RSet<Object> keys;
+
+     @Before
+     public void setUp() {
+          Property.CacheGeneration cacheGeneration = new Property().new CacheGeneration();
+          Mockito.when(property.getCacheGeneration()).thenReturn(cacheGeneration);
+          Mockito.when(redissonClientCacheInterceptor.getTopic(Mockito.anyString(), Mockito.any(Codec.class))).thenReturn(topic);
+          Mockito.when(redissonClientCacheInterceptor.getAtomicLong("10-api:cache:generation")).thenReturn(generation);
+          Mockito.when(redissonClientCacheInterceptor.getSet(Mockito.anyString(), Mockito.any(Codec.class))).thenReturn(keys);
+          cacheGenerationService.init();
+     }
+
+     @Test
+     public void readGenerationOnlyOnce() {
+          Mockito.when(generation.get()).thenReturn(3L);
+
+          assertEquals("10-api:cache:g3:", cacheGenerationService.prefix("10-api:cache:"));
+          assertEquals("10-api:cache:g3:", cacheGenerationService.prefix("10-api:cache:"));
+          Mockito.verify(generation, Mockito.times(1)).get();
+     }
+
+     @Test
+     public void readGenerationAgainWhenTheLocalCopyExpires() throws InterruptedException {
+          property.getCacheGeneration().setLocalTtlMillis(1L);
+          Mockito.when(generation.get()).thenReturn(3L, 5L);
+
+          assertEquals("10-api:cache:g3:", cacheGenerationService.prefix("10-api:cache:"));
+          Thread.sleep(5);
+
+          assertEquals("10-api:cache:g5:", cacheGenerationService.prefix("10-api:cache:"));
+     }
+
+     @Test
+     public void expireTrackedKeysWithTheirSet() {
+          RBucket<ApiResponse> bucket = Mockito.mock(RBucket.class);
+          Mockito.when(bucket.getName()).thenReturn("10-api:cache:g3:http://localhost/foo");
+          ApiResponse response = new ApiResponseImpl();
+
+          cacheGenerationService.setTracked("10-api:cache:g3:", bucket, response);
+
+          long keysTtlSeconds = property.getCacheGeneration().getKeysTtlSeconds();
+          InOrder inOrder = Mockito.inOrder(bucket, keys);
+          inOrder.verify(bucket).set(response, keysTtlSeconds, TimeUnit.SECONDS);
+          inOrder.verify(keys).addAsync("10-api:cache:g3:http://localhost/foo");
+          inOrder.verify(keys).expireAsync(keysTtlSeconds, TimeUnit.SECONDS);
+     }
+
+     @Test
+     public void clearCacheByIncrementingGeneration() {
+          Mockito.when(generation.get()).thenReturn(3L);
+          Mockito.when(generation.incrementAndGet()).thenReturn(4L);
+
+          cacheGenerationService.next("10-api:cache:");
+
+          assertEquals("10-api:cache:g4:", cacheGenerationService.prefix("10-api:cache:"));
+          Mockito.verify(topic).publish("10-api:cache:");
+     }
+
+     @Test
+     public void deleteTheGenerationReplacedByTheIncrement() {
+          RKeys rKeys = Mockito.mock(RKeys.class);
+          Mockito.when(redissonClientCacheInterceptor.getKeys()).thenReturn(rKeys);
+          Mockito.when(generation.get()).thenReturn(3L);
+          Mockito.when(generation.incrementAndGet()).thenReturn(6L);
+
+          cacheGenerationService.prefix("10-api:cache:");
+          cacheGenerationService.next("10-api:cache:");
+
+          Mockito.verify(rKeys, Mockito.timeout(1000)).delete("10-api:cache:g5:keys");
+     }
+
+}
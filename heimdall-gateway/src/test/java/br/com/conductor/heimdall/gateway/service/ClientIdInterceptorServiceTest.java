@@ -24,8 +24,10 @@ import br.com.conductor.heimdall.core.entity.App;
 import br.com.conductor.heimdall.core.entity.Developer;
 import br.com.conductor.heimdall.core.entity.Plan;
 import br.com.conductor.heimdall.core.enums.Location;
+import br.com.conductor.heimdall.core.environment.Property;
 import br.com.conductor.heimdall.core.repository.AppRepository;
 import br.com.conductor.heimdall.core.trace.TraceContextHolder;
+import br.com.conductor.heimdall.gateway.entitlement.EntitlementIndex;
 import com.netflix.zuul.context.RequestContext;
 import org.junit.Before;
 import org.junit.Test;
@@ -38,6 +40,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.List;
@@ -76,6 +79,12 @@ public class ClientIdInterceptorServiceTest {
     public void initTest() {
         MockitoAnnotations.initMocks(this);
 
+        EntitlementIndex entitlementIndex = new EntitlementIndex();
+        ReflectionTestUtils.setField(entitlementIndex, "appRepository", appRepository);
+        ReflectionTestUtils.setField(entitlementIndex, "property", new Property());
+        entitlementIndex.init();
+        ReflectionTestUtils.setField(clientIdInterceptorService, "entitlementIndex", entitlementIndex);
+
         ctx = RequestContext.getCurrentContext();
         ctx.clear();
         ctx.setRequest(this.request);
@@ -81,6 +81,40 @@ public class IpsInterceptorServiceTest {
 		Assert.assertEquals(HttpStatus.OK.value(), ctx.getResponse().getStatus());
 	}
 	
+	@Test
+    public void allowIpv6WithRangeInWhitelist() throws Throwable {
+		RequestContext ctx = RequestContext.getCurrentContext();
+		MockHttpServletRequest mockHttp = new MockHttpServletRequest();
+        mockHttp.addHeader("X-FORWARDED-FOR", "[2001:db8::10]:3000");
+        mockHttp.setRemoteAddr("10.60.40.50");
+        
+        ctx.setRequest(mockHttp);
+		
+		Set<String> whitelist = new HashSet<>();
+		whitelist.add("2001:db8::/64");
+		
+		ipsInterceptorService.executeWhiteList(whitelist);
+		
+		Assert.assertEquals(HttpStatus.OK.value(), ctx.getResponse().getStatus());
+	}
+	
+	@Test
+    public void blockAnyForwardedIpInBlacklist() throws Throwable {
+		RequestContext ctx = RequestContext.getCurrentContext();
+		MockHttpServletRequest mockHttp = new MockHttpServletRequest();
+        mockHttp.addHeader("X-FORWARDED-FOR", "10.60.40.51, 192.168.12.128:3000 ,[2001:db8::10]:3000");
+        mockHttp.setRemoteAddr("10.60.40.50");
+        
+        ctx.setRequest(mockHttp);
+		
+		Set<String> blacklist = new HashSet<>();
+		blacklist.add("192.168.12.128");
+		
+		ipsInterceptorService.executeBlackList(blacklist);
+		
+		Assert.assertEquals(HttpStatus.UNAUTHORIZED.value(), ctx.getResponse().getStatus());
+	}
+	
 	@Test
     public void blockIpsInBlacklist() throws Throwable {
 		RequestContext ctx = RequestContext.getCurrentContext();
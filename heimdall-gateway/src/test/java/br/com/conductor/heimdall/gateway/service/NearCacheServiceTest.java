@@ -0,0 +1,92 @@
+package br.com.conductor.heimdall.gateway.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.gateway.filter.helper.ApiResponseImpl;
+import br.com.conductor.heimdall.middleware.spec.ApiResponse;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NearCacheServiceTest {
+
+     @InjectMocks
+     private NearCacheService nearCacheService;
+
+     @Mock
+     private RedissonClient redissonClientCacheInterceptor;
+
+     @Mock
+     private RTopic<Object> topic;
+
+     @Mock
+     private Property property;
+
+     @Before
+     public void setUp() {
+          Property.NearCache nearCache = new Property().new NearCache();
+          Mockito.when(property.getNearCache()).thenReturn(nearCache);
+          Mockito.when(redissonClientCacheInterceptor.getTopic(Mockito.anyString(), Mockito.any(Codec.class))).thenReturn(topic);
+          nearCacheService.init();
+     }
+
+     @Test
+     public void returnResponsePut() {
+          ApiResponse response = response("body");
+          nearCacheService.put("10-api:cache:http://localhost/foo", response, 60_000L);
+
+          assertEquals(response, nearCacheService.get("10-api:cache:http://localhost/foo"));
+     }
+
+     @Test
+     public void expireResponseAfterTimeToLive() throws InterruptedException {
+          nearCacheService.put("10-api:cache:http://localhost/foo", response("body"), 1L);
+          Thread.sleep(5);
+
+          assertNull(nearCacheService.get("10-api:cache:http://localhost/foo"));
+     }
+
+     @Test
+     public void serveStaleResponseWhileRevalidating() throws InterruptedException {
+          ApiResponse response = response("body");
+          nearCacheService.put("10-api:cache:http://localhost/foo", response, 1L, 60_000L);
+          Thread.sleep(5);
+
+          assertNull(nearCacheService.get("10-api:cache:http://localhost/foo"));
+          assertEquals(response, nearCacheService.getStale("10-api:cache:http://localhost/foo"));
+     }
+
+     @Test
+     public void invalidateByPrefixAndNotifyOtherGateways() {
+          ApiResponse other = response("other");
+          nearCacheService.put("10-api:cache:http://localhost/foo", response("body"), 0L);
+          nearCacheService.put("10-api:other:http://localhost/foo", other, 0L);
+
+          nearCacheService.invalidate("10-api:cache:");
+
+          assertNull(nearCacheService.get("10-api:cache:http://localhost/foo"));
+          assertEquals(other, nearCacheService.get("10-api:other:http://localhost/foo"));
+          Mockito.verify(topic).publish("10-api:cache:");
+     }
+
+     private ApiResponse response(String body) {
+          ApiResponse response = new ApiResponseImpl();
+          response.setBody(body);
+          response.setStatus(200);
+          response.setHeaders(new HashMap<>());
+          return response;
+     }
+}
@@ -0,0 +1,163 @@
+package br.com.conductor.heimdall.gateway.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.netflix.zuul.context.RequestContext;
+
+import br.com.conductor.heimdall.core.entity.RateLimitLease;
+import br.com.conductor.heimdall.core.enums.Interval;
+import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.core.repository.RateLimitRepository;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RattingInterceptorServiceTest {
+
+     @InjectMocks
+     private RattingInterceptorService rattingInterceptorService;
+
+     @Mock
+     private RateLimitRepository rateLimitRepository;
+
+     @Spy
+     private Property property = new Property();
+
+     private RequestContext ctx;
+
+     @Before
+     public void setUp() {
+          ctx = RequestContext.getCurrentContext();
+          ctx.clear();
+          ctx.setRequest(new MockHttpServletRequest());
+          ctx.setResponse(new MockHttpServletResponse());
+     }
+
+     @Test
+     public void allowCallWhenPermitIsAcquired() {
+          Mockito.when(rateLimitRepository.acquire("ratelimit-interceptor:1", 10L, Interval.SECONDS)).thenReturn(true);
+
+          rattingInterceptorService.execute("rate", "ratelimit-interceptor:1", 10L, Interval.SECONDS, 1L);
+
+          assertTrue(ctx.sendZuulResponse());
+     }
+
+     @Test
+     public void blockCallWhenLimitIsReached() {
+          Mockito.when(rateLimitRepository.acquire("ratelimit-interceptor:1", 10L, Interval.SECONDS)).thenReturn(false);
+
+          rattingInterceptorService.execute("rate", "ratelimit-interceptor:1", 10L, Interval.SECONDS, 1L);
+
+          assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), ctx.getResponseStatusCode());
+          assertEquals(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(), ctx.getResponseBody());
+     }
+
+     @Test
+     public void consumeLeasedCallsLocally() {
+          Mockito.when(rateLimitRepository.lease("ratelimit-interceptor:2", 100L, Interval.MINUTES, 5L)).thenReturn(new RateLimitLease(5L, 60_000L));
+
+          for (int i = 0; i < 5; i++) {
+               rattingInterceptorService.execute("rate", "ratelimit-interceptor:2", 100L, Interval.MINUTES, 2L, 5L);
+               assertTrue(ctx.sendZuulResponse());
+          }
+
+          Mockito.verify(rateLimitRepository, Mockito.times(1)).lease("ratelimit-interceptor:2", 100L, Interval.MINUTES, 5L);
+          Mockito.verify(rateLimitRepository, Mockito.never()).acquire(Mockito.anyString(), Mockito.anyLong(), Mockito.any(Interval.class));
+     }
+
+     @Test
+     public void blockCallWhenNoCallIsLeased() {
+          Mockito.when(rateLimitRepository.lease("ratelimit-interceptor:3", 10L, Interval.MINUTES, 5L)).thenReturn(new RateLimitLease(0L, 60_000L));
+
+          rattingInterceptorService.execute("rate", "ratelimit-interceptor:3", 10L, Interval.MINUTES, 3L, 5L);
+          assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), ctx.getResponseStatusCode());
+
+          ctx.clear();
+          ctx.setResponse(new MockHttpServletResponse());
+          rattingInterceptorService.execute("rate", "ratelimit-interceptor:3", 10L, Interval.MINUTES, 3L, 5L);
+          assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), ctx.getResponseStatusCode());
+
+          Mockito.verify(rateLimitRepository, Mockito.times(1)).lease("ratelimit-interceptor:3", 10L, Interval.MINUTES, 5L);
+     }
+
+     @Test
+     public void askAgainForCallsAfterTheLeaseTimeWhenNoCallIsLeased() throws InterruptedException {
+          property.getRateLimit().setLeaseMillis(1L);
+          Mockito.when(rateLimitRepository.lease("ratelimit-interceptor:5", 10L, Interval.HOURS, 5L))
+                 .thenReturn(new RateLimitLease(0L, 3_600_000L), new RateLimitLease(5L, 3_600_000L));
+
+          rattingInterceptorService.execute("rate", "ratelimit-interceptor:5", 10L, Interval.HOURS, 5L, 5L);
+          assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), ctx.getResponseStatusCode());
+
+          Thread.sleep(10L);
+          ctx.clear();
+          ctx.setResponse(new MockHttpServletResponse());
+          rattingInterceptorService.execute("rate", "ratelimit-interceptor:5", 10L, Interval.HOURS, 5L, 5L);
+          assertTrue(ctx.sendZuulResponse());
+
+          Mockito.verify(rateLimitRepository, Mockito.times(2)).lease("ratelimit-interceptor:5", 10L, Interval.HOURS, 5L);
+     }
+
+     @Test
+     public void renewLeaseOnceForConcurrentCalls() throws Exception {
+          Mockito.when(rateLimitRepository.lease("ratelimit-interceptor:6", 100L, Interval.MINUTES, 10L)).thenAnswer(invocation -> {
+               Thread.sleep(100L);
+               return new RateLimitLease(10L, 60_000L);
+          });
+
+          ExecutorService executor = Executors.newFixedThreadPool(5);
+          try {
+               CountDownLatch start = new CountDownLatch(1);
+               List<Future<Boolean>> calls = new ArrayList<>();
+               for (int i = 0; i < 5; i++) {
+                    calls.add(executor.submit(() -> {
+                         RequestContext context = RequestContext.getCurrentContext();
+                         context.clear();
+                         start.await();
+                         rattingInterceptorService.execute("rate", "ratelimit-interceptor:6", 100L, Interval.MINUTES, 6L, 10L);
+                         return context.sendZuulResponse();
+                    }));
+               }
+               start.countDown();
+
+               for (Future<Boolean> call : calls) {
+                    assertTrue(call.get());
+               }
+          } finally {
+               executor.shutdownNow();
+          }
+
+          Mockito.verify(rateLimitRepository, Mockito.times(1)).lease("ratelimit-interceptor:6", 100L, Interval.MINUTES, 10L);
+     }
+
+     @Test
+     public void releaseCallsOfExpiredLeases() throws InterruptedException {
+          property.getRateLimit().setLeaseMillis(1L);
+          Mockito.when(rateLimitRepository.lease("ratelimit-interceptor:4", 100L, Interval.MINUTES, 5L)).thenReturn(new RateLimitLease(5L, 60_000L));
+
+          rattingInterceptorService.execute("rate", "ratelimit-interceptor:4", 100L, Interval.MINUTES, 4L, 5L);
+          Thread.sleep(10L);
+          rattingInterceptorService.expireLeases();
+
+          Mockito.verify(rateLimitRepository).release("ratelimit-interceptor:4", 4L);
+     }
+
+}
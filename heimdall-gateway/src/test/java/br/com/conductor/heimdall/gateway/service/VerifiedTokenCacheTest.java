@@ -0,0 +1,59 @@
+package br.com.conductor.heimdall.gateway.service;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.conductor.heimdall.core.dto.response.VerifiedToken;
+import br.com.conductor.heimdall.core.environment.Property;
+import br.com.conductor.heimdall.core.util.DigestUtils;
+
+public class VerifiedTokenCacheTest {
+
+     private VerifiedTokenCache cache;
+
+     @Before
+     public void setUp() {
+          cache = new VerifiedTokenCache();
+          ReflectionTestUtils.setField(cache, "property", new Property());
+          cache.init();
+     }
+
+     @Test
+     public void getTokenVerifiedWithSamePrivateKey() {
+          VerifiedToken verified = verified(60000L);
+          cache.put("token", "key", verified);
+
+          assertSame(verified, cache.get("token", "key"));
+          assertNull(cache.get("token", "other"));
+          assertNull(cache.get("other", "key"));
+     }
+
+     @Test
+     public void ignoreExpiredTokens() {
+          cache.put("token", "key", verified(-1000L));
+
+          assertNull(cache.get("token", "key"));
+     }
+
+     @Test
+     public void revokeCachedAndFutureTokens() {
+          cache.put("token", "key", verified(60000L));
+
+          cache.revoke(DigestUtils.digestSHA256("token"));
+          assertNull(cache.get("token", "key"));
+
+          cache.put("token", "key", verified(60000L));
+          assertNull(cache.get("token", "key"));
+     }
+
+     private VerifiedToken verified(long expiresIn) {
+          return new VerifiedToken(null, Collections.emptyMap(), Collections.emptySet(), new Date(System.currentTimeMillis() + expiresIn));
+     }
+}
@@ -0,0 +1,42 @@
+package br.com.conductor.heimdall.gateway.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+     @Test
+     public void returnExactValuesForSmallNumbers() {
+          LatencyHistogram histogram = new LatencyHistogram();
+          for (long i = 1; i <= 10; i++) {
+               histogram.record(i);
+          }
+
+          assertEquals(10, histogram.getCount());
+          assertEquals(5, histogram.getValueAtPercentile(50d));
+          assertEquals(10, histogram.getValueAtPercentile(100d));
+     }
+
+     @Test
+     public void keepPercentilesWithinBucketPrecision() {
+          LatencyHistogram histogram = new LatencyHistogram();
+          for (long i = 1; i <= 100_000; i++) {
+               histogram.record(i * 1_000L);
+          }
+
+          long p99 = histogram.getValueAtPercentile(99d);
+          assertTrue(Math.abs(p99 - 99_000_000L) <= 99_000_000L * 0.04);
+     }
+
+     @Test
+     public void summarizeInformedUnit() {
+          LatencyHistogram histogram = new LatencyHistogram();
+          histogram.record(2_000_000L);
+
+          assertEquals(1L, histogram.summary(1_000_000d).get("count"));
+          assertEquals(2d, (Double) histogram.summary(1_000_000d).get("max"), 0d);
+     }
+
+}
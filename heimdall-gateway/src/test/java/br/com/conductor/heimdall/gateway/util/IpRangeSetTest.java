@@ -0,0 +1,98 @@
+package br.com.conductor.heimdall.gateway.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class IpRangeSetTest {
+
+     @Test
+     public void matchIpv4AddressesAndRanges() {
+          IpRangeSet set = IpRangeSet.of(Arrays.asList("10.0.0.1", "192.168.12.0/25"));
+
+          assertTrue(set.contains("10.0.0.1"));
+          assertFalse(set.contains("10.0.0.2"));
+          assertTrue(set.contains("192.168.12.0"));
+          assertTrue(set.contains("192.168.12.127"));
+          assertFalse(set.contains("192.168.12.128"));
+     }
+
+     @Test
+     public void matchIpv6AddressesAndRanges() {
+          IpRangeSet set = IpRangeSet.of(Arrays.asList("2001:db8::/32", "::1", "fe80::1:2"));
+
+          assertTrue(set.contains("2001:db8:ffff::1"));
+          assertTrue(set.contains("2001:0DB8:0:0:0:0:0:0"));
+          assertFalse(set.contains("2001:db9::1"));
+          assertTrue(set.contains("0:0:0:0:0:0:0:1"));
+          assertTrue(set.contains("fe80:0::1:2%eth0"));
+          assertFalse(set.contains("fe80::2:1"));
+     }
+
+     @Test
+     public void matchIpv4MappedAddressesAsIpv4() {
+          IpRangeSet set = IpRangeSet.of(Collections.singleton("172.16.0.0/12"));
+
+          assertTrue(set.contains("::ffff:172.20.1.1"));
+          assertFalse(set.contains("::ffff:172.32.0.1"));
+     }
+
+     @Test
+     public void matchIpv4MappedRangesAsIpv4() {
+          IpRangeSet set = IpRangeSet.of(Arrays.asList("::ffff:10.0.0.0/104", "::ffff:192.168.0.1"));
+
+          assertTrue(set.contains("10.20.30.40"));
+          assertTrue(set.contains("::ffff:10.20.30.40"));
+          assertFalse(set.contains("11.0.0.1"));
+          assertTrue(set.contains("192.168.0.1"));
+          assertFalse(set.contains("192.168.0.2"));
+          assertFalse(set.contains("::10.20.30.40"));
+     }
+
+     @Test
+     public void matchEveryIpv4AddressWithRangeCoveringTheMappedBlock() {
+          IpRangeSet set = IpRangeSet.of(Collections.singleton("::/64"));
+
+          assertTrue(set.contains("8.8.8.8"));
+          assertTrue(set.contains("::8"));
+          assertFalse(set.contains("2001:db8::1"));
+     }
+
+     @Test
+     public void matchEveryAddressWithEmptyPrefix() {
+          IpRangeSet set = IpRangeSet.of(Arrays.asList("0.0.0.0/0", "10.0.0.0/8"));
+
+          assertTrue(set.contains("8.8.8.8"));
+          assertFalse(set.contains("::8"));
+     }
+
+     @Test
+     public void ignoreInvalidEntriesAndAddresses() {
+          IpRangeSet set = IpRangeSet.of(Arrays.asList("10.0.0.256", "10.0.0.0/33", "1::2::3", "host.local", "10.1.0.0/16"));
+
+          assertTrue(set.contains("10.1.2.3"));
+          assertFalse(set.contains("10.0.0.0"));
+          assertFalse(set.contains("unknown"));
+          assertFalse(set.contains("1.2.3"));
+          assertFalse(set.contains("1:2:3:4:5:6:7:8:9"));
+          assertFalse(set.contains(null));
+     }
+
+     @Test
+     public void matchManyRanges() {
+          List<String> ranges = new ArrayList<>();
+          for (int i = 0; i < 65536; i += 2) {
+               ranges.add("10." + (i >> 8) + "." + (i & 0xFF) + ".0/24");
+          }
+          IpRangeSet set = IpRangeSet.of(ranges);
+
+          assertTrue(set.contains("10.255.254.1"));
+          assertFalse(set.contains("10.255.255.1"));
+     }
+}
@@ -0,0 +1,166 @@
+package br.com.conductor.heimdall.gateway.zuul.filter;
+
+import static br.com.conductor.heimdall.gateway.util.ConstantsContext.API_ID;
+import static br.com.conductor.heimdall.gateway.util.ConstantsContext.OPERATION_ID;
+import static br.com.conductor.heimdall.gateway.util.ConstantsContext.RESOURCE_ID;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.netflix.zuul.FilterLoader;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.netflix.zuul.filters.FilterRegistry;
+
+import br.com.conductor.heimdall.core.enums.InterceptorLifeCycle;
+
+public class HeimdallFilterProcessorTest {
+
+     private static final String TYPE = "dispatch-test";
+
+     private final List<String> evaluated = new ArrayList<>();
+
+     private InterceptorDispatchIndex index;
+
+     private HeimdallFilterProcessor processor;
+
+     @Before
+     public void setUp() {
+          index = new InterceptorDispatchIndex();
+          processor = new HeimdallFilterProcessor(index, FilterLoader.getInstance()::getFiltersByType);
+
+          RequestContext.testSetCurrentContext(new RequestContext());
+          RequestContext.getCurrentContext().setRequest(new MockHttpServletRequest());
+
+          register(new Common("decoration", 10));
+          register(new Interceptor("api1", 20));
+          register(new Interceptor("api2", 20));
+          register(new Interceptor("operation11", 30));
+          register(new Interceptor("operation12", 30));
+          register(new Common("writer", 40));
+
+          index.put(1L, "api1", 1L, InterceptorLifeCycle.API, 1L, TYPE);
+          index.put(2L, "api2", 2L, InterceptorLifeCycle.API, 2L, TYPE);
+          index.put(3L, "operation11", 1L, InterceptorLifeCycle.OPERATION, 11L, TYPE);
+          index.put(4L, "operation12", 1L, InterceptorLifeCycle.OPERATION, 12L, TYPE);
+     }
+
+     @After
+     public void tearDown() {
+          Arrays.asList("decoration", "api1", "api2", "operation11", "operation12", "writer").forEach(FilterRegistry.instance()::remove);
+          ((Map<?, ?>) ReflectionTestUtils.getField(FilterLoader.getInstance(), "hashFiltersByType")).remove(TYPE);
+          RequestContext.getCurrentContext().unset();
+     }
+
+     @Test
+     public void evaluateOnlyInterceptorsOfRequestOperation() throws Throwable {
+          processor.runFilters(TYPE);
+
+          assertEquals(Arrays.asList("decoration", "api1", "operation11", "writer"), evaluated);
+     }
+
+     @Test
+     public void evaluateFiltersRemovedFromIndexLikeZuul() throws Throwable {
+          processor.runFilters(TYPE);
+          index.remove(3L);
+          evaluated.clear();
+
+          processor.runFilters(TYPE);
+
+          assertEquals(Arrays.asList("decoration", "api1", "operation11", "writer"), evaluated);
+     }
+
+     private void register(ZuulFilter filter) {
+          FilterRegistry.instance().put(filter instanceof Interceptor ? ((Interceptor) filter).getName() : ((Common) filter).name, filter);
+     }
+
+     private class Common extends ZuulFilter {
+
+          private final String name;
+
+          private final int order;
+
+          private Common(String name, int order) {
+               this.name = name;
+               this.order = order;
+          }
+
+          @Override
+          public String filterType() {
+               return TYPE;
+          }
+
+          @Override
+          public int filterOrder() {
+               return order;
+          }
+
+          @Override
+          public boolean shouldFilter() {
+               evaluated.add(name);
+               if ("decoration".equals(name)) {
+                    RequestContext.getCurrentContext().put(API_ID, 1L);
+                    RequestContext.getCurrentContext().put(RESOURCE_ID, 10L);
+                    RequestContext.getCurrentContext().put(OPERATION_ID, 11L);
+               }
+               return false;
+          }
+
+          @Override
+          public Object run() {
+               return null;
+          }
+     }
+
+     private class Interceptor extends br.com.conductor.heimdall.gateway.filter.HeimdallFilter {
+
+          private final String name;
+
+          private final int order;
+
+          private Interceptor(String name, int order) {
+               this.name = name;
+               this.order = order;
+          }
+
+          @Override
+          public String filterType() {
+               return TYPE;
+          }
+
+          @Override
+          public int filterOrder() {
+               return order;
+          }
+
+          @Override
+          public boolean shouldFilter() {
+               evaluated.add(name);
+               return false;
+          }
+
+          @Override
+          public boolean should() {
+               return false;
+          }
+
+          @Override
+          public void execute() {
+          }
+
+          @Override
+          public String getName() {
+               return name;
+          }
+     }
+
+}
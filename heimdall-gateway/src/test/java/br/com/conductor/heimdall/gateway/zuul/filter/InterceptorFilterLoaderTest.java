@@ -0,0 +1,112 @@
+package br.com.conductor.heimdall.gateway.zuul.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.netflix.zuul.FilterLoader;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.filters.FilterRegistry;
+
+import br.com.conductor.heimdall.core.environment.Property;
+
+public class InterceptorFilterLoaderTest {
+
+     private static final String TYPE = "loader-test";
+
+     private InterceptorFilterLoader loader;
+
+     @Before
+     public void setUp() {
+          loader = new InterceptorFilterLoader(new Property());
+     }
+
+     @After
+     public void tearDown() {
+          loader.shutdown();
+          Arrays.asList("first", "second").forEach(FilterRegistry.instance()::remove);
+          ((Map<?, ?>) ReflectionTestUtils.getField(FilterLoader.getInstance(), "hashFiltersByType")).remove(TYPE);
+     }
+
+     @Test
+     public void registerCompiledFilterWithoutFiles() {
+          loader.load(source(1L, "first", 10));
+
+          ZuulFilter filter = FilterRegistry.instance().get("first");
+          assertEquals(10, filter.filterOrder());
+          assertEquals(Collections.singletonList(filter), loader.getFiltersByType(TYPE));
+     }
+
+     @Test
+     public void keepFilterWhenSourceDidNotChange() {
+          loader.load(source(1L, "first", 10));
+          ZuulFilter filter = FilterRegistry.instance().get("first");
+
+          loader.load(source(1L, "first", 10));
+          assertSame(filter, FilterRegistry.instance().get("first"));
+
+          loader.load(source(1L, "first", 20));
+          assertNotSame(filter, FilterRegistry.instance().get("first"));
+          assertEquals(20, loader.getFiltersByType(TYPE).get(0).filterOrder());
+     }
+
+     @Test
+     public void reuseClassCompiledFromTheSameSource() {
+          loader.load(source(1L, "first", 10));
+          ZuulFilter filter = FilterRegistry.instance().get("first");
+
+          loader.load(source(2L, "first", 10));
+          assertNotSame(filter, FilterRegistry.instance().get("first"));
+          assertSame(filter.getClass(), FilterRegistry.instance().get("first").getClass());
+
+          loader.unload(1L);
+          loader.unload(2L);
+          loader.load(source(1L, "first", 10));
+          assertNotSame(filter.getClass(), FilterRegistry.instance().get("first").getClass());
+     }
+
+     @Test
+     public void unloadInterceptorsMissingFromFullLoad() {
+          loader.loadAll(Arrays.asList(source(1L, "first", 10), source(2L, "second", 20)));
+          assertEquals(2, loader.getFiltersByType(TYPE).size());
+
+          Set<Long> removed = loader.loadAll(Collections.singletonList(source(2L, "second", 20)));
+
+          assertEquals(Collections.singleton(1L), removed);
+          assertNull(FilterRegistry.instance().get("first"));
+          assertEquals(1, loader.getFiltersByType(TYPE).size());
+     }
+
+     @Test
+     public void unloadInterceptor() {
+          loader.load(source(1L, "first", 10));
+
+          loader.unload(1L);
+
+          assertNull(FilterRegistry.instance().get("first"));
+          assertTrue(loader.getFiltersByType(TYPE).isEmpty());
+     }
+
+     private InterceptorFilterLoader.Source source(Long id, String name, int order) {
+          String code = "import com.netflix.zuul.ZuulFilter\n"
+                  + "class " + name + " extends ZuulFilter {\n"
+                  + "  String filterType() { '" + TYPE + "' }\n"
+                  + "  int filterOrder() { " + order + " }\n"
+                  + "  boolean shouldFilter() { true }\n"
+                  + "  Object run() { null }\n"
+                  + "}\n";
+          return new InterceptorFilterLoader.Source(id, name, code);
+     }
+}
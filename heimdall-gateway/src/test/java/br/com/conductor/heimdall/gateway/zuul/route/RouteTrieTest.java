@@ -0,0 +1,116 @@
+package br.com.conductor.heimdall.gateway.zuul.route;
+
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-gateway
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.netflix.zuul.filters.ZuulProperties.ZuulRoute;
+import org.springframework.util.AntPathMatcher;
+
+public class RouteTrieTest {
+
+     private static final String[] PATTERNS = {
+               "/v2/api/foo",
+               "/v2/api/foo/{id}",
+               "/v2/api/foo/*",
+               "/v2/api/foo/*.json",
+               "/v2/**",
+               "/a/**/b",
+               "/a/*/c/",
+               "/*"
+     };
+
+     private static final String[] PATHS = {
+               "/v2/api/foo",
+               "/v2/api/foo/1",
+               "/v2/api/foo/",
+               "/v2/api/foo/1.json",
+               "/v2",
+               "/a/b",
+               "/a/x/y/b",
+               "/a/x/c/",
+               "/a/x/c",
+               "/zz",
+               "/zz/",
+               "",
+               "/"
+     };
+
+     private Map<String, ZuulRoute> routes;
+
+     private RouteTrie trie;
+
+     @Before
+     public void setup() {
+
+          routes = new LinkedHashMap<>();
+          for (String pattern : PATTERNS) {
+               routes.put(pattern, new ZuulRoute(pattern, "sandbox"));
+          }
+          trie = RouteTrie.compile(routes);
+     }
+
+     @Test
+     public void matchesSameRoutesAsAntPathMatcherInOrder() {
+
+          AntPathMatcher matcher = new AntPathMatcher();
+          for (String path : PATHS) {
+
+               List<String> expected = routes.keySet().stream()
+                         .filter(pattern -> matcher.match(pattern, path))
+                         .collect(Collectors.toList());
+
+               assertEquals(path, expected, patterns(trie.match(path)));
+          }
+     }
+
+     @Test
+     public void returnsRoutesInPrecedenceOrder() {
+
+          List<String> matched = patterns(trie.match("/v2/api/foo/1"));
+
+          assertEquals("/v2/api/foo/{id}", matched.get(0));
+          assertEquals("/v2/api/foo/*", matched.get(1));
+          assertEquals("/v2/**", matched.get(2));
+     }
+
+     @Test
+     public void emptyTrieMatchesNothing() {
+
+          RouteTrie empty = RouteTrie.compile(null);
+
+          assertEquals(0, empty.size());
+          assertTrue(empty.match("/v2/api/foo").isEmpty());
+     }
+
+     private List<String> patterns(List<RouteTrie.Candidate> candidates) {
+
+          return candidates.stream().map(RouteTrie.Candidate::getPattern).collect(Collectors.toList());
+     }
+}
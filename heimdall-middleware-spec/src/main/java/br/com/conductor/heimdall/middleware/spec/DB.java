@@ -21,6 +21,7 @@ package br.com.conductor.heimdall.middleware.spec;
  * ==========================LICENSE_END===================================
  */
 
+import java.util.ArrayList;
 import java.util.List;
 import br.com.conductor.heimdall.middleware.util.Page;
 
@@ -42,6 +43,23 @@ public interface DB {
       */
      public <T> T save(T object);
 
+     /**
+      * Save a list of records in DB with a single batch write. The default implementation
+      * saves them one at a time.
+      * 
+      * @param objects
+      * Objects to be saved in DB
+      * @return The saved objects
+      */
+     public default <T> List<T> saveAll(List<T> objects) {
+
+          List<T> saved = new ArrayList<>(objects.size());
+          for (T object : objects) {
+               saved.add(save(object));
+          }
+          return saved;
+     }
+
      /**
       * Update a record in the DB.
       * 
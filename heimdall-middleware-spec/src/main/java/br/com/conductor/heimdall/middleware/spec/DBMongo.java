@@ -52,6 +52,23 @@ public interface DBMongo extends DB {
       */
      public <T> void insertMany(MongoCollection<Document> collection, List<T> objects);
 
+     /**
+      * Inserts a List of objects to a {@link MongoCollection} of {@link Document}. An unordered insert
+      * keeps inserting the remaining documents when one of them fails and lets the server apply the batch in parallel.
+      * The default implementation ignores ordered and inserts with {@link #insertMany(MongoCollection, List)}.
+      * 
+      * @param collection
+      * {@link MongoCollection} of {@link Document}
+      * @param objects
+      * List of Objects to insert
+      * @param ordered
+      * Whether the documents must be inserted in the order of the list
+      */
+     public default <T> void insertMany(MongoCollection<Document> collection, List<T> objects, boolean ordered) {
+
+          insertMany(collection, objects);
+     }
+
      /**
       * Inserts a object in a {@link MongoCollection} of {@link Document}.
       * 
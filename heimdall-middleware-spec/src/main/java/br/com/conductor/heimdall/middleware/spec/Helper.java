@@ -21,6 +21,11 @@ package br.com.conductor.heimdall.middleware.spec;
  * ==========================LICENSE_END===================================
  */
 
+import br.com.conductor.heimdall.middleware.util.Parallel;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * This interface provides methods that return a {@link ApiResponse}, a
  * {@link Call}, a {@link DB}, a {@link Http} and a {@link Json}.
@@ -75,6 +80,23 @@ public interface Helper {
 	 */
 	public void httpHandler(boolean useHandler);
 
+	/**
+	 * Waits for requests sent with the async methods of the {@link Http}, sharing one deadline.
+	 * The requests that did not finish before the deadline are cancelled, aborting their connection
+	 * when the {@link Http} supports it.
+	 * 
+	 * @param timeoutMillis
+	 *                         The time to wait for all the requests, in milliseconds
+	 * @param calls
+	 *                         The requests
+	 * @return The ApiResponses in the order of the requests, null for a request that failed
+	 *         or did not finish in time
+	 */
+	default List<ApiResponse> parallel(long timeoutMillis, List<CompletableFuture<ApiResponse>> calls) {
+
+		return Parallel.await(timeoutMillis, calls);
+	}
+
 	/**
 	 * Gets a Json.
 	 * 
@@ -24,6 +24,7 @@ package br.com.conductor.heimdall.middleware.spec;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This interface provides methods to handle a {@link Http} and a {@link ApiResponse}.
@@ -118,6 +119,57 @@ public interface Http {
      */
     public ApiResponse sendPatch();
 
+    /**
+     * Sends a GET request to the Api without blocking. The default implementation sends the request
+     * on the common pool.
+     *
+     * @return			A CompletableFuture completed with the ApiResponse
+     */
+    default CompletableFuture<ApiResponse> sendGetAsync() {
+
+        return CompletableFuture.supplyAsync(this::sendGet);
+    }
+
+    /**
+     * Sends a POST request to the Api without blocking.
+     *
+     * @return			A CompletableFuture completed with the ApiResponse
+     */
+    default CompletableFuture<ApiResponse> sendPostAsync() {
+
+        return CompletableFuture.supplyAsync(this::sendPost);
+    }
+
+    /**
+     * Sends a PUT request to the Api without blocking.
+     *
+     * @return			A CompletableFuture completed with the ApiResponse
+     */
+    default CompletableFuture<ApiResponse> sendPutAsync() {
+
+        return CompletableFuture.supplyAsync(this::sendPut);
+    }
+
+    /**
+     * Sends a DELETE request to the Api without blocking.
+     *
+     * @return			A CompletableFuture completed with the ApiResponse
+     */
+    default CompletableFuture<ApiResponse> sendDeleteAsync() {
+
+        return CompletableFuture.supplyAsync(this::sendDelete);
+    }
+
+    /**
+     * Sends a PATCH request to the Api without blocking.
+     *
+     * @return			A CompletableFuture completed with the ApiResponse
+     */
+    default CompletableFuture<ApiResponse> sendPatchAsync() {
+
+        return CompletableFuture.supplyAsync(this::sendPatch);
+    }
+
     /**
      * Set RestTemplate custom object
      * @return               A RestTemplate object
@@ -25,6 +25,11 @@ import com.fasterxml.jackson.core.type.TypeReference;
 
 import br.com.conductor.heimdall.middleware.exception.BeanValidationException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
 import java.util.Map;
 
 /**
@@ -87,6 +92,61 @@ public interface Json {
       * @return
       */
      public <T> T parse(String json, TypeReference<T> type) throws BeanValidationException;
+
+     /**
+      * Parses a json stream to a type, without reading it to a String first. The default implementation
+      * reads the stream to a String.
+      *
+      * @param json		The stream with the json
+      * @param classType	The type to be parsed
+      * @return			The parsed object
+      */
+     default <T> T parse(InputStream json, Class<T> classType) throws BeanValidationException {
+
+          try (Scanner scanner = new Scanner(json, StandardCharsets.UTF_8.name()).useDelimiter("\\A")) {
+               return parse(scanner.hasNext() ? scanner.next() : "", classType);
+          }
+     }
+
+     /**
+      * Parses the json bytes to a type, without building a String first. The default implementation
+      * builds the String.
+      *
+      * @param json		The bytes of the json
+      * @param classType	The type to be parsed
+      * @return			The parsed object
+      */
+     default <T> T parse(byte[] json, Class<T> classType) throws BeanValidationException {
+
+          return parse(new String(json, StandardCharsets.UTF_8), classType);
+     }
+
+     /**
+      * Converts a object to the UTF-8 bytes of its json.
+      *
+      * @param object	The object to be converted
+      * @return			The json bytes
+      */
+     default byte[] parseToBytes(Object object) {
+
+          String json = parse(object);
+          return json != null ? json.getBytes(StandardCharsets.UTF_8) : null;
+     }
+
+     /**
+      * Writes the json of a object to a stream.
+      *
+      * @param object	The object to be written
+      * @param output	The stream
+      * @throws IOException	If the stream fails
+      */
+     default void write(Object object, OutputStream output) throws IOException {
+
+          byte[] json = parseToBytes(object);
+          if (json != null) {
+               output.write(json);
+          }
+     }
      
      /**
       * Parses a object to a Map<String, Object>.
@@ -0,0 +1,69 @@
+
+package br.com.conductor.heimdall.middleware.util;
+
+/*-
+ * =========================LICENSE_START==================================
+ * heimdall-middleware-spec
+ * ========================================================================
+ * Copyright (C) 2018 Conductor Tecnologia SA
+ * ========================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==========================LICENSE_END===================================
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Waits for concurrent calls under one deadline.
+ */
+public final class Parallel {
+
+     private Parallel() { }
+
+     /**
+      * Waits for all the calls until the deadline. The calls that did not finish are cancelled, which aborts
+      * the requests of the calls made through {@code Helper.http()}.
+      *
+      * @param timeoutMillis The time to wait for all the calls, in milliseconds
+      * @param calls         The calls
+      * @param <T>           The type of the results
+      * @return The results in the order of the calls, null for a call that failed or did not finish in time
+      */
+     public static <T> List<T> await(long timeoutMillis, List<CompletableFuture<T>> calls) {
+
+          long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+          List<T> results = new ArrayList<>(calls.size());
+
+          for (CompletableFuture<T> call : calls) {
+               T result = null;
+               try {
+                    result = call.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+               } catch (TimeoutException e) {
+                    call.cancel(true);
+               } catch (ExecutionException e) {
+                    // a failed call has no result
+               } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    call.cancel(true);
+               }
+               results.add(result);
+          }
+
+          return results;
+     }
+}
@@ -31,6 +31,7 @@ import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.mockito.Mockito;
@@ -78,6 +79,17 @@ public class DBMockImpl implements DBMongo {
         }
     }
 
+    @Override
+    public <T> List<T> saveAll(List<T> objects) {
+
+        try {
+            this.datastore().save(objects);
+            return objects;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     @Override
     public <T> T update(T object) {
 
@@ -148,6 +160,12 @@ public class DBMockImpl implements DBMongo {
     @Override
     public <T> void insertMany(MongoCollection<Document> collection, List<T> objects) {
 
+        insertMany(collection, objects, true);
+    }
+
+    @Override
+    public <T> void insertMany(MongoCollection<Document> collection, List<T> objects, boolean ordered) {
+
         try {
 
             List<Document> ts = new ArrayList<>();
@@ -155,7 +173,7 @@ public class DBMockImpl implements DBMongo {
 
                 ts.add(Document.parse(json.parse(t)));
             }
-            collection.insertMany(ts);
+            collection.insertMany(ts, new InsertManyOptions().ordered(ordered));
         } catch (Exception ignored) {
         } finally {
 
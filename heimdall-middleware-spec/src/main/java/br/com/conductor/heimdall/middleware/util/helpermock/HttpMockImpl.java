@@ -30,6 +30,7 @@ import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Mock class created to help unit test the root request class of a middleware.
@@ -131,6 +132,31 @@ public class HttpMockImpl implements Http {
         return response;
     }
 
+    @Override
+    public CompletableFuture<ApiResponse> sendGetAsync() {
+        return CompletableFuture.completedFuture(this.sendGet());
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> sendPostAsync() {
+        return CompletableFuture.completedFuture(this.sendPost());
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> sendPutAsync() {
+        return CompletableFuture.completedFuture(this.sendPut());
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> sendDeleteAsync() {
+        return CompletableFuture.completedFuture(this.sendDelete());
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> sendPatchAsync() {
+        return CompletableFuture.completedFuture(this.sendPatch());
+    }
+
     @Override
     public RestTemplate clientProvider(RestTemplate restTemplate) {
         return new RestTemplate();
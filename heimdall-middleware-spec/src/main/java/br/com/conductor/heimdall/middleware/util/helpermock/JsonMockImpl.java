@@ -21,6 +21,9 @@ package br.com.conductor.heimdall.middleware.util.helpermock;
  * ==========================LICENSE_END===================================
  */
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 
 import org.json.JSONArray;
@@ -118,6 +121,42 @@ public class JsonMockImpl implements Json {
         }
     }
 
+    @Override
+    public <T> T parse(InputStream json, Class<T> classType) {
+
+        try {
+            return mapper().readValue(json, classType);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    public <T> T parse(byte[] json, Class<T> classType) {
+
+        try {
+            return mapper().readValue(json, classType);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    public byte[] parseToBytes(Object object) {
+
+        try {
+            return mapper().writeValueAsBytes(object);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void write(Object object, OutputStream output) throws IOException {
+
+        mapper().writeValue(output, object);
+    }
+
     public <T> Map<String, Object> parseToMap(T object) {
 
         try {
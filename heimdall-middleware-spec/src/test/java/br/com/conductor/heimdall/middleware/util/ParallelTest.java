@@ -0,0 +1,42 @@
+package br.com.conductor.heimdall.middleware.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelTest {
+
+     @Test
+     public void keepTheOrderOfTheCalls() {
+          List<String> results = Parallel.await(100, Arrays.asList(
+               CompletableFuture.completedFuture("first"),
+               CompletableFuture.completedFuture("second")));
+
+          assertEquals(Arrays.asList("first", "second"), results);
+     }
+
+     @Test
+     public void cancelCallsAfterTheDeadline() {
+          CompletableFuture<String> pending = new CompletableFuture<>();
+
+          List<String> results = Parallel.await(10, Arrays.asList(CompletableFuture.completedFuture("first"), pending));
+
+          assertEquals("first", results.get(0));
+          assertNull(results.get(1));
+          assertTrue(pending.isCancelled());
+     }
+
+     @Test
+     public void failedCallHasNoResult() {
+          CompletableFuture<String> failed = new CompletableFuture<>();
+          failed.completeExceptionally(new IllegalStateException());
+
+          assertNull(Parallel.await(100, Arrays.asList(failed)).get(0));
+     }
+}